@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks incremental aggregation over all durations, where the event timestamps advance by a millisecond per
+ * event.
+ */
+public class AggregationBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"8", "1000"})
+    public int groupCount;
+
+    private String[] symbols;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        symbols = symbols(groupCount);
+        startSiddhiApp(STOCK_STREAM_DEFINITION +
+                "define aggregation StockAggregation " +
+                "from StockStream " +
+                "select symbol, sum(price) as totalPrice, avg(price) as avgPrice, count() as eventCount " +
+                "group by symbol " +
+                "aggregate by timestamp every sec...year;");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent(symbols));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks the FilterProcessor with conditions of increasing complexity, interpreted and compiled, with and
+ * without primitive attribute slots.
+ */
+public class FilterBenchmark extends SiddhiAppBenchmark {
+
+    @Param({
+            "price > 50",
+            "price > 50 and volume < 150",
+            "symbol == 'IBM' or (price * 2 > 100 and volume % 2 == 0)"
+    })
+    public String condition;
+
+    @Param({"false", "true"})
+    public boolean compileExpressions;
+
+    @Param({"false", "true"})
+    public boolean primitiveAttributes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        startSiddhiApp((compileExpressions ? "@app:compileExpressions " : "") +
+                (primitiveAttributes ? "@app:primitiveAttributes " : "") +
+                STOCK_STREAM_DEFINITION +
+                "from StockStream[" + condition + "] " +
+                "select * " +
+                "insert into OutputStream;");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent());
+    }
+}
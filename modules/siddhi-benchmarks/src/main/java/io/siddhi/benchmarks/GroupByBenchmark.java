@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks the group-by aggregations of the QuerySelector, with increasing numbers of groups.
+ */
+public class GroupByBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"8", "1000", "100000"})
+    public int groupCount;
+
+    private String[] symbols;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        symbols = symbols(groupCount);
+        startSiddhiApp(STOCK_STREAM_DEFINITION +
+                "from StockStream " +
+                "select symbol, sum(price) as totalPrice, avg(volume) as avgVolume, count() as eventCount " +
+                "group by symbol " +
+                "insert into OutputStream;");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent(symbols));
+    }
+}
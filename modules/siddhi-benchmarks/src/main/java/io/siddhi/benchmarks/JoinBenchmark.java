@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import io.siddhi.core.stream.input.InputHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks the JoinProcessor joining stock events against the companies retained by a window, an InMemoryTable
+ * and an InMemoryTable with a primary key.
+ */
+public class JoinBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"window", "table", "primaryKeyTable"})
+    public String joinWith;
+
+    @Param({"100", "10000"})
+    public int companyCount;
+
+    private String[] symbols;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        String stockSource = "StockStream as s";
+        String companyDefinition;
+        String companySource;
+        switch (joinWith) {
+            case "window":
+                stockSource = "StockStream#window.length(1) as s unidirectional";
+                companyDefinition = "define stream CompanyStream (symbol string, name string);";
+                companySource = "CompanyStream#window.length(" + companyCount + ") as c";
+                break;
+            case "table":
+                companyDefinition = "define stream CompanyStream (symbol string, name string);" +
+                        "define table CompanyTable (symbol string, name string);" +
+                        "from CompanyStream insert into CompanyTable;";
+                companySource = "CompanyTable as c";
+                break;
+            default:
+                companyDefinition = "define stream CompanyStream (symbol string, name string);" +
+                        "@PrimaryKey('symbol') " +
+                        "define table CompanyTable (symbol string, name string);" +
+                        "from CompanyStream insert into CompanyTable;";
+                companySource = "CompanyTable as c";
+        }
+        startSiddhiApp(STOCK_STREAM_DEFINITION + companyDefinition +
+                "from " + stockSource + " join " + companySource + " " +
+                "on s.symbol == c.symbol " +
+                "select s.symbol, c.name, s.price " +
+                "insert into OutputStream;");
+
+        symbols = symbols(companyCount);
+        InputHandler companyStreamHandler = siddhiAppRuntime.getInputHandler("CompanyStream");
+        for (String symbol : symbols) {
+            companyStreamHandler.send(new Object[]{symbol, symbol + " Inc."});
+        }
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent(symbols));
+    }
+}
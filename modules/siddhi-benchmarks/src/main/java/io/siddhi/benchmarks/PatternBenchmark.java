@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks the StreamPreStateProcessors of patterns and sequences, matching price drops of the stocks.
+ */
+public class PatternBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"pattern", "sequence", "logicalPattern", "countPattern"})
+    public String type;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String input;
+        switch (type) {
+            case "pattern":
+                input = "from every e1=StockStream[price > 90] -> " +
+                        "e2=StockStream[symbol == e1.symbol and price < e1.price] within 1 sec ";
+                break;
+            case "sequence":
+                input = "from every e1=StockStream[price > 90], e2=StockStream[price < e1.price] ";
+                break;
+            case "logicalPattern":
+                input = "from every (e1=StockStream[price > 90] and e3=StockStream[volume > 190]) -> " +
+                        "e2=StockStream[price < 10] within 1 sec ";
+                break;
+            default:
+                input = "from every e1=StockStream[price > 90] -> " +
+                        "e3=StockStream[symbol == e1.symbol]<2:5> -> " +
+                        "e2=StockStream[price < 10] within 1 sec ";
+        }
+        startSiddhiApp(STOCK_STREAM_DEFINITION + input +
+                "select e1.symbol, e1.price as price1, e2.price as price2 " +
+                "insert into OutputStream;");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks the aggregation of the numeric attributes of the events retained by a length window, with and without
+ * primitive attribute slots. Run through {@link BenchmarkRunner}, the gc.alloc.rate.norm result gives the bytes
+ * allocated per sent event.
+ */
+public class PrimitiveAttributeBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"false", "true"})
+    public boolean primitiveAttributes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        startSiddhiApp((primitiveAttributes ? "@app:primitiveAttributes " : "") +
+                STOCK_STREAM_DEFINITION +
+                "from StockStream[price > 10 and volume < 1000]#window.length(1000) " +
+                "select sum(volume) as totalVolume, avg(price) as avgPrice, min(price) as minPrice, " +
+                "max(volume) as maxVolume " +
+                "insert all events into OutputStream;");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent());
+    }
+}
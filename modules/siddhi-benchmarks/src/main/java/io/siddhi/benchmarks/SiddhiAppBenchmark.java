@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.benchmarks;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base state of the benchmarks, which runs a Siddhi app consuming stock events from {@link #STOCK_STREAM} and
+ * publishing to {@link #OUTPUT_STREAM}. The output events are counted, so that the work of the queries cannot be
+ * optimised away. Unless overridden, benchmarks measure the throughput of the sent events per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class SiddhiAppBenchmark {
+
+    protected static final String STOCK_STREAM = "StockStream";
+    protected static final String OUTPUT_STREAM = "OutputStream";
+    protected static final String STOCK_STREAM_DEFINITION = "" +
+            "define stream StockStream (symbol string, price float, volume long, timestamp long);";
+
+    private static final String[] SYMBOLS = {"IBM", "WSO2", "ORACLE", "MSFT", "GOOG", "AMZN", "FB", "TSLA"};
+
+    protected SiddhiManager siddhiManager;
+    protected SiddhiAppRuntime siddhiAppRuntime;
+    protected InputHandler stockStreamHandler;
+    protected long outputCount;
+    private long eventIndex;
+
+    /**
+     * Creates and starts the Siddhi app, where the app should define {@link #OUTPUT_STREAM} when it is consumed.
+     *
+     * @param siddhiApp Siddhi app to be benchmarked
+     */
+    protected void startSiddhiApp(String siddhiApp) {
+        siddhiManager = new SiddhiManager();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        if (siddhiAppRuntime.getStreamDefinitionMap().containsKey(OUTPUT_STREAM)) {
+            siddhiAppRuntime.addCallback(OUTPUT_STREAM, new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    outputCount += events.length;
+                }
+            });
+        }
+        stockStreamHandler = siddhiAppRuntime.getInputHandler(STOCK_STREAM);
+        siddhiAppRuntime.start();
+    }
+
+    /**
+     * @param symbolCount number of distinct symbols
+     * @return symbols to be cycled through by the stock events
+     */
+    protected static String[] symbols(int symbolCount) {
+        if (symbolCount <= SYMBOLS.length) {
+            return Arrays.copyOf(SYMBOLS, symbolCount);
+        }
+        String[] symbols = new String[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = "SYM" + i;
+        }
+        return symbols;
+    }
+
+    /**
+     * @param symbols symbols to be cycled through
+     * @return next stock event, with an increasing timestamp attribute
+     */
+    protected Object[] nextStockEvent(String[] symbols) {
+        long index = eventIndex++;
+        return new Object[]{symbols[(int) (index % symbols.length)], (float) (index % 100), index % 200, index};
+    }
+
+    protected Object[] nextStockEvent() {
+        return nextStockEvent(SYMBOLS);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        if (siddhiAppRuntime != null) {
+            siddhiAppRuntime.shutdown();
+        }
+        if (siddhiManager != null) {
+            siddhiManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks taking and restoring snapshots of an app whose state is held by a window and group-by aggregations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"1000", "100000"})
+    public int stateSize;
+
+    private byte[] snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        String[] symbols = symbols(stateSize / 10);
+        startSiddhiApp(STOCK_STREAM_DEFINITION +
+                "from StockStream#window.length(" + stateSize + ") " +
+                "select symbol, sum(price) as totalPrice, count() as eventCount " +
+                "group by symbol " +
+                "insert into OutputStream;");
+        for (int i = 0; i < stateSize; i++) {
+            stockStreamHandler.send(nextStockEvent(symbols));
+        }
+        snapshot = siddhiAppRuntime.snapshot();
+    }
+
+    @Benchmark
+    public byte[] snapshot() {
+        return siddhiAppRuntime.snapshot();
+    }
+
+    @Benchmark
+    public void restore() throws CannotRestoreSiddhiAppStateException {
+        siddhiAppRuntime.restore(snapshot);
+    }
+}
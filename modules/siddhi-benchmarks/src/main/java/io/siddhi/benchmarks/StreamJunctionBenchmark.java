@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks the delivery of events by a StreamJunction to its subscribed queries, with synchronous and
+ * {@code @async} streams.
+ */
+public class StreamJunctionBenchmark extends SiddhiAppBenchmark {
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    @Param({"1", "4"})
+    public int queryCount;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder siddhiApp = new StringBuilder();
+        if (async) {
+            siddhiApp.append("@async(buffer.size='1024') ");
+        }
+        siddhiApp.append(STOCK_STREAM_DEFINITION);
+        for (int i = 0; i < queryCount; i++) {
+            siddhiApp.append("from StockStream select * insert into OutputStream;");
+        }
+        startSiddhiApp(siddhiApp.toString());
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks each of the built-in window processors, aggregating the events retained by the window. Time based
+ * windows on the system time are kept short, such that the retained events stay within the heap at full
+ * throughput.
+ */
+public class WindowBenchmark extends SiddhiAppBenchmark {
+
+    @Param({
+            "length(1000)",
+            "lengthBatch(1000)",
+            "time(100 millisec)",
+            "timeBatch(100 millisec)",
+            "timeLength(100 millisec, 1000)",
+            "externalTime(timestamp, 1 sec)",
+            "externalTimeBatch(timestamp, 1 sec)",
+            "sort(1000, price)",
+            "frequent(4, symbol)",
+            "lossyFrequent(0.1, 0.01, symbol)",
+            "session(100 millisec, symbol)",
+            "delay(100 millisec)",
+            "batch()",
+            "cron('*/1 * * * * ?')"
+    })
+    public String window;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        startSiddhiApp(STOCK_STREAM_DEFINITION +
+                "from StockStream#window." + window + " " +
+                "select symbol, sum(price) as totalPrice, count() as eventCount " +
+                "insert all events into OutputStream;");
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        stockStreamHandler.send(nextStockEvent());
+    }
+}
@@ -59,8 +59,12 @@ import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.parser.StoreQueryParser;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.persistence.util.PersistenceHelper;
+import io.siddhi.core.util.snapshot.IncrementalSnapshot;
 import io.siddhi.core.util.snapshot.PersistenceReference;
+import io.siddhi.core.util.snapshot.SnapshotService;
+import io.siddhi.core.util.snapshot.state.StateSpillStore;
 import io.siddhi.core.util.statistics.BufferedEventsTracker;
+import io.siddhi.core.util.statistics.EventBufferHolder;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
@@ -90,6 +94,8 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -427,6 +433,9 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
                 for (Table table : tableMap.values()) {
                     table.connectWithRetry();
                 }
+                for (PartitionRuntime partitionRuntime : partitionMap.values()) {
+                    ((PartitionRuntimeImpl) partitionRuntime).start();
+                }
                 for (StreamJunction streamJunction : streamJunctionMap.values()) {
                     streamJunction.startProcessing();
                 }
@@ -572,6 +581,9 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
                 for (StreamJunction streamJunction : streamJunctionMap.values()) {
                     streamJunction.stopProcessing();
                 }
+                for (PartitionRuntime partitionRuntime : partitionMap.values()) {
+                    ((PartitionRuntimeImpl) partitionRuntime).stop();
+                }
                 try {
                     Thread.sleep(1000);
                 } catch (InterruptedException e) {
@@ -579,6 +591,9 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
                 }
                 siddhiAppContext.getScheduledExecutorService().shutdownNow();
                 siddhiAppContext.getExecutorService().shutdownNow();
+                if (siddhiAppContext.getStateSpillStore() != null) {
+                    siddhiAppContext.getStateSpillStore().close();
+                }
 
             }
         }, "Siddhi-SiddhiApp-" + siddhiAppContext.getName() + "-Shutdown-Cleaner");
@@ -619,21 +634,27 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
     }
 
     public PersistenceReference persist() {
+        Supplier<byte[]> fullSnapshot = null;
+        Supplier<IncrementalSnapshot> incrementalSnapshot = null;
         try {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
             if (siddhiAppContext.getSiddhiContext().getPersistenceStore() != null) {
-                return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().fullSnapshot(),
-                        siddhiAppContext);
+                fullSnapshot = siddhiAppContext.getSnapshotService().captureFullSnapshot();
             } else {
-                return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().incrementalSnapshot(),
-                        siddhiAppContext);
+                incrementalSnapshot = siddhiAppContext.getSnapshotService().captureIncrementalSnapshot();
             }
         } finally {
             // at the end, resume the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::resume));
         }
+        // asynchronous snapshots are serialized by the persisting thread, after resuming the event sources
+        if (fullSnapshot != null) {
+            return PersistenceHelper.persistFullSnapshot(fullSnapshot, siddhiAppContext);
+        } else {
+            return PersistenceHelper.persistIncrementalSnapshot(incrementalSnapshot, siddhiAppContext);
+        }
     }
 
     public byte[] snapshot() {
@@ -707,6 +728,8 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
         for (Map.Entry<String, QueryRuntime> entry : queryProcessorMap.entrySet()) {
             QueryParserHelper.registerMemoryUsageTracking(entry.getKey(), entry.getValue(),
                     SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
+            QueryParserHelper.registerStateMemoryUsageTracking(entry.getValue(), siddhiAppContext,
+                    memoryUsageTracker);
         }
         for (PartitionRuntime partitionRuntime : partitionMap.values()) {
             ((PartitionRuntimeImpl) partitionRuntime).setMemoryUsageTracker(memoryUsageTracker);
@@ -741,27 +764,75 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
                 registerForBufferedEvents(streamJunctionEntry);
             }
         }
+        registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_TIMERS, SiddhiConstants.METRIC_TYPE_LAG,
+                siddhiAppContext.getTimerWheel()::getLag);
+        StateSpillStore stateSpillStore = siddhiAppContext.getStateSpillStore();
+        if (stateSpillStore != null) {
+            registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_STATE_SPILL, SiddhiConstants.METRIC_TYPE_POOL_HIT,
+                    stateSpillStore::getHitCount);
+            registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_STATE_SPILL, SiddhiConstants.METRIC_TYPE_POOL_MISS,
+                    stateSpillStore::getMissCount);
+            registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_STATE_SPILL,
+                    SiddhiConstants.METRIC_TYPE_SPILL_FAULT, stateSpillStore::getFaultCount);
+            registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_STATE_SPILL,
+                    SiddhiConstants.METRIC_TYPE_SPILL_FAULT_LATENCY, stateSpillStore::getAverageFaultLatency);
+            registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_STATE_SPILL, SiddhiConstants.METRIC_TYPE_SPILLED,
+                    stateSpillStore::getSpilledStateCount);
+        }
+        SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+        registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_SNAPSHOTS,
+                SiddhiConstants.METRIC_TYPE_SNAPSHOT_PAUSE_TIME, snapshotService::getLastSnapshotPauseTime);
+        registerForSiddhiGauge(SiddhiConstants.METRIC_INFIX_SNAPSHOTS,
+                SiddhiConstants.METRIC_TYPE_SNAPSHOT_DURATION, snapshotService::getLastSnapshotDuration);
+    }
+
+    /**
+     * Registers a statistic of the Siddhi App, such as the lag of its timers and the ones of the state spill store and
+     * the snapshots, as a gauge.
+     */
+    private void registerForSiddhiGauge(String infix, String type, LongSupplier value) {
+        String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                infix + SiddhiConstants.METRIC_DELIMITER + type;
+        for (String regex : siddhiAppContext.getIncludedMetrics()) {
+            if (metricName.matches(regex)) {
+                siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getFactory()
+                        .registerGauge(metricName, value, siddhiAppContext.getStatisticsManager());
+                break;
+            }
+        }
     }
 
     private void registerForBufferedEvents(Map.Entry<String, StreamJunction> entry) {
         if (entry.getValue().containsBufferedEvents()) {
-            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
-                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
-                    SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
-                    SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
-                    SiddhiConstants.METRIC_INFIX_STREAMS + SiddhiConstants.METRIC_DELIMITER +
-                    entry.getKey() + SiddhiConstants.METRIC_DELIMITER + "size";
-            boolean matchExist = false;
-            for (String regex : siddhiAppContext.getIncludedMetrics()) {
-                if (metricName.matches(regex)) {
-                    matchExist = true;
-                    break;
-                }
+            registerForBufferedEvents(entry.getValue(), entry.getKey());
+            List<EventBufferHolder> keyedWorkerBuffers = entry.getValue().getKeyedWorkerBuffers();
+            for (int i = 0; i < keyedWorkerBuffers.size(); i++) {
+                registerForBufferedEvents(keyedWorkerBuffers.get(i), entry.getKey() +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_WORKER + i);
             }
-            if (matchExist) {
-                bufferedEventsTracker.registerEventBufferHolder(entry.getValue(), metricName);
+        }
+    }
+
+    private void registerForBufferedEvents(EventBufferHolder eventBufferHolder, String name) {
+        String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_STREAMS + SiddhiConstants.METRIC_DELIMITER +
+                name + SiddhiConstants.METRIC_DELIMITER + "size";
+        boolean matchExist = false;
+        for (String regex : siddhiAppContext.getIncludedMetrics()) {
+            if (metricName.matches(regex)) {
+                matchExist = true;
+                break;
             }
         }
+        if (matchExist) {
+            bufferedEventsTracker.registerEventBufferHolder(eventBufferHolder, metricName);
+        }
     }
 
     public void handleExceptionWith(ExceptionHandler<Object> exceptionHandler) {
@@ -24,6 +24,7 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.query.selector.GroupByKey;
 import io.siddhi.core.util.snapshot.state.PartitionSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.SingleSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.State;
@@ -116,13 +117,13 @@ public class BaseIncrementalValueStore {
         }
     }
 
-    public Map<String, StreamEvent> getGroupedByEvents() {
-        Map<String, StreamEvent> groupedByEvents = new HashMap<>();
+    public Map<Object, StreamEvent> getGroupedByEvents() {
+        Map<Object, StreamEvent> groupedByEvents = new HashMap<>();
 
         if (isProcessed()) {
-            Map<String, ValueState> baseIncrementalValueStoreMap = this.valueStateHolder.getAllGroupByStates();
+            Map<Object, ValueState> baseIncrementalValueStoreMap = this.valueStateHolder.getAllGroupByStates();
             try {
-                for (Map.Entry<String, ValueState> state : baseIncrementalValueStoreMap.entrySet()) {
+                for (Map.Entry<Object, ValueState> state : baseIncrementalValueStoreMap.entrySet()) {
                     StreamEvent streamEvent = streamEventFactory.newInstance();
                     long timestamp = getTimestamp();
                     streamEvent.setTimestamp(timestamp);
@@ -158,11 +159,11 @@ public class BaseIncrementalValueStore {
         }
     }
 
-    public void process(Map<String, StreamEvent> groupedByEvents) {
-        for (Map.Entry<String, StreamEvent> eventEntry : groupedByEvents.entrySet()) {
+    public void process(Map<Object, StreamEvent> groupedByEvents) {
+        for (Map.Entry<Object, StreamEvent> eventEntry : groupedByEvents.entrySet()) {
             synchronized (this) {
-                SiddhiAppContext.startGroupByFlow(eventEntry.getKey() + "-" +
-                        eventEntry.getValue().getTimestamp());
+                SiddhiAppContext.startGroupByFlow(GroupByKey.withTimestamp(eventEntry.getKey(),
+                        eventEntry.getValue().getTimestamp()));
                 ValueState state = valueStateHolder.getState();
                 try {
                     boolean shouldUpdate = true;
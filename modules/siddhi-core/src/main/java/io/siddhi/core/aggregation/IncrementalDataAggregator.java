@@ -25,6 +25,7 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.query.selector.GroupByKey;
 import io.siddhi.core.util.IncrementalTimeConverterUtil;
 import io.siddhi.core.util.parser.AggregationParser;
 import io.siddhi.core.util.snapshot.state.PartitionSyncStateHolder;
@@ -86,17 +87,17 @@ public class IncrementalDataAggregator {
     public ComplexEventChunk<StreamEvent> aggregateInMemoryData(
             Map<TimePeriod.Duration, IncrementalExecutor> incrementalExecutorMap) {
         int startIndex = incrementalDurations.indexOf(durationToAggregate);
-        Set<String> groupByKeys = new HashSet<>();
+        Set<Object> groupByKeys = new HashSet<>();
         for (int k = startIndex; k >= 0; k--) {
             TimePeriod.Duration duration = incrementalDurations.get(k);
             IncrementalExecutor incrementalExecutor = incrementalExecutorMap.get(duration);
 
             BaseIncrementalValueStore aBaseIncrementalValueStore = incrementalExecutor.getBaseIncrementalValueStore();
-            Map<String, StreamEvent> groupedByEvents = aBaseIncrementalValueStore.getGroupedByEvents();
-            for (Map.Entry<String, StreamEvent> eventEntry : groupedByEvents.entrySet()) {
+            Map<Object, StreamEvent> groupedByEvents = aBaseIncrementalValueStore.getGroupedByEvents();
+            for (Map.Entry<Object, StreamEvent> eventEntry : groupedByEvents.entrySet()) {
                 long startTimeOfAggregates = IncrementalTimeConverterUtil.getStartTimeOfAggregates(
                         eventEntry.getValue().getTimestamp(), durationToAggregate);
-                String groupByKey = eventEntry.getKey() + "-" + startTimeOfAggregates;
+                Object groupByKey = GroupByKey.withTimestamp(eventEntry.getKey(), startTimeOfAggregates);
                 synchronized (this) {
                     groupByKeys.add(groupByKey);
                     SiddhiAppContext.startGroupByFlow(groupByKey);
@@ -125,7 +126,7 @@ public class IncrementalDataAggregator {
             }
         }
         //clean all executors
-        for (String groupByKey : groupByKeys) {
+        for (Object groupByKey : groupByKeys) {
             SiddhiAppContext.startGroupByFlow(groupByKey);
             try {
                 for (ExpressionExecutor expressionExecutor : baseExecutorsForFind) {
@@ -141,7 +142,7 @@ public class IncrementalDataAggregator {
 
     private ComplexEventChunk<StreamEvent> getProcessedEventChunk() {
         ComplexEventChunk<StreamEvent> streamEventChunk = new ComplexEventChunk<>(true);
-        Map<String, State> valueStoreMap = this.valueStateHolder.getAllGroupByStates();
+        Map<Object, State> valueStoreMap = this.valueStateHolder.getAllGroupByStates();
         try {
             for (State aState : valueStoreMap.values()) {
                 ValueState state = (ValueState) aState;
@@ -26,6 +26,7 @@ import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.selector.GroupByKey;
 import io.siddhi.core.query.selector.GroupByKeyGenerator;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.IncrementalTimeConverterUtil;
@@ -174,7 +175,7 @@ public class IncrementalExecutor implements Executor {
         synchronized (this) {
             if (groupByKeyGenerator != null) {
                 try {
-                    String groupedByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+                    GroupByKey groupedByKey = groupByKeyGenerator.constructGroupByKey(streamEvent);
                     SiddhiAppContext.startGroupByFlow(groupedByKey);
                     baseIncrementalValueStore.process(streamEvent);
                 } finally {
@@ -193,12 +194,12 @@ public class IncrementalExecutor implements Executor {
 
     private void dispatchEvent(long startTimeOfNewAggregates, BaseIncrementalValueStore aBaseIncrementalValueStore) {
         if (aBaseIncrementalValueStore.isProcessed()) {
-            Map<String, StreamEvent> streamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
+            Map<Object, StreamEvent> streamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
             ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<>(true);
             for (StreamEvent event : streamEventMap.values()) {
                 eventChunk.add(event);
             }
-            Map<String, StreamEvent> tableStreamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
+            Map<Object, StreamEvent> tableStreamEventMap = aBaseIncrementalValueStore.getGroupedByEvents();
             ComplexEventChunk<StreamEvent> tableEventChunk = new ComplexEventChunk<>(true);
             for (StreamEvent event : tableStreamEventMap.values()) {
                 tableEventChunk.add(event);
@@ -24,6 +24,7 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.query.selector.GroupByKey;
 import io.siddhi.core.query.selector.GroupByKeyGenerator;
 import io.siddhi.core.util.parser.AggregationParser;
 import io.siddhi.core.util.snapshot.state.PartitionSyncStateHolder;
@@ -72,10 +73,10 @@ public class OutOfOrderEventsDataAggregator {
 
     public ComplexEventChunk<StreamEvent> aggregateData(ComplexEventChunk<StreamEvent> retrievedData) {
 
-        Set<String> groupByKeys = new HashSet<>();
+        Set<GroupByKey> groupByKeys = new HashSet<>();
         while (retrievedData.hasNext()) {
             StreamEvent streamEvent = retrievedData.next();
-            String groupByKey = groupByKeyGenerator.constructEventKey(streamEvent);
+            GroupByKey groupByKey = groupByKeyGenerator.constructGroupByKey(streamEvent);
             groupByKeys.add(groupByKey);
             SiddhiAppContext.startGroupByFlow(groupByKey);
             ValueState state = (ValueState) valueStateHolder.getState();
@@ -99,7 +100,7 @@ public class OutOfOrderEventsDataAggregator {
         }
 
         //clean all executors
-        for (String groupByKey : groupByKeys) {
+        for (GroupByKey groupByKey : groupByKeys) {
             SiddhiAppContext.startGroupByFlow(groupByKey);
             try {
                 for (ExpressionExecutor expressionExecutor : baseExecutors) {
@@ -124,7 +125,7 @@ public class OutOfOrderEventsDataAggregator {
 
     private ComplexEventChunk<StreamEvent> createEventChunkFromAggregatedData() {
         ComplexEventChunk<StreamEvent> streamEventChunk = new ComplexEventChunk<>(true);
-        Map<String, State> valueStoreMap = this.valueStateHolder.getAllGroupByStates();
+        Map<Object, State> valueStoreMap = this.valueStateHolder.getAllGroupByStates();
         try {
             for (State aState : valueStoreMap.values()) {
                 ValueState state = (ValueState) aState;
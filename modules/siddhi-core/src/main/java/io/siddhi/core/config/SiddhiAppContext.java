@@ -24,6 +24,7 @@ import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.Scheduler;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.TimerWheel;
 import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.snapshot.state.EmptyStateHolder;
@@ -31,6 +32,7 @@ import io.siddhi.core.util.snapshot.state.SingleStateHolder;
 import io.siddhi.core.util.snapshot.state.SingleSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.core.util.snapshot.state.StateSpillStore;
 import io.siddhi.core.util.statistics.StatisticsManager;
 import io.siddhi.core.util.statistics.metrics.Level;
 import io.siddhi.core.util.timestamp.TimestampGenerator;
@@ -55,11 +57,19 @@ public class SiddhiAppContext {
     private String name;
     private boolean playback;
     private boolean enforceOrder;
+    private boolean compileExpressions;
+    private boolean indexPredicates;
+    private boolean shareEventConversion;
+    private boolean primitiveAttributes;
+    private boolean columnarBatches;
+    private boolean asyncSnapshot;
+    private boolean windowIndexes;
     private Level rootMetricsLevel;
     private StatisticsManager statisticsManager = null;
 
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
+    private TimerWheel timerWheel;
     private List<ExternalReferencedHolder> externalReferencedHolders;
     private SnapshotService snapshotService;
 
@@ -70,47 +80,63 @@ public class SiddhiAppContext {
     private ExceptionHandler<Object> disruptorExceptionHandler;
     private ExceptionListener runtimeExceptionListener;
     private int bufferSize;
+    private int eventPoolSize = 0;
+    private StateSpillStore stateSpillStore;
     private String siddhiAppString;
     private List<String> includedMetrics;
     private boolean transportChannelCreationEnabled;
     private List<Scheduler> schedulerList;
-    private static final ThreadLocal<String> GROUP_BY_KEY = new ThreadLocal<>();
-    private static final ThreadLocal<String> PARTITION_KEY = new ThreadLocal<>();
+    private Map<String, Integer> partitionWorkerCountMap;
+    private static final ThreadLocal<FlowContext> FLOW_CONTEXT = ThreadLocal.withInitial(FlowContext::new);
     private SiddhiApp siddhiApp;
 
     public SiddhiAppContext() {
         this.externalReferencedHolders = Collections.synchronizedList(new LinkedList<>());
         this.scriptFunctionMap = new HashMap<String, Script>();
         this.schedulerList = new ArrayList<Scheduler>();
+        this.partitionWorkerCountMap = new HashMap<String, Integer>();
         this.rootMetricsLevel = Level.OFF;
     }
 
-    public static void startGroupByFlow(String key) {
-        GROUP_BY_KEY.set(key);
+    /**
+     * @return context of the flow processed by the current thread
+     */
+    public static FlowContext getFlowContext() {
+        return FLOW_CONTEXT.get();
+    }
+
+    public static void startGroupByFlow(Object key) {
+        FLOW_CONTEXT.get().setGroupByKey(key);
     }
 
     public static void stopGroupByFlow() {
-        GROUP_BY_KEY.set(null);
+        FLOW_CONTEXT.get().setGroupByKey(null);
     }
 
     public static void startPartitionFlow(String key) {
-        PARTITION_KEY.set(key);
+        FLOW_CONTEXT.get().setPartitionKey(key);
     }
 
     public static void stopPartitionFlow() {
-        PARTITION_KEY.set(null);
+        FLOW_CONTEXT.get().setPartitionKey(null);
     }
 
     public static String getCurrentFlowId() {
-        return PARTITION_KEY.get() + "--" + GROUP_BY_KEY.get();
+        FlowContext flowContext = FLOW_CONTEXT.get();
+        return flowContext.getPartitionKey() + "--" + flowContext.getGroupByKey();
     }
 
     public static String getPartitionFlowId() {
-        return PARTITION_KEY.get();
+        return FLOW_CONTEXT.get().getPartitionKey();
     }
 
     public static String getGroupByFlowId() {
-        return GROUP_BY_KEY.get();
+        Object key = FLOW_CONTEXT.get().getGroupByKey();
+        return key == null ? null : key.toString();
+    }
+
+    public static Object getGroupByFlowKey() {
+        return FLOW_CONTEXT.get().getGroupByKey();
     }
 
     public SiddhiContext getSiddhiContext() {
@@ -154,6 +180,75 @@ public class SiddhiAppContext {
         this.enforceOrder = enforceOrder;
     }
 
+    public boolean isCompileExpressions() {
+        return compileExpressions;
+    }
+
+    public void setCompileExpressions(boolean compileExpressions) {
+        this.compileExpressions = compileExpressions;
+    }
+
+    public boolean isIndexPredicates() {
+        return indexPredicates;
+    }
+
+    public void setIndexPredicates(boolean indexPredicates) {
+        this.indexPredicates = indexPredicates;
+    }
+
+    public boolean isShareEventConversion() {
+        return shareEventConversion;
+    }
+
+    public void setShareEventConversion(boolean shareEventConversion) {
+        this.shareEventConversion = shareEventConversion;
+    }
+
+    public boolean isPrimitiveAttributes() {
+        return primitiveAttributes;
+    }
+
+    public void setPrimitiveAttributes(boolean primitiveAttributes) {
+        this.primitiveAttributes = primitiveAttributes;
+    }
+
+    public boolean isColumnarBatches() {
+        return columnarBatches;
+    }
+
+    public void setColumnarBatches(boolean columnarBatches) {
+        this.columnarBatches = columnarBatches;
+    }
+
+    public boolean isAsyncSnapshot() {
+        return asyncSnapshot;
+    }
+
+    public void setAsyncSnapshot(boolean asyncSnapshot) {
+        this.asyncSnapshot = asyncSnapshot;
+    }
+
+    public boolean isWindowIndexes() {
+        return windowIndexes;
+    }
+
+    public void setWindowIndexes(boolean windowIndexes) {
+        this.windowIndexes = windowIndexes;
+    }
+
+    /**
+     * @param partitionId id of the partition
+     * @return number of workers processing the partition in parallel, or 0 when it is processed by the caller threads
+     */
+    public int getPartitionWorkerCount(String partitionId) {
+        Integer workerCount = partitionWorkerCountMap.get(partitionId);
+        return workerCount == null ? 0 : workerCount;
+    }
+
+    public void setPartitionWorkerCount(String partitionId, int workerCount) {
+        partitionWorkerCountMap.put(partitionId, workerCount);
+    }
+
     public Level getRootMetricsLevel() {
         return rootMetricsLevel;
     }
@@ -176,6 +271,15 @@ public class SiddhiAppContext {
 
     public void setScheduledExecutorService(ScheduledExecutorService scheduledExecutorService) {
         this.scheduledExecutorService = scheduledExecutorService;
+        this.timerWheel = new TimerWheel(scheduledExecutorService);
+    }
+
+    /**
+     * @return timing wheel firing the timers of the schedulers in system time, driven by the scheduled executor
+     * service
+     */
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
     }
 
     public void addEternalReferencedHolder(ExternalReferencedHolder externalReferencedHolder) {
@@ -266,6 +370,25 @@ public class SiddhiAppContext {
         this.bufferSize = bufferSize;
     }
 
+    public int getEventPoolSize() {
+        return eventPoolSize;
+    }
+
+    public void setEventPoolSize(int eventPoolSize) {
+        this.eventPoolSize = eventPoolSize;
+    }
+
+    /**
+     * @return store spilling the cold states to disk, or null when all the states are kept on heap
+     */
+    public StateSpillStore getStateSpillStore() {
+        return stateSpillStore;
+    }
+
+    public void setStateSpillStore(StateSpillStore stateSpillStore) {
+        this.stateSpillStore = stateSpillStore;
+    }
+
     public String getSiddhiAppString() {
         return siddhiAppString;
     }
@@ -28,10 +28,15 @@ import io.siddhi.core.util.snapshot.state.SingleStateHolder;
 import io.siddhi.core.util.snapshot.state.SingleSyncStateHolder;
 import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.core.util.snapshot.state.StateSpillStore;
+import io.siddhi.core.util.snapshot.state.StripedGroupByStateHolder;
+import io.siddhi.core.util.snapshot.state.StripedPartitionStateHolder;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.query.api.SiddhiApp;
 import io.siddhi.query.api.execution.query.output.stream.OutputStream;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -47,6 +52,10 @@ public class SiddhiQueryContext {
     private LatencyTracker latencyTracker;
     private IdGenerator idGenerator;
     private boolean stateful = false;
+    private int groupByLockStripes = 0;
+    private long timePaneWindowLength = 0;
+    private long timePaneLength = 0;
+    private List<StateHolder> timePaneStateHolders = new ArrayList<>();
 
     public SiddhiQueryContext(SiddhiAppContext siddhiAppContext, String queryName) {
         this(siddhiAppContext, queryName, SiddhiConstants.PARTITION_ID_DEFAULT);
@@ -95,6 +104,10 @@ public class SiddhiQueryContext {
         return latencyTracker;
     }
 
+    public String getPartitionId() {
+        return partitionId;
+    }
+
     public boolean isPartitioned() {
         return partitioned;
     }
@@ -103,6 +116,50 @@ public class SiddhiQueryContext {
         partitioned = partitionable;
     }
 
+    public int getGroupByLockStripes() {
+        return groupByLockStripes;
+    }
+
+    /**
+     * @param groupByLockStripes number of lock stripes under which the events of different group by keys are selected
+     *                           concurrently, or 0 when the selection is not lock striped. Group by state holders
+     *                           requested as unsafe are then striped the same way, and other unsafe state holders
+     *                           are made thread safe.
+     */
+    public void setGroupByLockStripes(int groupByLockStripes) {
+        this.groupByLockStripes = groupByLockStripes;
+    }
+
+    public long getTimePaneWindowLength() {
+        return timePaneWindowLength;
+    }
+
+    public long getTimePaneLength() {
+        return timePaneLength;
+    }
+
+    /**
+     * @param timePaneWindowLength length of the time window whose events are aggregated over time panes
+     * @param timePaneLength       length of each pane, or 0 when the aggregators of the query are not evaluated over
+     *                             time panes
+     */
+    public void setTimePanes(long timePaneWindowLength, long timePaneLength) {
+        this.timePaneWindowLength = timePaneWindowLength;
+        this.timePaneLength = timePaneLength;
+    }
+
+    /**
+     * @return state holders of the aggregators evaluated over time panes, whose states are released once their panes
+     * expire
+     */
+    public List<StateHolder> getTimePaneStateHolders() {
+        return timePaneStateHolders;
+    }
+
+    public void addTimePaneStateHolder(StateHolder stateHolder) {
+        timePaneStateHolders.add(stateHolder);
+    }
+
     public String generateNewId() {
         return idGenerator.createNewId();
     }
@@ -112,17 +169,44 @@ public class SiddhiQueryContext {
     }
 
     public StateHolder generateStateHolder(String name, boolean groupBy, StateFactory stateFactory, boolean unSafe) {
+        return generateStateHolder(name, groupBy, stateFactory, unSafe, false);
+    }
+
+    /**
+     * @param name         name of the state holder
+     * @param groupBy      whether the states are kept per group by key
+     * @param stateFactory state factory, can be null for stateless elements
+     * @param unSafe       whether the state holder can be used without synchronization
+     * @param spillable    whether the cold states can be spilled to disk when the Siddhi App has a state spill store,
+     *                     which is only the case when the states are fully captured by their snapshots and are not
+     *                     referred outside the state holder
+     * @return state holder
+     */
+    public StateHolder generateStateHolder(String name, boolean groupBy, StateFactory stateFactory, boolean unSafe,
+                                           boolean spillable) {
         if (stateFactory != null) {
             StateHolder stateHolder;
-            if (unSafe) {
+            StateSpillStore spillStore = spillable ? siddhiAppContext.getStateSpillStore() : null;
+            int maxResidentStates = spillStore == null ? 0 : spillStore.getMaxResidentStates();
+            int partitionWorkerCount = partitioned ? siddhiAppContext.getPartitionWorkerCount(partitionId) : 0;
+            if (groupByLockStripes > 0 && !groupBy) {
+                // Lock stripes only guard the group by states
+                unSafe = false;
+            }
+            if (groupByLockStripes > 0 && unSafe) {
+                stateHolder = new StripedGroupByStateHolder(stateFactory, groupByLockStripes, spillStore);
+            } else if (partitionWorkerCount > 0) {
+                stateHolder = new StripedPartitionStateHolder(stateFactory, partitionWorkerCount, unSafe,
+                        spillStore);
+            } else if (unSafe) {
                 if (partitioned || groupBy) {
-                    stateHolder = new PartitionStateHolder(stateFactory);
+                    stateHolder = new PartitionStateHolder(stateFactory, spillStore, maxResidentStates);
                 } else {
                     stateHolder = new SingleStateHolder(stateFactory);
                 }
             } else {
                 if (partitioned || groupBy) {
-                    stateHolder = new PartitionSyncStateHolder(stateFactory);
+                    stateHolder = new PartitionSyncStateHolder(stateFactory, spillStore, maxResidentStates);
                 } else {
                     stateHolder = new SingleSyncStateHolder(stateFactory);
                 }
@@ -25,10 +25,10 @@ public class GroupedComplexEvent implements ComplexEvent {
 
     private static final long serialVersionUID = 3654677405648232168L;
     private final ComplexEvent complexEvent;
-    private String groupKey;
+    private Object groupKey;
     private ComplexEvent next;
 
-    public GroupedComplexEvent(String groupKey, ComplexEvent complexEvent) {
+    public GroupedComplexEvent(Object groupKey, ComplexEvent complexEvent) {
         this.groupKey = groupKey;
         this.complexEvent = complexEvent;
     }
@@ -83,10 +83,14 @@ public class GroupedComplexEvent implements ComplexEvent {
     }
 
     public String getGroupKey() {
+        return groupKey == null ? null : groupKey.toString();
+    }
+
+    public Object getGroupByKey() {
         return groupKey;
     }
 
-    public void setGroupKey(String groupKey) {
+    public void setGroupKey(Object groupKey) {
         this.groupKey = groupKey;
     }
 
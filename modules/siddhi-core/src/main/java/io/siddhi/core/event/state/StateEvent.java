@@ -120,13 +120,13 @@ public class StateEvent implements ComplexEvent {
             }
             switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
                 case BEFORE_WINDOW_DATA_INDEX:
-                    streamEvent.getBeforeWindowData()[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
+                    streamEvent.setBeforeWindowData(object, position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
                     break;
                 case OUTPUT_DATA_INDEX:
-                    streamEvent.getOutputData()[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
+                    streamEvent.setOutputData(object, position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
                     break;
                 case ON_AFTER_WINDOW_DATA_INDEX:
-                    streamEvent.getOnAfterWindowData()[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
+                    streamEvent.setOnAfterWindowData(object, position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
                     break;
                 default:
                     throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " +
@@ -18,14 +18,25 @@
 package io.siddhi.core.event.state;
 
 import com.lmax.disruptor.EventFactory;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.util.statistics.ThroughputTracker;
+import io.siddhi.core.util.statistics.metrics.Level;
+
+import java.util.Arrays;
 
 /**
- * Event Factory to create new StateEvents
+ * Event Factory to create new StateEvents. When pooling is enabled the factory hands out recycled
+ * {@link StateEvent}s that were returned through {@link #returnEvent(StateEvent)}.
  */
 public class StateEventFactory implements EventFactory<StateEvent> {
 
     private int eventSize;
     private int outputDataSize;
+    private StateEvent[] pool;
+    private int pooledEventCount;
+    private ThroughputTracker hitTracker;
+    private ThroughputTracker missTracker;
+    private SiddhiAppContext siddhiAppContext;
 
     public StateEventFactory(int eventSize, int outputDataSize) {
         this.eventSize = eventSize;
@@ -38,7 +49,73 @@ public class StateEventFactory implements EventFactory<StateEvent> {
     }
 
     public StateEvent newInstance() {
+        if (pool != null) {
+            StateEvent stateEvent = null;
+            synchronized (this) {
+                if (pooledEventCount > 0) {
+                    stateEvent = pool[--pooledEventCount];
+                    pool[pooledEventCount] = null;
+                }
+            }
+            if (hitTracker != null && missTracker != null &&
+                    Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                if (stateEvent != null) {
+                    hitTracker.eventIn();
+                } else {
+                    missTracker.eventIn();
+                }
+            }
+            if (stateEvent != null) {
+                return stateEvent;
+            }
+        }
         return new StateEvent(eventSize, outputDataSize);
     }
 
+    /**
+     * Enables recycling of StateEvents returned to this factory.
+     *
+     * @param poolSize         maximum number of idle events kept in the pool
+     * @param hitTracker       tracker notified when an event is served from the pool, can be null
+     * @param missTracker      tracker notified when a new event has to be created, can be null
+     * @param siddhiAppContext context of the Siddhi app the factory belongs to
+     */
+    public void enablePooling(int poolSize, ThroughputTracker hitTracker, ThroughputTracker missTracker,
+                              SiddhiAppContext siddhiAppContext) {
+        if (poolSize > 0 && pool == null) {
+            this.pool = new StateEvent[poolSize];
+            this.hitTracker = hitTracker;
+            this.missTracker = missTracker;
+            this.siddhiAppContext = siddhiAppContext;
+        }
+    }
+
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Returns a StateEvent that is no longer referenced by the runtime. Only the StateEvent itself is recycled,
+     * the StreamEvents it refers to are left untouched.
+     *
+     * @param stateEvent event to be recycled
+     */
+    public void returnEvent(StateEvent stateEvent) {
+        if (pool == null || stateEvent == null || stateEvent.getStreamEvents().length != eventSize ||
+                stateEvent.getOutputData().length != outputDataSize) {
+            return;
+        }
+        stateEvent.setNext(null);
+        stateEvent.setTimestamp(-1);
+        stateEvent.setType(StateEvent.Type.CURRENT);
+        stateEvent.setId(0);
+        Arrays.fill(stateEvent.getStreamEvents(), null);
+        Arrays.fill(stateEvent.getOutputData(), null);
+        synchronized (this) {
+            if (pooledEventCount < pool.length) {
+                pool[pooledEventCount++] = stateEvent;
+            }
+        }
+    }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event.stream;
+
+/**
+ * Function of a numeric attribute, applied by
+ * {@link StreamEvent#applyPrimitiveAttribute(int[], Object, PrimitiveAttributeFunction)} to the value read from the
+ * attribute's primitive slot, such that the attribute is neither boxed nor read twice to check for null.
+ *
+ * @param <T> type of the target the function is applied to
+ * @param <R> result type of the function
+ */
+public interface PrimitiveAttributeFunction<T, R> {
+
+    /**
+     * Applies the function to an INT, LONG or BOOL attribute, where true is passed as 1.
+     */
+    R applyLong(T target, long value);
+
+    /**
+     * Applies the function to a FLOAT or DOUBLE attribute.
+     */
+    R applyDouble(T target, double value);
+
+    /**
+     * Applies the function to a null attribute.
+     */
+    R applyNull(T target);
+
+    /**
+     * Applies the function to a boxed attribute value.
+     *
+     * @param value    boxed value, which can be null
+     * @param target   target passed to the function
+     * @param function function to apply
+     * @param <T>      type of the target
+     * @param <R>      result type of the function
+     * @return result of the function
+     */
+    static <T, R> R applyBoxed(Object value, T target, PrimitiveAttributeFunction<T, R> function) {
+        if (value == null) {
+            return function.applyNull(target);
+        } else if (value instanceof Double || value instanceof Float) {
+            return function.applyDouble(target, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            return function.applyLong(target, (Boolean) value ? 1L : 0L);
+        }
+        return function.applyLong(target, ((Number) value).longValue());
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event.stream;
+
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+
+/**
+ * Layout of the primitive slots of {@link StreamEvent}s, chosen from the attributes of a {@link MetaStreamEvent}.
+ * INT, LONG and BOOL attributes are kept in long slots and FLOAT and DOUBLE attributes in double slots, such that
+ * executors can read them without unboxing.
+ * <p>
+ * The slots are the storage of these attributes. The Object[] data of the event only tells whether the attribute is
+ * null, and otherwise holds either the boxed value the attribute was set with or {@link StreamEvent#UNBOXED}, in which
+ * case the value is boxed from its slot when the Object[] data is read. When a value of another type is written to
+ * the position, e.g. by the selector reusing the output data, the event is detached from the layout and its
+ * attributes are read from the Object[] data from then on.
+ */
+public class PrimitiveAttributeLayout implements Serializable {
+
+    private static final long serialVersionUID = 2318512869412531471L;
+    private static final int NO_SLOT = -1;
+
+    // Slots indexed by the attribute type index and the attribute index, where long slots are non negative and
+    // double slots are encoded as -(slot + 2).
+    private final int[][] slots = new int[3][];
+    private final Attribute.Type[][] types = new Attribute.Type[3][];
+    private final int longSlotCount;
+    private final int doubleSlotCount;
+
+    private PrimitiveAttributeLayout(MetaStreamEvent metaStreamEvent) {
+        int longSlots = 0;
+        int doubleSlots = 0;
+        List<List<Attribute>> attributeLists = Arrays.asList(metaStreamEvent.getBeforeWindowData(),
+                metaStreamEvent.getOnAfterWindowData(), metaStreamEvent.getOutputData());
+        for (int typeIndex = 0; typeIndex < 3; typeIndex++) {
+            List<Attribute> attributes = attributeLists.get(typeIndex);
+            slots[typeIndex] = new int[attributes.size()];
+            types[typeIndex] = new Attribute.Type[attributes.size()];
+            for (int i = 0; i < attributes.size(); i++) {
+                types[typeIndex][i] = attributes.get(i).getType();
+                switch (types[typeIndex][i]) {
+                    case INT:
+                    case LONG:
+                    case BOOL:
+                        slots[typeIndex][i] = longSlots++;
+                        break;
+                    case FLOAT:
+                    case DOUBLE:
+                        slots[typeIndex][i] = -(doubleSlots++ + 2);
+                        break;
+                    default:
+                        slots[typeIndex][i] = NO_SLOT;
+                }
+            }
+        }
+        this.longSlotCount = longSlots;
+        this.doubleSlotCount = doubleSlots;
+    }
+
+    /**
+     * @param metaStreamEvent meta stream event of the events
+     * @return the layout, or null if the events do not have any primitive attributes
+     */
+    public static PrimitiveAttributeLayout create(MetaStreamEvent metaStreamEvent) {
+        PrimitiveAttributeLayout layout = new PrimitiveAttributeLayout(metaStreamEvent);
+        if (layout.longSlotCount == 0 && layout.doubleSlotCount == 0) {
+            return null;
+        }
+        return layout;
+    }
+
+    int getLongSlotCount() {
+        return longSlotCount;
+    }
+
+    int getDoubleSlotCount() {
+        return doubleSlotCount;
+    }
+
+    /**
+     * @return encoded slot of the attribute, see {@link #isLongSlot(int)} and {@link #isDoubleSlot(int)}
+     */
+    int getSlot(int typeIndex, int attributeIndex) {
+        if (typeIndex > OUTPUT_DATA_INDEX) {
+            return NO_SLOT;
+        }
+        int[] typeSlots = slots[typeIndex];
+        return attributeIndex < typeSlots.length ? typeSlots[attributeIndex] : NO_SLOT;
+    }
+
+    static boolean isLongSlot(int slot) {
+        return slot >= 0;
+    }
+
+    static boolean isDoubleSlot(int slot) {
+        return slot < NO_SLOT;
+    }
+
+    static int toDoubleSlot(int slot) {
+        return -slot - 2;
+    }
+
+    /**
+     * Stores the attribute value in its slot, if the attribute has a slot. Detaches the event from the layout if
+     * the value is not of the attribute's type.
+     */
+    void store(StreamEvent streamEvent, int typeIndex, int attributeIndex, Object value) {
+        int slot = getSlot(typeIndex, attributeIndex);
+        if (slot == NO_SLOT || value == null) {
+            return;
+        }
+        switch (types[typeIndex][attributeIndex]) {
+            case INT:
+                if (value instanceof Integer) {
+                    streamEvent.getLongData()[slot] = (Integer) value;
+                    return;
+                }
+                break;
+            case LONG:
+                if (value instanceof Long) {
+                    streamEvent.getLongData()[slot] = (Long) value;
+                    return;
+                }
+                break;
+            case BOOL:
+                if (value instanceof Boolean) {
+                    streamEvent.getLongData()[slot] = (Boolean) value ? 1L : 0L;
+                    return;
+                }
+                break;
+            case FLOAT:
+                if (value instanceof Float) {
+                    streamEvent.getDoubleData()[toDoubleSlot(slot)] = (Float) value;
+                    return;
+                }
+                break;
+            default:
+                if (value instanceof Double) {
+                    streamEvent.getDoubleData()[toDoubleSlot(slot)] = (Double) value;
+                    return;
+                }
+        }
+        streamEvent.detachPrimitiveAttributes();
+    }
+
+    /**
+     * Boxes the value of an attribute from its slot.
+     *
+     * @param streamEvent    event created with this layout
+     * @param typeIndex      attribute type index of the attribute
+     * @param attributeIndex index of the attribute in its type
+     * @return boxed value of the attribute's type
+     */
+    Object box(StreamEvent streamEvent, int typeIndex, int attributeIndex) {
+        int slot = slots[typeIndex][attributeIndex];
+        switch (types[typeIndex][attributeIndex]) {
+            case INT:
+                return (int) streamEvent.getLongData()[slot];
+            case LONG:
+                return streamEvent.getLongData()[slot];
+            case BOOL:
+                return streamEvent.getLongData()[slot] != 0;
+            case FLOAT:
+                return (float) streamEvent.getDoubleData()[toDoubleSlot(slot)];
+            default:
+                return streamEvent.getDoubleData()[toDoubleSlot(slot)];
+        }
+    }
+
+    /**
+     * Drops the boxed values of the slotted attributes of the given data array, leaving the attributes only in their
+     * slots.
+     */
+    void unbox(int typeIndex, Object[] data) {
+        if (data == null) {
+            return;
+        }
+        int[] typeSlots = slots[typeIndex];
+        for (int i = 0, length = Math.min(data.length, typeSlots.length); i < length; i++) {
+            if (typeSlots[i] != NO_SLOT && data[i] != null) {
+                data[i] = StreamEvent.UNBOXED;
+            }
+        }
+    }
+
+    /**
+     * Stores all attribute values of the given data array in their slots.
+     */
+    void store(StreamEvent streamEvent, int typeIndex, Object[] data) {
+        if (data == null) {
+            return;
+        }
+        int[] typeSlots = slots[typeIndex];
+        for (int i = 0, length = Math.min(data.length, typeSlots.length); i < length; i++) {
+            if (typeSlots[i] != NO_SLOT && data[i] != null) {
+                store(streamEvent, typeIndex, i, data[i]);
+                if (streamEvent.getPrimitiveAttributeLayout() != this) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores all attribute values of the event in their slots, used after the Object[] data of the event is
+     * populated in bulk.
+     *
+     * @param streamEvent event created with this layout
+     */
+    public void populate(StreamEvent streamEvent) {
+        store(streamEvent, BEFORE_WINDOW_DATA_INDEX, streamEvent.getData(BEFORE_WINDOW_DATA_INDEX));
+        store(streamEvent, ON_AFTER_WINDOW_DATA_INDEX, streamEvent.getData(ON_AFTER_WINDOW_DATA_INDEX));
+        store(streamEvent, OUTPUT_DATA_INDEX, streamEvent.getData(OUTPUT_DATA_INDEX));
+    }
+}
@@ -37,12 +37,22 @@ import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
 public class StreamEvent implements ComplexEvent {
 
     private static final long serialVersionUID = 8427059374772140103L;
+    /**
+     * Marks an attribute of the Object[] data which is only kept in its primitive slot, see
+     * {@link PrimitiveAttributeLayout}. It never leaves the event, as the raw Object[] data is boxed before it is
+     * handed out.
+     */
+    static final Object UNBOXED = new Object();
     protected long timestamp = -1;
     protected Object[] outputData;              //Attributes to sent as output
     protected Type type = Type.CURRENT;
     private Object[] beforeWindowData;          //Attributes before window execution
     private Object[] onAfterWindowData;         //Attributes on and after window execution
     private StreamEvent next;
+    private transient PrimitiveAttributeLayout primitiveAttributeLayout;
+    private transient long[] longData;           //Primitive slots of INT, LONG and BOOL attributes
+    private transient double[] doubleData;       //Primitive slots of FLOAT and DOUBLE attributes
+    private transient int exposedData;           //Bits of the attribute types whose Object[] data is handed out
 
     public StreamEvent(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize) {
         if (beforeWindowDataSize > 0) {
@@ -56,24 +66,54 @@ public class StreamEvent implements ComplexEvent {
         }
     }
 
+    /**
+     * Creates an event which keeps its primitive attributes in primitive slots.
+     *
+     * @param beforeWindowDataSize     BeforeWindow size
+     * @param onAfterWindowDataSize    OnAfterWindow size
+     * @param outputDataSize           Output size
+     * @param primitiveAttributeLayout layout of the primitive slots
+     */
+    public StreamEvent(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize,
+                       PrimitiveAttributeLayout primitiveAttributeLayout) {
+        this(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
+        this.primitiveAttributeLayout = primitiveAttributeLayout;
+        this.longData = new long[primitiveAttributeLayout.getLongSlotCount()];
+        this.doubleData = new double[primitiveAttributeLayout.getDoubleSlotCount()];
+    }
+
 //    public StreamEvent() {
 //        //Do nothing
 //    }
 
     public Object[] getBeforeWindowData() {
+        if (primitiveAttributeLayout != null) {
+            exposeData(BEFORE_WINDOW_DATA_INDEX);
+        }
         return beforeWindowData;
     }
 
     public void setBeforeWindowData(Object[] beforeWindowData) {
         this.beforeWindowData = beforeWindowData;
+        if (primitiveAttributeLayout != null) {
+            exposedData |= 1 << BEFORE_WINDOW_DATA_INDEX;
+            primitiveAttributeLayout.store(this, BEFORE_WINDOW_DATA_INDEX, beforeWindowData);
+        }
     }
 
     public Object[] getOnAfterWindowData() {
+        if (primitiveAttributeLayout != null) {
+            exposeData(ON_AFTER_WINDOW_DATA_INDEX);
+        }
         return onAfterWindowData;
     }
 
     public void setOnAfterWindowData(Object[] onAfterWindowData) {
         this.onAfterWindowData = onAfterWindowData;
+        if (primitiveAttributeLayout != null) {
+            exposedData |= 1 << ON_AFTER_WINDOW_DATA_INDEX;
+            primitiveAttributeLayout.store(this, ON_AFTER_WINDOW_DATA_INDEX, onAfterWindowData);
+        }
     }
 
     public long getTimestamp() {
@@ -85,11 +125,127 @@ public class StreamEvent implements ComplexEvent {
     }
 
     public Object[] getOutputData() {
+        if (primitiveAttributeLayout != null) {
+            exposeData(OUTPUT_DATA_INDEX);
+        }
         return outputData;
     }
 
     public void setOutputData(Object[] outputData) {
         this.outputData = outputData;
+        if (primitiveAttributeLayout != null) {
+            exposedData |= 1 << OUTPUT_DATA_INDEX;
+            primitiveAttributeLayout.store(this, OUTPUT_DATA_INDEX, outputData);
+        }
+    }
+
+    /**
+     * Copies the given data to the output data of the event, keeping its primitive attributes in their slots
+     * without handing out the Object[] data.
+     *
+     * @param data data to copy from its start
+     */
+    public void copyOutputData(Object[] data) {
+        System.arraycopy(data, 0, outputData, 0, data.length);
+        if (primitiveAttributeLayout != null) {
+            primitiveAttributeLayout.store(this, OUTPUT_DATA_INDEX, outputData);
+        }
+    }
+
+    public PrimitiveAttributeLayout getPrimitiveAttributeLayout() {
+        return primitiveAttributeLayout;
+    }
+
+    long[] getLongData() {
+        return longData;
+    }
+
+    double[] getDoubleData() {
+        return doubleData;
+    }
+
+    /**
+     * @return raw Object[] data of the given attribute type, which can hold {@link #UNBOXED} attributes
+     */
+    Object[] getData(int typeIndex) {
+        switch (typeIndex) {
+            case BEFORE_WINDOW_DATA_INDEX:
+                return beforeWindowData;
+            case OUTPUT_DATA_INDEX:
+                return outputData;
+            case ON_AFTER_WINDOW_DATA_INDEX:
+                return onAfterWindowData;
+            default:
+                throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " + typeIndex);
+        }
+    }
+
+    /**
+     * @return whether the primitive slots are the storage of the attributes of the given type, which is no longer
+     * the case once their Object[] data is handed out
+     */
+    private boolean isSlotted(int typeIndex) {
+        return primitiveAttributeLayout != null && (exposedData & (1 << typeIndex)) == 0;
+    }
+
+    /**
+     * Boxes the {@link #UNBOXED} attributes of the given type, as their Object[] data is handed out and can be
+     * written to. The Object[] data stays the storage of these attributes from then on.
+     */
+    private void exposeData(int typeIndex) {
+        int mask = 1 << typeIndex;
+        if ((exposedData & mask) == 0) {
+            boxData(typeIndex);
+            exposedData |= mask;
+        }
+    }
+
+    private void boxData(int typeIndex) {
+        Object[] data = getData(typeIndex);
+        if (data != null) {
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] == UNBOXED) {
+                    data[i] = primitiveAttributeLayout.box(this, typeIndex, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Boxes all {@link #UNBOXED} attributes, keeping the primitive slots as their storage.
+     */
+    private void boxAllData() {
+        if (primitiveAttributeLayout != null) {
+            boxData(BEFORE_WINDOW_DATA_INDEX);
+            boxData(ON_AFTER_WINDOW_DATA_INDEX);
+            boxData(OUTPUT_DATA_INDEX);
+        }
+    }
+
+    /**
+     * Stops keeping the primitive attributes in the primitive slots, as an attribute is no longer of its layout's
+     * type.
+     */
+    void detachPrimitiveAttributes() {
+        boxAllData();
+        this.primitiveAttributeLayout = null;
+    }
+
+    /**
+     * Clears the data of the event for it to be reused, after which its primitive slots are the storage of its
+     * attributes again.
+     */
+    void clearData() {
+        if (beforeWindowData != null) {
+            Arrays.fill(beforeWindowData, null);
+        }
+        if (onAfterWindowData != null) {
+            Arrays.fill(onAfterWindowData, null);
+        }
+        if (outputData != null) {
+            Arrays.fill(outputData, null);
+        }
+        exposedData = 0;
     }
 
 //    public boolean isExpired() {
@@ -128,22 +284,174 @@ public class StreamEvent implements ComplexEvent {
      */
     @Override
     public Object getAttribute(int[] position) {
-        switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
-            case BEFORE_WINDOW_DATA_INDEX:
-                return beforeWindowData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
-            case OUTPUT_DATA_INDEX:
-                return outputData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
-            case ON_AFTER_WINDOW_DATA_INDEX:
-                return onAfterWindowData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
-            default:
-                throw new IllegalStateException("STREAM_ATTRIBUTE_TYPE_INDEX cannot be " +
-                        position[STREAM_ATTRIBUTE_TYPE_INDEX]);
+        Object[] data = getData(position[STREAM_ATTRIBUTE_TYPE_INDEX]);
+        Object value = data[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
+        if (value == UNBOXED) {
+            value = primitiveAttributeLayout.box(this, position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                    position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+            data[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a numeric attribute as long, from its primitive slot when the attribute is kept in one. The attribute
+     * must not be null.
+     *
+     * @param position attribute position, as in {@link #getAttribute(int[])}
+     * @return attribute value
+     */
+    public long getLongAttribute(int[] position) {
+        if (isSlotted(position[STREAM_ATTRIBUTE_TYPE_INDEX])) {
+            int slot = primitiveAttributeLayout.getSlot(position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                    position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+            if (PrimitiveAttributeLayout.isLongSlot(slot)) {
+                return longData[slot];
+            } else if (PrimitiveAttributeLayout.isDoubleSlot(slot)) {
+                return (long) doubleData[PrimitiveAttributeLayout.toDoubleSlot(slot)];
+            }
+        }
+        return ((Number) getAttribute(position)).longValue();
+    }
+
+    /**
+     * Reads a numeric attribute as double, from its primitive slot when the attribute is kept in one. The attribute
+     * must not be null.
+     *
+     * @param position attribute position, as in {@link #getAttribute(int[])}
+     * @return attribute value
+     */
+    public double getDoubleAttribute(int[] position) {
+        if (isSlotted(position[STREAM_ATTRIBUTE_TYPE_INDEX])) {
+            int slot = primitiveAttributeLayout.getSlot(position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                    position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+            if (PrimitiveAttributeLayout.isDoubleSlot(slot)) {
+                return doubleData[PrimitiveAttributeLayout.toDoubleSlot(slot)];
+            } else if (PrimitiveAttributeLayout.isLongSlot(slot)) {
+                return longData[slot];
+            }
+        }
+        return ((Number) getAttribute(position)).doubleValue();
+    }
+
+    /**
+     * Reads a bool attribute, from its primitive slot when the attribute is kept in one. The attribute must not be
+     * null.
+     *
+     * @param position attribute position, as in {@link #getAttribute(int[])}
+     * @return attribute value
+     */
+    public boolean getBoolAttribute(int[] position) {
+        if (isSlotted(position[STREAM_ATTRIBUTE_TYPE_INDEX])) {
+            int slot = primitiveAttributeLayout.getSlot(position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                    position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+            if (PrimitiveAttributeLayout.isLongSlot(slot)) {
+                return longData[slot] != 0;
+            }
+        }
+        return (Boolean) getAttribute(position);
+    }
+
+    /**
+     * Checks whether an attribute is null, without boxing it.
+     *
+     * @param position attribute position, as in {@link #getAttribute(int[])}
+     * @return whether the attribute is null
+     */
+    public boolean isNullAttribute(int[] position) {
+        return getData(position[STREAM_ATTRIBUTE_TYPE_INDEX])[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] == null;
+    }
+
+    /**
+     * Applies a function to a numeric attribute with a single read, passing INT, LONG and BOOL attributes as long
+     * and FLOAT and DOUBLE attributes as double, from their primitive slots when they are kept in one. Null
+     * attributes are told apart by the Object[] data, without boxing the value.
+     *
+     * @param position attribute position, as in {@link #getAttribute(int[])}
+     * @param target   target passed to the function
+     * @param function function to apply
+     * @param <T>      type of the target
+     * @param <R>      result type of the function
+     * @return result of the function
+     */
+    public <T, R> R applyPrimitiveAttribute(int[] position, T target, PrimitiveAttributeFunction<T, R> function) {
+        int typeIndex = position[STREAM_ATTRIBUTE_TYPE_INDEX];
+        Object value = getData(typeIndex)[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]];
+        if (value == null) {
+            return function.applyNull(target);
+        }
+        if (isSlotted(typeIndex)) {
+            int slot = primitiveAttributeLayout.getSlot(typeIndex, position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+            if (PrimitiveAttributeLayout.isLongSlot(slot)) {
+                return function.applyLong(target, longData[slot]);
+            } else if (PrimitiveAttributeLayout.isDoubleSlot(slot)) {
+                return function.applyDouble(target, doubleData[PrimitiveAttributeLayout.toDoubleSlot(slot)]);
+            }
+        }
+        return PrimitiveAttributeFunction.applyBoxed(value, target, function);
+    }
+
+    /**
+     * Copies the data of an event, where the attributes of events of the same layout are copied slot by slot. The
+     * copy keeps its primitive attributes only in their slots, such that events held by windows do not retain their
+     * boxed values.
+     *
+     * @param streamEvent event to copy from
+     * @param beforeWindowDataSize  number of before window attributes to copy
+     * @param onAfterWindowDataSize number of on after window attributes to copy
+     * @param outputDataSize        number of output attributes to copy
+     */
+    void copyData(StreamEvent streamEvent, int beforeWindowDataSize, int onAfterWindowDataSize,
+                  int outputDataSize) {
+        boolean sameLayout = primitiveAttributeLayout != null &&
+                streamEvent.primitiveAttributeLayout == primitiveAttributeLayout;
+        if (sameLayout) {
+            System.arraycopy(streamEvent.longData, 0, longData, 0, longData.length);
+            System.arraycopy(streamEvent.doubleData, 0, doubleData, 0, doubleData.length);
+        }
+        copyData(streamEvent, BEFORE_WINDOW_DATA_INDEX, beforeWindowDataSize, sameLayout);
+        copyData(streamEvent, ON_AFTER_WINDOW_DATA_INDEX, onAfterWindowDataSize, sameLayout);
+        copyData(streamEvent, OUTPUT_DATA_INDEX, outputDataSize, sameLayout);
+        unboxData(BEFORE_WINDOW_DATA_INDEX);
+        unboxData(ON_AFTER_WINDOW_DATA_INDEX);
+        unboxData(OUTPUT_DATA_INDEX);
+    }
+
+    private void unboxData(int typeIndex) {
+        if (isSlotted(typeIndex)) {
+            primitiveAttributeLayout.unbox(typeIndex, getData(typeIndex));
         }
+    }
+
+    private void copyData(StreamEvent streamEvent, int typeIndex, int size, boolean sameLayout) {
+        if (size == 0) {
+            return;
+        }
+        boolean slotted = sameLayout && streamEvent.isSlotted(typeIndex);
+        Object[] data = getData(typeIndex);
+        System.arraycopy(slotted ? streamEvent.getData(typeIndex) : streamEvent.boxedData(typeIndex), 0,
+                data, 0, size);
+        if (!slotted && primitiveAttributeLayout != null) {
+            primitiveAttributeLayout.store(this, typeIndex, data);
+        }
+    }
 
+    /**
+     * @return Object[] data of the given type without {@link #UNBOXED} attributes, without handing it out
+     */
+    private Object[] boxedData(int typeIndex) {
+        if (primitiveAttributeLayout != null) {
+            boxData(typeIndex);
+        }
+        return getData(typeIndex);
     }
 
     @Override
     public void setAttribute(Object object, int[] position) {
+        if (primitiveAttributeLayout != null) {
+            primitiveAttributeLayout.store(this, position[STREAM_ATTRIBUTE_TYPE_INDEX],
+                    position[STREAM_ATTRIBUTE_INDEX_IN_TYPE], object);
+        }
         switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
             case BEFORE_WINDOW_DATA_INDEX:
                 beforeWindowData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
@@ -162,14 +470,23 @@ public class StreamEvent implements ComplexEvent {
 
     public void setOutputData(Object object, int index) {
         this.outputData[index] = object;
+        if (primitiveAttributeLayout != null) {
+            primitiveAttributeLayout.store(this, OUTPUT_DATA_INDEX, index, object);
+        }
     }
 
     public void setOnAfterWindowData(Object object, int index) {
         this.onAfterWindowData[index] = object;
+        if (primitiveAttributeLayout != null) {
+            primitiveAttributeLayout.store(this, ON_AFTER_WINDOW_DATA_INDEX, index, object);
+        }
     }
 
     public void setBeforeWindowData(Object object, int index) {
         this.beforeWindowData[index] = object;
+        if (primitiveAttributeLayout != null) {
+            primitiveAttributeLayout.store(this, BEFORE_WINDOW_DATA_INDEX, index, object);
+        }
     }
 
     @Override
@@ -182,6 +499,8 @@ public class StreamEvent implements ComplexEvent {
         }
 
         StreamEvent event = (StreamEvent) o;
+        boxAllData();
+        event.boxAllData();
 
         if (type != event.type) {
             return false;
@@ -204,6 +523,7 @@ public class StreamEvent implements ComplexEvent {
 
     @Override
     public int hashCode() {
+        boxAllData();
         int result = (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (beforeWindowData != null ? Arrays.hashCode(beforeWindowData) : 0);
         result = 31 * result + (onAfterWindowData != null ? Arrays.hashCode(onAfterWindowData) : 0);
@@ -221,6 +541,7 @@ public class StreamEvent implements ComplexEvent {
         if (maxNoOfEventsToPrint == 0) {
             return "...";
         }
+        boxAllData();
         return "StreamEvent{ timestamp=" + timestamp +
                 ", beforeWindowData=" + (beforeWindowData == null ? "null" : Arrays.asList(beforeWindowData)
                 .toString()) +
@@ -234,6 +555,7 @@ public class StreamEvent implements ComplexEvent {
 
     private void writeObject(ObjectOutputStream stream)
             throws IOException {
+        boxAllData();
         stream.writeObject(beforeWindowData);
         stream.writeObject(onAfterWindowData);
         stream.writeObject(outputData);
@@ -242,6 +564,7 @@ public class StreamEvent implements ComplexEvent {
         StreamEvent nextEvent = next;
         while (nextEvent != null) {
             stream.writeBoolean(true);
+            nextEvent.boxAllData();
             stream.writeObject(nextEvent.beforeWindowData);
             stream.writeObject(nextEvent.onAfterWindowData);
             stream.writeObject(nextEvent.outputData);
@@ -47,19 +47,22 @@ public class StreamEventCloner {
      */
     public StreamEvent copyStreamEvent(StreamEvent streamEvent) {
         StreamEvent newEvent = eventFactory.newInstance();
-        if (beforeWindowDataSize > 0) {
-            System.arraycopy(streamEvent.getBeforeWindowData(), 0, newEvent.getBeforeWindowData(), 0,
-                    beforeWindowDataSize);
-        }
-        if (onAfterWindowDataSize > 0) {
-            System.arraycopy(streamEvent.getOnAfterWindowData(), 0, newEvent.getOnAfterWindowData(), 0,
-                    onAfterWindowDataSize);
-        }
-        if (outputDataSize > 0) {
-            System.arraycopy(streamEvent.getOutputData(), 0, newEvent.getOutputData(), 0, outputDataSize);
-        }
+        newEvent.copyData(streamEvent, beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
         newEvent.setType(streamEvent.getType());
         newEvent.setTimestamp(streamEvent.getTimestamp());
         return newEvent;
     }
+
+    public boolean isPooled() {
+        return eventFactory.isPooled();
+    }
+
+    /**
+     * Returns a StreamEvent created by this cloner back to the underlying {@link StreamEventFactory} pool.
+     *
+     * @param streamEvent StreamEvent that is no longer in use
+     */
+    public void returnEvent(StreamEvent streamEvent) {
+        eventFactory.returnEvent(streamEvent);
+    }
 }
@@ -18,11 +18,20 @@
 package io.siddhi.core.event.stream;
 
 import com.lmax.disruptor.EventFactory;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.util.statistics.ThroughputTracker;
+import io.siddhi.core.util.statistics.metrics.Level;
 
 import java.io.Serializable;
 
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+
 /**
- * Event Factory to create new StreamEvents
+ * Event Factory to create new StreamEvents. When pooling is enabled the factory hands out recycled
+ * {@link StreamEvent}s that were returned through {@link #returnEvent(StreamEvent)}, and only creates new
+ * instances when the pool is empty.
  */
 public class StreamEventFactory implements EventFactory<StreamEvent>, Serializable {
 
@@ -30,6 +39,12 @@ public class StreamEventFactory implements EventFactory<StreamEvent>, Serializab
     private int beforeWindowDataSize;
     private int onAfterWindowDataSize;
     private int outputDataSize;
+    private transient StreamEvent[] pool;
+    private transient int pooledEventCount;
+    private transient ThroughputTracker hitTracker;
+    private transient ThroughputTracker missTracker;
+    private transient SiddhiAppContext siddhiAppContext;
+    private PrimitiveAttributeLayout primitiveAttributeLayout;
 
     /**
      * Initialization of the factory using MetaStreamEvent
@@ -61,7 +76,127 @@ public class StreamEventFactory implements EventFactory<StreamEvent>, Serializab
      * @return StreamEvent
      */
     public StreamEvent newInstance() {
+        if (pool != null) {
+            StreamEvent streamEvent = null;
+            synchronized (this) {
+                if (pooledEventCount > 0) {
+                    streamEvent = pool[--pooledEventCount];
+                    pool[pooledEventCount] = null;
+                }
+            }
+            if (isStatisticsEnabled()) {
+                if (streamEvent != null) {
+                    hitTracker.eventIn();
+                } else {
+                    missTracker.eventIn();
+                }
+            }
+            if (streamEvent != null) {
+                return streamEvent;
+            }
+        }
+        if (primitiveAttributeLayout != null) {
+            return new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize,
+                    primitiveAttributeLayout);
+        }
         return new StreamEvent(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
     }
 
+    /**
+     * Enables keeping the primitive attributes of the created StreamEvents also in primitive slots.
+     *
+     * @param metaStreamEvent meta stream event of the created events
+     */
+    public void enablePrimitiveAttributes(MetaStreamEvent metaStreamEvent) {
+        this.primitiveAttributeLayout = PrimitiveAttributeLayout.create(metaStreamEvent);
+    }
+
+    /**
+     * @return layout of the primitive slots of the created events, or null if primitive slots are not used
+     */
+    public PrimitiveAttributeLayout getPrimitiveAttributeLayout() {
+        return primitiveAttributeLayout;
+    }
+
+    /**
+     * Enables recycling of StreamEvents returned to this factory.
+     *
+     * @param poolSize         maximum number of idle events kept in the pool
+     * @param hitTracker       tracker notified when an event is served from the pool, can be null
+     * @param missTracker      tracker notified when a new event has to be created, can be null
+     * @param siddhiAppContext context of the Siddhi app the factory belongs to
+     */
+    public void enablePooling(int poolSize, ThroughputTracker hitTracker, ThroughputTracker missTracker,
+                              SiddhiAppContext siddhiAppContext) {
+        if (poolSize > 0 && pool == null) {
+            this.pool = new StreamEvent[poolSize];
+            this.hitTracker = hitTracker;
+            this.missTracker = missTracker;
+            this.siddhiAppContext = siddhiAppContext;
+        }
+    }
+
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Returns a StreamEvent that is no longer referenced by the runtime, so that it can be handed out again.
+     * Events are ignored when pooling is disabled or when the pool is full.
+     *
+     * @param streamEvent event to be recycled
+     */
+    public void returnEvent(StreamEvent streamEvent) {
+        if (pool == null || streamEvent == null || !isRecyclable(streamEvent)) {
+            return;
+        }
+        clear(streamEvent);
+        synchronized (this) {
+            if (pooledEventCount < pool.length) {
+                pool[pooledEventCount++] = streamEvent;
+            }
+        }
+    }
+
+    /**
+     * Returns the given StreamEvents to the pool.
+     *
+     * @param streamEvents events to be recycled, null entries are ignored
+     */
+    public void returnEvents(StreamEvent[] streamEvents) {
+        if (pool == null) {
+            return;
+        }
+        for (StreamEvent streamEvent : streamEvents) {
+            returnEvent(streamEvent);
+        }
+    }
+
+    public synchronized int getPooledEventCount() {
+        return pooledEventCount;
+    }
+
+    private boolean isRecyclable(StreamEvent streamEvent) {
+        return streamEvent.getPrimitiveAttributeLayout() == primitiveAttributeLayout &&
+                sizeOf(streamEvent.getData(BEFORE_WINDOW_DATA_INDEX)) == beforeWindowDataSize &&
+                sizeOf(streamEvent.getData(ON_AFTER_WINDOW_DATA_INDEX)) == onAfterWindowDataSize &&
+                sizeOf(streamEvent.getData(OUTPUT_DATA_INDEX)) == outputDataSize;
+    }
+
+    private int sizeOf(Object[] data) {
+        return data == null ? 0 : data.length;
+    }
+
+    private void clear(StreamEvent streamEvent) {
+        streamEvent.setNext(null);
+        streamEvent.setTimestamp(-1);
+        streamEvent.setType(StreamEvent.Type.CURRENT);
+        streamEvent.clearData();
+    }
+
+    private boolean isStatisticsEnabled() {
+        return hitTracker != null && missTracker != null &&
+                Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0;
+    }
+
 }
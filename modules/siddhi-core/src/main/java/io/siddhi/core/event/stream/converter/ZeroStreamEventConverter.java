@@ -31,7 +31,7 @@ public class ZeroStreamEventConverter implements StreamEventConverter, Serializa
     private static final long serialVersionUID = 2223375413250580450L;
 
     public void convertData(long timestamp, Object[] data, StreamEvent.Type type, StreamEvent newEvent) {
-        System.arraycopy(data, 0, newEvent.getOutputData(), 0, data.length);
+        newEvent.copyOutputData(data);
         newEvent.setType(type);
         newEvent.setTimestamp(timestamp);
     }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event.stream.holder;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.table.holder.IndexedEventHolder;
+import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read only {@link IndexedEventHolder} view of the events of a window kept in a {@link SnapshotableStreamEventQueue},
+ * such that the conditions matching them can be routed to the {@link StreamEventQueueIndex}es of the queue as done
+ * for the indexed tables. Indexes are built on the queue when they are first looked up.
+ */
+public class IndexedStreamEventQueueHolder implements IndexedEventHolder {
+
+    private final SnapshotableStreamEventQueue eventQueue;
+    private final Map<String, VariableExpressionExecutor> indexedAttributes;
+
+    /**
+     * @param eventQueue        queue of the window, or null when the view is only used to compile conditions
+     * @param indexedAttributes executors reading the indexed attributes from the events, by attribute name
+     */
+    public IndexedStreamEventQueueHolder(SnapshotableStreamEventQueue eventQueue,
+                                         Map<String, VariableExpressionExecutor> indexedAttributes) {
+        this.eventQueue = eventQueue;
+        this.indexedAttributes = indexedAttributes;
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return indexedAttributes.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return false;
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        List<StreamEvent> events = new ArrayList<>();
+        for (StreamEvent event = eventQueue.getFirst(); event != null; event = event.getNext()) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        return eventQueue.getIndex(attribute, indexedAttributes.get(attribute)).find(operator, value);
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        return eventQueue.getIndex(attribute, indexedAttributes.get(attribute)).contains(operator, value);
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        return null;
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return null;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (StreamEvent event = eventQueue.getFirst(); event != null; event = event.getNext()) {
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        throw new OperationNotSupportedException("Events cannot be added through the indexes of a window");
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        throw new OperationNotSupportedException("Events cannot be overwritten through the indexes of a window");
+    }
+
+    @Override
+    public void deleteAll() {
+        throw new OperationNotSupportedException("Events cannot be deleted through the indexes of a window");
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        throw new OperationNotSupportedException("Events cannot be deleted through the indexes of a window");
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        throw new OperationNotSupportedException("Events cannot be deleted through the indexes of a window");
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        throw new OperationNotSupportedException("Indexes of a window are not persisted");
+    }
+
+    @Override
+    public void restore(SnapshotStateList snapshotStatelist) {
+        throw new OperationNotSupportedException("Indexes of a window are not persisted");
+    }
+}
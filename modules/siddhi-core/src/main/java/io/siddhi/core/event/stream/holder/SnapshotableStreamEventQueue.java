@@ -20,12 +20,14 @@ package io.siddhi.core.event.stream.holder;
 import io.siddhi.core.event.stream.Operation;
 import io.siddhi.core.event.stream.Operation.Operator;
 import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.util.snapshot.SnapshotRequest;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -48,6 +50,9 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     private boolean isOperationLogEnabled = true;
     private int eventIndex = -1;
     protected int size;
+    private transient Map<String, StreamEventQueueIndex> indexes;
+    // Full snapshot still sharing the events of the queue, which copies them before the queue or its events change
+    private transient Snapshot sharedSnapshot;
 
     public SnapshotableStreamEventQueue(StreamEventClonerHolder eventClonerHolder) {
         this(eventClonerHolder, Integer.MAX_VALUE);
@@ -60,6 +65,7 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     }
 
     public void add(StreamEvent events) {
+        detachSnapshot();
         if (!isFullSnapshot()) {
             if (isOperationLogEnabled) {
                 operationChangeLog.add(new Operation(Operator.ADD, copyEvents(events)));
@@ -77,6 +83,36 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
             last.setNext(events);
         }
         last = getLastEvent(events);
+        if (indexes != null) {
+            for (StreamEvent event = events; event != null; event = event.getNext()) {
+                for (StreamEventQueueIndex index : indexes.values()) {
+                    index.add(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the events on the given attribute, building it from the current events if the attribute
+     * is not indexed yet. Once built, the index is maintained as events are added to and removed from the queue.
+     *
+     * @param attribute         name of the attribute
+     * @param attributeExecutor executor reading the attribute from the events of the queue
+     * @return index of the attribute
+     */
+    public StreamEventQueueIndex getIndex(String attribute, VariableExpressionExecutor attributeExecutor) {
+        if (indexes == null) {
+            indexes = new HashMap<>();
+        }
+        StreamEventQueueIndex index = indexes.get(attribute);
+        if (index == null) {
+            index = new StreamEventQueueIndex(attributeExecutor);
+            for (StreamEvent event = first; event != null; event = event.getNext()) {
+                index.add(event);
+            }
+            indexes.put(attribute, index);
+        }
+        return index;
     }
 
     /**
@@ -97,6 +133,12 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         if (lastReturned == null) {
             throw new IllegalStateException();
         }
+        detachSnapshot();
+        if (indexes != null) {
+            for (StreamEventQueueIndex index : indexes.values()) {
+                index.remove(lastReturned);
+            }
+        }
         if (previousToLastReturned != null) {
             previousToLastReturned.setNext(lastReturned.getNext());
         } else {
@@ -171,6 +213,7 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     }
 
     public void clear() {
+        detachSnapshot();
         this.operationChangeLog.clear();
         operationChangeLogSize = 0;
         forceFullSnapshot = true;
@@ -180,6 +223,11 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         first = null;
         last = null;
         eventIndex = -1;
+        if (indexes != null) {
+            for (StreamEventQueueIndex index : indexes.values()) {
+                index.clear();
+            }
+        }
     }
 
     public void reset() {
@@ -197,11 +245,17 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     }
 
     public StreamEvent poll() {
+        detachSnapshot();
         reset();
         if (first != null) {
             StreamEvent firstEvent = first;
             first = first.getNext();
             firstEvent.setNext(null);
+            if (indexes != null) {
+                for (StreamEventQueueIndex index : indexes.values()) {
+                    index.remove(firstEvent);
+                }
+            }
 
             if (!isFullSnapshot()) {
                 if (isOperationLogEnabled) {
@@ -271,17 +325,38 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
         return result;
     }
 
+    /**
+     * Takes the snapshot of the queue. Full snapshots share the events of the queue until they are serialized, where
+     * the events are copied if the queue is changed before, and incremental snapshots take over the operation log,
+     * hence the snapshots can be serialized while the queue is being changed.
+     *
+     * @return snapshot of the queue
+     */
     public Snapshot getSnapshot() {
         if (isFullSnapshot()) {
             forceFullSnapshot = false;
-            return new Snapshot(this.getFirst(), false);
+            detachSnapshot();
+            sharedSnapshot = new Snapshot(first, false, true);
+            return sharedSnapshot;
         } else {
-            Snapshot snapshot = new Snapshot(operationChangeLog, true);
+            Snapshot snapshot = new Snapshot(operationChangeLog, true, true);
             operationChangeLog = new ArrayList<>();
             return snapshot;
         }
     }
 
+    /**
+     * Makes the full snapshot sharing the events of the queue take a copy of them, unless it is already serialized.
+     * Called by the operations changing the queue, and should be called before changing the events read from the
+     * queue in place, or handing them over while they are still in the queue.
+     */
+    public void detachSnapshot() {
+        if (sharedSnapshot != null) {
+            sharedSnapshot.copyOnWrite(events -> events == null ? null : copyEvents((StreamEvent) events));
+            sharedSnapshot = null;
+        }
+    }
+
     private boolean isFullSnapshot() {
         return operationChangeLogSize > 100 || operationChangeLogSize > operationChangeLogThreshold
                 || forceFullSnapshot || SnapshotRequest.isRequestForFullSnapshot();
@@ -359,6 +434,7 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     }
 
     public void overwrite(StreamEvent streamEvent) {
+        detachSnapshot();
         if (!isFullSnapshot()) {
             if (isOperationLogEnabled) {
                 operationChangeLog.add(new Operation(Operator.OVERWRITE,
@@ -371,6 +447,11 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
             operationChangeLogSize = 0;
             forceFullSnapshot = true;
         }
+        if (indexes != null) {
+            for (StreamEventQueueIndex index : indexes.values()) {
+                index.replace(lastReturned, streamEvent);
+            }
+        }
 
         if (previousToLastReturned != null) {
             previousToLastReturned.setNext(streamEvent);
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.event.stream.holder;
+
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Secondary index of the events of a {@link SnapshotableStreamEventQueue} on one of their attributes, used to find the
+ * events of a window matching an equality or range condition without scanning all of them.
+ * <p>
+ * Events are grouped by their attribute values in a sorted map, where each group keeps its events in the order of the
+ * queue. Each event is tagged with a sequence number as it is added, such that the events matching a range condition
+ * are also returned in the order of the queue. As windows mostly expire their oldest events, removed events are
+ * usually found at the head of their groups. Events having a null value are not indexed, as they never match a
+ * comparison. Floating point values are compared as the compare conditions do, where -0.0 equals 0.0, and NaN values
+ * are kept apart from the sorted map, as they only satisfy a not equal condition.
+ */
+public class StreamEventQueueIndex {
+
+    private static final Comparator<Object> KEY_COMPARATOR = StreamEventQueueIndex::compareKeys;
+    private static final Comparator<IndexedEvent> SEQUENCE_COMPARATOR =
+            Comparator.comparingLong(indexedEvent -> indexedEvent.sequence);
+
+    private final VariableExpressionExecutor attributeExecutor;
+    private final TreeMap<Object, ArrayDeque<IndexedEvent>> indexData = new TreeMap<>(KEY_COMPARATOR);
+    private final ArrayDeque<IndexedEvent> nanEvents = new ArrayDeque<>();
+    private long nextSequence;
+
+    /**
+     * @param attributeExecutor executor reading the indexed attribute from the events of the queue
+     */
+    public StreamEventQueueIndex(VariableExpressionExecutor attributeExecutor) {
+        this.attributeExecutor = attributeExecutor;
+    }
+
+    void add(StreamEvent streamEvent) {
+        Object key = normalize(attributeExecutor.execute(streamEvent));
+        if (key != null) {
+            getIndexedEvents(key).addLast(new IndexedEvent(streamEvent, nextSequence++));
+        }
+    }
+
+    void remove(StreamEvent streamEvent) {
+        unlink(streamEvent);
+    }
+
+    /**
+     * Replaces an event of the queue with another, keeping its position.
+     */
+    void replace(StreamEvent oldEvent, StreamEvent newEvent) {
+        IndexedEvent indexedEvent = unlink(oldEvent);
+        Object key = normalize(attributeExecutor.execute(newEvent));
+        if (key == null) {
+            return;
+        }
+        if (indexedEvent == null) {
+            // The replaced event was not indexed, hence its position cannot be recovered
+            getIndexedEvents(key).addLast(new IndexedEvent(newEvent, nextSequence++));
+            return;
+        }
+        indexedEvent.event = newEvent;
+        ArrayDeque<IndexedEvent> indexedEvents = getIndexedEvents(key);
+        if (indexedEvents.isEmpty() || indexedEvents.peekLast().sequence < indexedEvent.sequence) {
+            indexedEvents.addLast(indexedEvent);
+        } else {
+            List<IndexedEvent> orderedEvents = new ArrayList<>(indexedEvents);
+            orderedEvents.add(indexedEvent);
+            orderedEvents.sort(SEQUENCE_COMPARATOR);
+            indexedEvents.clear();
+            indexedEvents.addAll(orderedEvents);
+        }
+    }
+
+    void clear() {
+        indexData.clear();
+        nanEvents.clear();
+    }
+
+    private ArrayDeque<IndexedEvent> getIndexedEvents(Object key) {
+        if (isNaN(key)) {
+            return nanEvents;
+        }
+        return indexData.computeIfAbsent(key, k -> new ArrayDeque<>());
+    }
+
+    private IndexedEvent unlink(StreamEvent streamEvent) {
+        Object key = normalize(attributeExecutor.execute(streamEvent));
+        if (key == null) {
+            return null;
+        }
+        ArrayDeque<IndexedEvent> indexedEvents = isNaN(key) ? nanEvents : indexData.get(key);
+        if (indexedEvents == null) {
+            return null;
+        }
+        for (Iterator<IndexedEvent> iterator = indexedEvents.iterator(); iterator.hasNext(); ) {
+            IndexedEvent indexedEvent = iterator.next();
+            if (indexedEvent.event == streamEvent) {
+                iterator.remove();
+                if (indexedEvents.isEmpty() && indexedEvents != nanEvents) {
+                    indexData.remove(key);
+                }
+                return indexedEvent;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the events whose attribute value satisfies the comparison with the given value.
+     *
+     * @param operator comparison operator, where the indexed attribute is its left operand
+     * @param value    value to compare with
+     * @return matching events in the order of the queue
+     */
+    public List<StreamEvent> find(Compare.Operator operator, Object value) {
+        List<StreamEvent> events = new ArrayList<>();
+        value = normalize(value);
+        if (value == null) {
+            return events;
+        }
+        if (isNaN(value)) {
+            if (operator != Compare.Operator.NOT_EQUAL) {
+                return events;
+            }
+            List<IndexedEvent> matchingEvents = new ArrayList<>(nanEvents);
+            for (ArrayDeque<IndexedEvent> indexedEvents : indexData.values()) {
+                matchingEvents.addAll(indexedEvents);
+            }
+            return toOrderedEvents(matchingEvents, events);
+        }
+        switch (operator) {
+            case EQUAL:
+                ArrayDeque<IndexedEvent> indexedEvents = indexData.get(value);
+                if (indexedEvents != null) {
+                    for (IndexedEvent indexedEvent : indexedEvents) {
+                        events.add(indexedEvent.event);
+                    }
+                }
+                return events;
+            case LESS_THAN:
+                return collect(indexData.headMap(value, false), events);
+            case LESS_THAN_EQUAL:
+                return collect(indexData.headMap(value, true), events);
+            case GREATER_THAN:
+                return collect(indexData.tailMap(value, false), events);
+            case GREATER_THAN_EQUAL:
+                return collect(indexData.tailMap(value, true), events);
+            case NOT_EQUAL:
+                List<IndexedEvent> matchingEvents = new ArrayList<>(nanEvents);
+                for (Map.Entry<Object, ArrayDeque<IndexedEvent>> entry : indexData.entrySet()) {
+                    if (compareKeys(entry.getKey(), value) != 0) {
+                        matchingEvents.addAll(entry.getValue());
+                    }
+                }
+                return toOrderedEvents(matchingEvents, events);
+            default:
+                throw new IllegalArgumentException("Unsupported operator " + operator);
+        }
+    }
+
+    /**
+     * @return whether any event's attribute value satisfies the comparison with the given value
+     */
+    public boolean contains(Compare.Operator operator, Object value) {
+        value = normalize(value);
+        if (value == null) {
+            return false;
+        }
+        if (isNaN(value)) {
+            return operator == Compare.Operator.NOT_EQUAL && (!indexData.isEmpty() || !nanEvents.isEmpty());
+        }
+        switch (operator) {
+            case EQUAL:
+                return indexData.containsKey(value);
+            case LESS_THAN:
+                return !indexData.headMap(value, false).isEmpty();
+            case LESS_THAN_EQUAL:
+                return !indexData.headMap(value, true).isEmpty();
+            case GREATER_THAN:
+                return !indexData.tailMap(value, false).isEmpty();
+            case GREATER_THAN_EQUAL:
+                return !indexData.tailMap(value, true).isEmpty();
+            case NOT_EQUAL:
+                return !nanEvents.isEmpty() || indexData.size() > 1 ||
+                        (indexData.size() == 1 && !indexData.containsKey(value));
+            default:
+                throw new IllegalArgumentException("Unsupported operator " + operator);
+        }
+    }
+
+    private static List<StreamEvent> collect(Map<Object, ArrayDeque<IndexedEvent>> indexedData,
+                                             List<StreamEvent> events) {
+        if (indexedData.size() == 1) {
+            for (IndexedEvent indexedEvent : indexedData.values().iterator().next()) {
+                events.add(indexedEvent.event);
+            }
+            return events;
+        }
+        List<IndexedEvent> matchingEvents = new ArrayList<>();
+        for (Collection<IndexedEvent> indexedEvents : indexedData.values()) {
+            matchingEvents.addAll(indexedEvents);
+        }
+        return toOrderedEvents(matchingEvents, events);
+    }
+
+    private static List<StreamEvent> toOrderedEvents(List<IndexedEvent> matchingEvents, List<StreamEvent> events) {
+        matchingEvents.sort(SEQUENCE_COMPARATOR);
+        for (IndexedEvent indexedEvent : matchingEvents) {
+            events.add(indexedEvent.event);
+        }
+        return events;
+    }
+
+    /**
+     * Converts -0.0 to 0.0, as they are equal when compared by the compare conditions, but not by {@link Double#compare}
+     * and {@link Float#compare}.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Double && (Double) value == 0.0) {
+            return 0.0;
+        } else if (value instanceof Float && (Float) value == 0.0f) {
+            return 0.0f;
+        }
+        return value;
+    }
+
+    private static boolean isNaN(Object value) {
+        return (value instanceof Double && ((Double) value).isNaN()) ||
+                (value instanceof Float && ((Float) value).isNaN());
+    }
+
+    /**
+     * Compares attribute values as the compare conditions do, where numbers of different types are compared by their
+     * values.
+     */
+    private static int compareKeys(Object key1, Object key2) {
+        if (key1 instanceof Number && key2 instanceof Number && key1.getClass() != key2.getClass()) {
+            if ((key1 instanceof Integer || key1 instanceof Long) && (key2 instanceof Integer || key2 instanceof Long)) {
+                return Long.compare(((Number) key1).longValue(), ((Number) key2).longValue());
+            }
+            return Double.compare(((Number) key1).doubleValue(), ((Number) key2).doubleValue());
+        }
+        return ((Comparable<Object>) key1).compareTo(key2);
+    }
+
+    private static final class IndexedEvent {
+        private StreamEvent event;
+        private final long sequence;
+
+        private IndexedEvent(StreamEvent event, long sequence) {
+            this.event = event;
+            this.sequence = sequence;
+        }
+    }
+}
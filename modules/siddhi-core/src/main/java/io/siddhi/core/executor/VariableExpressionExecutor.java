@@ -19,8 +19,13 @@
 package io.siddhi.core.executor;
 
 import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.PrimitiveAttributeFunction;
+import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.query.api.definition.Attribute;
 
+import static io.siddhi.core.util.SiddhiConstants.STATE_OUTPUT_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
 import static io.siddhi.core.util.SiddhiConstants.STREAM_EVENT_CHAIN_INDEX;
 import static io.siddhi.core.util.SiddhiConstants.STREAM_EVENT_INDEX_IN_CHAIN;
 import static io.siddhi.core.util.SiddhiConstants.UNKNOWN_STATE;
@@ -46,6 +51,93 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return event.getAttribute(position);
     }
 
+    /**
+     * Reads a numeric attribute as long, without unboxing when the event keeps the attribute in a primitive slot.
+     * The attribute must not be null.
+     *
+     * @param event event to read from
+     * @return attribute value
+     */
+    public long executeLong(ComplexEvent event) {
+        StreamEvent streamEvent = getStreamEvent(event);
+        if (streamEvent != null) {
+            return streamEvent.getLongAttribute(position);
+        }
+        return ((Number) event.getAttribute(position)).longValue();
+    }
+
+    /**
+     * Reads a numeric attribute as double, without unboxing when the event keeps the attribute in a primitive slot.
+     * The attribute must not be null.
+     *
+     * @param event event to read from
+     * @return attribute value
+     */
+    public double executeDouble(ComplexEvent event) {
+        StreamEvent streamEvent = getStreamEvent(event);
+        if (streamEvent != null) {
+            return streamEvent.getDoubleAttribute(position);
+        }
+        return ((Number) event.getAttribute(position)).doubleValue();
+    }
+
+    /**
+     * Reads a bool attribute, without unboxing when the event keeps the attribute in a primitive slot. The
+     * attribute must not be null.
+     *
+     * @param event event to read from
+     * @return attribute value
+     */
+    public boolean executeBool(ComplexEvent event) {
+        StreamEvent streamEvent = getStreamEvent(event);
+        if (streamEvent != null) {
+            return streamEvent.getBoolAttribute(position);
+        }
+        return (Boolean) event.getAttribute(position);
+    }
+
+    /**
+     * Applies a function to a numeric attribute with a single read, without boxing when the event keeps the
+     * attribute in a primitive slot.
+     *
+     * @param event    event to read from
+     * @param target   target passed to the function
+     * @param function function to apply, see {@link StreamEvent#applyPrimitiveAttribute}
+     * @param <T>      type of the target
+     * @param <R>      result type of the function
+     * @return result of the function
+     */
+    public <T, R> R executePrimitive(ComplexEvent event, T target, PrimitiveAttributeFunction<T, R> function) {
+        StreamEvent streamEvent = getStreamEvent(event);
+        if (streamEvent != null) {
+            return streamEvent.applyPrimitiveAttribute(position, target, function);
+        }
+        return PrimitiveAttributeFunction.applyBoxed(event.getAttribute(position), target, function);
+    }
+
+    /**
+     * Checks whether the attribute is null, without boxing when the event keeps the attribute in a primitive slot.
+     *
+     * @param event event to read from
+     * @return whether the attribute is null
+     */
+    public boolean isNull(ComplexEvent event) {
+        StreamEvent streamEvent = getStreamEvent(event);
+        if (streamEvent != null) {
+            return streamEvent.isNullAttribute(position);
+        }
+        return event.getAttribute(position) == null;
+    }
+
+    private StreamEvent getStreamEvent(ComplexEvent event) {
+        if (event instanceof StreamEvent) {
+            return (StreamEvent) event;
+        } else if (event instanceof StateEvent && position[STREAM_ATTRIBUTE_TYPE_INDEX] != STATE_OUTPUT_DATA_INDEX) {
+            return ((StateEvent) event).getStreamEvent(position);
+        }
+        return null;
+    }
+
 
     public Attribute.Type getReturnType() {
         return attribute.getType();
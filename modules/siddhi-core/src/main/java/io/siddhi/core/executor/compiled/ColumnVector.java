@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+/**
+ * Values of an attribute or an expression for all the events of a {@link ColumnarBatch}. Int, long and bool values
+ * are kept as long, float and double values as double, and other values as objects. The value of an event is only
+ * valid when it is not marked in the null mask.
+ */
+class ColumnVector {
+
+    final long[] longValues;
+    final double[] doubleValues;
+    final Object[] objectValues;
+    // Null mask of the events, or null if none of the values are null.
+    final boolean[] nulls;
+
+    private ColumnVector(long[] longValues, double[] doubleValues, Object[] objectValues, boolean[] nulls) {
+        this.longValues = longValues;
+        this.doubleValues = doubleValues;
+        this.objectValues = objectValues;
+        this.nulls = nulls;
+    }
+
+    static ColumnVector ofLongs(long[] longValues, boolean[] nulls) {
+        return new ColumnVector(longValues, null, null, nulls);
+    }
+
+    static ColumnVector ofDoubles(double[] doubleValues, boolean[] nulls) {
+        return new ColumnVector(null, doubleValues, null, nulls);
+    }
+
+    static ColumnVector ofObjects(Object[] objectValues, boolean[] nulls) {
+        return new ColumnVector(null, null, objectValues, nulls);
+    }
+
+    /**
+     * @return null mask where an event is null if it is null in either of the given masks
+     */
+    static boolean[] mergeNulls(boolean[] left, boolean[] right, int size) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+        boolean[] nulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            nulls[i] = left[i] | right[i];
+        }
+        return nulls;
+    }
+}
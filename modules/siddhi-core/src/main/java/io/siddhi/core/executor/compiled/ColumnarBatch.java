@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.Event;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.List;
+
+/**
+ * Struct of arrays representation of a batch of {@link Event}s, holding a {@link ColumnVector} per attribute read by
+ * the columnar conditions. Columns of the other attributes are not populated.
+ */
+public class ColumnarBatch {
+
+    private final int size;
+    private final ColumnVector[] columns;
+
+    /**
+     * @param events           events of the batch
+     * @param attributeIndexes indexes of the attributes to be populated
+     * @param attributeTypes   types of the attributes to be populated
+     * @param attributeCount   number of attributes of the events
+     */
+    ColumnarBatch(List<Event> events, int[] attributeIndexes, Attribute.Type[] attributeTypes, int attributeCount) {
+        this.size = events.size();
+        this.columns = new ColumnVector[attributeCount];
+        for (int i = 0; i < attributeIndexes.length; i++) {
+            columns[attributeIndexes[i]] = createColumn(events, attributeIndexes[i], attributeTypes[i]);
+        }
+    }
+
+    private ColumnVector createColumn(List<Event> events, int attributeIndex, Attribute.Type type) {
+        boolean[] nulls = null;
+        switch (type) {
+            case INT:
+            case LONG: {
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    Object value = events.get(i).getData(attributeIndex);
+                    if (value != null) {
+                        values[i] = ((Number) value).longValue();
+                    } else {
+                        if (nulls == null) {
+                            nulls = new boolean[size];
+                        }
+                        nulls[i] = true;
+                    }
+                }
+                return ColumnVector.ofLongs(values, nulls);
+            }
+            case FLOAT:
+            case DOUBLE: {
+                double[] values = new double[size];
+                for (int i = 0; i < size; i++) {
+                    Object value = events.get(i).getData(attributeIndex);
+                    if (value != null) {
+                        values[i] = ((Number) value).doubleValue();
+                    } else {
+                        if (nulls == null) {
+                            nulls = new boolean[size];
+                        }
+                        nulls[i] = true;
+                    }
+                }
+                return ColumnVector.ofDoubles(values, nulls);
+            }
+            default: {
+                Object[] values = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    Object value = events.get(i).getData(attributeIndex);
+                    if (value != null) {
+                        values[i] = value;
+                    } else {
+                        if (nulls == null) {
+                            nulls = new boolean[size];
+                        }
+                        nulls[i] = true;
+                    }
+                }
+                return ColumnVector.ofObjects(values, nulls);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    ColumnVector getColumn(int attributeIndex) {
+        return columns[attributeIndex];
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Compiles conditions evaluated on the StreamEvents of a query into functions evaluating them over the columns of a
+ * {@link ColumnarBatch}, as tight loops over primitive arrays. The same conditions as
+ * {@link ExpressionExecutorCompiler} are supported, i.e. and, or, not and numeric comparisons of attributes,
+ * constants and arithmetic expressions, as well as equality of strings, with the same null and narrowing semantics.
+ * Conditions using any other executor are not compiled, as they need the event to be evaluated.
+ */
+class ColumnarExpressionCompiler {
+
+    private final MetaStreamEvent metaStreamEvent;
+    private final List<Attribute> inputAttributes;
+    // Types of the attributes read by the compiled conditions, by the attribute index in the input events.
+    private final Map<Integer, Attribute.Type> columns = new LinkedHashMap<>();
+
+    ColumnarExpressionCompiler(MetaStreamEvent metaStreamEvent) {
+        this.metaStreamEvent = metaStreamEvent;
+        this.inputAttributes = metaStreamEvent.getInputDefinitions().get(0).getAttributeList();
+    }
+
+    Map<Integer, Attribute.Type> getColumns() {
+        return columns;
+    }
+
+    int getInputAttributeCount() {
+        return inputAttributes.size();
+    }
+
+    /**
+     * @param executor condition executor
+     * @return function returning the selection of the events accepted by the condition, or null if the condition
+     * cannot be compiled
+     */
+    Function<ColumnarBatch, boolean[]> compileCondition(ExpressionExecutor executor) {
+        if (executor instanceof CompiledConditionExpressionExecutor) {
+            return compileCondition(((CompiledConditionExpressionExecutor) executor).getInterpretedExecutor());
+        } else if (executor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) executor;
+            Function<ColumnarBatch, boolean[]> left = compileCondition(andExecutor.getLeftConditionExecutor());
+            Function<ColumnarBatch, boolean[]> right = compileCondition(andExecutor.getRightConditionExecutor());
+            if (left == null || right == null) {
+                return null;
+            }
+            return batch -> {
+                boolean[] result = left.apply(batch);
+                boolean[] rightResult = right.apply(batch);
+                for (int i = 0, size = batch.size(); i < size; i++) {
+                    result[i] &= rightResult[i];
+                }
+                return result;
+            };
+        } else if (executor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) executor;
+            Function<ColumnarBatch, boolean[]> left = compileCondition(orExecutor.getLeftConditionExecutor());
+            Function<ColumnarBatch, boolean[]> right = compileCondition(orExecutor.getRightConditionExecutor());
+            if (left == null || right == null) {
+                return null;
+            }
+            return batch -> {
+                boolean[] result = left.apply(batch);
+                boolean[] rightResult = right.apply(batch);
+                for (int i = 0, size = batch.size(); i < size; i++) {
+                    result[i] |= rightResult[i];
+                }
+                return result;
+            };
+        } else if (executor instanceof NotConditionExpressionExecutor) {
+            Function<ColumnarBatch, boolean[]> condition = compileCondition(
+                    ((NotConditionExpressionExecutor) executor).getConditionExecutor());
+            if (condition == null) {
+                return null;
+            }
+            return batch -> {
+                boolean[] result = condition.apply(batch);
+                for (int i = 0, size = batch.size(); i < size; i++) {
+                    result[i] = !result[i];
+                }
+                return result;
+            };
+        } else if (executor instanceof CompareConditionExpressionExecutor) {
+            return compileCompare((CompareConditionExpressionExecutor) executor);
+        }
+        return null;
+    }
+
+    private Function<ColumnarBatch, boolean[]> compileCompare(CompareConditionExpressionExecutor compareExecutor) {
+        ExpressionExecutorCompiler.CompareOperator operator =
+                ExpressionExecutorCompiler.CompareOperator.of(compareExecutor);
+        if (operator == null) {
+            return null;
+        }
+        ExpressionExecutor leftExecutor = compareExecutor.getLeftExpressionExecutor();
+        ExpressionExecutor rightExecutor = compareExecutor.getRightExpressionExecutor();
+        if (leftExecutor.getReturnType() == Attribute.Type.STRING &&
+                rightExecutor.getReturnType() == Attribute.Type.STRING) {
+            return compileStringCompare(operator, leftExecutor, rightExecutor);
+        }
+        ColumnNode left = compileNumeric(leftExecutor);
+        ColumnNode right = compileNumeric(rightExecutor);
+        if (left == null || right == null) {
+            return null;
+        }
+        if (left.type == Attribute.Type.DOUBLE || right.type == Attribute.Type.DOUBLE ||
+                left.type == Attribute.Type.FLOAT || right.type == Attribute.Type.FLOAT) {
+            Attribute.Type compareType = left.type == Attribute.Type.DOUBLE || right.type == Attribute.Type.DOUBLE ?
+                    Attribute.Type.DOUBLE : Attribute.Type.FLOAT;
+            Function<ColumnarBatch, ColumnVector> l = left.toDouble(compareType);
+            Function<ColumnarBatch, ColumnVector> r = right.toDouble(compareType);
+            return batch -> {
+                ColumnVector leftVector = l.apply(batch);
+                ColumnVector rightVector = r.apply(batch);
+                return compare(operator, leftVector.doubleValues, rightVector.doubleValues,
+                        ColumnVector.mergeNulls(leftVector.nulls, rightVector.nulls, batch.size()), batch.size());
+            };
+        }
+        Function<ColumnarBatch, ColumnVector> l = left.toLong(Attribute.Type.LONG);
+        Function<ColumnarBatch, ColumnVector> r = right.toLong(Attribute.Type.LONG);
+        return batch -> {
+            ColumnVector leftVector = l.apply(batch);
+            ColumnVector rightVector = r.apply(batch);
+            return compare(operator, leftVector.longValues, rightVector.longValues,
+                    ColumnVector.mergeNulls(leftVector.nulls, rightVector.nulls, batch.size()), batch.size());
+        };
+    }
+
+    private Function<ColumnarBatch, boolean[]> compileStringCompare(ExpressionExecutorCompiler.CompareOperator operator,
+                                                                    ExpressionExecutor leftExecutor,
+                                                                    ExpressionExecutor rightExecutor) {
+        if (operator != ExpressionExecutorCompiler.CompareOperator.EQUAL &&
+                operator != ExpressionExecutorCompiler.CompareOperator.NOT_EQUAL) {
+            return null;
+        }
+        Function<ColumnarBatch, ColumnVector> left = compileObject(leftExecutor);
+        Function<ColumnarBatch, ColumnVector> right = compileObject(rightExecutor);
+        if (left == null || right == null) {
+            return null;
+        }
+        boolean equal = operator == ExpressionExecutorCompiler.CompareOperator.EQUAL;
+        return batch -> {
+            int size = batch.size();
+            ColumnVector leftVector = left.apply(batch);
+            ColumnVector rightVector = right.apply(batch);
+            boolean[] nulls = ColumnVector.mergeNulls(leftVector.nulls, rightVector.nulls, size);
+            boolean[] result = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = (nulls == null || !nulls[i]) &&
+                        leftVector.objectValues[i].equals(rightVector.objectValues[i]) == equal;
+            }
+            return result;
+        };
+    }
+
+    private Function<ColumnarBatch, ColumnVector> compileObject(ExpressionExecutor executor) {
+        if (executor instanceof ConstantExpressionExecutor) {
+            Object value = ((ConstantExpressionExecutor) executor).getValue();
+            return batch -> {
+                Object[] values = new Object[batch.size()];
+                Arrays.fill(values, value);
+                return ColumnVector.ofObjects(values, value == null ? allNulls(batch.size()) : null);
+            };
+        } else if (executor instanceof VariableExpressionExecutor) {
+            int attributeIndex = registerColumn((VariableExpressionExecutor) executor);
+            if (attributeIndex < 0) {
+                return null;
+            }
+            return batch -> batch.getColumn(attributeIndex);
+        }
+        return null;
+    }
+
+    private ColumnNode compileNumeric(ExpressionExecutor executor) {
+        Attribute.Type type = executor.getReturnType();
+        if (type != Attribute.Type.INT && type != Attribute.Type.LONG && type != Attribute.Type.FLOAT &&
+                type != Attribute.Type.DOUBLE) {
+            return null;
+        }
+        if (executor instanceof ConstantExpressionExecutor) {
+            Object value = ((ConstantExpressionExecutor) executor).getValue();
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            if (ColumnNode.isIntegral(type)) {
+                long constant = ((Number) value).longValue();
+                return new ColumnNode(type, constant, batch -> {
+                    long[] values = new long[batch.size()];
+                    Arrays.fill(values, constant);
+                    return ColumnVector.ofLongs(values, null);
+                });
+            } else {
+                double constant = ((Number) value).doubleValue();
+                return new ColumnNode(type, constant, batch -> {
+                    double[] values = new double[batch.size()];
+                    Arrays.fill(values, constant);
+                    return ColumnVector.ofDoubles(values, null);
+                });
+            }
+        } else if (executor instanceof VariableExpressionExecutor) {
+            int attributeIndex = registerColumn((VariableExpressionExecutor) executor);
+            if (attributeIndex < 0) {
+                return null;
+            }
+            return new ColumnNode(type, null, batch -> batch.getColumn(attributeIndex));
+        } else if (executor instanceof CompiledMathExpressionExecutor) {
+            return compileNumeric(((CompiledMathExpressionExecutor) executor).getInterpretedExecutor());
+        } else if (executor instanceof MathExpressionExecutor) {
+            return compileMath((MathExpressionExecutor) executor, type);
+        }
+        return null;
+    }
+
+    private ColumnNode compileMath(MathExpressionExecutor mathExecutor, Attribute.Type type) {
+        ExpressionExecutorCompiler.MathOperator operator = ExpressionExecutorCompiler.MathOperator.of(mathExecutor);
+        if (operator == null) {
+            return null;
+        }
+        ColumnNode left = compileNumeric(mathExecutor.getLeftExpressionExecutor());
+        ColumnNode right = compileNumeric(mathExecutor.getRightExpressionExecutor());
+        if (left == null || right == null) {
+            return null;
+        }
+        if (operator == ExpressionExecutorCompiler.MathOperator.DIVIDE ||
+                operator == ExpressionExecutorCompiler.MathOperator.MOD) {
+            // Division by zero results in null, hence only constant non zero divisors are compiled.
+            if (right.constant == null || right.constant.doubleValue() == 0.0 ||
+                    (ColumnNode.isIntegral(type) && right.constant.longValue() == 0)) {
+                return null;
+            }
+        }
+        if (ColumnNode.isIntegral(type)) {
+            Function<ColumnarBatch, ColumnVector> l = left.toLong(type);
+            Function<ColumnarBatch, ColumnVector> r = right.toLong(type);
+            boolean narrowToInt = type == Attribute.Type.INT;
+            return new ColumnNode(type, null, batch -> {
+                ColumnVector leftVector = l.apply(batch);
+                ColumnVector rightVector = r.apply(batch);
+                return ColumnVector.ofLongs(
+                        apply(operator, leftVector.longValues, rightVector.longValues, batch.size(), narrowToInt),
+                        ColumnVector.mergeNulls(leftVector.nulls, rightVector.nulls, batch.size()));
+            });
+        } else {
+            Function<ColumnarBatch, ColumnVector> l = left.toDouble(type);
+            Function<ColumnarBatch, ColumnVector> r = right.toDouble(type);
+            boolean narrowToFloat = type == Attribute.Type.FLOAT;
+            return new ColumnNode(type, null, batch -> {
+                ColumnVector leftVector = l.apply(batch);
+                ColumnVector rightVector = r.apply(batch);
+                return ColumnVector.ofDoubles(
+                        apply(operator, leftVector.doubleValues, rightVector.doubleValues, batch.size(),
+                                narrowToFloat),
+                        ColumnVector.mergeNulls(leftVector.nulls, rightVector.nulls, batch.size()));
+            });
+        }
+    }
+
+    /**
+     * Registers the column of the attribute read by the variable.
+     *
+     * @return index of the attribute in the input events, or -1 if the attribute is not read from the input events
+     */
+    private int registerColumn(VariableExpressionExecutor variable) {
+        int[] position = variable.getPosition();
+        List<Attribute> attributes;
+        switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
+            case BEFORE_WINDOW_DATA_INDEX:
+                attributes = metaStreamEvent.getBeforeWindowData();
+                break;
+            case ON_AFTER_WINDOW_DATA_INDEX:
+                attributes = metaStreamEvent.getOnAfterWindowData();
+                break;
+            case OUTPUT_DATA_INDEX:
+                attributes = metaStreamEvent.getOutputData();
+                break;
+            default:
+                return -1;
+        }
+        if (attributes == null || position[STREAM_ATTRIBUTE_INDEX_IN_TYPE] >= attributes.size()) {
+            return -1;
+        }
+        Attribute attribute = attributes.get(position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]);
+        for (int i = 0; i < inputAttributes.size(); i++) {
+            if (inputAttributes.get(i).getName().equals(attribute.getName()) &&
+                    inputAttributes.get(i).getType() == variable.getReturnType()) {
+                columns.put(i, variable.getReturnType());
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean[] allNulls(int size) {
+        boolean[] nulls = new boolean[size];
+        Arrays.fill(nulls, true);
+        return nulls;
+    }
+
+    private static long[] apply(ExpressionExecutorCompiler.MathOperator operator, long[] left, long[] right,
+                                int size, boolean narrowToInt) {
+        long[] result = new long[size];
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] + right[i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] - right[i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] * right[i];
+                }
+                break;
+            case DIVIDE:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] / right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] % right[i];
+                }
+                break;
+        }
+        if (narrowToInt) {
+            for (int i = 0; i < size; i++) {
+                result[i] = (int) result[i];
+            }
+        }
+        return result;
+    }
+
+    private static double[] apply(ExpressionExecutorCompiler.MathOperator operator, double[] left, double[] right,
+                                  int size, boolean narrowToFloat) {
+        double[] result = new double[size];
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] + right[i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] - right[i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] * right[i];
+                }
+                break;
+            case DIVIDE:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] / right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] % right[i];
+                }
+                break;
+        }
+        if (narrowToFloat) {
+            for (int i = 0; i < size; i++) {
+                result[i] = (float) result[i];
+            }
+        }
+        return result;
+    }
+
+    private static boolean[] compare(ExpressionExecutorCompiler.CompareOperator operator, long[] left, long[] right,
+                                     boolean[] nulls, int size) {
+        boolean[] result = new boolean[size];
+        switch (operator) {
+            case GREATER_THAN:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] > right[i];
+                }
+                break;
+            case GREATER_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] >= right[i];
+                }
+                break;
+            case LESS_THAN:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] < right[i];
+                }
+                break;
+            case LESS_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] <= right[i];
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] == right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] != right[i];
+                }
+                break;
+        }
+        return excludeNulls(result, nulls, size);
+    }
+
+    private static boolean[] compare(ExpressionExecutorCompiler.CompareOperator operator, double[] left,
+                                     double[] right, boolean[] nulls, int size) {
+        boolean[] result = new boolean[size];
+        switch (operator) {
+            case GREATER_THAN:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] > right[i];
+                }
+                break;
+            case GREATER_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] >= right[i];
+                }
+                break;
+            case LESS_THAN:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] < right[i];
+                }
+                break;
+            case LESS_THAN_EQUAL:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] <= right[i];
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] == right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] != right[i];
+                }
+                break;
+        }
+        return excludeNulls(result, nulls, size);
+    }
+
+    private static boolean[] excludeNulls(boolean[] result, boolean[] nulls, int size) {
+        if (nulls != null) {
+            for (int i = 0; i < size; i++) {
+                result[i] &= !nulls[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compiled numeric expression, evaluated into long values for int and long expressions, and into double values
+     * for float and double expressions.
+     */
+    private static class ColumnNode {
+        private final Attribute.Type type;
+        private final Number constant;
+        private final Function<ColumnarBatch, ColumnVector> function;
+
+        ColumnNode(Attribute.Type type, Number constant, Function<ColumnarBatch, ColumnVector> function) {
+            this.type = type;
+            this.constant = constant;
+            this.function = function;
+        }
+
+        static boolean isIntegral(Attribute.Type type) {
+            return type == Attribute.Type.INT || type == Attribute.Type.LONG;
+        }
+
+        /**
+         * @param targetType INT or LONG
+         * @return function returning the long values converted to the given type
+         */
+        Function<ColumnarBatch, ColumnVector> toLong(Attribute.Type targetType) {
+            Function<ColumnarBatch, ColumnVector> function = this.function;
+            if (isIntegral(type)) {
+                if (targetType == Attribute.Type.INT && type == Attribute.Type.LONG) {
+                    return batch -> {
+                        ColumnVector vector = function.apply(batch);
+                        long[] values = new long[batch.size()];
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = (int) vector.longValues[i];
+                        }
+                        return ColumnVector.ofLongs(values, vector.nulls);
+                    };
+                }
+                return function;
+            }
+            boolean narrowToInt = targetType == Attribute.Type.INT;
+            return batch -> {
+                ColumnVector vector = function.apply(batch);
+                long[] values = new long[batch.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = narrowToInt ? (int) vector.doubleValues[i] : (long) vector.doubleValues[i];
+                }
+                return ColumnVector.ofLongs(values, vector.nulls);
+            };
+        }
+
+        /**
+         * @param targetType FLOAT or DOUBLE
+         * @return function returning the double values converted to the given type
+         */
+        Function<ColumnarBatch, ColumnVector> toDouble(Attribute.Type targetType) {
+            Function<ColumnarBatch, ColumnVector> function = this.function;
+            boolean narrowToFloat = targetType == Attribute.Type.FLOAT;
+            if (isIntegral(type)) {
+                return batch -> {
+                    ColumnVector vector = function.apply(batch);
+                    double[] values = new double[batch.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = narrowToFloat ? (float) vector.longValues[i] : (double) vector.longValues[i];
+                    }
+                    return ColumnVector.ofDoubles(values, vector.nulls);
+                };
+            }
+            if (narrowToFloat && type == Attribute.Type.DOUBLE) {
+                return batch -> {
+                    ColumnVector vector = function.apply(batch);
+                    double[] values = new double[batch.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = (float) vector.doubleValues[i];
+                    }
+                    return ColumnVector.ofDoubles(values, vector.nulls);
+                };
+            }
+            return function;
+        }
+    }
+}
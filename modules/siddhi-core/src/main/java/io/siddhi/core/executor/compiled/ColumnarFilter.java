@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.Event;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Evaluates the filter conditions at the start of a query over a batch of input {@link Event}s in columnar form,
+ * such that only the events accepted by all the conditions need to be converted to StreamEvents.
+ * <p>
+ * Conditions are added in their order in the query, see {@link #addCondition(ExpressionExecutor)}.
+ */
+public class ColumnarFilter {
+
+    private final ColumnarExpressionCompiler compiler;
+    private final List<Function<ColumnarBatch, boolean[]>> conditions = new ArrayList<>();
+    private int[] attributeIndexes;
+    private Attribute.Type[] attributeTypes;
+
+    /**
+     * @param metaStreamEvent meta stream event of the query input
+     */
+    public ColumnarFilter(MetaStreamEvent metaStreamEvent) {
+        this.compiler = new ColumnarExpressionCompiler(metaStreamEvent);
+    }
+
+    /**
+     * Adds a filter condition, to be applied after the conditions added before.
+     *
+     * @param conditionExecutor condition executor of the filter
+     * @return false if the condition cannot be evaluated in columnar form, in which case it is not added
+     */
+    public boolean addCondition(ExpressionExecutor conditionExecutor) {
+        Function<ColumnarBatch, boolean[]> condition = compiler.compileCondition(conditionExecutor);
+        if (condition == null) {
+            return false;
+        }
+        conditions.add(condition);
+        Map<Integer, Attribute.Type> columns = compiler.getColumns();
+        attributeIndexes = new int[columns.size()];
+        attributeTypes = new Attribute.Type[columns.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Attribute.Type> column : columns.entrySet()) {
+            attributeIndexes[i] = column.getKey();
+            attributeTypes[i] = column.getValue();
+            i++;
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * @param events events to be filtered
+     * @return selection of the events accepted by all the conditions, by the index of the event
+     */
+    public boolean[] select(List<Event> events) {
+        ColumnarBatch batch = new ColumnarBatch(events, attributeIndexes, attributeTypes,
+                compiler.getInputAttributeCount());
+        boolean[] selection = conditions.get(0).apply(batch);
+        for (int i = 1; i < conditions.size(); i++) {
+            boolean[] result = conditions.get(i).apply(batch);
+            for (int j = 0; j < selection.length; j++) {
+                selection[j] &= result[j];
+            }
+        }
+        return selection;
+    }
+}
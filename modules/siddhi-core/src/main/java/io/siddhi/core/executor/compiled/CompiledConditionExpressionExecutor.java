@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
+
+import java.util.function.Predicate;
+
+/**
+ * Executor class for conditions compiled by {@link ExpressionExecutorCompiler}. The whole condition is evaluated
+ * by a single predicate using primitive comparisons, instead of walking the interpreted executor tree.
+ */
+public class CompiledConditionExpressionExecutor extends ConditionExpressionExecutor {
+
+    private final Predicate<ComplexEvent> predicate;
+    private final ExpressionExecutor interpretedExecutor;
+
+    public CompiledConditionExpressionExecutor(Predicate<ComplexEvent> predicate,
+                                               ExpressionExecutor interpretedExecutor) {
+        this.predicate = predicate;
+        this.interpretedExecutor = interpretedExecutor;
+    }
+
+    @Override
+    public Boolean execute(ComplexEvent event) {
+        return predicate.test(event) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    public ExpressionExecutor getInterpretedExecutor() {
+        return interpretedExecutor;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Executor class for arithmetic expressions compiled by {@link ExpressionExecutorCompiler}. Intermediate results
+ * are kept as primitives and only the final result is boxed.
+ */
+public class CompiledMathExpressionExecutor implements ExpressionExecutor {
+
+    private final Attribute.Type returnType;
+    private final VariableExpressionExecutor[] nullableExecutors;
+    private final ToLongFunction<ComplexEvent> longFunction;
+    private final ToDoubleFunction<ComplexEvent> doubleFunction;
+    private final ExpressionExecutor interpretedExecutor;
+
+    CompiledMathExpressionExecutor(Attribute.Type returnType, VariableExpressionExecutor[] nullableExecutors,
+                                   ToLongFunction<ComplexEvent> longFunction,
+                                   ToDoubleFunction<ComplexEvent> doubleFunction,
+                                   ExpressionExecutor interpretedExecutor) {
+        this.returnType = returnType;
+        this.nullableExecutors = nullableExecutors;
+        this.longFunction = longFunction;
+        this.doubleFunction = doubleFunction;
+        this.interpretedExecutor = interpretedExecutor;
+    }
+
+    @Override
+    public Object execute(ComplexEvent event) {
+        for (VariableExpressionExecutor nullableExecutor : nullableExecutors) {
+            if (nullableExecutor.isNull(event)) {
+                return null;
+            }
+        }
+        switch (returnType) {
+            case INT:
+                return (int) longFunction.applyAsLong(event);
+            case LONG:
+                return longFunction.applyAsLong(event);
+            case FLOAT:
+                return (float) doubleFunction.applyAsDouble(event);
+            default:
+                return doubleFunction.applyAsDouble(event);
+        }
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return returnType;
+    }
+
+    public ExpressionExecutor getInterpretedExecutor() {
+        return interpretedExecutor;
+    }
+}
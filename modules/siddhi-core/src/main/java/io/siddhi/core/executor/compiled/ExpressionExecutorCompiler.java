@@ -0,0 +1,606 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.stream.PrimitiveAttributeFunction;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.greaterthanequal.GreaterThanEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.notequal.NotEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorDouble;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorFloat;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorInt;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorLong;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorDouble;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorFloat;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorInt;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorLong;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorDouble;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorFloat;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorInt;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorLong;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorDouble;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorFloat;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorInt;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorLong;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorDouble;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorFloat;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorInt;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorLong;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compiles interpreted Expression Executor trees into fused executors. Conditions (and, or, not and numeric
+ * comparisons) are compiled into a single {@link Predicate}, and arithmetic expressions into a single primitive
+ * function, such that events are evaluated without walking the executor tree and without boxing the intermediate
+ * results. Integral values are evaluated as long and floating point values as double, and are narrowed back to int
+ * and float after each operation to retain the semantics of the interpreted executors.
+ * <p>
+ * Parts of an expression that cannot be compiled, such as functions, extensions and non numeric comparisons, are
+ * evaluated through their interpreted executors.
+ */
+public class ExpressionExecutorCompiler {
+
+    // Tests a variable against a predicate with a single read of its primitive slot, where null fails the test.
+    private static final PrimitiveAttributeFunction<LongPredicate, Boolean> TEST_LONG =
+            new PrimitiveAttributeFunction<LongPredicate, Boolean>() {
+                @Override
+                public Boolean applyLong(LongPredicate predicate, long value) {
+                    return predicate.test(value);
+                }
+
+                @Override
+                public Boolean applyDouble(LongPredicate predicate, double value) {
+                    return predicate.test((long) value);
+                }
+
+                @Override
+                public Boolean applyNull(LongPredicate predicate) {
+                    return false;
+                }
+            };
+
+    private static final PrimitiveAttributeFunction<DoublePredicate, Boolean> TEST_DOUBLE =
+            new PrimitiveAttributeFunction<DoublePredicate, Boolean>() {
+                @Override
+                public Boolean applyLong(DoublePredicate predicate, long value) {
+                    return predicate.test(value);
+                }
+
+                @Override
+                public Boolean applyDouble(DoublePredicate predicate, double value) {
+                    return predicate.test(value);
+                }
+
+                @Override
+                public Boolean applyNull(DoublePredicate predicate) {
+                    return false;
+                }
+            };
+
+    private ExpressionExecutorCompiler() {
+
+    }
+
+    /**
+     * Compile the given condition executor.
+     *
+     * @param conditionExecutor condition executor to be compiled
+     * @return compiled condition executor, or the given executor if the condition cannot be compiled
+     */
+    public static ConditionExpressionExecutor compile(ConditionExpressionExecutor conditionExecutor) {
+        Predicate<ComplexEvent> predicate = compileCondition(conditionExecutor);
+        if (predicate == null) {
+            return conditionExecutor;
+        }
+        return new CompiledConditionExpressionExecutor(predicate, conditionExecutor);
+    }
+
+    /**
+     * Compile the given expression executor.
+     *
+     * @param expressionExecutor expression executor to be compiled
+     * @return compiled executor, or the given executor if the expression cannot be compiled
+     */
+    public static ExpressionExecutor compile(ExpressionExecutor expressionExecutor) {
+        if (expressionExecutor instanceof ConditionExpressionExecutor) {
+            return compile((ConditionExpressionExecutor) expressionExecutor);
+        } else if (expressionExecutor instanceof MathExpressionExecutor) {
+            NumericNode numericNode = compileNumeric(expressionExecutor);
+            if (numericNode != null) {
+                return new CompiledMathExpressionExecutor(numericNode.type,
+                        numericNode.nullableExecutors.toArray(new VariableExpressionExecutor[0]),
+                        numericNode.longFunction, numericNode.doubleFunction, expressionExecutor);
+            }
+        }
+        return expressionExecutor;
+    }
+
+    private static Predicate<ComplexEvent> compileCondition(ExpressionExecutor executor) {
+        if (executor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) executor;
+            Predicate<ComplexEvent> left = compileCondition(andExecutor.getLeftConditionExecutor());
+            Predicate<ComplexEvent> right = compileCondition(andExecutor.getRightConditionExecutor());
+            if (left == null && right == null) {
+                return null;
+            }
+            Predicate<ComplexEvent> leftPredicate = left != null ? left :
+                    interpreted(andExecutor.getLeftConditionExecutor());
+            Predicate<ComplexEvent> rightPredicate = right != null ? right :
+                    interpreted(andExecutor.getRightConditionExecutor());
+            return event -> leftPredicate.test(event) && rightPredicate.test(event);
+        } else if (executor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) executor;
+            Predicate<ComplexEvent> left = compileCondition(orExecutor.getLeftConditionExecutor());
+            Predicate<ComplexEvent> right = compileCondition(orExecutor.getRightConditionExecutor());
+            if (left == null && right == null) {
+                return null;
+            }
+            Predicate<ComplexEvent> leftPredicate = left != null ? left :
+                    interpreted(orExecutor.getLeftConditionExecutor());
+            Predicate<ComplexEvent> rightPredicate = right != null ? right :
+                    interpreted(orExecutor.getRightConditionExecutor());
+            return event -> leftPredicate.test(event) || rightPredicate.test(event);
+        } else if (executor instanceof NotConditionExpressionExecutor) {
+            Predicate<ComplexEvent> predicate = compileCondition(
+                    ((NotConditionExpressionExecutor) executor).getConditionExecutor());
+            if (predicate == null) {
+                return null;
+            }
+            return event -> !predicate.test(event);
+        } else if (executor instanceof CompareConditionExpressionExecutor) {
+            return compileCompare((CompareConditionExpressionExecutor) executor);
+        }
+        return null;
+    }
+
+    private static Predicate<ComplexEvent> interpreted(ExpressionExecutor executor) {
+        return event -> {
+            Object result = executor.execute(event);
+            return result != null && (Boolean) result;
+        };
+    }
+
+    private static Predicate<ComplexEvent> compileCompare(CompareConditionExpressionExecutor compareExecutor) {
+        CompareOperator operator = CompareOperator.of(compareExecutor);
+        if (operator == null) {
+            return null;
+        }
+        NumericNode left = compileNumeric(compareExecutor.getLeftExpressionExecutor());
+        NumericNode right = compileNumeric(compareExecutor.getRightExpressionExecutor());
+        if (left == null || right == null) {
+            return null;
+        }
+        if (left.isConstant() && !right.isConstant()) {
+            NumericNode temp = left;
+            left = right;
+            right = temp;
+            operator = operator.flip();
+        }
+        Attribute.Type compareType;
+        if (left.type == Attribute.Type.DOUBLE || right.type == Attribute.Type.DOUBLE) {
+            compareType = Attribute.Type.DOUBLE;
+        } else if (left.type == Attribute.Type.FLOAT || right.type == Attribute.Type.FLOAT) {
+            compareType = Attribute.Type.FLOAT;
+        } else {
+            compareType = Attribute.Type.LONG;
+        }
+
+        if (left.variable != null && right.isConstant()) {
+            if (compareType == Attribute.Type.LONG) {
+                return compareVariable(operator, left.variable, right.toLong(compareType).applyAsLong(null));
+            } else if (compareType == Attribute.Type.DOUBLE || left.type == Attribute.Type.FLOAT) {
+                // Float to double widening is exact, hence the attribute can be read as double.
+                return compareVariable(operator, left.variable, right.toDouble(compareType).applyAsDouble(null));
+            }
+        }
+
+        Predicate<ComplexEvent> predicate;
+        if (compareType == Attribute.Type.LONG) {
+            predicate = compare(operator, left.toLong(compareType), right.toLong(compareType));
+        } else {
+            predicate = compare(operator, left.toDouble(compareType), right.toDouble(compareType));
+        }
+        List<VariableExpressionExecutor> nullableExecutorList = new ArrayList<>(left.nullableExecutors);
+        nullableExecutorList.addAll(right.nullableExecutors);
+        if (nullableExecutorList.isEmpty()) {
+            return predicate;
+        }
+        VariableExpressionExecutor[] nullableExecutors =
+                nullableExecutorList.toArray(new VariableExpressionExecutor[0]);
+        return event -> isNotNull(nullableExecutors, event) && predicate.test(event);
+    }
+
+    private static boolean isNotNull(VariableExpressionExecutor[] executors, ComplexEvent event) {
+        for (VariableExpressionExecutor executor : executors) {
+            if (executor.isNull(event)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Predicate<ComplexEvent> compare(CompareOperator operator, ToLongFunction<ComplexEvent> left,
+                                                   ToLongFunction<ComplexEvent> right) {
+        switch (operator) {
+            case GREATER_THAN:
+                return event -> left.applyAsLong(event) > right.applyAsLong(event);
+            case GREATER_THAN_EQUAL:
+                return event -> left.applyAsLong(event) >= right.applyAsLong(event);
+            case LESS_THAN:
+                return event -> left.applyAsLong(event) < right.applyAsLong(event);
+            case LESS_THAN_EQUAL:
+                return event -> left.applyAsLong(event) <= right.applyAsLong(event);
+            case EQUAL:
+                return event -> left.applyAsLong(event) == right.applyAsLong(event);
+            default:
+                return event -> left.applyAsLong(event) != right.applyAsLong(event);
+        }
+    }
+
+    private static Predicate<ComplexEvent> compare(CompareOperator operator, ToDoubleFunction<ComplexEvent> left,
+                                                   ToDoubleFunction<ComplexEvent> right) {
+        switch (operator) {
+            case GREATER_THAN:
+                return event -> left.applyAsDouble(event) > right.applyAsDouble(event);
+            case GREATER_THAN_EQUAL:
+                return event -> left.applyAsDouble(event) >= right.applyAsDouble(event);
+            case LESS_THAN:
+                return event -> left.applyAsDouble(event) < right.applyAsDouble(event);
+            case LESS_THAN_EQUAL:
+                return event -> left.applyAsDouble(event) <= right.applyAsDouble(event);
+            case EQUAL:
+                return event -> left.applyAsDouble(event) == right.applyAsDouble(event);
+            default:
+                return event -> left.applyAsDouble(event) != right.applyAsDouble(event);
+        }
+    }
+
+    private static Predicate<ComplexEvent> compareVariable(CompareOperator operator,
+                                                           VariableExpressionExecutor variable, long constant) {
+        LongPredicate predicate;
+        switch (operator) {
+            case GREATER_THAN:
+                predicate = value -> value > constant;
+                break;
+            case GREATER_THAN_EQUAL:
+                predicate = value -> value >= constant;
+                break;
+            case LESS_THAN:
+                predicate = value -> value < constant;
+                break;
+            case LESS_THAN_EQUAL:
+                predicate = value -> value <= constant;
+                break;
+            case EQUAL:
+                predicate = value -> value == constant;
+                break;
+            default:
+                predicate = value -> value != constant;
+        }
+        return event -> variable.executePrimitive(event, predicate, TEST_LONG);
+    }
+
+    private static Predicate<ComplexEvent> compareVariable(CompareOperator operator,
+                                                           VariableExpressionExecutor variable, double constant) {
+        DoublePredicate predicate;
+        switch (operator) {
+            case GREATER_THAN:
+                predicate = value -> value > constant;
+                break;
+            case GREATER_THAN_EQUAL:
+                predicate = value -> value >= constant;
+                break;
+            case LESS_THAN:
+                predicate = value -> value < constant;
+                break;
+            case LESS_THAN_EQUAL:
+                predicate = value -> value <= constant;
+                break;
+            case EQUAL:
+                predicate = value -> value == constant;
+                break;
+            default:
+                predicate = value -> value != constant;
+        }
+        return event -> variable.executePrimitive(event, predicate, TEST_DOUBLE);
+    }
+
+    private static NumericNode compileNumeric(ExpressionExecutor executor) {
+        Attribute.Type type = executor.getReturnType();
+        if (type != Attribute.Type.INT && type != Attribute.Type.LONG && type != Attribute.Type.FLOAT &&
+                type != Attribute.Type.DOUBLE) {
+            return null;
+        }
+        if (executor instanceof ConstantExpressionExecutor) {
+            Object value = ((ConstantExpressionExecutor) executor).getValue();
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            if (NumericNode.isIntegral(type)) {
+                long constant = ((Number) value).longValue();
+                return new NumericNode(type, Collections.emptyList(), null, event -> constant, null);
+            } else {
+                double constant = ((Number) value).doubleValue();
+                return new NumericNode(type, Collections.emptyList(), null, null, event -> constant);
+            }
+        } else if (executor instanceof VariableExpressionExecutor) {
+            VariableExpressionExecutor variable = (VariableExpressionExecutor) executor;
+            if (NumericNode.isIntegral(type)) {
+                return new NumericNode(type, Collections.singletonList(variable), variable,
+                        variable::executeLong, null);
+            } else {
+                return new NumericNode(type, Collections.singletonList(variable), variable,
+                        null, variable::executeDouble);
+            }
+        } else if (executor instanceof MathExpressionExecutor) {
+            return compileMath((MathExpressionExecutor) executor, type);
+        }
+        return null;
+    }
+
+    private static NumericNode compileMath(MathExpressionExecutor mathExecutor, Attribute.Type type) {
+        MathOperator operator = MathOperator.of(mathExecutor);
+        if (operator == null) {
+            return null;
+        }
+        NumericNode left = compileNumeric(mathExecutor.getLeftExpressionExecutor());
+        NumericNode right = compileNumeric(mathExecutor.getRightExpressionExecutor());
+        if (left == null || right == null) {
+            return null;
+        }
+        if (operator == MathOperator.DIVIDE || operator == MathOperator.MOD) {
+            // Division by zero results in null, hence only constant non zero divisors are compiled.
+            if (!right.isConstant()) {
+                return null;
+            }
+            if (NumericNode.isIntegral(type) ? right.toLong(type).applyAsLong(null) == 0 :
+                    right.toDouble(type).applyAsDouble(null) == 0.0) {
+                return null;
+            }
+        }
+        List<VariableExpressionExecutor> nullableExecutors = new ArrayList<>(left.nullableExecutors);
+        nullableExecutors.addAll(right.nullableExecutors);
+
+        if (NumericNode.isIntegral(type)) {
+            ToLongFunction<ComplexEvent> l = left.toLong(type);
+            ToLongFunction<ComplexEvent> r = right.toLong(type);
+            ToLongFunction<ComplexEvent> function;
+            switch (operator) {
+                case ADD:
+                    function = event -> l.applyAsLong(event) + r.applyAsLong(event);
+                    break;
+                case SUBTRACT:
+                    function = event -> l.applyAsLong(event) - r.applyAsLong(event);
+                    break;
+                case MULTIPLY:
+                    function = event -> l.applyAsLong(event) * r.applyAsLong(event);
+                    break;
+                case DIVIDE:
+                    function = event -> l.applyAsLong(event) / r.applyAsLong(event);
+                    break;
+                default:
+                    function = event -> l.applyAsLong(event) % r.applyAsLong(event);
+                    break;
+            }
+            if (type == Attribute.Type.INT) {
+                ToLongFunction<ComplexEvent> longFunction = function;
+                function = event -> (int) longFunction.applyAsLong(event);
+            }
+            return new NumericNode(type, nullableExecutors, null, function, null);
+        } else {
+            ToDoubleFunction<ComplexEvent> l = left.toDouble(type);
+            ToDoubleFunction<ComplexEvent> r = right.toDouble(type);
+            ToDoubleFunction<ComplexEvent> function;
+            switch (operator) {
+                case ADD:
+                    function = event -> l.applyAsDouble(event) + r.applyAsDouble(event);
+                    break;
+                case SUBTRACT:
+                    function = event -> l.applyAsDouble(event) - r.applyAsDouble(event);
+                    break;
+                case MULTIPLY:
+                    function = event -> l.applyAsDouble(event) * r.applyAsDouble(event);
+                    break;
+                case DIVIDE:
+                    function = event -> l.applyAsDouble(event) / r.applyAsDouble(event);
+                    break;
+                default:
+                    function = event -> l.applyAsDouble(event) % r.applyAsDouble(event);
+                    break;
+            }
+            if (type == Attribute.Type.FLOAT) {
+                ToDoubleFunction<ComplexEvent> doubleFunction = function;
+                function = event -> (float) doubleFunction.applyAsDouble(event);
+            }
+            return new NumericNode(type, nullableExecutors, null, null, function);
+        }
+    }
+
+    /**
+     * Compare operators supported by the compiler.
+     */
+    enum CompareOperator {
+        GREATER_THAN,
+        GREATER_THAN_EQUAL,
+        LESS_THAN,
+        LESS_THAN_EQUAL,
+        EQUAL,
+        NOT_EQUAL;
+
+        static CompareOperator of(CompareConditionExpressionExecutor executor) {
+            if (executor instanceof GreaterThanCompareConditionExpressionExecutor) {
+                return GREATER_THAN;
+            } else if (executor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+                return GREATER_THAN_EQUAL;
+            } else if (executor instanceof LessThanCompareConditionExpressionExecutor) {
+                return LESS_THAN;
+            } else if (executor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+                return LESS_THAN_EQUAL;
+            } else if (executor instanceof EqualCompareConditionExpressionExecutor) {
+                return EQUAL;
+            } else if (executor instanceof NotEqualCompareConditionExpressionExecutor) {
+                return NOT_EQUAL;
+            }
+            return null;
+        }
+
+        CompareOperator flip() {
+            switch (this) {
+                case GREATER_THAN:
+                    return LESS_THAN;
+                case GREATER_THAN_EQUAL:
+                    return LESS_THAN_EQUAL;
+                case LESS_THAN:
+                    return GREATER_THAN;
+                case LESS_THAN_EQUAL:
+                    return GREATER_THAN_EQUAL;
+                default:
+                    return this;
+            }
+        }
+    }
+
+    /**
+     * Arithmetic operators supported by the compiler.
+     */
+    enum MathOperator {
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE,
+        MOD;
+
+        static MathOperator of(MathExpressionExecutor executor) {
+            if (executor instanceof AddExpressionExecutorInt || executor instanceof AddExpressionExecutorLong ||
+                    executor instanceof AddExpressionExecutorFloat || executor instanceof AddExpressionExecutorDouble) {
+                return ADD;
+            } else if (executor instanceof SubtractExpressionExecutorInt ||
+                    executor instanceof SubtractExpressionExecutorLong ||
+                    executor instanceof SubtractExpressionExecutorFloat ||
+                    executor instanceof SubtractExpressionExecutorDouble) {
+                return SUBTRACT;
+            } else if (executor instanceof MultiplyExpressionExecutorInt ||
+                    executor instanceof MultiplyExpressionExecutorLong ||
+                    executor instanceof MultiplyExpressionExecutorFloat ||
+                    executor instanceof MultiplyExpressionExecutorDouble) {
+                return MULTIPLY;
+            } else if (executor instanceof DivideExpressionExecutorInt ||
+                    executor instanceof DivideExpressionExecutorLong ||
+                    executor instanceof DivideExpressionExecutorFloat ||
+                    executor instanceof DivideExpressionExecutorDouble) {
+                return DIVIDE;
+            } else if (executor instanceof ModExpressionExecutorInt || executor instanceof ModExpressionExecutorLong ||
+                    executor instanceof ModExpressionExecutorFloat || executor instanceof ModExpressionExecutorDouble) {
+                return MOD;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Compiled numeric expression. Int and long expressions are evaluated through the long function and float and
+     * double expressions through the double function. The result is only valid when none of the nullable executors
+     * return null for the event.
+     */
+    private static class NumericNode {
+        private final Attribute.Type type;
+        private final List<VariableExpressionExecutor> nullableExecutors;
+        private final VariableExpressionExecutor variable;
+        private final ToLongFunction<ComplexEvent> longFunction;
+        private final ToDoubleFunction<ComplexEvent> doubleFunction;
+
+        NumericNode(Attribute.Type type, List<VariableExpressionExecutor> nullableExecutors,
+                    VariableExpressionExecutor variable, ToLongFunction<ComplexEvent> longFunction,
+                    ToDoubleFunction<ComplexEvent> doubleFunction) {
+            this.type = type;
+            this.nullableExecutors = nullableExecutors;
+            this.variable = variable;
+            this.longFunction = longFunction;
+            this.doubleFunction = doubleFunction;
+        }
+
+        static boolean isIntegral(Attribute.Type type) {
+            return type == Attribute.Type.INT || type == Attribute.Type.LONG;
+        }
+
+        boolean isConstant() {
+            return nullableExecutors.isEmpty();
+        }
+
+        /**
+         * @param targetType INT or LONG
+         * @return function returning the value converted to the given type
+         */
+        ToLongFunction<ComplexEvent> toLong(Attribute.Type targetType) {
+            if (isIntegral(type)) {
+                if (targetType == Attribute.Type.INT && type == Attribute.Type.LONG) {
+                    ToLongFunction<ComplexEvent> function = longFunction;
+                    return event -> (int) function.applyAsLong(event);
+                }
+                return longFunction;
+            }
+            ToDoubleFunction<ComplexEvent> function = doubleFunction;
+            if (targetType == Attribute.Type.INT) {
+                return event -> (int) function.applyAsDouble(event);
+            }
+            return event -> (long) function.applyAsDouble(event);
+        }
+
+        /**
+         * @param targetType FLOAT or DOUBLE
+         * @return function returning the value converted to the given type
+         */
+        ToDoubleFunction<ComplexEvent> toDouble(Attribute.Type targetType) {
+            if (isIntegral(type)) {
+                ToLongFunction<ComplexEvent> function = longFunction;
+                if (targetType == Attribute.Type.FLOAT) {
+                    return event -> (float) function.applyAsLong(event);
+                }
+                return event -> (double) function.applyAsLong(event);
+            }
+            if (targetType == Attribute.Type.FLOAT && type == Attribute.Type.DOUBLE) {
+                ToDoubleFunction<ComplexEvent> function = doubleFunction;
+                return event -> (float) function.applyAsDouble(event);
+            }
+            return doubleFunction;
+        }
+    }
+}
@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.mod;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Modulus function. Function execution logic is implemented in execute here.
  */
-public class ModExpressionExecutorDouble implements ExpressionExecutor {
+public class ModExpressionExecutorDouble implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -52,4 +53,12 @@ public class ModExpressionExecutorDouble implements ExpressionExecutor {
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
@@ -20,12 +20,13 @@ package io.siddhi.core.executor.math.multiply;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorDouble implements ExpressionExecutor {
+public class MultiplyExpressionExecutorDouble implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -49,4 +50,12 @@ public class MultiplyExpressionExecutorDouble implements ExpressionExecutor {
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.multiply;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorFloat implements ExpressionExecutor {
+public class MultiplyExpressionExecutorFloat implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -48,4 +49,12 @@ public class MultiplyExpressionExecutorFloat implements ExpressionExecutor {
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
@@ -20,12 +20,13 @@ package io.siddhi.core.executor.math.multiply;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Long Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorLong implements ExpressionExecutor {
+public class MultiplyExpressionExecutorLong implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -49,4 +50,12 @@ public class MultiplyExpressionExecutorLong implements ExpressionExecutor {
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
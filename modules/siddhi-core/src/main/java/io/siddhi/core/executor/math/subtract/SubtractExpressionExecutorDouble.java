@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.subtract;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.MathExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double subtract function. Function execution logic is implemented in execute here.
  */
-public class SubtractExpressionExecutorDouble implements ExpressionExecutor {
+public class SubtractExpressionExecutorDouble implements MathExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -49,4 +50,12 @@ public class SubtractExpressionExecutorDouble implements ExpressionExecutor {
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
+
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
 }
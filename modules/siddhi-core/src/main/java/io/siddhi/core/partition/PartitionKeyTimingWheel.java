@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.partition;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Timing wheel tracking when the partition keys may become idle, used to purge idle partitions without visiting all
+ * the partition keys.
+ * <p>
+ * A partition key is scheduled once at the time it would become idle if no further events arrive. Events of a
+ * scheduled partition key do not update the wheel, hence the keys returned by {@link #expire(long)} are only
+ * candidates, and the caller is expected to check their last seen time and {@link #schedule(String, long)} the ones
+ * which are still active. As deadlines are never more than the idle period ahead, a single wheel spanning the idle
+ * period is sufficient.
+ */
+public class PartitionKeyTimingWheel {
+
+    private static final int MAX_TICKS_PER_IDLE_PERIOD = 1024;
+    private final long idlePeriod;
+    private final long tickDuration;
+    private final List<String>[] buckets;
+    private final Set<String> scheduledKeys = new HashSet<>();
+    private long currentTick = -1;
+
+    /**
+     * @param idlePeriod   period after which a partition key is considered idle
+     * @param tickInterval preferred interval between the ticks of the wheel, which is increased when needed to keep
+     *                     the wheel small
+     */
+    public PartitionKeyTimingWheel(long idlePeriod, long tickInterval) {
+        this.idlePeriod = idlePeriod;
+        this.tickDuration = Math.max(1, Math.max(tickInterval, idlePeriod / MAX_TICKS_PER_IDLE_PERIOD));
+        this.buckets = new List[(int) (idlePeriod / tickDuration) + 2];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Schedules the partition key to be returned once it has been idle for the idle period, unless it is already
+     * scheduled.
+     *
+     * @param partitionKey partition key
+     * @param lastSeenTime time of the last event of the partition key
+     */
+    public synchronized void schedule(String partitionKey, long lastSeenTime) {
+        if (!scheduledKeys.add(partitionKey)) {
+            return;
+        }
+        long tick = (lastSeenTime + idlePeriod) / tickDuration;
+        if (currentTick == -1) {
+            currentTick = lastSeenTime / tickDuration;
+        }
+        // Keys which are already due go to the next tick, and the ones beyond the wheel are checked early
+        tick = Math.min(Math.max(tick, currentTick), currentTick + buckets.length - 1);
+        buckets[(int) (tick % buckets.length)].add(partitionKey);
+    }
+
+    /**
+     * Advances the wheel up to the given time.
+     *
+     * @param currentTime current time
+     * @return the partition keys scheduled until the current time, which are no longer scheduled
+     */
+    public synchronized List<String> expire(long currentTime) {
+        List<String> expiredKeys = new ArrayList<>();
+        if (currentTick == -1) {
+            return expiredKeys;
+        }
+        long tick = currentTime / tickDuration;
+        long lastTick = Math.min(tick, currentTick + buckets.length - 1);
+        for (; currentTick <= lastTick; currentTick++) {
+            List<String> bucket = buckets[(int) (currentTick % buckets.length)];
+            if (!bucket.isEmpty()) {
+                expiredKeys.addAll(bucket);
+                bucket.clear();
+            }
+        }
+        currentTick = Math.max(currentTick, tick + 1);
+        for (String partitionKey : expiredKeys) {
+            scheduledKeys.remove(partitionKey);
+        }
+        return expiredKeys;
+    }
+
+    /**
+     * @return number of partition keys scheduled
+     */
+    public synchronized int size() {
+        return scheduledKeys.size();
+    }
+
+    public synchronized void clear() {
+        for (List<String> bucket : buckets) {
+            bucket.clear();
+        }
+        scheduledKeys.clear();
+        currentTick = -1;
+    }
+}
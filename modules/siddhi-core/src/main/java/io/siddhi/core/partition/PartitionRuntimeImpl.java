@@ -36,6 +36,7 @@ import io.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.core.util.snapshot.state.StripedPartitionStateHolder;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.query.api.annotation.Annotation;
 import io.siddhi.query.api.annotation.Element;
@@ -66,6 +67,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -79,6 +81,9 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
     private long purgeExecutionInterval = 300000;
     private boolean purgingEnabled = false;
     private long purgeIdlePeriod = 0;
+    private PartitionKeyTimingWheel purgeTimingWheel;
+    private ScheduledFuture purgingTask;
+    private final Object[] partitionKeyLocks = new Object[64];
     private String partitionName;
     private Partition partition;
     private ConcurrentMap<String, StreamJunction> localStreamJunctionMap = new ConcurrentHashMap<>();
@@ -92,6 +97,7 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
     private List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
     private ConcurrentMap<String, PartitionStreamReceiver> partitionStreamReceivers = new ConcurrentHashMap<>();
     private SiddhiAppContext siddhiAppContext;
+    private PartitionWorkerPool partitionWorkerPool;
 
     public PartitionRuntimeImpl(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
                                 ConcurrentMap<String, AbstractDefinition> windowDefinitionMap,
@@ -143,6 +149,39 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
                 String interval = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL);
                 purgeExecutionInterval = Expression.Time.timeToLong(interval);
             }
+            if (purgingEnabled) {
+                purgeTimingWheel = new PartitionKeyTimingWheel(purgeIdlePeriod, purgeExecutionInterval);
+            }
+        }
+        for (int i = 0; i < partitionKeyLocks.length; i++) {
+            partitionKeyLocks[i] = new Object();
+        }
+
+        Annotation parallel = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PARALLEL,
+                partition.getAnnotations());
+        if (parallel != null) {
+            String workersString = parallel.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+            if (workersString == null) {
+                throw new SiddhiAppCreationException("Annotation @" + SiddhiConstants.ANNOTATION_PARALLEL +
+                        " is missing element '" + SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "'",
+                        parallel.getQueryContextStartIndex(), parallel.getQueryContextEndIndex(),
+                        siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+            }
+            int workers = Integer.parseInt(workersString);
+            if (workers <= 0) {
+                throw new SiddhiAppCreationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "' cannot be negative or zero, " +
+                        "but found, '" + workers + "'.", parallel.getQueryContextStartIndex(),
+                        parallel.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                        siddhiAppContext.getSiddhiAppString());
+            }
+            int bufferSize = siddhiAppContext.getBufferSize();
+            String bufferSizeString = parallel.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
+            if (bufferSizeString != null) {
+                bufferSize = Integer.parseInt(bufferSizeString);
+            }
+            partitionWorkerPool = new PartitionWorkerPool(this, siddhiAppContext, workers, bufferSize);
+            siddhiAppContext.setPartitionWorkerCount(partitionName, workers);
         }
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
@@ -322,6 +361,35 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
         }
     }
 
+    public void start() {
+        if (partitionWorkerPool != null) {
+            partitionWorkerPool.start();
+        }
+        if (purgingEnabled && purgingTask == null) {
+            purgingTask = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(
+                    this::purgeIdlePartitions, purgeExecutionInterval, purgeExecutionInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stop() {
+        if (purgingTask != null) {
+            purgingTask.cancel(false);
+            purgingTask = null;
+        }
+        if (partitionWorkerPool != null) {
+            partitionWorkerPool.stop();
+        }
+    }
+
+    /**
+     * @return pool of workers processing the partition in parallel, or null when the partition is processed by the
+     * threads sending the events
+     */
+    public PartitionWorkerPool getPartitionWorkerPool() {
+        return partitionWorkerPool;
+    }
+
     public String getPartitionName() {
         return partitionName;
     }
@@ -339,67 +407,107 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
         for (QueryRuntime queryRuntime : queryRuntimeList) {
             QueryParserHelper.registerMemoryUsageTracking(queryRuntime.getQueryId(), queryRuntime,
                     SiddhiConstants.METRIC_INFIX_QUERIES, siddhiAppContext, memoryUsageTracker);
+            QueryParserHelper.registerStateMemoryUsageTracking(queryRuntime, siddhiAppContext, memoryUsageTracker);
         }
     }
 
     public void initPartition() {
+        String partitionKey = SiddhiAppContext.getPartitionFlowId();
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
         PartitionState state = stateHolder.getState();
         try {
-            Long time = state.partitionKeys.get(SiddhiAppContext.getPartitionFlowId());
-            if (time == null) {
-                synchronized (state) {
-                    time = state.partitionKeys.get(SiddhiAppContext.getPartitionFlowId());
+            Long time = state.partitionKeys.get(partitionKey);
+            if (time != null && purgingEnabled && time + purgeIdlePeriod < currentTime) {
+                // Partition has been idle, hence purge it before use even if the purging task is yet to run
+                synchronized (getPartitionKeyLock(partitionKey)) {
+                    if (state.partitionKeys.remove(partitionKey, time)) {
+                        purgePartition();
+                    }
+                }
+                time = null;
+            }
+            // Partition is initialized when it is not available, or purged after the last lookup
+            if (time == null || state.partitionKeys.replace(partitionKey, currentTime) == null) {
+                synchronized (getPartitionKeyLock(partitionKey)) {
+                    time = state.partitionKeys.get(partitionKey);
                     if (time == null) {
                         for (QueryRuntime queryRuntime : queryRuntimeList) {
                             ((QueryRuntimeImpl) queryRuntime).initPartition();
                         }
                     }
-                    state.partitionKeys.put(SiddhiAppContext.getPartitionFlowId(),
-                            siddhiAppContext.getTimestampGenerator().currentTime());
+                    state.partitionKeys.put(partitionKey, currentTime);
+                }
+                if (purgingEnabled) {
+                    purgeTimingWheel.schedule(partitionKey, currentTime);
                 }
-            } else {
-                state.partitionKeys.put(SiddhiAppContext.getPartitionFlowId(),
-                        siddhiAppContext.getTimestampGenerator().currentTime());
             }
         } finally {
             stateHolder.returnState(state);
         }
-        if (purgingEnabled) {
-            siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(new Runnable() {
-                @Override
-                public void run() {
-                    long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
-                    PartitionState state = stateHolder.getState();
+    }
+
+    /**
+     * Purges the partitions which have been idle, visiting only the partition keys which are due in the timing
+     * wheel. Partitions processed by a worker pool are purged by the worker owning their states, after the events
+     * already sent to it.
+     */
+    private void purgeIdlePartitions() {
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        for (String partitionKey : purgeTimingWheel.expire(currentTime)) {
+            if (partitionWorkerPool != null) {
+                partitionWorkerPool.execute(partitionKey, () -> purgeIdlePartition(partitionKey, currentTime));
+            } else {
+                purgeIdlePartition(partitionKey, currentTime);
+            }
+        }
+    }
+
+    /**
+     * Purges the partition if it has been idle, while holding only the lock of its partition key, or reschedules it
+     * otherwise.
+     */
+    private void purgeIdlePartition(String partitionKey, long currentTime) {
+        PartitionState state = stateHolder.getState();
+        try {
+            Long time = state.partitionKeys.get(partitionKey);
+            if (time == null) {
+                return;
+            }
+            if (time + purgeIdlePeriod >= currentTime) {
+                purgeTimingWheel.schedule(partitionKey, time);
+                return;
+            }
+            synchronized (getPartitionKeyLock(partitionKey)) {
+                if (state.partitionKeys.remove(partitionKey, time)) {
+                    SiddhiAppContext.startPartitionFlow(partitionKey);
                     try {
-                        synchronized (state) {
-                            HashMap<String, Long> partitions = new HashMap<>(state.partitionKeys);
-                            for (Map.Entry<String, Long> partition : partitions.entrySet()) {
-                                if (partition.getValue() + purgeIdlePeriod < currentTime) {
-                                    state.partitionKeys.remove(partition.getKey());
-                                    SiddhiAppContext.startPartitionFlow(partition.getKey());
-                                    try {
-                                        for (QueryRuntime queryRuntime : queryRuntimeList) {
-                                            Map<String, StateHolder> elementHolderMap =
-                                                    siddhiAppContext.getSnapshotService().getStateHolderMap(
-                                                            partitionName, queryRuntime.getQueryId());
-                                            for (StateHolder stateHolder : elementHolderMap.values()) {
-                                                stateHolder.cleanGroupByStates();
-                                            }
-                                        }
-                                    } finally {
-                                        SiddhiAppContext.stopPartitionFlow();
-                                    }
-                                }
-                            }
-                        }
+                        purgePartition();
                     } finally {
-                        stateHolder.returnState(state);
+                        SiddhiAppContext.stopPartitionFlow();
                     }
+                } else if (state.partitionKeys.containsKey(partitionKey)) {
+                    purgeTimingWheel.schedule(partitionKey, state.partitionKeys.get(partitionKey));
                 }
-            }, purgeExecutionInterval, purgeExecutionInterval, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            stateHolder.returnState(state);
         }
     }
 
+    private void purgePartition() {
+        for (QueryRuntime queryRuntime : queryRuntimeList) {
+            Map<String, StateHolder> elementHolderMap = siddhiAppContext.getSnapshotService().getStateHolderMap(
+                    partitionName, queryRuntime.getQueryId());
+            for (StateHolder stateHolder : elementHolderMap.values()) {
+                stateHolder.cleanGroupByStates();
+            }
+        }
+    }
+
+    private Object getPartitionKeyLock(String partitionKey) {
+        return partitionKeyLocks[StripedPartitionStateHolder.getStripeIndex(partitionKey, partitionKeyLocks.length)];
+    }
+
     public Set<String> getPartitionKeys() {
         PartitionState state = stateHolder.getState();
         try {
@@ -419,7 +527,7 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
      */
     public class PartitionState extends State {
 
-        private Map<String, Long> partitionKeys = new ConcurrentHashMap<>();
+        private ConcurrentMap<String, Long> partitionKeys = new ConcurrentHashMap<>();
 
         @Override
         public boolean canDestroy() {
@@ -435,7 +543,13 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
 
         @Override
         public void restore(Map<String, Object> state) {
-            partitionKeys = (Map<String, Long>) state.get("PartitionKeys");
+            partitionKeys = new ConcurrentHashMap<>((Map<String, Long>) state.get("PartitionKeys"));
+            if (purgingEnabled) {
+                purgeTimingWheel.clear();
+                for (Map.Entry<String, Long> partitionKey : partitionKeys.entrySet()) {
+                    purgeTimingWheel.schedule(partitionKey.getKey(), partitionKey.getValue());
+                }
+            }
         }
     }
 
@@ -23,6 +23,7 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.StreamEventConverter;
 import io.siddhi.core.event.stream.converter.StreamEventConverterFactory;
@@ -31,8 +32,11 @@ import io.siddhi.core.query.QueryRuntime;
 import io.siddhi.core.query.QueryRuntimeImpl;
 import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.query.api.definition.StreamDefinition;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +56,11 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private PartitionRuntimeImpl partitionRuntime;
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> streamJunctionMap = new HashMap<>();
+    private boolean recycleEvents;
+    private PartitionWorkerPool partitionWorkerPool;
+    private StreamEventCloner streamEventCloner;
+    // Events borrowed by the receive calls of each thread, where nested calls append to the events of outer calls
+    private final ThreadLocal<List<StreamEvent>> borrowedEventsHolder = ThreadLocal.withInitial(ArrayList::new);
 
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
@@ -65,7 +74,20 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         this.siddhiAppContext = siddhiAppContext;
         this.streamId = streamDefinition.getId();
         this.streamEventFactory = new StreamEventFactory(metaStreamEvent);
-
+        this.partitionWorkerPool = this.partitionRuntime.getPartitionWorkerPool();
+        // Events handed over to partition workers cannot be returned to the pool after sending them
+        this.recycleEvents = siddhiAppContext.getEventPoolSize() > 0 && partitionWorkerPool == null;
+        if (partitionWorkerPool != null) {
+            this.streamEventCloner = new StreamEventCloner(metaStreamEvent, streamEventFactory);
+        }
+        if (recycleEvents) {
+            streamEventFactory.enablePooling(siddhiAppContext.getEventPoolSize(),
+                    QueryParserHelper.createThroughputTracker(siddhiAppContext, streamId,
+                            SiddhiConstants.METRIC_INFIX_EVENT_POOLS, SiddhiConstants.METRIC_TYPE_POOL_HIT),
+                    QueryParserHelper.createThroughputTracker(siddhiAppContext, streamId,
+                            SiddhiConstants.METRIC_INFIX_EVENT_POOLS, SiddhiConstants.METRIC_TYPE_POOL_MISS),
+                    siddhiAppContext);
+        }
     }
 
     public void init() {
@@ -80,12 +102,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     @Override
     public void receive(ComplexEvent complexEvent) {
-
+        List<StreamEvent> borrowedEvents = recycleEvents ? borrowedEventsHolder.get() : null;
+        int borrowedMark = recycleEvents ? borrowedEvents.size() : 0;
         if (partitionExecutors.size() == 0) {
             ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
             ComplexEvent aComplexEvent = complexEvent;
             while (aComplexEvent != null) {
-                StreamEvent newEvent = streamEventFactory.newInstance();
+                StreamEvent newEvent = borrowEvent(borrowedEvents);
                 streamEventConverter.convertComplexEvent(aComplexEvent, newEvent);
                 outputEventChunk.add(newEvent);
                 aComplexEvent = aComplexEvent.getNext();
@@ -94,7 +117,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         } else {
             if (complexEvent.getNext() == null) {
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
-                    StreamEvent newEvent = streamEventFactory.newInstance();
+                    StreamEvent newEvent = borrowEvent(borrowedEvents);
                     streamEventConverter.convertComplexEvent(complexEvent, newEvent);
                     String key = partitionExecutor.execute(newEvent);
                     send(key, newEvent);
@@ -107,7 +130,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 while (complexEventChunk.hasNext()) {
                     ComplexEvent aEvent = complexEventChunk.next();
                     complexEventChunk.remove();
-                    StreamEvent newEvent = streamEventFactory.newInstance();
+                    StreamEvent newEvent = borrowEvent(borrowedEvents);
                     streamEventConverter.convertComplexEvent(aEvent, newEvent);
                     boolean currentEventMatchedPrevPartitionExecutor = false;
                     for (PartitionExecutor partitionExecutor : partitionExecutors) {
@@ -126,7 +149,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                                     send(currentKey, firstEvent);
                                     currentKey = key;
                                     outputEventChunk.clear();
-                                    StreamEvent cloneEvent = streamEventFactory.newInstance();
+                                    StreamEvent cloneEvent = borrowEvent(borrowedEvents);
                                     streamEventConverter.convertComplexEvent(aEvent, cloneEvent);
                                     outputEventChunk.add(cloneEvent);
                                 }
@@ -142,12 +165,14 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 outputEventChunk.clear();
             }
         }
-
+        recycle(borrowedEvents, borrowedMark);
     }
 
     @Override
     public void receive(Event event) {
-        StreamEvent newEvent = streamEventFactory.newInstance();
+        List<StreamEvent> borrowedEvents = recycleEvents ? borrowedEventsHolder.get() : null;
+        int borrowedMark = recycleEvents ? borrowedEvents.size() : 0;
+        StreamEvent newEvent = borrowEvent(borrowedEvents);
         streamEventConverter.convertEvent(event, newEvent);
         for (PartitionExecutor partitionExecutor : partitionExecutors) {
             String key = partitionExecutor.execute(newEvent);
@@ -156,11 +181,14 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         if (partitionExecutors.size() == 0) {
             send(newEvent);
         }
+        recycle(borrowedEvents, borrowedMark);
     }
 
     @Override
     public void receive(long timestamp, Object[] data) {
-        StreamEvent newEvent = streamEventFactory.newInstance();
+        List<StreamEvent> borrowedEvents = recycleEvents ? borrowedEventsHolder.get() : null;
+        int borrowedMark = recycleEvents ? borrowedEvents.size() : 0;
+        StreamEvent newEvent = borrowEvent(borrowedEvents);
         streamEventConverter.convertData(timestamp, data, newEvent);
         if (partitionExecutors.size() == 0) {
             send(newEvent);
@@ -170,17 +198,20 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 send(key, newEvent);
             }
         }
+        recycle(borrowedEvents, borrowedMark);
     }
 
     @Override
     public void receive(Event[] events) {
+        List<StreamEvent> borrowedEvents = recycleEvents ? borrowedEventsHolder.get() : null;
+        int borrowedMark = recycleEvents ? borrowedEvents.size() : 0;
         if (partitionExecutors.size() == 0) {
             StreamEvent currentEvent;
-            StreamEvent firstEvent = streamEventFactory.newInstance();
+            StreamEvent firstEvent = borrowEvent(borrowedEvents);
             streamEventConverter.convertEvent(events[0], firstEvent);
             currentEvent = firstEvent;
             for (int i = 1; i < events.length; i++) {
-                StreamEvent nextEvent = streamEventFactory.newInstance();
+                StreamEvent nextEvent = borrowEvent(borrowedEvents);
                 streamEventConverter.convertEvent(events[i], nextEvent);
                 currentEvent.setNext(nextEvent);
                 currentEvent = nextEvent;
@@ -191,7 +222,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
-                StreamEvent nextEvent = streamEventFactory.newInstance();
+                StreamEvent nextEvent = borrowEvent(borrowedEvents);
                 streamEventConverter.convertEvent(event, nextEvent);
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
                     String currentKey = partitionExecutor.execute(nextEvent);
@@ -212,16 +243,18 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             }
             send(key, firstEvent);
         }
-
+        recycle(borrowedEvents, borrowedMark);
     }
 
     @Override
     public void receive(List<Event> events) {
+        List<StreamEvent> borrowedEvents = recycleEvents ? borrowedEventsHolder.get() : null;
+        int borrowedMark = recycleEvents ? borrowedEvents.size() : 0;
         if (partitionExecutors.size() == 0) {
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
-                StreamEvent nextEvent = streamEventFactory.newInstance();
+                StreamEvent nextEvent = borrowEvent(borrowedEvents);
                 streamEventConverter.convertEvent(event, nextEvent);
                 if (firstEvent == null) {
                     firstEvent = nextEvent;
@@ -236,7 +269,7 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             StreamEvent firstEvent = null;
             StreamEvent currentEvent = null;
             for (Event event : events) {
-                StreamEvent nextEvent = streamEventFactory.newInstance();
+                StreamEvent nextEvent = borrowEvent(borrowedEvents);
                 streamEventConverter.convertEvent(event, nextEvent);
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
                     String currentKey = partitionExecutor.execute(nextEvent);
@@ -257,10 +290,35 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
             }
             send(key, firstEvent);
         }
+        recycle(borrowedEvents, borrowedMark);
+    }
+
+    private StreamEvent borrowEvent(List<StreamEvent> borrowedEvents) {
+        StreamEvent streamEvent = streamEventFactory.newInstance();
+        if (borrowedEvents != null) {
+            borrowedEvents.add(streamEvent);
+        }
+        return streamEvent;
+    }
+
+    private void recycle(List<StreamEvent> borrowedEvents, int borrowedMark) {
+        if (borrowedEvents != null) {
+            for (int i = borrowedEvents.size() - 1; i >= borrowedMark; i--) {
+                streamEventFactory.returnEvent(borrowedEvents.remove(i));
+            }
+        }
     }
 
     private void send(String key, ComplexEvent event) {
         if (key != null) {
+            if (partitionWorkerPool != null) {
+                if (partitionExecutors.size() > 1) {
+                    // Events matching several partition executors are linked into the chains of the other keys
+                    event = copyEvents(event);
+                }
+                partitionWorkerPool.send(key, streamJunctionMap.get(streamId), event, true);
+                return;
+            }
             SiddhiAppContext.startPartitionFlow(key);
             try {
                 partitionRuntime.initPartition();
@@ -273,6 +331,10 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     private void send(ComplexEvent event) {
         for (String key : partitionRuntime.getPartitionKeys()) {
+            if (partitionWorkerPool != null) {
+                partitionWorkerPool.send(key, streamJunctionMap.get(streamId), event, false);
+                continue;
+            }
             SiddhiAppContext.startPartitionFlow(key);
             try {
                 streamJunctionMap.get(streamId).sendEvent(event);
@@ -282,6 +344,14 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    private ComplexEvent copyEvents(ComplexEvent event) {
+        ComplexEventChunk<StreamEvent> copiedEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        for (ComplexEvent aEvent = event; aEvent != null; aEvent = aEvent.getNext()) {
+            copiedEventChunk.add(streamEventCloner.copyStreamEvent((StreamEvent) aEvent));
+        }
+        return copiedEventChunk.getFirst();
+    }
+
     /**
      * create local streamJunctions through which events received by partitionStreamReceiver, are sent to
      * queryStreamReceivers
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.partition;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.snapshot.state.StripedPartitionStateHolder;
+import org.apache.log4j.Logger;
+
+import java.beans.ExceptionListener;
+
+/**
+ * Pool of workers processing the events of a partition annotated with @parallel. Each partition key is always
+ * processed by the same worker, such that the events of a partition key are processed in order while the partition
+ * keys assigned to different workers are processed in parallel. Workers are selected via
+ * {@link StripedPartitionStateHolder#getStripeIndex(String, int)}, hence each worker owns a stripe of the partition
+ * states.
+ */
+public class PartitionWorkerPool {
+
+    private static final Logger log = Logger.getLogger(PartitionWorkerPool.class);
+    private final PartitionRuntimeImpl partitionRuntime;
+    private final SiddhiAppContext siddhiAppContext;
+    private final ThreadBarrier threadBarrier;
+    private final int bufferSize;
+    private final PartitionWorker[] workers;
+    private volatile boolean running = false;
+
+    public PartitionWorkerPool(PartitionRuntimeImpl partitionRuntime, SiddhiAppContext siddhiAppContext,
+                               int workerCount, int bufferSize) {
+        this.partitionRuntime = partitionRuntime;
+        this.siddhiAppContext = siddhiAppContext;
+        this.threadBarrier = siddhiAppContext.getThreadBarrier();
+        // Workers are within the barrier while processing events, and enter it again at the entry valves
+        this.threadBarrier.enableReentry();
+        this.bufferSize = bufferSize;
+        this.workers = new PartitionWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new PartitionWorker();
+        }
+    }
+
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    public void start() {
+        for (PartitionWorker worker : workers) {
+            worker.start();
+        }
+        running = true;
+    }
+
+    /**
+     * Stops the workers after processing the events already sent to them.
+     */
+    public void stop() {
+        running = false;
+        for (PartitionWorker worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    /**
+     * Sends the events to the worker of the partition key, or processes them in the caller thread when the workers
+     * are not running.
+     *
+     * @param partitionKey   partition key of the events
+     * @param streamJunction inner stream junction of the partition
+     * @param complexEvent   events, which should not be modified or reused by the caller afterwards
+     * @param initPartition  whether the partition of the key should be initialized if not available
+     */
+    public void send(String partitionKey, StreamJunction streamJunction, ComplexEvent complexEvent,
+                     boolean initPartition) {
+        if (running) {
+            workers[StripedPartitionStateHolder.getStripeIndex(partitionKey, workers.length)]
+                    .publish(partitionKey, streamJunction, complexEvent, initPartition);
+        } else {
+            process(partitionKey, streamJunction, complexEvent, initPartition);
+        }
+    }
+
+    /**
+     * Runs the task on the worker of the partition key, after the events already sent to it, or in the caller thread
+     * when the workers are not running. Used to update the partition states owned by the worker from other threads.
+     *
+     * @param partitionKey partition key whose states are updated by the task
+     * @param task         task to run
+     */
+    public void execute(String partitionKey, Runnable task) {
+        if (running) {
+            workers[StripedPartitionStateHolder.getStripeIndex(partitionKey, workers.length)]
+                    .publish(partitionKey, task);
+        } else {
+            task.run();
+        }
+    }
+
+    private void process(String partitionKey, StreamJunction streamJunction, ComplexEvent complexEvent,
+                         boolean initPartition) {
+        SiddhiAppContext.startPartitionFlow(partitionKey);
+        try {
+            if (initPartition) {
+                partitionRuntime.initPartition();
+            }
+            streamJunction.sendEvent(complexEvent);
+        } finally {
+            SiddhiAppContext.stopPartitionFlow();
+        }
+    }
+
+    private static class PartitionEventHolder {
+        private String partitionKey;
+        private StreamJunction streamJunction;
+        private ComplexEvent complexEvent;
+        private boolean initPartition;
+        private Runnable task;
+
+        private void clear() {
+            partitionKey = null;
+            streamJunction = null;
+            complexEvent = null;
+            task = null;
+        }
+    }
+
+    private class PartitionWorker implements EventHandler<PartitionEventHolder> {
+
+        private Disruptor<PartitionEventHolder> disruptor;
+        private RingBuffer<PartitionEventHolder> ringBuffer;
+
+        void start() {
+            disruptor = new Disruptor<PartitionEventHolder>(new EventFactory<PartitionEventHolder>() {
+                @Override
+                public PartitionEventHolder newInstance() {
+                    return new PartitionEventHolder();
+                }
+            }, bufferSize, siddhiAppContext.getExecutorService(), ProducerType.MULTI, new BlockingWaitStrategy());
+            disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
+            disruptor.handleEventsWith(this);
+            ringBuffer = disruptor.start();
+        }
+
+        void shutdown() {
+            if (disruptor != null) {
+                disruptor.shutdown();
+            }
+        }
+
+        void publish(String partitionKey, StreamJunction streamJunction, ComplexEvent complexEvent,
+                     boolean initPartition) {
+            long sequenceNo = ringBuffer.next();
+            try {
+                PartitionEventHolder eventHolder = ringBuffer.get(sequenceNo);
+                eventHolder.partitionKey = partitionKey;
+                eventHolder.streamJunction = streamJunction;
+                eventHolder.complexEvent = complexEvent;
+                eventHolder.initPartition = initPartition;
+            } finally {
+                ringBuffer.publish(sequenceNo);
+            }
+        }
+
+        void publish(String partitionKey, Runnable task) {
+            long sequenceNo = ringBuffer.next();
+            try {
+                PartitionEventHolder eventHolder = ringBuffer.get(sequenceNo);
+                eventHolder.partitionKey = partitionKey;
+                eventHolder.task = task;
+            } finally {
+                ringBuffer.publish(sequenceNo);
+            }
+        }
+
+        @Override
+        public void onEvent(PartitionEventHolder eventHolder, long sequence, boolean endOfBatch) {
+            // Workers pass the barrier like the input threads, such that snapshots are not taken while they update
+            // the states, and they pause while snapshots are taken
+            threadBarrier.enter();
+            try {
+                if (eventHolder.task != null) {
+                    eventHolder.task.run();
+                } else {
+                    process(eventHolder.partitionKey, eventHolder.streamJunction, eventHolder.complexEvent,
+                            eventHolder.initPartition);
+                }
+            } catch (Exception e) {
+                ExceptionListener exceptionListener = siddhiAppContext.getRuntimeExceptionListener();
+                if (exceptionListener != null) {
+                    exceptionListener.exceptionThrown(e);
+                }
+                log.error("Error in SiddhiApp '" + siddhiAppContext.getName() + "' when processing partition '" +
+                        partitionRuntime.getPartitionName() + "' for the key '" + eventHolder.partitionKey + "', " +
+                        e.getMessage() + ". Hence, dropping event '" + eventHolder.complexEvent + "'", e);
+            } finally {
+                threadBarrier.exit();
+                eventHolder.clear();
+            }
+        }
+    }
+}
@@ -24,17 +24,22 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.StreamEventConverter;
 import io.siddhi.core.event.stream.converter.StreamEventConverterFactory;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.compiled.ColumnarFilter;
 import io.siddhi.core.query.input.stream.state.PreStateProcessor;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.util.lock.LockWrapper;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -56,6 +61,12 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     private SiddhiDebugger siddhiDebugger;
     protected List<PreStateProcessor> allStateProcessors = new ArrayList<PreStateProcessor>();
     protected int allStateProcessorsSize;
+    private boolean recycleEvents = false;
+    private ExpressionExecutor[] sharedFilterConditions;
+    private Processor sharedNext;
+    private StreamEventCloner sharedEventCloner;
+    private ColumnarFilter columnarFilter;
+    private Processor columnarNext;
 
     public ProcessStreamReceiver(String streamId,
                                  SiddhiQueryContext siddhiQueryContext) {
@@ -72,7 +83,15 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.siddhiDebugger = siddhiDebugger;
     }
 
+    public SiddhiDebugger getSiddhiDebugger() {
+        return siddhiDebugger;
+    }
+
     private void process(ComplexEventChunk<StreamEvent> streamEventChunk) {
+        process(streamEventChunk, ChunkOrigin.CONVERTED);
+    }
+
+    private void process(ComplexEventChunk<StreamEvent> streamEventChunk, ChunkOrigin chunkOrigin) {
         if (lockWrapper != null) {
             lockWrapper.lock();
         }
@@ -82,12 +101,12 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
                     latencyTracker != null) {
                 try {
                     latencyTracker.markIn();
-                    processAndClear(streamEventChunk);
+                    processAndClear(streamEventChunk, chunkOrigin);
                 } finally {
                     latencyTracker.markOut();
                 }
             } else {
-                processAndClear(streamEventChunk);
+                processAndClear(streamEventChunk, chunkOrigin);
             }
         } finally {
             if (lockWrapper != null) {
@@ -102,18 +121,37 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
             siddhiDebugger.checkBreakPoint(siddhiQueryContext.getName(),
                     SiddhiDebugger.QueryTerminal.IN, complexEvents);
         }
+        StreamEvent[] borrowedEvents = null;
+        if (recycleEvents) {
+            int eventCount = 0;
+            for (ComplexEvent complexEvent = complexEvents; complexEvent != null;
+                 complexEvent = complexEvent.getNext()) {
+                eventCount++;
+            }
+            borrowedEvents = new StreamEvent[eventCount];
+        }
+        int eventIndex = 0;
         StreamEvent firstEvent = streamEventFactory.newInstance();
         streamEventConverter.convertComplexEvent(complexEvents, firstEvent);
+        if (borrowedEvents != null) {
+            borrowedEvents[eventIndex++] = firstEvent;
+        }
         StreamEvent currentEvent = firstEvent;
         complexEvents = complexEvents.getNext();
         while (complexEvents != null) {
             StreamEvent nextEvent = streamEventFactory.newInstance();
             streamEventConverter.convertComplexEvent(complexEvents, nextEvent);
+            if (borrowedEvents != null) {
+                borrowedEvents[eventIndex++] = nextEvent;
+            }
             currentEvent.setNext(nextEvent);
             currentEvent = nextEvent;
             complexEvents = complexEvents.getNext();
         }
         process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent, this.batchProcessingAllowed));
+        if (borrowedEvents != null) {
+            streamEventFactory.returnEvents(borrowedEvents);
+        }
     }
 
     @Override
@@ -126,17 +164,34 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
                         SiddhiDebugger.QueryTerminal.IN, newEvent);
             }
             process(new ComplexEventChunk<StreamEvent>(newEvent, newEvent, this.batchProcessingAllowed));
+            if (recycleEvents) {
+                streamEventFactory.returnEvent(newEvent);
+            }
         }
     }
 
     @Override
     public void receive(Event[] events) {
+        if (columnarFilter != null && siddhiDebugger == null) {
+            receiveColumnar(Arrays.asList(events));
+            return;
+        }
+        StreamEvent[] borrowedEvents = null;
+        if (recycleEvents) {
+            borrowedEvents = new StreamEvent[events.length];
+        }
         StreamEvent firstEvent = streamEventFactory.newInstance();
         streamEventConverter.convertEvent(events[0], firstEvent);
+        if (borrowedEvents != null) {
+            borrowedEvents[0] = firstEvent;
+        }
         StreamEvent currentEvent = firstEvent;
         for (int i = 1, eventsLength = events.length; i < eventsLength; i++) {
             StreamEvent nextEvent = streamEventFactory.newInstance();
             streamEventConverter.convertEvent(events[i], nextEvent);
+            if (borrowedEvents != null) {
+                borrowedEvents[i] = nextEvent;
+            }
             currentEvent.setNext(nextEvent);
             currentEvent = nextEvent;
         }
@@ -144,15 +199,30 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
             siddhiDebugger.checkBreakPoint(siddhiQueryContext.getName(), SiddhiDebugger.QueryTerminal.IN, firstEvent);
         }
         process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent, this.batchProcessingAllowed));
+        if (borrowedEvents != null) {
+            streamEventFactory.returnEvents(borrowedEvents);
+        }
     }
 
     @Override
     public void receive(List<Event> events) {
+        if (columnarFilter != null && siddhiDebugger == null) {
+            receiveColumnar(events);
+            return;
+        }
+        StreamEvent[] borrowedEvents = null;
+        if (recycleEvents) {
+            borrowedEvents = new StreamEvent[events.size()];
+        }
+        int eventIndex = 0;
         StreamEvent firstEvent = null;
         StreamEvent currentEvent = null;
         for (Event event : events) {
             StreamEvent nextEvent = streamEventFactory.newInstance();
             streamEventConverter.convertEvent(event, nextEvent);
+            if (borrowedEvents != null) {
+                borrowedEvents[eventIndex++] = nextEvent;
+            }
             if (firstEvent == null) {
                 firstEvent = nextEvent;
             } else {
@@ -165,6 +235,9 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
             siddhiDebugger.checkBreakPoint(siddhiQueryContext.getName(), SiddhiDebugger.QueryTerminal.IN, firstEvent);
         }
         process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent, this.batchProcessingAllowed));
+        if (borrowedEvents != null) {
+            streamEventFactory.returnEvents(borrowedEvents);
+        }
     }
 
     @Override
@@ -177,6 +250,60 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
                     SiddhiDebugger.QueryTerminal.IN, newEvent);
         }
         process(new ComplexEventChunk<StreamEvent>(newEvent, newEvent, this.batchProcessingAllowed));
+        if (recycleEvents) {
+            streamEventFactory.returnEvent(newEvent);
+        }
+    }
+
+    /**
+     * Evaluates the leading filters of the query over the events in columnar form, and only converts the events
+     * accepted by them, which are then processed by the rest of the query.
+     */
+    private void receiveColumnar(List<Event> events) {
+        boolean[] selection = columnarFilter.select(events);
+        List<StreamEvent> borrowedEvents = null;
+        if (recycleEvents) {
+            borrowedEvents = new ArrayList<>();
+        }
+        StreamEvent firstEvent = null;
+        StreamEvent currentEvent = null;
+        for (int i = 0; i < selection.length; i++) {
+            if (!selection[i]) {
+                continue;
+            }
+            StreamEvent newEvent = streamEventFactory.newInstance();
+            streamEventConverter.convertEvent(events.get(i), newEvent);
+            if (borrowedEvents != null) {
+                borrowedEvents.add(newEvent);
+            }
+            if (firstEvent == null) {
+                firstEvent = newEvent;
+            } else {
+                currentEvent.setNext(newEvent);
+            }
+            currentEvent = newEvent;
+        }
+        if (firstEvent != null) {
+            process(new ComplexEventChunk<StreamEvent>(firstEvent, currentEvent, this.batchProcessingAllowed),
+                    ChunkOrigin.PREFILTERED);
+            if (borrowedEvents != null) {
+                streamEventFactory.returnEvents(borrowedEvents.toArray(new StreamEvent[0]));
+            }
+        }
+    }
+
+    private void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk, ChunkOrigin chunkOrigin) {
+        switch (chunkOrigin) {
+            case SHARED:
+                processSharedAndClear(streamEventChunk);
+                break;
+            case PREFILTERED:
+                columnarNext.process(streamEventChunk);
+                streamEventChunk.clear();
+                break;
+            default:
+                processAndClear(streamEventChunk);
+        }
     }
 
     protected void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk) {
@@ -184,10 +311,105 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         streamEventChunk.clear();
     }
 
+    /**
+     * Receives events converted once for all the receivers of the stream having the same event layout. The shared
+     * events are only read by the leading filters of the query, and the events passing them are copied before they
+     * are processed by the rest of the query, which may modify or retain them.
+     *
+     * @param sharedEvents events converted by the shared converter, which must not be modified
+     */
+    public void receiveShared(StreamEvent sharedEvents) {
+        process(new ComplexEventChunk<StreamEvent>(sharedEvents, sharedEvents, this.batchProcessingAllowed),
+                ChunkOrigin.SHARED);
+    }
+
+    private void processSharedAndClear(ComplexEventChunk<StreamEvent> sharedEventChunk) {
+        List<StreamEvent> borrowedEvents = null;
+        if (recycleEvents) {
+            borrowedEvents = new ArrayList<>();
+        }
+        StreamEvent firstEvent = null;
+        StreamEvent currentEvent = null;
+        for (StreamEvent sharedEvent = sharedEventChunk.getFirst(); sharedEvent != null;
+             sharedEvent = sharedEvent.getNext()) {
+            if (!isAcceptedBySharedFilters(sharedEvent)) {
+                continue;
+            }
+            StreamEvent newEvent = sharedEventCloner.copyStreamEvent(sharedEvent);
+            if (borrowedEvents != null) {
+                borrowedEvents.add(newEvent);
+            }
+            if (firstEvent == null) {
+                firstEvent = newEvent;
+            } else {
+                currentEvent.setNext(newEvent);
+            }
+            currentEvent = newEvent;
+        }
+        sharedEventChunk.clear();
+        if (firstEvent != null) {
+            ComplexEventChunk<StreamEvent> streamEventChunk = new ComplexEventChunk<StreamEvent>(firstEvent,
+                    currentEvent, this.batchProcessingAllowed);
+            sharedNext.process(streamEventChunk);
+            streamEventChunk.clear();
+            if (borrowedEvents != null) {
+                streamEventFactory.returnEvents(borrowedEvents.toArray(new StreamEvent[0]));
+            }
+        }
+    }
+
+    private boolean isAcceptedBySharedFilters(StreamEvent sharedEvent) {
+        for (ExpressionExecutor conditionExecutor : sharedFilterConditions) {
+            Object result = conditionExecutor.execute(sharedEvent);
+            if (result == null || !(Boolean) result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prepares the receiver to receive events via {@link #receiveShared(StreamEvent)}, where the filters at the
+     * start of the query are evaluated on the shared events.
+     */
+    public void prepareSharedConversion() {
+        List<ExpressionExecutor> conditionExecutors = new ArrayList<>();
+        Processor processor = next;
+        while (processor instanceof FilterProcessor) {
+            conditionExecutors.add(((FilterProcessor) processor).getConditionExecutor());
+            processor = processor.getNextProcessor();
+        }
+        sharedFilterConditions = conditionExecutors.toArray(new ExpressionExecutor[0]);
+        sharedNext = processor;
+        sharedEventCloner = new StreamEventCloner(metaStreamEvent, streamEventFactory);
+    }
+
+    /**
+     * Prepares the receiver to evaluate the filters at the start of the query in columnar form, when it receives
+     * batches of events. Filters are evaluated in columnar form up to the first filter having a condition that
+     * cannot be, and the events accepted by them are converted to StreamEvents for the rest of the query.
+     */
+    public void prepareColumnarBatches() {
+        ColumnarFilter filter = new ColumnarFilter(metaStreamEvent);
+        Processor processor = next;
+        while (processor instanceof FilterProcessor &&
+                filter.addCondition(((FilterProcessor) processor).getConditionExecutor())) {
+            processor = processor.getNextProcessor();
+        }
+        if (!filter.isEmpty()) {
+            columnarFilter = filter;
+            columnarNext = processor;
+        }
+    }
+
     public void setMetaStreamEvent(MetaStreamEvent metaStreamEvent) {
         this.metaStreamEvent = metaStreamEvent;
     }
 
+    public MetaStreamEvent getMetaStreamEvent() {
+        return metaStreamEvent;
+    }
+
     public boolean toStream() {
         return metaStreamEvent.getEventType() == MetaStreamEvent.EventType.DEFAULT ||
                 metaStreamEvent.getEventType() == MetaStreamEvent.EventType.WINDOW;
@@ -201,10 +423,24 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.next = next;
     }
 
+    public Processor getNext() {
+        return next;
+    }
+
     public void setStreamEventFactory(StreamEventFactory streamEventFactory) {
         this.streamEventFactory = streamEventFactory;
     }
 
+    /**
+     * Enables returning the converted StreamEvents to the {@link StreamEventFactory} once the query has completed
+     * processing them. This should only be enabled when no processor of the query retains the received events.
+     *
+     * @param recycleEvents whether events should be returned to the pool after processing
+     */
+    public void setRecycleEvents(boolean recycleEvents) {
+        this.recycleEvents = recycleEvents;
+    }
+
     public void setLockWrapper(LockWrapper lockWrapper) {
         this.lockWrapper = lockWrapper;
     }
@@ -223,4 +459,13 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.allStateProcessorsSize = allStateProcessors.size();
 
     }
+
+    /**
+     * Origin of the chunks processed by the receiver, deciding from where the query processes them.
+     */
+    private enum ChunkOrigin {
+        CONVERTED,
+        SHARED,
+        PREFILTERED
+    }
 }
@@ -59,6 +59,7 @@ public class JoinProcessor implements Processor {
     private QuerySelector selector;
     private String siddhiAppName;
     private String queryName;
+    private boolean recycleEvents = false;
 
     public JoinProcessor(boolean leftJoinProcessor, boolean preJoinProcessor, boolean outerJoinProcessor,
                          int matchingStreamIndex, String siddhiAppName, String queryName) {
@@ -158,7 +159,11 @@ public class JoinProcessor implements Processor {
                 ComplexEventChunk<ComplexEvent> returnEventChunk = joinReturnEventChunk.getReturnComplexEvent();
                 if (returnEventChunk.getFirst() != null) {
                     if (joinReturnEventChunk.isRegularJoin()) {
-                        selector.process(returnEventChunk);
+                        if (recycleEvents) {
+                            processAndRecycle(returnEventChunk);
+                        } else {
+                            selector.process(returnEventChunk);
+                        }
                     } else {
                         selector.executePassThrough(returnEventChunk);
                     }
@@ -172,6 +177,22 @@ public class JoinProcessor implements Processor {
         }
     }
 
+    private void processAndRecycle(ComplexEventChunk<ComplexEvent> returnEventChunk) {
+        int eventCount = 0;
+        for (ComplexEvent event = returnEventChunk.getFirst(); event != null; event = event.getNext()) {
+            eventCount++;
+        }
+        StateEvent[] joinedEvents = new StateEvent[eventCount];
+        int eventIndex = 0;
+        for (ComplexEvent event = returnEventChunk.getFirst(); event != null; event = event.getNext()) {
+            joinedEvents[eventIndex++] = (StateEvent) event;
+        }
+        selector.process(returnEventChunk);
+        for (StateEvent joinedEvent : joinedEvents) {
+            stateEventFactory.returnEvent(joinedEvent);
+        }
+    }
+
     private StreamEvent query(StateEvent joinStateEvent) throws SiddhiAppRuntimeException {
         Table table = ((TableWindowProcessor) findableProcessor).getTable();
         if (table.getIsConnected()) {
@@ -266,6 +287,16 @@ public class JoinProcessor implements Processor {
         this.stateEventFactory = stateEventFactory;
     }
 
+    /**
+     * Enables returning the joined StateEvents to the {@link StateEventFactory} once the selector has
+     * processed them.
+     *
+     * @param recycleEvents whether joined events should be returned to the pool after processing
+     */
+    public void setRecycleEvents(boolean recycleEvents) {
+        this.recycleEvents = recycleEvents;
+    }
+
     public CompiledSelection getCompiledSelection() {
         return compiledSelection;
     }
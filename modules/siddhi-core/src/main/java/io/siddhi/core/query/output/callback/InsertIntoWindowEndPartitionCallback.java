@@ -52,7 +52,7 @@ public class InsertIntoWindowEndPartitionCallback extends InsertIntoWindowCallba
         // If events are inserted directly from another window, expired events can arrive
         complexEventChunk.reset();
         if (complexEventChunk.getFirst() != null) {
-            String flowId = SiddhiAppContext.getCurrentFlowId();
+            String flowId = SiddhiAppContext.getPartitionFlowId();
             SiddhiAppContext.stopPartitionFlow();
             try {
                 while (complexEventChunk.hasNext()) {
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.processor;
+
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.util.Scheduler;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.core.util.timestamp.TimestampGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Processor ending the input of queries having {@code @TimePanes}, which schedules a timer event for the expiry of
+ * each pane events arrive in. Events are passed through as is, while the timer events let the query selector release
+ * the aggregator states of the group by keys whose panes have all expired, as no events arrive to expire them.
+ */
+public class TimePanesProcessor implements SchedulingProcessor {
+
+    private Processor next;
+    private Scheduler scheduler;
+    private long windowLength;
+    private long paneLength;
+    private TimestampGenerator timestampGenerator;
+    private StateHolder<TimePanesState> stateHolder;
+
+    public TimePanesProcessor(SiddhiQueryContext siddhiQueryContext) {
+        this.windowLength = siddhiQueryContext.getTimePaneWindowLength();
+        this.paneLength = siddhiQueryContext.getTimePaneLength();
+        this.timestampGenerator = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator();
+        this.stateHolder = siddhiQueryContext.generateStateHolder(this.getClass().getName(), false,
+                () -> new TimePanesState());
+    }
+
+    @Override
+    public void process(ComplexEventChunk complexEventChunk) {
+        complexEventChunk.reset();
+        while (complexEventChunk.hasNext()) {
+            if (complexEventChunk.next().getType() == ComplexEvent.Type.CURRENT) {
+                // Panes are keyed by the current time, as done by the aggregators
+                long currentTime = timestampGenerator.currentTime();
+                long paneExpiryTime = (Math.floorDiv(currentTime, paneLength) + 1) * paneLength - 1 + windowLength;
+                TimePanesState state = stateHolder.getState();
+                try {
+                    if (state.lastScheduledTime < paneExpiryTime) {
+                        scheduler.notifyAt(paneExpiryTime);
+                        state.lastScheduledTime = paneExpiryTime;
+                    }
+                } finally {
+                    stateHolder.returnState(state);
+                }
+                break;
+            }
+        }
+        next.process(complexEventChunk);
+    }
+
+    @Override
+    public Processor getNextProcessor() {
+        return next;
+    }
+
+    @Override
+    public void setNextProcessor(Processor processor) {
+        next = processor;
+    }
+
+    @Override
+    public void setToLast(Processor processor) {
+        if (next == null) {
+            this.next = processor;
+        } else {
+            this.next.setToLast(processor);
+        }
+    }
+
+    @Override
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    class TimePanesState extends State {
+
+        private long lastScheduledTime = Long.MIN_VALUE;
+
+        @Override
+        public boolean canDestroy() {
+            return lastScheduledTime < timestampGenerator.currentTime();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("LastScheduledTime", lastScheduledTime);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            lastScheduledTime = (long) state.get("LastScheduledTime");
+        }
+    }
+}
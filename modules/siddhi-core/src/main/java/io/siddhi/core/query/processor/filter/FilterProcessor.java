@@ -57,6 +57,10 @@ public class FilterProcessor implements Processor {
         }
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
     @Override
     public Processor getNextProcessor() {
         return next;
@@ -128,6 +128,7 @@ public class BatchWindowProcessor extends BatchingFindableWindowProcessor<BatchW
             long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
             if (outputExpectsExpiredEvents) {
                 if (state.expiredEventQueue.getFirst() != null) {
+                    state.expiredEventQueue.detachSnapshot();
                     while (state.expiredEventQueue.hasNext()) {
                         state.expiredEventQueue.next().setTimestamp(currentTime);
                     }
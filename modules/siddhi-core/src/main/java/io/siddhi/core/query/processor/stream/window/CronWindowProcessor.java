@@ -185,16 +185,18 @@ public class CronWindowProcessor extends BatchingWindowProcessor<CronWindowProce
     }
 
     public void dispatchEvents() {
-        Map<String, Map<String, WindowState>> allStates = stateHolder.getAllStates();
+        Map<String, Map<Object, WindowState>> allStates = stateHolder.getAllStates();
         try {
-            for (Map.Entry<String, Map<String, WindowState>> allStatesEntry : allStates.entrySet()) {
-                for (Map.Entry<String, WindowState> stateEntry : allStatesEntry.getValue().entrySet()) {
+            for (Map.Entry<String, Map<Object, WindowState>> allStatesEntry : allStates.entrySet()) {
+                for (Map.Entry<Object, WindowState> stateEntry : allStatesEntry.getValue().entrySet()) {
                     WindowState windowState = stateEntry.getValue();
                     ComplexEventChunk<StreamEvent> streamEventChunk = new ComplexEventChunk<StreamEvent>(false);
                     synchronized (windowState) {
                         if (windowState.currentEventQueue.getFirst() != null) {
+                            windowState.setModified(true);
                             long currentTime = siddhiQueryContext.getSiddhiAppContext().
                                     getTimestampGenerator().currentTime();
+                            windowState.expiredEventQueue.detachSnapshot();
                             while (windowState.expiredEventQueue.hasNext()) {
                                 StreamEvent expiredEvent = windowState.expiredEventQueue.next();
                                 expiredEvent.setTimestamp(currentTime);
@@ -211,6 +213,7 @@ public class CronWindowProcessor extends BatchingWindowProcessor<CronWindowProce
                                 windowState.expiredEventQueue.add(toExpireEvent);
                             }
 
+                            windowState.currentEventQueue.detachSnapshot();
                             streamEventChunk.add(windowState.currentEventQueue.getFirst());
                             windowState.currentEventQueue.clear();
                         }
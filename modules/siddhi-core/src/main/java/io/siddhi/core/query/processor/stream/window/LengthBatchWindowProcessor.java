@@ -212,6 +212,7 @@ public class LengthBatchWindowProcessor extends
         state.count++;
         if (state.count == length) {
             if (outputExpectsExpiredEvents && state.expiredEventQueue.getFirst() != null) {
+                state.expiredEventQueue.detachSnapshot();
                 while (state.expiredEventQueue.hasNext()) {
                     StreamEvent expiredEvent = state.expiredEventQueue.next();
                     expiredEvent.setTimestamp(currentTime);
@@ -236,6 +237,7 @@ public class LengthBatchWindowProcessor extends
                         state.expiredEventQueue.add(toExpireEvent);
                     }
                 }
+                state.currentEventQueue.detachSnapshot();
                 outputStreamEventChunk.add(state.currentEventQueue.getFirst());
                 state.currentEventQueue.clear();
             }
@@ -250,6 +252,7 @@ public class LengthBatchWindowProcessor extends
         state.count++;
         if (state.count == length + 1) {
             if (outputExpectsExpiredEvents && state.expiredEventQueue.getFirst() != null) {
+                state.expiredEventQueue.detachSnapshot();
                 while (state.expiredEventQueue.hasNext()) {
                     StreamEvent expiredEvent = state.expiredEventQueue.next();
                     expiredEvent.setTimestamp(currentTime);
@@ -45,6 +45,7 @@ import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.query.api.exception.SiddhiAppValidationException;
 import io.siddhi.query.api.expression.Expression;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -105,6 +106,7 @@ public class LengthWindowProcessor extends SlidingFindableWindowProcessor<Length
     @Override
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, WindowState state) {
+        List<StreamEvent> recyclableEvents = null;
         synchronized (state) {
             long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
             while (streamEventChunk.hasNext()) {
@@ -120,6 +122,12 @@ public class LengthWindowProcessor extends SlidingFindableWindowProcessor<Length
                         firstEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(firstEvent);
                         state.expiredEventQueue.add(clonedEvent);
+                        if (streamEventCloner.isPooled()) {
+                            if (recyclableEvents == null) {
+                                recyclableEvents = new ArrayList<>();
+                            }
+                            recyclableEvents.add(firstEvent);
+                        }
                     } else {
                         StreamEvent resetEvent = streamEventCloner.copyStreamEvent(streamEvent);
                         resetEvent.setType(ComplexEvent.Type.RESET);
@@ -139,6 +147,11 @@ public class LengthWindowProcessor extends SlidingFindableWindowProcessor<Length
             }
         }
         nextProcessor.process(streamEventChunk);
+        if (recyclableEvents != null) {
+            for (StreamEvent expiredEvent : recyclableEvents) {
+                streamEventCloner.returnEvent(expiredEvent);
+            }
+        }
     }
 
     @Override
@@ -44,11 +44,12 @@ import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Sample Query:
@@ -167,10 +168,8 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
                 streamEvent.setNext(null);
                 streamEventChunk.add(streamEvent);
 
-                state.sortedWindow.add(clonedEvent);
-                if (state.sortedWindow.size() > lengthToKeep) {
-                    Collections.sort(state.sortedWindow, eventComparator);
-                    StreamEvent expiredEvent = state.sortedWindow.remove(state.sortedWindow.size() - 1);
+                StreamEvent expiredEvent = state.add(clonedEvent);
+                if (expiredEvent != null) {
                     expiredEvent.setTimestamp(currentTime);
                     streamEventChunk.add(expiredEvent);
                 }
@@ -196,14 +195,14 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
                                               Map<String, Table> tableMap, WindowState state,
                                               SiddhiQueryContext siddhiQueryContext) {
-        return OperatorParser.constructOperator(state.sortedWindow, condition, matchingMetaInfoHolder,
+        return OperatorParser.constructOperator(state.getEvents(), condition, matchingMetaInfoHolder,
                 variableExpressionExecutors, tableMap, siddhiQueryContext);
     }
 
     @Override
     public StreamEvent find(StateEvent matchingEvent, CompiledCondition compiledCondition,
                             StreamEventCloner streamEventCloner, WindowState state) {
-        return ((Operator) compiledCondition).find(matchingEvent, state.sortedWindow, streamEventCloner);
+        return ((Operator) compiledCondition).find(matchingEvent, state.getEvents(), streamEventCloner);
 
     }
 
@@ -224,24 +223,75 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
         }
     }
 
+    /**
+     * Key ordering the events of the window by the sort attributes, and the events comparing equal by their arrival.
+     */
+    private static final class SortKey {
+        private final StreamEvent event;
+        private final long sequence;
+
+        private SortKey(StreamEvent event, long sequence) {
+            this.event = event;
+            this.sequence = sequence;
+        }
+    }
+
     class WindowState extends State {
+        // Events in their arrival order, until the window exceeds its length for the first time
         private List<StreamEvent> sortedWindow = new ArrayList<StreamEvent>();
+        private TreeMap<SortKey, StreamEvent> sortedEvents;
+        private long nextSequence;
+
+        /**
+         * Adds the event to the window, evicting the last event in the sort order if the window exceeds its length.
+         * Among the last events comparing equal, the latest one is evicted.
+         *
+         * @return the evicted event, or null if the window has not exceeded its length
+         */
+        private StreamEvent add(StreamEvent streamEvent) {
+            if (sortedEvents == null) {
+                sortedWindow.add(streamEvent);
+                if (sortedWindow.size() <= lengthToKeep) {
+                    return null;
+                }
+                sortedEvents = new TreeMap<>(this::compare);
+                for (StreamEvent event : sortedWindow) {
+                    sortedEvents.put(new SortKey(event, nextSequence++), event);
+                }
+                sortedWindow = null;
+            } else {
+                sortedEvents.put(new SortKey(streamEvent, nextSequence++), streamEvent);
+            }
+            return sortedEvents.pollLastEntry().getValue();
+        }
+
+        private Collection<StreamEvent> getEvents() {
+            return sortedEvents == null ? sortedWindow : sortedEvents.values();
+        }
+
+        private int compare(SortKey key1, SortKey key2) {
+            int comparisonResult = eventComparator.compare(key1.event, key2.event);
+            return comparisonResult != 0 ? comparisonResult : Long.compare(key1.sequence, key2.sequence);
+        }
 
         @Override
         public boolean canDestroy() {
-            return sortedWindow.isEmpty();
+            return getEvents().isEmpty();
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
-            state.put("SortedWindow", sortedWindow);
+            state.put("SortedWindow", new ArrayList<>(getEvents()));
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
-            sortedWindow = (List<StreamEvent>) state.get("SortedWindow");
+            // Events comparing equal are listed in their arrival order, hence their order is rebuilt from the list
+            sortedWindow = new ArrayList<>((List<StreamEvent>) state.get("SortedWindow"));
+            sortedEvents = null;
+            nextSequence = 0;
         }
     }
 }
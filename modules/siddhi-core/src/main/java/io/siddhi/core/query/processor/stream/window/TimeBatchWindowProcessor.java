@@ -295,6 +295,7 @@ public class TimeBatchWindowProcessor extends BatchingFindableWindowProcessor<Ti
             }
             if (sendEvents) {
                 if (outputExpectsExpiredEvents && state.expiredEventQueue.getFirst() != null) {
+                    state.expiredEventQueue.detachSnapshot();
                     while (state.expiredEventQueue.hasNext()) {
                         StreamEvent expiredEvent = state.expiredEventQueue.next();
                         expiredEvent.setTimestamp(currentTime);
@@ -318,6 +319,7 @@ public class TimeBatchWindowProcessor extends BatchingFindableWindowProcessor<Ti
                             state.expiredEventQueue.add(toExpireEvent);
                         }
                     }
+                    state.currentEventQueue.detachSnapshot();
                     streamEventChunk.add(state.currentEventQueue.getFirst());
                     state.currentEventQueue.clear();
                 }
@@ -48,6 +48,7 @@ import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.exception.SiddhiAppValidationException;
 import io.siddhi.query.api.expression.Expression;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -132,6 +133,7 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
     @Override
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, WindowState state) {
+        List<StreamEvent> recyclableEvents = null;
         synchronized (state) {
             SnapshotableStreamEventQueue expiredEventQueue = state.expiredEventQueue;
             while (streamEventChunk.hasNext()) {
@@ -146,6 +148,12 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
                         expiredEventQueue.remove();
                         expiredEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(expiredEvent);
+                        if (streamEventCloner.isPooled()) {
+                            if (recyclableEvents == null) {
+                                recyclableEvents = new ArrayList<>();
+                            }
+                            recyclableEvents.add(expiredEvent);
+                        }
                     } else {
                         break;
                     }
@@ -166,6 +174,11 @@ public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWind
             expiredEventQueue.reset();
         }
         nextProcessor.process(streamEventChunk);
+        if (recyclableEvents != null) {
+            for (StreamEvent expiredEvent : recyclableEvents) {
+                streamEventCloner.returnEvent(expiredEvent);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector;
+
+import io.siddhi.core.util.SiddhiConstants;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable key of a GroupBy group, holding the values of the group by expressions of an event. The hash code is
+ * computed once at creation and keys are compared by their values, hence values such as "a:-:" and "b", or null and
+ * "null", which produce the same concatenated String, belong to different groups.
+ * <p>
+ * {@link #toString()} returns the concatenated String form of the key, which is used as the group by part of the
+ * snapshot ids.
+ */
+public abstract class GroupByKey implements Serializable {
+
+    private static final long serialVersionUID = 6352846215394412093L;
+
+    private final int hash;
+    private transient String stringKey;
+
+    private GroupByKey(int hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * @param value value of the only group by expression
+     * @return key of the group
+     */
+    public static GroupByKey of(Object value) {
+        return new SingleValueKey(value);
+    }
+
+    /**
+     * @param value int or long value of the only group by expression
+     * @return key of the group
+     */
+    public static GroupByKey of(long value) {
+        return new LongValueKey(value);
+    }
+
+    /**
+     * @param values values of the group by expressions, which should not be modified afterwards
+     * @return key of the group
+     */
+    public static GroupByKey of(Object[] values) {
+        return new CompositeKey(values);
+    }
+
+    /**
+     * Generates the key of the group of an aggregation bucket.
+     *
+     * @param groupByKey key of the group
+     * @param timestamp  start time of the bucket
+     * @return a {@link GroupByKey} when the given key is one, else the concatenated String key of the bucket
+     */
+    public static Object withTimestamp(Object groupByKey, long timestamp) {
+        if (groupByKey instanceof GroupByKey) {
+            return new TimestampedKey((GroupByKey) groupByKey, timestamp);
+        }
+        return groupByKey + "-" + timestamp;
+    }
+
+    @Override
+    public final int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public final String toString() {
+        String key = stringKey;
+        if (key == null) {
+            StringBuilder sb = new StringBuilder();
+            appendTo(sb);
+            key = sb.toString();
+            stringKey = key;
+        }
+        return key;
+    }
+
+    abstract void appendTo(StringBuilder sb);
+
+    private static final class SingleValueKey extends GroupByKey {
+
+        private static final long serialVersionUID = -3102394865146738564L;
+        private final Object value;
+
+        private SingleValueKey(Object value) {
+            super(Objects.hashCode(value));
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SingleValueKey)) {
+                return false;
+            }
+            SingleValueKey that = (SingleValueKey) o;
+            return hashCode() == that.hashCode() && Objects.equals(value, that.value);
+        }
+
+        @Override
+        void appendTo(StringBuilder sb) {
+            sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+        }
+    }
+
+    private static final class LongValueKey extends GroupByKey {
+
+        private static final long serialVersionUID = 2290385527317263480L;
+        private final long value;
+
+        private LongValueKey(long value) {
+            super(Long.hashCode(value));
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof LongValueKey && value == ((LongValueKey) o).value;
+        }
+
+        @Override
+        void appendTo(StringBuilder sb) {
+            sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+        }
+    }
+
+    private static final class CompositeKey extends GroupByKey {
+
+        private static final long serialVersionUID = 4417913604839125632L;
+        private final Object[] values;
+
+        private CompositeKey(Object[] values) {
+            super(Arrays.hashCode(values));
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompositeKey)) {
+                return false;
+            }
+            CompositeKey that = (CompositeKey) o;
+            return hashCode() == that.hashCode() && Arrays.equals(values, that.values);
+        }
+
+        @Override
+        void appendTo(StringBuilder sb) {
+            for (Object value : values) {
+                sb.append(value).append(SiddhiConstants.KEY_DELIMITER);
+            }
+        }
+    }
+
+    private static final class TimestampedKey extends GroupByKey {
+
+        private static final long serialVersionUID = -7530213542196871405L;
+        private final GroupByKey groupByKey;
+        private final long timestamp;
+
+        private TimestampedKey(GroupByKey groupByKey, long timestamp) {
+            super(31 * groupByKey.hashCode() + Long.hashCode(timestamp));
+            this.groupByKey = groupByKey;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimestampedKey)) {
+                return false;
+            }
+            TimestampedKey that = (TimestampedKey) o;
+            return timestamp == that.timestamp && groupByKey.equals(that.groupByKey);
+        }
+
+        @Override
+        void appendTo(StringBuilder sb) {
+            sb.append(groupByKey.toString()).append('-').append(timestamp);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.parser.ExpressionParser;
+import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.Expression;
 
 import java.util.List;
@@ -37,6 +38,7 @@ import java.util.Map;
 public class GroupByKeyGenerator {
 
     private ExpressionExecutor[] groupByExecutors = null;
+    private boolean singleIntegralKey = false;
 
     public GroupByKeyGenerator(List<Expression> groupByList,
                                MetaComplexEvent metaComplexEvent,
@@ -51,14 +53,43 @@ public class GroupByKeyGenerator {
                         false, 0, ProcessingMode.BATCH, false,
                         siddhiQueryContext);
             }
+            if (groupByExecutors.length == 1) {
+                Attribute.Type type = groupByExecutors[0].getReturnType();
+                singleIntegralKey = type == Attribute.Type.INT || type == Attribute.Type.LONG;
+            }
+        }
+    }
+
+    /**
+     * generate typed groupBy key of a streamEvent
+     *
+     * @param event complexEvent
+     * @return GroupByKey, or null if there are no group by expressions
+     */
+    public GroupByKey constructGroupByKey(ComplexEvent event) {
+        if (groupByExecutors == null) {
+            return null;
+        }
+        if (groupByExecutors.length == 1) {
+            Object value = groupByExecutors[0].execute(event);
+            if (singleIntegralKey && value != null) {
+                return GroupByKey.of(((Number) value).longValue());
+            }
+            return GroupByKey.of(value);
+        }
+        Object[] values = new Object[groupByExecutors.length];
+        for (int i = 0; i < groupByExecutors.length; i++) {
+            values[i] = groupByExecutors[i].execute(event);
         }
+        return GroupByKey.of(values);
     }
 
     /**
-     * generate groupBy key of a streamEvent
+     * generate concatenated String groupBy key of a streamEvent
      *
      * @param event complexEvent
      * @return GroupByKey
+     * @see #constructGroupByKey(ComplexEvent)
      */
     public String constructEventKey(ComplexEvent event) {
         if (groupByExecutors != null) {
@@ -30,6 +30,8 @@ import io.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.core.util.snapshot.state.StripedGroupByStateHolder;
 import io.siddhi.query.api.execution.query.selection.Selector;
 import org.apache.log4j.Logger;
 
@@ -37,6 +39,8 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Processor implementation representing selector portion of the Siddhi query.
@@ -62,6 +66,8 @@ public class QuerySelector implements Processor {
     private boolean batchingEnabled = true;
     private long limit = SiddhiConstants.UNKNOWN_STATE;
     private long offset = SiddhiConstants.UNKNOWN_STATE;
+    // Lock stripes guarding the group by states, null when the selector is synchronized as a whole
+    private ReentrantLock[] groupByLocks;
 
     public QuerySelector(String id, Selector selector, boolean currentOn, boolean expiredOn, SiddhiQueryContext
             siddhiQueryContext) {
@@ -161,6 +167,7 @@ public class QuerySelector implements Processor {
                         }
                         break;
                     case TIMER:
+                        releaseExpiredTimePaneStates();
                         complexEventChunk.remove();
                         break;
                 }
@@ -187,48 +194,12 @@ public class QuerySelector implements Processor {
         ComplexEventChunk<ComplexEvent> currentComplexEventChunk = new ComplexEventChunk<ComplexEvent>
                 (complexEventChunk.isBatch());
 
-        synchronized (this) {
-            int limitCount = 0;
-            while (complexEventChunk.hasNext()) {
-                ComplexEvent event = complexEventChunk.next();
-                switch (event.getType()) {
-                    case CURRENT:
-                    case EXPIRED:
-                        eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
-                        SiddhiAppContext.startGroupByFlow(groupByKey);
-                        try {
-                            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                                attributeProcessor.process(event);
-                            }
-                            if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
-                                    StreamEvent.Type.EXPIRED && expiredOn)) {
-                                if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
-                                    complexEventChunk.remove();
-                                    if (limit == SiddhiConstants.UNKNOWN_STATE) {
-                                        currentComplexEventChunk.add(new GroupedComplexEvent(groupByKey, event));
-                                    } else {
-                                        if (limitCount < limit) {
-                                            currentComplexEventChunk.add(new GroupedComplexEvent(groupByKey, event));
-                                            limitCount++;
-                                        }
-                                    }
-                                }
-                            }
-                        } finally {
-                            SiddhiAppContext.stopGroupByFlow();
-                        }
-                        break;
-                    case TIMER:
-                        break;
-                    case RESET:
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        break;
-                }
-
+        if (groupByLocks == null) {
+            synchronized (this) {
+                selectGroupBy(complexEventChunk, currentComplexEventChunk);
             }
+        } else {
+            selectGroupBy(complexEventChunk, currentComplexEventChunk);
         }
         if (isOrderBy) {
             orderEventChunk(complexEventChunk);
@@ -246,6 +217,53 @@ public class QuerySelector implements Processor {
         return null;
     }
 
+    private void selectGroupBy(ComplexEventChunk complexEventChunk,
+                               ComplexEventChunk<ComplexEvent> currentComplexEventChunk) {
+        int limitCount = 0;
+        while (complexEventChunk.hasNext()) {
+            ComplexEvent event = complexEventChunk.next();
+            switch (event.getType()) {
+                case CURRENT:
+                case EXPIRED:
+                    eventPopulator.populateStateEvent(event);
+                    GroupByKey groupByKey = groupByKeyGenerator.constructGroupByKey(event);
+                    Lock groupByLock = lockGroupBy(groupByKey);
+                    SiddhiAppContext.startGroupByFlow(groupByKey);
+                    try {
+                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                            attributeProcessor.process(event);
+                        }
+                        if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
+                                StreamEvent.Type.EXPIRED && expiredOn)) {
+                            if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
+                                complexEventChunk.remove();
+                                if (limit == SiddhiConstants.UNKNOWN_STATE) {
+                                    currentComplexEventChunk.add(new GroupedComplexEvent(groupByKey, event));
+                                } else {
+                                    if (limitCount < limit) {
+                                        currentComplexEventChunk.add(new GroupedComplexEvent(groupByKey, event));
+                                        limitCount++;
+                                    }
+                                }
+                            }
+                        }
+                    } finally {
+                        SiddhiAppContext.stopGroupByFlow();
+                        if (groupByLock != null) {
+                            groupByLock.unlock();
+                        }
+                    }
+                    break;
+                case TIMER:
+                    releaseExpiredTimePaneStates();
+                    break;
+                case RESET:
+                    resetGroupBy(event);
+                    break;
+            }
+        }
+    }
+
     private ComplexEventChunk processInBatchNoGroupBy(ComplexEventChunk complexEventChunk) {
         complexEventChunk.reset();
         ComplexEvent lastEvent = null;
@@ -269,6 +287,7 @@ public class QuerySelector implements Processor {
                         }
                         break;
                     case TIMER:
+                        releaseExpiredTimePaneStates();
                         break;
                     case RESET:
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -291,48 +310,20 @@ public class QuerySelector implements Processor {
     }
 
     private ComplexEventChunk processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<GroupByKey, ComplexEvent> groupedEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
         complexEventChunk.reset();
 
-        synchronized (this) {
-            while (complexEventChunk.hasNext()) {
-                ComplexEvent event = complexEventChunk.next();
-                switch (event.getType()) {
-
-                    case CURRENT:
-                    case EXPIRED:
-                        eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
-                        SiddhiAppContext.startGroupByFlow(groupByKey);
-                        try {
-                            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                                attributeProcessor.process(event);
-                            }
-                            if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
-                                if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
-                                        StreamEvent.Type.EXPIRED && expiredOn)) {
-                                    complexEventChunk.remove();
-                                    groupedEvents.put(groupByKey, event);
-                                }
-                            }
-                        } finally {
-                            SiddhiAppContext.stopGroupByFlow();
-                        }
-                        break;
-                    case TIMER:
-                        break;
-                    case RESET:
-                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-                            attributeProcessor.process(event);
-                        }
-                        break;
-                }
+        if (groupByLocks == null) {
+            synchronized (this) {
+                selectInBatchGroupBy(complexEventChunk, groupedEvents);
             }
+        } else {
+            selectInBatchGroupBy(complexEventChunk, groupedEvents);
         }
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<GroupByKey, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(),
                         groupedEventEntry.getValue()));
             }
@@ -351,6 +342,118 @@ public class QuerySelector implements Processor {
         return null;
     }
 
+    private void selectInBatchGroupBy(ComplexEventChunk complexEventChunk,
+                                      Map<GroupByKey, ComplexEvent> groupedEvents) {
+        while (complexEventChunk.hasNext()) {
+            ComplexEvent event = complexEventChunk.next();
+            switch (event.getType()) {
+
+                case CURRENT:
+                case EXPIRED:
+                    eventPopulator.populateStateEvent(event);
+                    GroupByKey groupByKey = groupByKeyGenerator.constructGroupByKey(event);
+                    Lock groupByLock = lockGroupBy(groupByKey);
+                    SiddhiAppContext.startGroupByFlow(groupByKey);
+                    try {
+                        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                            attributeProcessor.process(event);
+                        }
+                        if (!(havingConditionExecutor != null && !havingConditionExecutor.execute(event))) {
+                            if ((event.getType() == StreamEvent.Type.CURRENT && currentOn) || (event.getType() ==
+                                    StreamEvent.Type.EXPIRED && expiredOn)) {
+                                complexEventChunk.remove();
+                                groupedEvents.put(groupByKey, event);
+                            }
+                        }
+                    } finally {
+                        SiddhiAppContext.stopGroupByFlow();
+                        if (groupByLock != null) {
+                            groupByLock.unlock();
+                        }
+                    }
+                    break;
+                case TIMER:
+                    releaseExpiredTimePaneStates();
+                    break;
+                case RESET:
+                    resetGroupBy(event);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Locks the stripe guarding the states of the group by key, when the group by states are lock striped.
+     *
+     * @param groupByKey group by key
+     * @return the acquired lock, or null when the selector is synchronized as a whole
+     */
+    private Lock lockGroupBy(GroupByKey groupByKey) {
+        if (groupByLocks == null) {
+            return null;
+        }
+        Lock lock = groupByLocks[StripedGroupByStateHolder.getStripeIndex(groupByKey, groupByLocks.length)];
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Resets the states of all the group by keys, holding all the lock stripes in order when lock striped.
+     */
+    private void resetGroupBy(ComplexEvent event) {
+        if (groupByLocks == null) {
+            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                attributeProcessor.process(event);
+            }
+            return;
+        }
+        int locked = 0;
+        try {
+            for (; locked < groupByLocks.length; locked++) {
+                groupByLocks[locked].lock();
+            }
+            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                attributeProcessor.process(event);
+            }
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                groupByLocks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Releases the aggregator states whose time panes have all expired, as the states of the group by keys no longer
+     * receiving events are not released otherwise. Only the states of the current partition are visited, holding all
+     * the lock stripes in order when lock striped.
+     */
+    private void releaseExpiredTimePaneStates() {
+        List<StateHolder> stateHolders = siddhiQueryContext.getTimePaneStateHolders();
+        if (stateHolders.isEmpty()) {
+            return;
+        }
+        int locked = 0;
+        try {
+            if (groupByLocks != null) {
+                for (; locked < groupByLocks.length; locked++) {
+                    groupByLocks[locked].lock();
+                }
+            }
+            for (StateHolder stateHolder : stateHolders) {
+                if (SiddhiAppContext.getPartitionFlowId() == null) {
+                    // Spilled states are kept spilled, as they are not destroyed
+                    stateHolder.returnAllStates(stateHolder.getAllStates());
+                } else {
+                    stateHolder.returnGroupByStates(stateHolder.getAllGroupByStates());
+                }
+            }
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                groupByLocks[i].unlock();
+            }
+        }
+    }
+
     @Override
     public Processor getNextProcessor() {
         return null;    //since there is no processors after a query selector
@@ -387,6 +490,20 @@ public class QuerySelector implements Processor {
         this.containsAggregator = this.containsAggregator || containsAggregator;
     }
 
+    /**
+     * Guards the group by states with the given number of lock stripes, instead of synchronizing the selector as a
+     * whole, such that events of different group by keys can be selected concurrently. Events of the same group by
+     * key always map to the same stripe, hence they are still aggregated one at a time.
+     *
+     * @param stripes number of lock stripes
+     */
+    public void setGroupByLockStripes(int stripes) {
+        groupByLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            groupByLocks[i] = new ReentrantLock();
+        }
+    }
+
     public void setGroupByKeyGenerator(GroupByKeyGenerator groupByKeyGenerator) {
         isGroupBy = true;
         this.groupByKeyGenerator = groupByKeyGenerator;
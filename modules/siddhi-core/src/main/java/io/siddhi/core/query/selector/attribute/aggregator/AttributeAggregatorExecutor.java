@@ -21,12 +21,15 @@ import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.extension.validator.InputParameterValidator;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Abstract parent class for attribute aggregators. Attribute aggregators are used to perform aggregate operations
@@ -39,10 +42,17 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
     protected ExpressionExecutor[] attributeExpressionExecutors;
     private int attributeSize;
     private StateHolder<S> stateHolder;
+    private VariableExpressionExecutor primitiveAttributeExecutor;
+    private boolean integralAttribute;
 
     public void initAggregator(ExpressionExecutor[] attributeExpressionExecutors, ProcessingMode processingMode,
                                boolean outputExpectsExpiredEvents,
                                ConfigReader configReader, boolean groupBy, SiddhiQueryContext siddhiQueryContext) {
+        if (siddhiQueryContext.getTimePaneLength() > 0 && !(this instanceof TimePaneAggregator)) {
+            throw new SiddhiAppCreationException("Aggregator " + this.getClass().getName() + " cannot be " +
+                    "evaluated over time panes, hence query '" + siddhiQueryContext.getName() + "' cannot have @" +
+                    SiddhiConstants.ANNOTATION_TIME_PANES);
+        }
         try {
             this.attributeExpressionExecutors = attributeExpressionExecutors;
             this.attributeSize = attributeExpressionExecutors.length;
@@ -50,7 +60,15 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
             StateFactory<S> stateFactory = init(attributeExpressionExecutors, processingMode,
                     outputExpectsExpiredEvents, configReader, siddhiQueryContext);
             stateHolder = siddhiQueryContext.generateStateHolder(this.getClass().getName(),
-                    groupBy, stateFactory, true);
+                    groupBy, stateFactory, true, true);
+            if (siddhiQueryContext.getTimePaneLength() > 0) {
+                siddhiQueryContext.addTimePaneStateHolder(stateHolder);
+            }
+            if (attributeSize == 1 && attributeExpressionExecutors[0] instanceof VariableExpressionExecutor) {
+                primitiveAttributeExecutor = (VariableExpressionExecutor) attributeExpressionExecutors[0];
+                Attribute.Type type = primitiveAttributeExecutor.getReturnType();
+                integralAttribute = type == Attribute.Type.INT || type == Attribute.Type.LONG;
+            }
         } catch (Throwable t) {
             throw new SiddhiAppCreationException(t);
         }
@@ -85,9 +103,9 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
     private Object processAttribute(ComplexEvent event) {
         switch (event.getType()) {
             case CURRENT:
-                return processAdd(attributeExpressionExecutors[0].execute(event));
+                return processAttributeAdd(event);
             case EXPIRED:
-                return processRemove(attributeExpressionExecutors[0].execute(event));
+                return processAttributeRemove(event);
             case RESET:
                 return processReset();
         }
@@ -106,19 +124,41 @@ public abstract class AttributeAggregatorExecutor<S extends State> implements Ex
         return null;
     }
 
-    private Object processAdd(Object data) {
+    /**
+     * Adds the attribute of the event, read from its primitive slot for states of numeric attributes which
+     * implement {@link LongAggregatorState} or {@link DoubleAggregatorState}.
+     */
+    private Object processAttributeAdd(ComplexEvent event) {
         S state = stateHolder.getState();
         try {
-            return processAdd(data, state);
+            if (primitiveAttributeExecutor != null) {
+                if (integralAttribute && state instanceof LongAggregatorState) {
+                    return primitiveAttributeExecutor.executePrimitive(event, (LongAggregatorState) state,
+                            LongAggregatorState.ADD);
+                } else if (!integralAttribute && state instanceof DoubleAggregatorState) {
+                    return primitiveAttributeExecutor.executePrimitive(event, (DoubleAggregatorState) state,
+                            DoubleAggregatorState.ADD);
+                }
+            }
+            return processAdd(attributeExpressionExecutors[0].execute(event), state);
         } finally {
             stateHolder.returnState(state);
         }
     }
 
-    private Object processRemove(Object data) {
+    private Object processAttributeRemove(ComplexEvent event) {
         S state = stateHolder.getState();
         try {
-            return processRemove(data, state);
+            if (primitiveAttributeExecutor != null) {
+                if (integralAttribute && state instanceof LongAggregatorState) {
+                    return primitiveAttributeExecutor.executePrimitive(event, (LongAggregatorState) state,
+                            LongAggregatorState.REMOVE);
+                } else if (!integralAttribute && state instanceof DoubleAggregatorState) {
+                    return primitiveAttributeExecutor.executePrimitive(event, (DoubleAggregatorState) state,
+                            DoubleAggregatorState.REMOVE);
+                }
+            }
+            return processRemove(attributeExpressionExecutors[0].execute(event), state);
         } finally {
             stateHolder.returnState(state);
         }
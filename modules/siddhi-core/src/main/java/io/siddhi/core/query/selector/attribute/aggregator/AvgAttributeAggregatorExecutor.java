@@ -30,6 +30,7 @@ import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.core.util.timestamp.TimestampGenerator;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
@@ -62,9 +63,13 @@ import java.util.Map;
         )
 )
 public class AvgAttributeAggregatorExecutor
-        extends AttributeAggregatorExecutor<AvgAttributeAggregatorExecutor.AvgAttributeState> {
+        extends AttributeAggregatorExecutor<AvgAttributeAggregatorExecutor.AvgAttributeState>
+        implements TimePaneAggregator {
 
     private Attribute.Type returnType;
+    private TimestampGenerator timestampGenerator;
+    private long timePaneWindowLength;
+    private long timePaneLength;
 
     /**
      * The initialization method for FunctionExecutor
@@ -86,6 +91,12 @@ public class AvgAttributeAggregatorExecutor
         }
         returnType = Attribute.Type.DOUBLE;
         Attribute.Type type = attributeExpressionExecutors[0].getReturnType();
+        if (siddhiQueryContext.getTimePaneLength() > 0) {
+            timestampGenerator = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator();
+            timePaneWindowLength = siddhiQueryContext.getTimePaneWindowLength();
+            timePaneLength = siddhiQueryContext.getTimePaneLength();
+            return () -> new AvgAttributeAggregatorStateTimePanes();
+        }
         return () -> {
             switch (type) {
                 case FLOAT:
@@ -140,15 +151,21 @@ public class AvgAttributeAggregatorExecutor
         return state.reset();
     }
 
-    class AvgAttributeAggregatorStateDouble extends AvgAttributeState {
+    class AvgAttributeAggregatorStateDouble extends AvgAttributeState implements DoubleAggregatorState {
 
+        // Running sum of the window; subtracting expired values can leave rounding errors behind
         private double value = 0.0;
         private long count = 0;
 
         @Override
         public Object processAdd(Object data) {
+            return processAdd(((Double) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(double data) {
             count++;
-            value += (Double) data;
+            value += data;
             if (count == 0) {
                 return null;
             }
@@ -157,8 +174,13 @@ public class AvgAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object obj) {
+            return processRemove(((Double) obj).doubleValue());
+        }
+
+        @Override
+        public Object processRemove(double data) {
             count--;
-            value -= (Double) obj;
+            value -= data;
             if (count == 0) {
                 return null;
             }
@@ -191,7 +213,7 @@ public class AvgAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             if (count == 0) {
                 return null;
             }
@@ -199,15 +221,20 @@ public class AvgAttributeAggregatorExecutor
         }
     }
 
-    class AvgAttributeAggregatorStateFloat extends AvgAttributeState {
+    class AvgAttributeAggregatorStateFloat extends AvgAttributeState implements DoubleAggregatorState {
 
         private double value = 0.0;
         private long count = 0;
 
         @Override
         public Object processAdd(Object data) {
+            return processAdd(((Float) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(double data) {
             count++;
-            value += (Float) data;
+            value += data;
             if (count == 0) {
                 return null;
             }
@@ -216,8 +243,13 @@ public class AvgAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object obj) {
+            return processRemove(((Float) obj).doubleValue());
+        }
+
+        @Override
+        public Object processRemove(double data) {
             count--;
-            value -= (Float) obj;
+            value -= data;
             if (count == 0) {
                 return null;
             }
@@ -250,7 +282,7 @@ public class AvgAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             if (count == 0) {
                 return null;
             }
@@ -258,15 +290,20 @@ public class AvgAttributeAggregatorExecutor
         }
     }
 
-    class AvgAttributeAggregatorStateInt extends AvgAttributeState {
+    class AvgAttributeAggregatorStateInt extends AvgAttributeState implements LongAggregatorState {
 
         private double value = 0.0;
         private long count = 0;
 
         @Override
         public Object processAdd(Object data) {
+            return processAdd(((Integer) data).longValue());
+        }
+
+        @Override
+        public Object processAdd(long data) {
             count++;
-            value += (Integer) data;
+            value += data;
             if (count == 0) {
                 return null;
             }
@@ -275,8 +312,13 @@ public class AvgAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object obj) {
+            return processRemove(((Integer) obj).longValue());
+        }
+
+        @Override
+        public Object processRemove(long data) {
             count--;
-            value -= (Integer) obj;
+            value -= data;
             if (count == 0) {
                 return null;
             }
@@ -309,7 +351,7 @@ public class AvgAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             if (count == 0) {
                 return null;
             }
@@ -317,15 +359,20 @@ public class AvgAttributeAggregatorExecutor
         }
     }
 
-    class AvgAttributeAggregatorStateLong extends AvgAttributeState {
+    class AvgAttributeAggregatorStateLong extends AvgAttributeState implements LongAggregatorState {
 
         private double value = 0.0;
         private long count = 0;
 
         @Override
         public Object processAdd(Object data) {
+            return processAdd(((Long) data).longValue());
+        }
+
+        @Override
+        public Object processAdd(long data) {
             count++;
-            value += (Long) data;
+            value += data;
             if (count == 0) {
                 return null;
             }
@@ -334,8 +381,13 @@ public class AvgAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object obj) {
+            return processRemove(((Long) obj).longValue());
+        }
+
+        @Override
+        public Object processRemove(long data) {
             count--;
-            value -= (Long) obj;
+            value -= data;
             if (count == 0) {
                 return null;
             }
@@ -368,7 +420,7 @@ public class AvgAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             if (count == 0) {
                 return null;
             }
@@ -376,6 +428,74 @@ public class AvgAttributeAggregatorExecutor
         }
     }
 
+    class AvgAttributeAggregatorStateTimePanes extends AvgAttributeState
+            implements LongAggregatorState, DoubleAggregatorState {
+
+        private final TimePanes timePanes = new TimePanes(timePaneWindowLength, timePaneLength);
+
+        @Override
+        public Object processAdd(Object data) {
+            return processAdd(((Number) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(long data) {
+            return processAdd((double) data);
+        }
+
+        @Override
+        public Object processAdd(double data) {
+            timePanes.add(timestampGenerator.currentTime(), data);
+            return currentValue();
+        }
+
+        @Override
+        public Object processRemove(Object obj) {
+            // will not occur, as values expire along with their panes
+            return currentValue();
+        }
+
+        @Override
+        public Object processRemove(long data) {
+            return currentValue();
+        }
+
+        @Override
+        public Object processRemove(double data) {
+            return currentValue();
+        }
+
+        @Override
+        public Object reset() {
+            timePanes.clear();
+            return null;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            timePanes.expire(timestampGenerator.currentTime());
+            return timePanes.isEmpty();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            return timePanes.snapshot();
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            timePanes.restore(state);
+        }
+
+        public Object currentValue() {
+            timePanes.expire(timestampGenerator.currentTime());
+            if (timePanes.getCount() == 0) {
+                return null;
+            }
+            return timePanes.getDoubleSum() / timePanes.getCount();
+        }
+    }
+
     abstract class AvgAttributeState extends State {
         public abstract Object processAdd(Object data);
 
@@ -383,7 +503,7 @@ public class AvgAttributeAggregatorExecutor
 
         public abstract Object reset();
 
-        protected abstract Object currentValue();
+        public abstract Object currentValue();
     }
 
 
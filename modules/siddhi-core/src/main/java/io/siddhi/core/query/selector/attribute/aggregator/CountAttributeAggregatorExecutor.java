@@ -29,6 +29,7 @@ import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.core.util.timestamp.TimestampGenerator;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.HashMap;
@@ -65,9 +66,13 @@ import java.util.Map;
         )
 )
 public class CountAttributeAggregatorExecutor
-        extends AttributeAggregatorExecutor<CountAttributeAggregatorExecutor.AggregatorState> {
+        extends AttributeAggregatorExecutor<CountAttributeAggregatorExecutor.AggregatorState>
+        implements TimePaneAggregator {
 
     private static Attribute.Type type = Attribute.Type.LONG;
+    private TimestampGenerator timestampGenerator;
+    private long timePaneWindowLength;
+    private long timePaneLength;
 
     /**
      * The initialization method for FunctionExecutor
@@ -84,6 +89,12 @@ public class CountAttributeAggregatorExecutor
                                                  boolean outputExpectsExpiredEvents,
                                                  ConfigReader configReader,
                                                  SiddhiQueryContext siddhiQueryContext) {
+        if (siddhiQueryContext.getTimePaneLength() > 0) {
+            timestampGenerator = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator();
+            timePaneWindowLength = siddhiQueryContext.getTimePaneWindowLength();
+            timePaneLength = siddhiQueryContext.getTimePaneLength();
+            return () -> new AggregatorStateTimePanes();
+        }
         return () -> new AggregatorState();
 
     }
@@ -94,38 +105,48 @@ public class CountAttributeAggregatorExecutor
 
     @Override
     public Object processAdd(Object data, AggregatorState state) {
-        state.count++;
-        return state.count;
+        return state.processAdd();
     }
 
     @Override
     public Object processAdd(Object[] data, AggregatorState state) {
-        state.count++;
-        return state.count;
+        return state.processAdd();
     }
 
     @Override
     public Object processRemove(Object data, AggregatorState state) {
-        state.count--;
-        return state.count;
+        return state.processRemove();
     }
 
     @Override
     public Object processRemove(Object[] data, AggregatorState state) {
-        state.count--;
-        return state.count;
+        return state.processRemove();
     }
 
     @Override
     public Object reset(AggregatorState state) {
-        state.count = 0L;
-        return state.count;
+        return state.reset();
     }
 
 
     class AggregatorState extends State {
         private long count = 0L;
 
+        public Object processAdd() {
+            count++;
+            return count;
+        }
+
+        public Object processRemove() {
+            count--;
+            return count;
+        }
+
+        public Object reset() {
+            count = 0L;
+            return count;
+        }
+
         @Override
         public boolean canDestroy() {
             return count == 0L;
@@ -143,4 +164,44 @@ public class CountAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
     }
+
+    class AggregatorStateTimePanes extends AggregatorState {
+
+        private final TimePanes timePanes = new TimePanes(timePaneWindowLength, timePaneLength);
+
+        @Override
+        public Object processAdd() {
+            timePanes.add(timestampGenerator.currentTime());
+            return timePanes.getCount();
+        }
+
+        @Override
+        public Object processRemove() {
+            // will not occur, as events expire along with their panes
+            timePanes.expire(timestampGenerator.currentTime());
+            return timePanes.getCount();
+        }
+
+        @Override
+        public Object reset() {
+            timePanes.clear();
+            return 0L;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            timePanes.expire(timestampGenerator.currentTime());
+            return timePanes.isEmpty();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            return timePanes.snapshot();
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            timePanes.restore(state);
+        }
+    }
 }
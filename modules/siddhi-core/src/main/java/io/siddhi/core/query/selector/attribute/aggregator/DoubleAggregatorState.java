@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.core.event.stream.PrimitiveAttributeFunction;
+
+/**
+ * State of an {@link AttributeAggregatorExecutor} of a single FLOAT or DOUBLE attribute, which the executor updates with
+ * the value read from the attribute's primitive slot instead of its boxed value, see
+ * {@link io.siddhi.core.executor.VariableExpressionExecutor#executePrimitive}. The state has to give the same results
+ * as when processing the boxed value.
+ */
+interface DoubleAggregatorState {
+
+    PrimitiveAttributeFunction<DoubleAggregatorState, Object> ADD =
+            new PrimitiveAttributeFunction<DoubleAggregatorState, Object>() {
+                @Override
+                public Object applyLong(DoubleAggregatorState state, long value) {
+                    return state.processAdd((double) value);
+                }
+
+                @Override
+                public Object applyDouble(DoubleAggregatorState state, double value) {
+                    return state.processAdd(value);
+                }
+
+                @Override
+                public Object applyNull(DoubleAggregatorState state) {
+                    return state.currentValue();
+                }
+            };
+
+    PrimitiveAttributeFunction<DoubleAggregatorState, Object> REMOVE =
+            new PrimitiveAttributeFunction<DoubleAggregatorState, Object>() {
+                @Override
+                public Object applyLong(DoubleAggregatorState state, long value) {
+                    return state.processRemove((double) value);
+                }
+
+                @Override
+                public Object applyDouble(DoubleAggregatorState state, double value) {
+                    return state.processRemove(value);
+                }
+
+                @Override
+                public Object applyNull(DoubleAggregatorState state) {
+                    return state.currentValue();
+                }
+            };
+
+    Object processAdd(double data);
+
+    Object processRemove(double data);
+
+    Object currentValue();
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.core.event.stream.PrimitiveAttributeFunction;
+
+/**
+ * State of an {@link AttributeAggregatorExecutor} of a single INT or LONG attribute, which the executor updates with
+ * the value read from the attribute's primitive slot instead of its boxed value, see
+ * {@link io.siddhi.core.executor.VariableExpressionExecutor#executePrimitive}. The state has to give the same results
+ * as when processing the boxed value.
+ */
+interface LongAggregatorState {
+
+    PrimitiveAttributeFunction<LongAggregatorState, Object> ADD =
+            new PrimitiveAttributeFunction<LongAggregatorState, Object>() {
+                @Override
+                public Object applyLong(LongAggregatorState state, long value) {
+                    return state.processAdd(value);
+                }
+
+                @Override
+                public Object applyDouble(LongAggregatorState state, double value) {
+                    return state.processAdd((long) value);
+                }
+
+                @Override
+                public Object applyNull(LongAggregatorState state) {
+                    return state.currentValue();
+                }
+            };
+
+    PrimitiveAttributeFunction<LongAggregatorState, Object> REMOVE =
+            new PrimitiveAttributeFunction<LongAggregatorState, Object>() {
+                @Override
+                public Object applyLong(LongAggregatorState state, long value) {
+                    return state.processRemove(value);
+                }
+
+                @Override
+                public Object applyDouble(LongAggregatorState state, double value) {
+                    return state.processRemove((long) value);
+                }
+
+                @Override
+                public Object applyNull(LongAggregatorState state) {
+                    return state.currentValue();
+                }
+            };
+
+    Object processAdd(long data);
+
+    Object processRemove(long data);
+
+    Object currentValue();
+}
@@ -33,10 +33,8 @@ import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -69,6 +67,47 @@ import java.util.Map;
 public class MaxAttributeAggregatorExecutor
         extends AttributeAggregatorExecutor<MaxAttributeAggregatorExecutor.MaxAggregatorState> {
 
+    private static final SlidingAggregation MAX_LONG = new SlidingAggregation() {
+        @Override
+        public int getWidth() {
+            return 1;
+        }
+
+        @Override
+        public void lift(long value, long[] aggregate, int offset) {
+            aggregate[offset] = value;
+        }
+
+        @Override
+        public void combine(long[] older, int olderOffset, long[] newer, int newerOffset, long[] result,
+                            int resultOffset) {
+            result[resultOffset] = Math.max(older[olderOffset], newer[newerOffset]);
+        }
+    };
+
+    private static final SlidingAggregation MAX_DOUBLE = new SlidingAggregation() {
+        @Override
+        public int getWidth() {
+            return 1;
+        }
+
+        @Override
+        public void lift(long value, long[] aggregate, int offset) {
+            aggregate[offset] = value;
+        }
+
+        @Override
+        public void combine(long[] older, int olderOffset, long[] newer, int newerOffset, long[] result,
+                            int resultOffset) {
+            long newerValue = newer[newerOffset];
+            if (Double.longBitsToDouble(newerValue) > Double.longBitsToDouble(older[olderOffset])) {
+                result[resultOffset] = newerValue;
+            } else {
+                result[resultOffset] = older[olderOffset];
+            }
+        }
+    };
+
     private Attribute.Type returnType;
 
     /**
@@ -149,29 +188,60 @@ public class MaxAttributeAggregatorExecutor
         return state.reset();
     }
 
-    class MaxAttributeAggregatorStateDouble extends MaxAggregatorState {
+    /**
+     * Restores the window from the snapshot. Snapshots taken by the earlier versions hold a deque of the values which
+     * could still become the maximum, in arrival order, instead of all the values of the window. The window is
+     * restored with those values, such that the values left out of that deque are ignored when they expire, as done by
+     * those versions.
+     *
+     * @param window        window to be restored, or null when the expired values are not tracked
+     * @param state         snapshot of the state
+     * @param floatingPoint whether the values are encoded as the bits of doubles
+     */
+    private static void restoreWindow(SlidingWindowAggregator window, Map<String, Object> state,
+                                      boolean floatingPoint) {
+        if (window != null) {
+            window.clear();
+            long[] values = (long[]) state.get("MaxWindow");
+            if (values != null) {
+                for (long value : values) {
+                    window.add(value);
+                }
+            } else if (state.get("MaxDeque") != null) {
+                for (Object value : (Collection<?>) state.get("MaxDeque")) {
+                    window.add(floatingPoint ? Double.doubleToLongBits(((Number) value).doubleValue()) :
+                            ((Number) value).longValue());
+                }
+            }
+        }
+    }
+
+    class MaxAttributeAggregatorStateDouble extends MaxAggregatorState implements DoubleAggregatorState {
 
-        private Deque<Double> maxDeque = null;
+        private final Attribute.Type type = Attribute.Type.DOUBLE;
+        private final long[] maxAggregate = new long[1];
+        private SlidingWindowAggregator maxWindow = null;
         private volatile Double maxValue = null;
 
         public MaxAttributeAggregatorStateDouble(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxWindow = new SlidingWindowAggregator(MAX_DOUBLE);
             }
         }
 
+        public Attribute.Type getReturnType() {
+            return type;
+        }
+
         @Override
         public Object processAdd(Object data) {
-            Double value = (Double) data;
-            if (maxDeque != null) {
-                for (Iterator<Double> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+            return processAdd(((Double) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(double value) {
+            if (maxWindow != null) {
+                maxWindow.add(Double.doubleToLongBits(value));
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -181,11 +251,16 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object data) {
-            if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+            return processRemove(((Double) data).doubleValue());
+        }
+
+        @Override
+        public Object processRemove(double data) {
+            if (maxWindow != null) {
+                maxWindow.remove(Double.doubleToLongBits(data));
+                maxValue = maxWindow.aggregate(maxAggregate) ? Double.longBitsToDouble(maxAggregate[0]) : null;
             } else {
-                if (maxValue != null && maxValue.equals(data)) {
+                if (maxValue != null && Double.compare(maxValue, data) == 0) {
                     maxValue = null;
                 }
             }
@@ -194,8 +269,8 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object reset() {
-            if (maxDeque != null) {
-                maxDeque.clear();
+            if (maxWindow != null) {
+                maxWindow.clear();
             }
             maxValue = null;
             return null;
@@ -203,51 +278,56 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return (maxDeque == null || maxDeque.isEmpty()) && maxValue == null;
+            return (maxWindow == null || maxWindow.isEmpty()) && maxValue == null;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
-            state.put("MaxDeque", maxDeque);
+            state.put("MaxWindow", maxWindow == null ? null : maxWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Double) state.get("MaxValue");
-            maxDeque = (Deque<Double>) state.get("MaxDeque");
+            restoreWindow(maxWindow, state, true);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return maxValue;
         }
+
     }
 
-    class MaxAttributeAggregatorStateFloat extends MaxAggregatorState {
+    class MaxAttributeAggregatorStateFloat extends MaxAggregatorState implements DoubleAggregatorState {
 
-        private Deque<Float> maxDeque = null;
+        private final Attribute.Type type = Attribute.Type.FLOAT;
+        private final long[] maxAggregate = new long[1];
+        private SlidingWindowAggregator maxWindow = null;
         private volatile Float maxValue = null;
 
         public MaxAttributeAggregatorStateFloat(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxWindow = new SlidingWindowAggregator(MAX_DOUBLE);
             }
         }
 
+        public Attribute.Type getReturnType() {
+            return type;
+        }
+
         @Override
         public Object processAdd(Object data) {
-            Float value = (Float) data;
-            if (maxDeque != null) {
-                for (Iterator<Float> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+            return processAdd(((Float) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(double data) {
+            float value = (float) data;
+            if (maxWindow != null) {
+                maxWindow.add(Double.doubleToLongBits(value));
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -257,11 +337,17 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object data) {
-            if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+            return processRemove(((Float) data).doubleValue());
+        }
+
+        @Override
+        public Object processRemove(double data) {
+            if (maxWindow != null) {
+                maxWindow.remove(Double.doubleToLongBits(data));
+                maxValue = maxWindow.aggregate(maxAggregate) ?
+                        (float) Double.longBitsToDouble(maxAggregate[0]) : null;
             } else {
-                if (maxValue != null && maxValue.equals(data)) {
+                if (maxValue != null && Float.compare(maxValue, (float) data) == 0) {
                     maxValue = null;
                 }
             }
@@ -270,8 +356,8 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object reset() {
-            if (maxDeque != null) {
-                maxDeque.clear();
+            if (maxWindow != null) {
+                maxWindow.clear();
             }
             maxValue = null;
             return null;
@@ -279,52 +365,56 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return (maxDeque == null || maxDeque.isEmpty()) && maxValue == null;
+            return (maxWindow == null || maxWindow.isEmpty()) && maxValue == null;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
-            state.put("MaxDeque", maxDeque);
+            state.put("MaxWindow", maxWindow == null ? null : maxWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Float) state.get("MaxValue");
-            maxDeque = (Deque<Float>) state.get("MaxDeque");
+            restoreWindow(maxWindow, state, true);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return maxValue;
         }
 
     }
 
-    class MaxAttributeAggregatorStateInt extends MaxAggregatorState {
+    class MaxAttributeAggregatorStateInt extends MaxAggregatorState implements LongAggregatorState {
 
-        private Deque<Integer> maxDeque = null;
+        private final Attribute.Type type = Attribute.Type.INT;
+        private final long[] maxAggregate = new long[1];
+        private SlidingWindowAggregator maxWindow = null;
         private volatile Integer maxValue = null;
 
         public MaxAttributeAggregatorStateInt(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxWindow = new SlidingWindowAggregator(MAX_LONG);
             }
         }
 
+        public Attribute.Type getReturnType() {
+            return type;
+        }
+
         @Override
         public Object processAdd(Object data) {
-            Integer value = (Integer) data;
-            if (maxDeque != null) {
-                for (Iterator<Integer> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+            return processAdd(((Integer) data).longValue());
+        }
+
+        @Override
+        public Object processAdd(long data) {
+            int value = (int) data;
+            if (maxWindow != null) {
+                maxWindow.add(value);
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -334,11 +424,16 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object data) {
-            if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+            return processRemove(((Integer) data).longValue());
+        }
+
+        @Override
+        public Object processRemove(long data) {
+            if (maxWindow != null) {
+                maxWindow.remove(data);
+                maxValue = maxWindow.aggregate(maxAggregate) ? (int) maxAggregate[0] : null;
             } else {
-                if (maxValue != null && maxValue.equals(data)) {
+                if (maxValue != null && maxValue == data) {
                     maxValue = null;
                 }
             }
@@ -347,8 +442,8 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object reset() {
-            if (maxDeque != null) {
-                maxDeque.clear();
+            if (maxWindow != null) {
+                maxWindow.clear();
             }
             maxValue = null;
             return null;
@@ -356,52 +451,55 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return (maxDeque == null || maxDeque.isEmpty()) && maxValue == null;
+            return (maxWindow == null || maxWindow.isEmpty()) && maxValue == null;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
-            state.put("MaxDeque", maxDeque);
+            state.put("MaxWindow", maxWindow == null ? null : maxWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Integer) state.get("MaxValue");
-            maxDeque = (Deque<Integer>) state.get("MaxDeque");
+            restoreWindow(maxWindow, state, false);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return maxValue;
         }
 
     }
 
-    class MaxAttributeAggregatorStateLong extends MaxAggregatorState {
+    class MaxAttributeAggregatorStateLong extends MaxAggregatorState implements LongAggregatorState {
 
-        private Deque<Long> maxDeque = null;
+        private final Attribute.Type type = Attribute.Type.LONG;
+        private final long[] maxAggregate = new long[1];
+        private SlidingWindowAggregator maxWindow = null;
         private volatile Long maxValue = null;
 
         public MaxAttributeAggregatorStateLong(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxWindow = new SlidingWindowAggregator(MAX_LONG);
             }
         }
 
+        public Attribute.Type getReturnType() {
+            return type;
+        }
+
         @Override
         public Object processAdd(Object data) {
-            Long value = (Long) data;
-            if (maxDeque != null) {
-                for (Iterator<Long> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+            return processAdd(((Long) data).longValue());
+        }
+
+        @Override
+        public Object processAdd(long value) {
+            if (maxWindow != null) {
+                maxWindow.add(value);
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -411,11 +509,16 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object data) {
-            if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+            return processRemove(((Long) data).longValue());
+        }
+
+        @Override
+        public Object processRemove(long data) {
+            if (maxWindow != null) {
+                maxWindow.remove(data);
+                maxValue = maxWindow.aggregate(maxAggregate) ? maxAggregate[0] : null;
             } else {
-                if (maxValue != null && maxValue.equals(data)) {
+                if (maxValue != null && maxValue == data) {
                     maxValue = null;
                 }
             }
@@ -424,8 +527,8 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public Object reset() {
-            if (maxDeque != null) {
-                maxDeque.clear();
+            if (maxWindow != null) {
+                maxWindow.clear();
             }
             maxValue = null;
             return null;
@@ -433,24 +536,24 @@ public class MaxAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return (maxDeque == null || maxDeque.isEmpty()) && maxValue == null;
+            return (maxWindow == null || maxWindow.isEmpty()) && maxValue == null;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
-            state.put("MaxDeque", maxDeque);
+            state.put("MaxWindow", maxWindow == null ? null : maxWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Long) state.get("MaxValue");
-            maxDeque = (Deque<Long>) state.get("MaxDeque");
+            restoreWindow(maxWindow, state, false);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return maxValue;
         }
 
@@ -463,7 +566,7 @@ public class MaxAttributeAggregatorExecutor
 
         public abstract Object reset();
 
-        protected abstract Object currentValue();
+        public abstract Object currentValue();
     }
 
 }
@@ -33,10 +33,8 @@ import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -69,6 +67,47 @@ import java.util.Map;
 public class MinAttributeAggregatorExecutor
         extends AttributeAggregatorExecutor<MinAttributeAggregatorExecutor.MinAggregatorState> {
 
+    private static final SlidingAggregation MIN_LONG = new SlidingAggregation() {
+        @Override
+        public int getWidth() {
+            return 1;
+        }
+
+        @Override
+        public void lift(long value, long[] aggregate, int offset) {
+            aggregate[offset] = value;
+        }
+
+        @Override
+        public void combine(long[] older, int olderOffset, long[] newer, int newerOffset, long[] result,
+                            int resultOffset) {
+            result[resultOffset] = Math.min(older[olderOffset], newer[newerOffset]);
+        }
+    };
+
+    private static final SlidingAggregation MIN_DOUBLE = new SlidingAggregation() {
+        @Override
+        public int getWidth() {
+            return 1;
+        }
+
+        @Override
+        public void lift(long value, long[] aggregate, int offset) {
+            aggregate[offset] = value;
+        }
+
+        @Override
+        public void combine(long[] older, int olderOffset, long[] newer, int newerOffset, long[] result,
+                            int resultOffset) {
+            long newerValue = newer[newerOffset];
+            if (Double.longBitsToDouble(newerValue) < Double.longBitsToDouble(older[olderOffset])) {
+                result[resultOffset] = newerValue;
+            } else {
+                result[resultOffset] = older[olderOffset];
+            }
+        }
+    };
+
     private Attribute.Type returnType;
 
     public void init(Attribute.Type type) {
@@ -155,15 +194,44 @@ public class MinAttributeAggregatorExecutor
         return state.reset();
     }
 
-    class MinAttributeAggregatorStateDouble extends MinAggregatorState {
+    /**
+     * Restores the window from the snapshot. Snapshots taken by the earlier versions hold a deque of the values which
+     * could still become the minimum, in arrival order, instead of all the values of the window. The window is
+     * restored with those values, such that the values left out of that deque are ignored when they expire, as done by
+     * those versions.
+     *
+     * @param window        window to be restored, or null when the expired values are not tracked
+     * @param state         snapshot of the state
+     * @param floatingPoint whether the values are encoded as the bits of doubles
+     */
+    private static void restoreWindow(SlidingWindowAggregator window, Map<String, Object> state,
+                                      boolean floatingPoint) {
+        if (window != null) {
+            window.clear();
+            long[] values = (long[]) state.get("MinWindow");
+            if (values != null) {
+                for (long value : values) {
+                    window.add(value);
+                }
+            } else if (state.get("MinDeque") != null) {
+                for (Object value : (Collection<?>) state.get("MinDeque")) {
+                    window.add(floatingPoint ? Double.doubleToLongBits(((Number) value).doubleValue()) :
+                            ((Number) value).longValue());
+                }
+            }
+        }
+    }
+
+    class MinAttributeAggregatorStateDouble extends MinAggregatorState implements DoubleAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> minDeque = null;
+        private final long[] minAggregate = new long[1];
+        private SlidingWindowAggregator minWindow = null;
         private volatile Double minValue = null;
 
         public MinAttributeAggregatorStateDouble(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minWindow = new SlidingWindowAggregator(MIN_DOUBLE);
             }
         }
 
@@ -173,16 +241,13 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object processAdd(Object data) {
-            Double value = (Double) data;
-            if (minDeque != null) {
-                for (Iterator<Double> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+            return processAdd(((Double) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(double value) {
+            if (minWindow != null) {
+                minWindow.add(Double.doubleToLongBits(value));
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -192,11 +257,16 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object data) {
-            if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+            return processRemove(((Double) data).doubleValue());
+        }
+
+        @Override
+        public Object processRemove(double data) {
+            if (minWindow != null) {
+                minWindow.remove(Double.doubleToLongBits(data));
+                minValue = minWindow.aggregate(minAggregate) ? Double.longBitsToDouble(minAggregate[0]) : null;
             } else {
-                if (minValue != null && minValue.equals(data)) {
+                if (minValue != null && Double.compare(minValue, data) == 0) {
                     minValue = null;
                 }
             }
@@ -205,8 +275,8 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object reset() {
-            if (minDeque != null) {
-                minDeque.clear();
+            if (minWindow != null) {
+                minWindow.clear();
             }
             minValue = null;
             return null;
@@ -214,38 +284,39 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return (minDeque == null || minDeque.isEmpty()) && minValue == null;
+            return (minWindow == null || minWindow.isEmpty()) && minValue == null;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
-            state.put("MinDeque", minDeque);
+            state.put("MinWindow", minWindow == null ? null : minWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Double) state.get("MinValue");
-            minDeque = (Deque<Double>) state.get("MinDeque");
+            restoreWindow(minWindow, state, true);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return minValue;
         }
 
     }
 
-    class MinAttributeAggregatorStateFloat extends MinAggregatorState {
+    class MinAttributeAggregatorStateFloat extends MinAggregatorState implements DoubleAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> minDeque = null;
+        private final long[] minAggregate = new long[1];
+        private SlidingWindowAggregator minWindow = null;
         private volatile Float minValue = null;
 
         public MinAttributeAggregatorStateFloat(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minWindow = new SlidingWindowAggregator(MIN_DOUBLE);
             }
         }
 
@@ -255,16 +326,14 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object processAdd(Object data) {
-            Float value = (Float) data;
-            if (minDeque != null) {
-                for (Iterator<Float> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+            return processAdd(((Float) data).doubleValue());
+        }
+
+        @Override
+        public Object processAdd(double data) {
+            float value = (float) data;
+            if (minWindow != null) {
+                minWindow.add(Double.doubleToLongBits(value));
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -274,11 +343,17 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object processRemove(Object data) {
-            if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+            return processRemove(((Float) data).doubleValue());
+        }
+
+        @Override
+        public Object processRemove(double data) {
+            if (minWindow != null) {
+                minWindow.remove(Double.doubleToLongBits(data));
+                minValue = minWindow.aggregate(minAggregate) ?
+                        (float) Double.longBitsToDouble(minAggregate[0]) : null;
             } else {
-                if (minValue != null && minValue.equals(data)) {
+                if (minValue != null && Float.compare(minValue, (float) data) == 0) {
                     minValue = null;
                 }
             }
@@ -287,8 +362,8 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object reset() {
-            if (minDeque != null) {
-                minDeque.clear();
+            if (minWindow != null) {
+                minWindow.clear();
             }
             minValue = null;
             return null;
@@ -296,37 +371,39 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return (minDeque == null || minDeque.isEmpty()) && minValue == null;
+            return (minWindow == null || minWindow.isEmpty()) && minValue == null;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
-            state.put("MinDeque", minDeque);
+            state.put("MinWindow", minWindow == null ? null : minWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Float) state.get("MinValue");
-            minDeque = (Deque<Float>) state.get("MinDeque");
+            restoreWindow(minWindow, state, true);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return minValue;
         }
+
     }
 
-    class MinAttributeAggregatorStateInt extends MinAggregatorState {
+    class MinAttributeAggregatorStateInt extends MinAggregatorState implements LongAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> minDeque = null;
+        private final long[] minAggregate = new long[1];
+        private SlidingWindowAggregator minWindow = null;
         private volatile Integer minValue = null;
 
         public MinAttributeAggregatorStateInt(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minWindow = new SlidingWindowAggregator(MIN_LONG);
             }
         }
 
@@ -336,17 +413,14 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object processAdd(Object data) {
-            Integer value = (Integer) data;
-            if (minDeque != null) {
-                for (Iterator<Integer> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+            return processAdd(((Integer) data).longValue());
+        }
+
+        @Override
+        public Object processAdd(long data) {
+            int value = (int) data;
+            if (minWindow != null) {
+                minWindow.add(value);
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -355,60 +429,67 @@ public class MinAttributeAggregatorExecutor
         }
 
         @Override
-        public Object reset() {
-            if (minDeque != null) {
-                minDeque.clear();
-            }
-            minValue = null;
-            return null;
-        }
-
-        @Override
-        public boolean canDestroy() {
-            return (minDeque == null || minDeque.isEmpty()) && minValue == null;
+        public Object processRemove(Object data) {
+            return processRemove(((Integer) data).longValue());
         }
 
         @Override
-        public Object processRemove(Object data) {
-            if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+        public Object processRemove(long data) {
+            if (minWindow != null) {
+                minWindow.remove(data);
+                minValue = minWindow.aggregate(minAggregate) ? (int) minAggregate[0] : null;
             } else {
-                if (minValue != null && minValue.equals(data)) {
+                if (minValue != null && minValue == data) {
                     minValue = null;
                 }
             }
             return minValue;
         }
 
+        @Override
+        public Object reset() {
+            if (minWindow != null) {
+                minWindow.clear();
+            }
+            minValue = null;
+            return null;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return (minWindow == null || minWindow.isEmpty()) && minValue == null;
+        }
+
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
-            state.put("MinDeque", minDeque);
+            state.put("MinWindow", minWindow == null ? null : minWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Integer) state.get("MinValue");
-            minDeque = (Deque<Integer>) state.get("MinDeque");
+            restoreWindow(minWindow, state, false);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return minValue;
         }
+
     }
 
-    class MinAttributeAggregatorStateLong extends MinAggregatorState {
+    class MinAttributeAggregatorStateLong extends MinAggregatorState implements LongAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> minDeque = null;
+        private final long[] minAggregate = new long[1];
+        private SlidingWindowAggregator minWindow = null;
         private volatile Long minValue = null;
 
         public MinAttributeAggregatorStateLong(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minWindow = new SlidingWindowAggregator(MIN_LONG);
             }
         }
 
@@ -418,16 +499,13 @@ public class MinAttributeAggregatorExecutor
 
         @Override
         public Object processAdd(Object data) {
-            Long value = (Long) data;
-            if (minDeque != null) {
-                for (Iterator<Long> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+            return processAdd(((Long) data).longValue());
+        }
+
+        @Override
+        public Object processAdd(long value) {
+            if (minWindow != null) {
+                minWindow.add(value);
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -436,47 +514,52 @@ public class MinAttributeAggregatorExecutor
         }
 
         @Override
-        public Object reset() {
-            if (minDeque != null) {
-                minDeque.clear();
-            }
-            minValue = null;
-            return null;
-        }
-
-        @Override
-        public boolean canDestroy() {
-            return (minDeque == null || minDeque.isEmpty()) && minValue == null;
+        public Object processRemove(Object data) {
+            return processRemove(((Long) data).longValue());
         }
 
         @Override
-        public Object processRemove(Object data) {
-            if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+        public Object processRemove(long data) {
+            if (minWindow != null) {
+                minWindow.remove(data);
+                minValue = minWindow.aggregate(minAggregate) ? minAggregate[0] : null;
             } else {
-                if (minValue != null && minValue.equals(data)) {
+                if (minValue != null && minValue == data) {
                     minValue = null;
                 }
             }
             return minValue;
         }
 
+        @Override
+        public Object reset() {
+            if (minWindow != null) {
+                minWindow.clear();
+            }
+            minValue = null;
+            return null;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return (minWindow == null || minWindow.isEmpty()) && minValue == null;
+        }
+
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
-            state.put("MinDeque", minDeque);
+            state.put("MinWindow", minWindow == null ? null : minWindow.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Long) state.get("MinValue");
-            minDeque = (Deque<Long>) state.get("MinDeque");
+            restoreWindow(minWindow, state, false);
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             return minValue;
         }
 
@@ -489,7 +572,7 @@ public class MinAttributeAggregatorExecutor
 
         public abstract Object reset();
 
-        protected abstract Object currentValue();
+        public abstract Object currentValue();
     }
 
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+/**
+ * Aggregate operation which can be evaluated over a sliding window by a {@link SlidingWindowAggregator}, such as min,
+ * max or standard deviation. {@link AttributeAggregatorExecutor}s whose aggregates cannot be cheaply undone when
+ * events expire can implement their operation with this interface to get amortized constant time updates.
+ * <p>
+ * The operation works on partial aggregates, each taking a fixed number of primitive longs, where floating point
+ * values are kept as their bits as given by {@link Double#doubleToLongBits(double)}. Combining partial aggregates
+ * has to be associative and commutative.
+ */
+public interface SlidingAggregation {
+
+    /**
+     * @return number of longs each partial aggregate takes
+     */
+    int getWidth();
+
+    /**
+     * Writes the partial aggregate of a single value.
+     *
+     * @param value     value of the window
+     * @param aggregate array to write the partial aggregate to
+     * @param offset    position of the partial aggregate in the array
+     */
+    void lift(long value, long[] aggregate, int offset);
+
+    /**
+     * Writes the partial aggregate of the values of two partial aggregates, where the result can be written over
+     * either of them.
+     *
+     * @param older        array holding the partial aggregate of the older values
+     * @param olderOffset  position of the partial aggregate of the older values
+     * @param newer        array holding the partial aggregate of the newer values
+     * @param newerOffset  position of the partial aggregate of the newer values
+     * @param result       array to write the combined partial aggregate to
+     * @param resultOffset position of the combined partial aggregate
+     */
+    void combine(long[] older, int olderOffset, long[] newer, int newerOffset, long[] result, int resultOffset);
+}
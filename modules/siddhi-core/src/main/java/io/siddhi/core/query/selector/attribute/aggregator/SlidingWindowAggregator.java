@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+/**
+ * Evaluates a {@link SlidingAggregation} over the values of a window using the two-stacks algorithm, in amortized
+ * constant time per added or expired value.
+ * <p>
+ * Values are kept in arrival order in a ring buffer of primitive longs, split into a front part holding the older
+ * values and a back part holding the newer ones. For each value of the front part the partial aggregate of it and all
+ * the newer values of the front part is kept, while only a single partial aggregate is kept for the back part, such
+ * that the aggregate of the window is the combination of the two. Values expire from the front part, and once it is
+ * empty the back part is turned into the front part by computing its partial aggregates.
+ * <p>
+ * Expired values are expected to be the oldest values of the window as done by the sliding windows. As the aggregate
+ * only depends on the values, any value equal to the oldest one is treated as such. Other values are found and removed
+ * from the window by recomputing all its partial aggregates, in linear time.
+ */
+public class SlidingWindowAggregator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final SlidingAggregation aggregation;
+    private final int width;
+    private final long[] backAggregate;
+    private final long[] liftedValue;
+    private long[] values;
+    private long[] frontAggregates;
+    private int head;
+    private int size;
+    private int frontSize;
+
+    public SlidingWindowAggregator(SlidingAggregation aggregation) {
+        this.aggregation = aggregation;
+        this.width = aggregation.getWidth();
+        this.backAggregate = new long[width];
+        this.liftedValue = new long[width];
+        this.values = new long[INITIAL_CAPACITY];
+        this.frontAggregates = new long[INITIAL_CAPACITY * width];
+    }
+
+    /**
+     * Adds a value as the newest value of the window.
+     *
+     * @param value value to be added
+     */
+    public void add(long value) {
+        if (size == values.length) {
+            grow();
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        if (size == frontSize) {
+            aggregation.lift(value, backAggregate, 0);
+        } else {
+            aggregation.lift(value, liftedValue, 0);
+            aggregation.combine(backAggregate, 0, liftedValue, 0, backAggregate, 0);
+        }
+        size++;
+    }
+
+    /**
+     * Removes a value from the window.
+     *
+     * @param value value to be removed
+     * @return whether the value was found in the window
+     */
+    public boolean remove(long value) {
+        if (size == 0) {
+            return false;
+        }
+        int mask = values.length - 1;
+        if (values[head] == value) {
+            if (frontSize == 0) {
+                flip();
+            }
+            head = (head + 1) & mask;
+            size--;
+            frontSize--;
+            return true;
+        }
+        for (int i = 1; i < size; i++) {
+            if (values[(head + i) & mask] == value) {
+                for (int j = i; j > 0; j--) {
+                    values[(head + j) & mask] = values[(head + j - 1) & mask];
+                }
+                head = (head + 1) & mask;
+                size--;
+                flip();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the aggregate of all the values of the window.
+     *
+     * @param result array to write the aggregate to, from its start
+     * @return false if the window is empty, leaving the result untouched
+     */
+    public boolean aggregate(long[] result) {
+        if (size == 0) {
+            return false;
+        }
+        if (frontSize == 0) {
+            System.arraycopy(backAggregate, 0, result, 0, width);
+        } else if (frontSize == size) {
+            System.arraycopy(frontAggregates, head * width, result, 0, width);
+        } else {
+            aggregation.combine(frontAggregates, head * width, backAggregate, 0, result, 0);
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        frontSize = 0;
+        if (values.length > INITIAL_CAPACITY) {
+            values = new long[INITIAL_CAPACITY];
+            frontAggregates = new long[INITIAL_CAPACITY * width];
+        }
+    }
+
+    /**
+     * @return values of the window in arrival order
+     */
+    public long[] toArray() {
+        long[] array = new long[size];
+        int mask = values.length - 1;
+        for (int i = 0; i < size; i++) {
+            array[i] = values[(head + i) & mask];
+        }
+        return array;
+    }
+
+    /**
+     * Moves all the values to the front part, computing their partial aggregates from the newest to the oldest.
+     */
+    private void flip() {
+        int mask = values.length - 1;
+        for (int i = size - 1; i >= 0; i--) {
+            int slot = (head + i) & mask;
+            aggregation.lift(values[slot], frontAggregates, slot * width);
+            if (i < size - 1) {
+                aggregation.combine(frontAggregates, slot * width, frontAggregates, ((slot + 1) & mask) * width,
+                        frontAggregates, slot * width);
+            }
+        }
+        frontSize = size;
+    }
+
+    private void grow() {
+        int mask = values.length - 1;
+        long[] newValues = new long[values.length << 1];
+        long[] newFrontAggregates = new long[newValues.length * width];
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) & mask;
+            newValues[i] = values[slot];
+            if (i < frontSize) {
+                System.arraycopy(frontAggregates, slot * width, newFrontAggregates, i * width, width);
+            }
+        }
+        values = newValues;
+        frontAggregates = newFrontAggregates;
+        head = 0;
+    }
+}
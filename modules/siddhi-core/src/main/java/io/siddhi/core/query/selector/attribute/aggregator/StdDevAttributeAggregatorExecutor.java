@@ -66,6 +66,41 @@ import java.util.Map;
 )
 public class StdDevAttributeAggregatorExecutor
         extends AttributeAggregatorExecutor<StdDevAttributeAggregatorExecutor.AggregatorState> {
+    /**
+     * Partial aggregates holding the count, the mean and the sum of squared differences from the mean of the values,
+     * combined as given by Chan et al.
+     */
+    private static final SlidingAggregation STD_DEV = new SlidingAggregation() {
+        @Override
+        public int getWidth() {
+            return 3;
+        }
+
+        @Override
+        public void lift(long value, long[] aggregate, int offset) {
+            aggregate[offset] = 1;
+            aggregate[offset + 1] = value;
+            aggregate[offset + 2] = Double.doubleToLongBits(0.0);
+        }
+
+        @Override
+        public void combine(long[] older, int olderOffset, long[] newer, int newerOffset, long[] result,
+                            int resultOffset) {
+            long olderCount = older[olderOffset];
+            long newerCount = newer[newerOffset];
+            double olderMean = Double.longBitsToDouble(older[olderOffset + 1]);
+            double newerMean = Double.longBitsToDouble(newer[newerOffset + 1]);
+            double olderDeviation = Double.longBitsToDouble(older[olderOffset + 2]);
+            double newerDeviation = Double.longBitsToDouble(newer[newerOffset + 2]);
+            long count = olderCount + newerCount;
+            double delta = newerMean - olderMean;
+            result[resultOffset] = count;
+            result[resultOffset + 1] = Double.doubleToLongBits(olderMean + delta * newerCount / count);
+            result[resultOffset + 2] = Double.doubleToLongBits(olderDeviation + newerDeviation +
+                    delta * delta * olderCount / count * newerCount);
+        }
+    };
+
     private Attribute.Type returnType;
 
     /**
@@ -89,16 +124,17 @@ public class StdDevAttributeAggregatorExecutor
         }
         returnType = Attribute.Type.DOUBLE;
         Attribute.Type type = attributeExpressionExecutors[0].getReturnType();
+        boolean trackFutureStates = processingMode == ProcessingMode.SLIDE || outputExpectsExpiredEvents;
         return () -> {
             switch (type) {
                 case INT:
-                    return new StdDevAttributeAggregatorStateInt();
+                    return new StdDevAttributeAggregatorStateInt(trackFutureStates);
                 case LONG:
-                    return new StdDevAttributeAggregatorStateLong();
+                    return new StdDevAttributeAggregatorStateLong(trackFutureStates);
                 case FLOAT:
-                    return new StdDevAttributeAggregatorStateFloat();
+                    return new StdDevAttributeAggregatorStateFloat(trackFutureStates);
                 case DOUBLE:
-                    return new StdDevAttributeAggregatorStateDouble();
+                    return new StdDevAttributeAggregatorStateDouble(trackFutureStates);
                 default:
                     throw new OperationNotSupportedException("stdDev not supported for " + returnType);
             }
@@ -143,56 +179,60 @@ public class StdDevAttributeAggregatorExecutor
     }
 
     /**
-     * Standard deviation abstrct aggregator for Double values
+     * Standard deviation abstract aggregator for Double values. Expiring events are aggregated over a
+     * {@link SlidingWindowAggregator}, such that the deviation is always computed from the values of the window
+     * instead of being adjusted by the removed values, which accumulates rounding errors.
      */
     abstract class AggregatorState extends State {
 
-        private double mean, stdDeviation, sum;
+        private final long[] aggregate = new long[STD_DEV.getWidth()];
+        private SlidingWindowAggregator window = null;
+        private double mean, stdDeviation;
         private int count = 0;
 
+        AggregatorState(boolean trackFutureStates) {
+            if (trackFutureStates) {
+                window = new SlidingWindowAggregator(STD_DEV);
+            }
+        }
+
         public abstract Object processRemove(Object data);
 
         public abstract Object processAdd(Object data);
 
         public Object processAdd(double value) {
+            if (window != null) {
+                window.add(Double.doubleToLongBits(value));
+                return currentValue();
+            }
             // See here for the algorithm: http://www.johndcook.com/blog/standard_deviation/
             count++;
-            if (count == 0) {
-                return null;
-            } else if (count == 1) {
-                sum = mean = value;
-                stdDeviation = 0.0;
-                return 0.0;
-            } else {
-                double oldMean = mean;
-                sum += value;
-                mean = sum / count;
-                stdDeviation += (value - oldMean) * (value - mean);
-                return Math.sqrt(stdDeviation / count);
-            }
+            double delta = value - mean;
+            mean += delta / count;
+            stdDeviation += delta * (value - mean);
+            return currentValue();
         }
 
         public Object processRemove(double value) {
-            count--;
-            if (count == 0) {
-                sum = mean = 0.0;
-                stdDeviation = 0.0;
-                return null;
-            } else {
-                double oldMean = mean;
-                sum -= value;
-                mean = sum / count;
-                stdDeviation -= (value - oldMean) * (value - mean);
+            if (window != null) {
+                window.remove(Double.doubleToLongBits(value));
+                return currentValue();
             }
-
-            if (count == 1) {
-                return 0.0;
+            if (count <= 1) {
+                return reset();
             }
-            return Math.sqrt(stdDeviation / count);
+            count--;
+            double delta = value - mean;
+            mean -= delta / count;
+            stdDeviation = Math.max(0.0, stdDeviation - delta * (value - mean));
+            return currentValue();
         }
 
         public Object reset() {
-            sum = mean = 0.0;
+            if (window != null) {
+                window.clear();
+            }
+            mean = 0.0;
             stdDeviation = 0.0;
             count = 0;
             return null;
@@ -200,28 +240,48 @@ public class StdDevAttributeAggregatorExecutor
 
         @Override
         public boolean canDestroy() {
-            return count == 0 && sum == 0.0 && mean == 0.0 && stdDeviation == 0.0;
+            return (window == null || window.isEmpty()) && count == 0 && mean == 0.0 && stdDeviation == 0.0;
         }
 
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
-            state.put("Sum", sum);
             state.put("Mean", mean);
             state.put("stdDeviation", stdDeviation);
             state.put("Count", count);
+            state.put("Window", window == null ? null : window.toArray());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
-            sum = (Long) state.get("Sum");
-            mean = (Long) state.get("Mean");
-            stdDeviation = (Long) state.get("stdDeviation");
+            mean = (Double) state.get("Mean");
+            stdDeviation = (Double) state.get("stdDeviation");
             count = (int) state.get("Count");
+            if (window != null) {
+                window.clear();
+                long[] values = (long[]) state.get("Window");
+                if (values != null) {
+                    for (long value : values) {
+                        window.add(value);
+                    }
+                }
+            }
         }
 
         protected Object currentValue() {
+            long count;
+            double stdDeviation;
+            if (window != null) {
+                if (!window.aggregate(aggregate)) {
+                    return null;
+                }
+                count = aggregate[0];
+                stdDeviation = Double.longBitsToDouble(aggregate[2]);
+            } else {
+                count = this.count;
+                stdDeviation = this.stdDeviation;
+            }
             if (count == 0) {
                 return null;
             } else if (count == 1) {
@@ -235,6 +295,11 @@ public class StdDevAttributeAggregatorExecutor
      * Standard deviation aggregator for Double values
      */
     private class StdDevAttributeAggregatorStateDouble extends AggregatorState {
+
+        StdDevAttributeAggregatorStateDouble(boolean trackFutureStates) {
+            super(trackFutureStates);
+        }
+
         @Override
         public Object processAdd(Object data) {
             return processAdd(((Double) data).doubleValue());
@@ -250,6 +315,11 @@ public class StdDevAttributeAggregatorExecutor
      * Standard deviation aggregator for Float values
      */
     private class StdDevAttributeAggregatorStateFloat extends AggregatorState {
+
+        StdDevAttributeAggregatorStateFloat(boolean trackFutureStates) {
+            super(trackFutureStates);
+        }
+
         @Override
         public Object processAdd(Object data) {
             return processAdd(((Float) data).doubleValue());
@@ -265,6 +335,11 @@ public class StdDevAttributeAggregatorExecutor
      * Standard deviation aggregator for Integer values
      */
     private class StdDevAttributeAggregatorStateInt extends AggregatorState {
+
+        StdDevAttributeAggregatorStateInt(boolean trackFutureStates) {
+            super(trackFutureStates);
+        }
+
         @Override
         public Object processAdd(Object data) {
             return processAdd(((Integer) data).doubleValue());
@@ -280,6 +355,11 @@ public class StdDevAttributeAggregatorExecutor
      * Standard deviation aggregator for Long values
      */
     private class StdDevAttributeAggregatorStateLong extends AggregatorState {
+
+        StdDevAttributeAggregatorStateLong(boolean trackFutureStates) {
+            super(trackFutureStates);
+        }
+
         @Override
         public Object processAdd(Object data) {
             return processAdd(((Long) data).doubleValue());
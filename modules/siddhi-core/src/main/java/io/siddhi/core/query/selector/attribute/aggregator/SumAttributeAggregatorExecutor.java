@@ -30,6 +30,7 @@ import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.core.util.timestamp.TimestampGenerator;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
@@ -67,9 +68,13 @@ import java.util.Map;
         }
 )
 public class SumAttributeAggregatorExecutor
-        extends AttributeAggregatorExecutor<SumAttributeAggregatorExecutor.AggregatorState> {
+        extends AttributeAggregatorExecutor<SumAttributeAggregatorExecutor.AggregatorState>
+        implements TimePaneAggregator {
 
     private Attribute.Type returnType;
+    private TimestampGenerator timestampGenerator;
+    private long timePaneWindowLength;
+    private long timePaneLength;
 
     /**
      * The initialization method for FunctionExecutor
@@ -103,6 +108,12 @@ public class SumAttributeAggregatorExecutor
             default:
                 throw new OperationNotSupportedException("Sum not supported for " + returnType);
         }
+        if (siddhiQueryContext.getTimePaneLength() > 0) {
+            timestampGenerator = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator();
+            timePaneWindowLength = siddhiQueryContext.getTimePaneWindowLength();
+            timePaneLength = siddhiQueryContext.getTimePaneLength();
+            return () -> new AggregatorStateTimePanes();
+        }
         return new StateFactory<AggregatorState>() {
             @Override
             public AggregatorState createNewState() {
@@ -161,9 +172,11 @@ public class SumAttributeAggregatorExecutor
         return state.reset();
     }
 
-    class AggregatorStateDouble extends AggregatorState {
+    class AggregatorStateDouble extends AggregatorState implements DoubleAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
+        // Running sum, from which expired values are subtracted. Unlike the integral sums this is not exact, as the
+        // rounding errors of the additions are not undone, but it keeps the state constant in size.
         private double sum = 0.0;
         private long count = 0;
 
@@ -181,12 +194,14 @@ public class SumAttributeAggregatorExecutor
             return processRemove(((Double) data).doubleValue());
         }
 
+        @Override
         public Object processAdd(double data) {
             sum += data;
             count++;
             return sum;
         }
 
+        @Override
         public Object processRemove(double data) {
             sum -= data;
             count--;
@@ -223,7 +238,7 @@ public class SumAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             if (count == 0) {
                 return null;
             } else {
@@ -253,7 +268,7 @@ public class SumAttributeAggregatorExecutor
 
     }
 
-    class AggregatorStateLong extends AggregatorState {
+    class AggregatorStateLong extends AggregatorState implements LongAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.LONG;
         private long sum = 0L;
@@ -268,6 +283,7 @@ public class SumAttributeAggregatorExecutor
             return processAdd(((Long) data).longValue());
         }
 
+        @Override
         public Object processAdd(long data) {
             sum += data;
             count++;
@@ -280,7 +296,8 @@ public class SumAttributeAggregatorExecutor
             return processRemove(((Long) data).longValue());
         }
 
-        public Object processRemove(double data) {
+        @Override
+        public Object processRemove(long data) {
             sum -= data;
             count--;
             if (count == 0) {
@@ -317,7 +334,7 @@ public class SumAttributeAggregatorExecutor
             count = (long) state.get("Count");
         }
 
-        protected Object currentValue() {
+        public Object currentValue() {
             if (count == 0) {
                 return null;
             } else {
@@ -341,9 +358,85 @@ public class SumAttributeAggregatorExecutor
 
     }
 
+    class AggregatorStateTimePanes extends AggregatorState
+            implements LongAggregatorState, DoubleAggregatorState {
+
+        private final TimePanes timePanes = new TimePanes(timePaneWindowLength, timePaneLength);
+
+        @Override
+        public Object processAdd(Object data) {
+            if (returnType == Attribute.Type.LONG) {
+                return processAdd(((Number) data).longValue());
+            } else {
+                return processAdd(((Number) data).doubleValue());
+            }
+        }
+
+        @Override
+        public Object processAdd(long data) {
+            timePanes.add(timestampGenerator.currentTime(), data);
+            return currentValue();
+        }
+
+        @Override
+        public Object processAdd(double data) {
+            timePanes.add(timestampGenerator.currentTime(), data);
+            return currentValue();
+        }
+
+        @Override
+        public Object processRemove(Object data) {
+            // will not occur, as values expire along with their panes
+            return currentValue();
+        }
+
+        @Override
+        public Object processRemove(long data) {
+            return currentValue();
+        }
+
+        @Override
+        public Object processRemove(double data) {
+            return currentValue();
+        }
+
+        @Override
+        public Object reset() {
+            timePanes.clear();
+            return null;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            timePanes.expire(timestampGenerator.currentTime());
+            return timePanes.isEmpty();
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            return timePanes.snapshot();
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            timePanes.restore(state);
+        }
+
+        public Object currentValue() {
+            timePanes.expire(timestampGenerator.currentTime());
+            if (timePanes.getCount() == 0) {
+                return null;
+            } else if (returnType == Attribute.Type.LONG) {
+                return timePanes.getLongSum();
+            } else {
+                return timePanes.getDoubleSum();
+            }
+        }
+    }
+
     abstract class AggregatorState extends State {
 
-        protected abstract Object currentValue();
+        public abstract Object currentValue();
 
         public abstract Object processAdd(Object data);
 
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Partial aggregates of the events of a time window, kept per pane of the window instead of per event.
+ * <p>
+ * Time is split into panes of fixed length, and each pane keeps the count, and the long and double sums of the
+ * values added within it, in arrival order in a ring buffer. Totals of all the panes are kept along with them, such
+ * that the aggregates of the window are available in constant time. A pane expires along with its values once all
+ * the values it can hold are older than the window, as the time window would have expired the last of them, hence
+ * values are kept up to one pane longer than the window.
+ */
+public class TimePanes {
+
+    private final long windowLength;
+    private final long paneLength;
+    private long[] paneIds;
+    private long[] counts;
+    private long[] longSums;
+    private double[] doubleSums;
+    private int head;
+    private int size;
+    private long count;
+    private long longSum;
+    private double doubleSum;
+
+    /**
+     * @param windowLength length of the time window in milliseconds
+     * @param paneLength   length of each pane in milliseconds
+     */
+    public TimePanes(long windowLength, long paneLength) {
+        this.windowLength = windowLength;
+        this.paneLength = paneLength;
+        int capacity = (int) Math.min(windowLength / paneLength + 2, 1024);
+        this.paneIds = new long[capacity];
+        this.counts = new long[capacity];
+        this.longSums = new long[capacity];
+        this.doubleSums = new double[capacity];
+    }
+
+    /**
+     * Adds a value to the pane of the given time.
+     *
+     * @param currentTime time the value arrived at
+     * @param value       value to be added
+     */
+    public void add(long currentTime, long value) {
+        int slot = expireAndGetPane(currentTime);
+        counts[slot]++;
+        longSums[slot] += value;
+        count++;
+        longSum += value;
+    }
+
+    /**
+     * Adds a value to the pane of the given time.
+     *
+     * @param currentTime time the value arrived at
+     * @param value       value to be added
+     */
+    public void add(long currentTime, double value) {
+        int slot = expireAndGetPane(currentTime);
+        counts[slot]++;
+        doubleSums[slot] += value;
+        count++;
+        doubleSum += value;
+    }
+
+    /**
+     * Counts an event in the pane of the given time.
+     *
+     * @param currentTime time the event arrived at
+     */
+    public void add(long currentTime) {
+        counts[expireAndGetPane(currentTime)]++;
+        count++;
+    }
+
+    /**
+     * Removes the panes whose values have all expired by the given time.
+     *
+     * @param currentTime current time
+     */
+    public void expire(long currentTime) {
+        while (size > 0 && (paneIds[head] + 1) * paneLength - 1 - currentTime + windowLength <= 0) {
+            count -= counts[head];
+            longSum -= longSums[head];
+            doubleSum -= doubleSums[head];
+            head = (head + 1) % paneIds.length;
+            size--;
+        }
+        if (size == 0) {
+            // Avoid accumulating rounding errors of the double sum over empty windows
+            doubleSum = 0.0;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getLongSum() {
+        return longSum;
+    }
+
+    public double getDoubleSum() {
+        return doubleSum;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        count = 0;
+        longSum = 0;
+        doubleSum = 0.0;
+    }
+
+    public Map<String, Object> snapshot() {
+        long[] snapshotPaneIds = new long[size];
+        long[] snapshotCounts = new long[size];
+        long[] snapshotLongSums = new long[size];
+        double[] snapshotDoubleSums = new double[size];
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % paneIds.length;
+            snapshotPaneIds[i] = paneIds[slot];
+            snapshotCounts[i] = counts[slot];
+            snapshotLongSums[i] = longSums[slot];
+            snapshotDoubleSums[i] = doubleSums[slot];
+        }
+        Map<String, Object> state = new HashMap<>();
+        state.put("PaneIds", snapshotPaneIds);
+        state.put("PaneCounts", snapshotCounts);
+        state.put("PaneLongSums", snapshotLongSums);
+        state.put("PaneDoubleSums", snapshotDoubleSums);
+        return state;
+    }
+
+    public void restore(Map<String, Object> state) {
+        long[] restoredPaneIds = (long[]) state.get("PaneIds");
+        long[] restoredCounts = (long[]) state.get("PaneCounts");
+        long[] restoredLongSums = (long[]) state.get("PaneLongSums");
+        double[] restoredDoubleSums = (double[]) state.get("PaneDoubleSums");
+        clear();
+        while (paneIds.length < restoredPaneIds.length) {
+            grow();
+        }
+        for (int i = 0; i < restoredPaneIds.length; i++) {
+            paneIds[i] = restoredPaneIds[i];
+            counts[i] = restoredCounts[i];
+            longSums[i] = restoredLongSums[i];
+            doubleSums[i] = restoredDoubleSums[i];
+            count += restoredCounts[i];
+            longSum += restoredLongSums[i];
+            doubleSum += restoredDoubleSums[i];
+        }
+        size = restoredPaneIds.length;
+    }
+
+    /**
+     * Expires the panes older than the window, and finds the pane of the given time, adding it when needed. Values
+     * arriving with a time earlier than the newest pane are added to the newest pane.
+     */
+    private int expireAndGetPane(long currentTime) {
+        expire(currentTime);
+        long paneId = Math.floorDiv(currentTime, paneLength);
+        if (size > 0) {
+            int newest = (head + size - 1) % paneIds.length;
+            if (paneIds[newest] >= paneId) {
+                return newest;
+            }
+        }
+        if (size == paneIds.length) {
+            grow();
+        }
+        int slot = (head + size) % paneIds.length;
+        paneIds[slot] = paneId;
+        counts[slot] = 0;
+        longSums[slot] = 0;
+        doubleSums[slot] = 0.0;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = paneIds.length << 1;
+        long[] newPaneIds = new long[capacity];
+        long[] newCounts = new long[capacity];
+        long[] newLongSums = new long[capacity];
+        double[] newDoubleSums = new double[capacity];
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % paneIds.length;
+            newPaneIds[i] = paneIds[slot];
+            newCounts[i] = counts[slot];
+            newLongSums[i] = longSums[slot];
+            newDoubleSums[i] = doubleSums[slot];
+        }
+        paneIds = newPaneIds;
+        counts = newCounts;
+        longSums = newLongSums;
+        doubleSums = newDoubleSums;
+        head = 0;
+    }
+}
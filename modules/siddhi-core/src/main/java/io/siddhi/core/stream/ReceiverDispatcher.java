@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.stream;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.event.stream.converter.StreamEventConverter;
+import io.siddhi.core.event.stream.converter.StreamEventConverterFactory;
+import io.siddhi.core.query.input.ProcessStreamReceiver;
+import io.siddhi.core.stream.predicate.PredicateIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Receiver of a {@link StreamJunction} which dispatches the events to the junction's receivers in their subscription
+ * order, skipping the receivers that are not matched by the {@link PredicateIndex} of the junction, and converting
+ * the events once for all the receivers having the same event layout.
+ * <p>
+ * Events converted for a conversion group are shared read only among the receivers of the group, see
+ * {@link ProcessStreamReceiver#receiveShared(StreamEvent)}.
+ */
+public class ReceiverDispatcher implements StreamJunction.Receiver {
+
+    private final StreamJunction.Receiver[] receivers;
+    private final PredicateIndex predicateIndex;
+    private final int[] conversionGroupIds;
+    private final ConversionGroup[] conversionGroups;
+
+    /**
+     * @param receivers            receivers of the stream in their subscription order
+     * @param predicateIndex       predicate index of the receivers, or null if the receivers are not indexed
+     * @param shareEventConversion whether the event conversion is shared among the receivers
+     */
+    public ReceiverDispatcher(List<StreamJunction.Receiver> receivers, PredicateIndex predicateIndex,
+                              boolean shareEventConversion) {
+        this.receivers = receivers.toArray(new StreamJunction.Receiver[0]);
+        this.predicateIndex = predicateIndex;
+        this.conversionGroupIds = new int[this.receivers.length];
+        Arrays.fill(conversionGroupIds, -1);
+        List<ConversionGroup> groups = new ArrayList<>();
+        if (shareEventConversion) {
+            List<ConversionGroup> candidates = new ArrayList<>();
+            List<List<Integer>> candidateMembers = new ArrayList<>();
+            for (int i = 0; i < this.receivers.length; i++) {
+                // Debugged receivers need their own events to check the breakpoints.
+                if (this.receivers[i].getClass() != ProcessStreamReceiver.class ||
+                        ((ProcessStreamReceiver) this.receivers[i]).getSiddhiDebugger() != null) {
+                    continue;
+                }
+                MetaStreamEvent metaStreamEvent = ((ProcessStreamReceiver) this.receivers[i]).getMetaStreamEvent();
+                int candidateIndex = 0;
+                while (candidateIndex < candidates.size() &&
+                        !candidates.get(candidateIndex).hasLayout(metaStreamEvent)) {
+                    candidateIndex++;
+                }
+                if (candidateIndex == candidates.size()) {
+                    candidates.add(new ConversionGroup(metaStreamEvent));
+                    candidateMembers.add(new ArrayList<>());
+                }
+                candidateMembers.get(candidateIndex).add(i);
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                List<Integer> members = candidateMembers.get(i);
+                if (members.size() < 2) {
+                    continue;
+                }
+                for (int receiverIndex : members) {
+                    conversionGroupIds[receiverIndex] = groups.size();
+                    ((ProcessStreamReceiver) this.receivers[receiverIndex]).prepareSharedConversion();
+                }
+                groups.add(candidates.get(i));
+            }
+        }
+        this.conversionGroups = groups.toArray(new ConversionGroup[0]);
+    }
+
+    /**
+     * @return true if the dispatcher skips or shares the conversion for any of the receivers
+     */
+    public boolean isRequired() {
+        return predicateIndex != null || conversionGroups.length > 0;
+    }
+
+    @Override
+    public String getStreamId() {
+        return receivers[0].getStreamId();
+    }
+
+    @Override
+    public void receive(ComplexEvent complexEvent) {
+        boolean[] matched = predicateIndex == null ? null : predicateIndex.match(complexEvent);
+        StreamEvent[] convertedEvents = new StreamEvent[conversionGroups.length];
+        for (int i = 0; i < receivers.length; i++) {
+            if (matched != null && !matched[i]) {
+                continue;
+            }
+            int groupId = conversionGroupIds[i];
+            if (groupId < 0) {
+                receivers[i].receive(complexEvent);
+            } else {
+                if (convertedEvents[groupId] == null) {
+                    convertedEvents[groupId] = conversionGroups[groupId].convert(complexEvent);
+                }
+                ((ProcessStreamReceiver) receivers[i]).receiveShared(convertedEvents[groupId]);
+            }
+        }
+    }
+
+    @Override
+    public void receive(Event event) {
+        boolean[] matched = predicateIndex == null ? null : predicateIndex.match(event.getData());
+        StreamEvent[] convertedEvents = new StreamEvent[conversionGroups.length];
+        for (int i = 0; i < receivers.length; i++) {
+            if (matched != null && !matched[i]) {
+                continue;
+            }
+            int groupId = conversionGroupIds[i];
+            if (groupId < 0) {
+                receivers[i].receive(event);
+            } else {
+                if (convertedEvents[groupId] == null) {
+                    convertedEvents[groupId] = conversionGroups[groupId].convert(event);
+                }
+                ((ProcessStreamReceiver) receivers[i]).receiveShared(convertedEvents[groupId]);
+            }
+        }
+    }
+
+    @Override
+    public void receive(long timestamp, Object[] data) {
+        boolean[] matched = predicateIndex == null ? null : predicateIndex.match(data);
+        StreamEvent[] convertedEvents = new StreamEvent[conversionGroups.length];
+        for (int i = 0; i < receivers.length; i++) {
+            if (matched != null && !matched[i]) {
+                continue;
+            }
+            int groupId = conversionGroupIds[i];
+            if (groupId < 0) {
+                receivers[i].receive(timestamp, data);
+            } else {
+                if (convertedEvents[groupId] == null) {
+                    convertedEvents[groupId] = conversionGroups[groupId].convert(timestamp, data);
+                }
+                ((ProcessStreamReceiver) receivers[i]).receiveShared(convertedEvents[groupId]);
+            }
+        }
+    }
+
+    @Override
+    public void receive(Event[] events) {
+        boolean[] matched = predicateIndex == null ? null : predicateIndex.match(events);
+        StreamEvent[] convertedEvents = new StreamEvent[conversionGroups.length];
+        for (int i = 0; i < receivers.length; i++) {
+            if (matched != null && !matched[i]) {
+                continue;
+            }
+            int groupId = conversionGroupIds[i];
+            if (groupId < 0) {
+                receivers[i].receive(events);
+            } else {
+                if (convertedEvents[groupId] == null) {
+                    convertedEvents[groupId] = conversionGroups[groupId].convert(events);
+                }
+                ((ProcessStreamReceiver) receivers[i]).receiveShared(convertedEvents[groupId]);
+            }
+        }
+    }
+
+    @Override
+    public void receive(List<Event> events) {
+        boolean[] matched = predicateIndex == null ? null : predicateIndex.match(events);
+        StreamEvent[] convertedEvents = new StreamEvent[conversionGroups.length];
+        for (int i = 0; i < receivers.length; i++) {
+            if (matched != null && !matched[i]) {
+                continue;
+            }
+            int groupId = conversionGroupIds[i];
+            if (groupId < 0) {
+                receivers[i].receive(events);
+            } else {
+                if (convertedEvents[groupId] == null) {
+                    convertedEvents[groupId] = conversionGroups[groupId].convert(events);
+                }
+                ((ProcessStreamReceiver) receivers[i]).receiveShared(convertedEvents[groupId]);
+            }
+        }
+    }
+
+    /**
+     * Receivers whose events are converted to the same layout, hence can share the converted events.
+     */
+    private static class ConversionGroup {
+        private final MetaStreamEvent metaStreamEvent;
+        private final StreamEventConverter streamEventConverter;
+        private final StreamEventFactory streamEventFactory;
+
+        ConversionGroup(MetaStreamEvent metaStreamEvent) {
+            this.metaStreamEvent = metaStreamEvent;
+            this.streamEventConverter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
+            this.streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        }
+
+        boolean hasLayout(MetaStreamEvent metaStreamEvent) {
+            return this.metaStreamEvent.getEventType() == metaStreamEvent.getEventType() &&
+                    this.metaStreamEvent.getBeforeWindowData().equals(metaStreamEvent.getBeforeWindowData()) &&
+                    this.metaStreamEvent.getOnAfterWindowData().equals(metaStreamEvent.getOnAfterWindowData()) &&
+                    this.metaStreamEvent.getOutputData().equals(metaStreamEvent.getOutputData()) &&
+                    this.metaStreamEvent.getInputDefinitions().get(0).getAttributeList().equals(
+                            metaStreamEvent.getInputDefinitions().get(0).getAttributeList());
+        }
+
+        StreamEvent convert(ComplexEvent complexEvents) {
+            StreamEvent firstEvent = null;
+            StreamEvent currentEvent = null;
+            for (ComplexEvent complexEvent = complexEvents; complexEvent != null;
+                 complexEvent = complexEvent.getNext()) {
+                StreamEvent newEvent = streamEventFactory.newInstance();
+                streamEventConverter.convertComplexEvent(complexEvent, newEvent);
+                if (firstEvent == null) {
+                    firstEvent = newEvent;
+                } else {
+                    currentEvent.setNext(newEvent);
+                }
+                currentEvent = newEvent;
+            }
+            return firstEvent;
+        }
+
+        StreamEvent convert(Event event) {
+            StreamEvent newEvent = streamEventFactory.newInstance();
+            streamEventConverter.convertEvent(event, newEvent);
+            return newEvent;
+        }
+
+        StreamEvent convert(long timestamp, Object[] data) {
+            StreamEvent newEvent = streamEventFactory.newInstance();
+            streamEventConverter.convertData(timestamp, data, newEvent);
+            return newEvent;
+        }
+
+        StreamEvent convert(Event[] events) {
+            return convert(Arrays.asList(events));
+        }
+
+        StreamEvent convert(List<Event> events) {
+            StreamEvent firstEvent = null;
+            StreamEvent currentEvent = null;
+            for (Event event : events) {
+                StreamEvent newEvent = streamEventFactory.newInstance();
+                streamEventConverter.convertEvent(event, newEvent);
+                if (firstEvent == null) {
+                    firstEvent = newEvent;
+                } else {
+                    currentEvent.setNext(newEvent);
+                }
+                currentEvent = newEvent;
+            }
+            return firstEvent;
+        }
+    }
+}
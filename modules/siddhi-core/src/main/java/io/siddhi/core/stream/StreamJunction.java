@@ -19,7 +19,12 @@
 package io.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import io.siddhi.core.config.SiddhiAppContext;
@@ -29,18 +34,22 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.FaultStreamEventConverter;
 import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.stream.input.InputProcessor;
 import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.stream.predicate.PredicateIndex;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.event.handler.EventExchangeHolder;
 import io.siddhi.core.util.event.handler.EventExchangeHolderFactory;
 import io.siddhi.core.util.event.handler.StreamHandler;
+import io.siddhi.core.util.parser.PredicateIndexParser;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.statistics.EventBufferHolder;
 import io.siddhi.core.util.statistics.ThroughputTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
 import io.siddhi.query.api.annotation.Annotation;
 import io.siddhi.query.api.definition.StreamDefinition;
+import io.siddhi.query.api.exception.AttributeNotExistException;
 import io.siddhi.query.api.exception.DuplicateAnnotationException;
 import io.siddhi.query.api.util.AnnotationHelper;
 import org.apache.log4j.Logger;
@@ -48,9 +57,11 @@ import org.apache.log4j.Logger;
 import java.beans.ExceptionListener;
 import java.lang.reflect.Constructor;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stream Junction is the place where streams are collected and distributed. There will be an Stream Junction per
@@ -60,12 +71,15 @@ import java.util.concurrent.ExecutorService;
  */
 public class StreamJunction implements EventBufferHolder {
     private static final Logger log = Logger.getLogger(StreamJunction.class);
+    private static final long PHASED_BACKOFF_SPIN_TIMEOUT_MICROS = 100;
+    private static final long PHASED_BACKOFF_YIELD_TIMEOUT_MICROS = 1000;
     private final SiddhiAppContext siddhiAppContext;
     private final StreamDefinition streamDefinition;
     private int batchSize;
     private int workers = -1;
     private int bufferSize;
     private List<Receiver> receivers = new LinkedList<>();
+    private List<Receiver> eventReceivers = receivers;
     private List<Publisher> publishers = new LinkedList<>();
     private ExecutorService executorService;
     private boolean async = false;
@@ -77,6 +91,11 @@ public class StreamJunction implements EventBufferHolder {
     private FaultStreamEventConverter faultStreamEventConverter = null;
     private OnErrorAction onErrorAction = OnErrorAction.LOG;
     private ExceptionListener exceptionListener;
+    private int keyAttributePosition = -1;
+    private KeyedWorker[] keyedWorkers;
+    private boolean keyedProcessing = false;
+    private WaitStrategyType waitStrategyType = WaitStrategyType.BLOCKING;
+    private boolean singleProducer = false;
 
     public StreamJunction(StreamDefinition streamDefinition, ExecutorService executorService, int bufferSize,
                           StreamJunction faultStreamJunction, SiddhiAppContext siddhiAppContext) {
@@ -128,6 +147,60 @@ public class StreamJunction implements EventBufferHolder {
                                 siddhiAppContext.getSiddhiAppString());
                     }
                 }
+                String waitStrategyString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    try {
+                        this.waitStrategyType = WaitStrategyType.valueOf(waitStrategyString.trim().toUpperCase()
+                                .replace('.', '_').replace('-', '_'));
+                    } catch (IllegalArgumentException e) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY + "' only supports 'blocking', " +
+                                "'sleeping', 'yielding', 'busy.spin' and 'phased.backoff', but found, '" +
+                                waitStrategyString + "'.", e, asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String producerString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER);
+                if (producerString != null) {
+                    if ("single".equalsIgnoreCase(producerString.trim())) {
+                        this.singleProducer = true;
+                    } else if (!"multi".equalsIgnoreCase(producerString.trim())) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER + "' only supports 'single' and " +
+                                "'multi', but found, '" + producerString + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                }
+                String keyString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_KEY);
+                if (keyString != null) {
+                    if (workers <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_KEY + "' requires '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "' to be defined in @async of " +
+                                "Stream '" + streamDefinition.getId() + "'.",
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                    try {
+                        this.keyAttributePosition = streamDefinition.getAttributePosition(keyString.trim());
+                    } catch (AttributeNotExistException e) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_KEY + "' of @async refers to '" + keyString +
+                                "', which is not an attribute of Stream '" + streamDefinition.getId() + "'.", e,
+                                asyncAnnotation.getQueryContextStartIndex(),
+                                asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                                siddhiAppContext.getSiddhiAppString());
+                    }
+                    this.keyedWorkers = new KeyedWorker[workers];
+                    for (int i = 0; i < workers; i++) {
+                        keyedWorkers[i] = new KeyedWorker(i);
+                    }
+                }
             }
             Annotation onErrorAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ON_ERROR,
                     streamDefinition.getAnnotations());
@@ -147,32 +220,19 @@ public class StreamJunction implements EventBufferHolder {
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
-        ComplexEvent complexEventList = complexEvent;
-        if (disruptor != null) {
-            while (complexEventList != null) {
-                if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(complexEventList);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-                complexEventList = complexEventList.getNext();
-            }
+        if (disruptor != null || keyedProcessing) {
+            publish(complexEvent);
         } else {
             if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
                 int messageCount = 0;
+                ComplexEvent complexEventList = complexEvent;
                 while (complexEventList != null) {
                     messageCount++;
                     complexEventList = complexEventList.getNext();
                 }
                 throughputTracker.eventsIn(messageCount);
             }
-            for (Receiver receiver : receivers) {
+            for (Receiver receiver : eventReceivers) {
                 receiver.receive(complexEvent);
             }
         }
@@ -185,17 +245,10 @@ public class StreamJunction implements EventBufferHolder {
         if (isTraceEnabled) {
             log.trace(event + " event is received by streamJunction " + this);
         }
-        if (disruptor != null) {
-            long sequenceNo = ringBuffer.next();
-            try {
-                EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                eventExchangeHolder.getEvent().copyFrom(event);
-                eventExchangeHolder.getAndSetIsProcessed(false);
-            } finally {
-                ringBuffer.publish(sequenceNo);
-            }
+        if (disruptor != null || keyedProcessing) {
+            publish(event);
         } else {
-            for (Receiver receiver : receivers) {
+            for (Receiver receiver : eventReceivers) {
                 receiver.receive(event);
             }
         }
@@ -208,19 +261,10 @@ public class StreamJunction implements EventBufferHolder {
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
-        if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+        if (disruptor != null || keyedProcessing) {
+            publish(Arrays.asList(events));
         } else {
-            for (Receiver receiver : receivers) {
+            for (Receiver receiver : eventReceivers) {
                 receiver.receive(events);
             }
         }
@@ -230,29 +274,110 @@ public class StreamJunction implements EventBufferHolder {
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
-        if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
+        if (disruptor != null || keyedProcessing) {
+            publish(events);
+        } else {
+            for (Receiver receiver : eventReceivers) {
+                receiver.receive(events.toArray(new Event[events.size()]));
+            }
+        }
+    }
+
+    private void sendData(long timeStamp, Object[] data) {
+        if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+            throughputTracker.eventIn();
+        }
+        if (disruptor != null || keyedProcessing) {
+            publish(timeStamp, data);
+        } else {
+            for (Receiver receiver : eventReceivers) {
+                receiver.receive(timeStamp, data);
+            }
+        }
+    }
+
+    private void publish(ComplexEvent complexEvent) {
+        ComplexEvent complexEventList = complexEvent;
+        while (complexEventList != null) {
+            if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                throughputTracker.eventIn();
+            }
+            if (keyedProcessing) {
+                getKeyedWorker(complexEventList.getOutputData()).publish(complexEventList);
+            } else {
                 long sequenceNo = ringBuffer.next();
                 try {
                     EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
+                    eventExchangeHolder.getEvent().copyFrom(complexEventList);
                     eventExchangeHolder.getAndSetIsProcessed(false);
                 } finally {
                     ringBuffer.publish(sequenceNo);
                 }
             }
+            complexEventList = complexEventList.getNext();
+        }
+    }
+
+    private void publish(Event event) {
+        if (keyedProcessing) {
+            getKeyedWorker(event.getData()).publish(event);
         } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(events.toArray(new Event[events.size()]));
+            long sequenceNo = ringBuffer.next();
+            try {
+                EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
+                eventExchangeHolder.getEvent().copyFrom(event);
+                eventExchangeHolder.getAndSetIsProcessed(false);
+            } finally {
+                ringBuffer.publish(sequenceNo);
             }
         }
     }
 
-    private void sendData(long timeStamp, Object[] data) {
-        if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
-            throughputTracker.eventIn();
+    /**
+     * Publish the given events to the ring buffer by claiming contiguous sequence ranges, such that the
+     * sequence claim and the consumer notification happen once per range instead of once per event.
+     *
+     * @param events events to be published
+     */
+    private void publish(List<Event> events) {
+        if (keyedProcessing) {
+            // Events are grouped per worker, keeping their order, such that each worker claims ranges of its buffer
+            int[] workerIndexes = new int[events.size()];
+            int[] workerEventCounts = new int[keyedWorkers.length];
+            for (int i = 0; i < workerIndexes.length; i++) {
+                workerIndexes[i] = getKeyedWorkerIndex(events.get(i).getData());
+                workerEventCounts[workerIndexes[i]]++;
+            }
+            for (int i = 0; i < keyedWorkers.length; i++) {
+                if (workerEventCounts[i] > 0) {
+                    keyedWorkers[i].publish(events, workerIndexes, workerEventCounts[i]);
+                }
+            }
+            return;
         }
-        if (disruptor != null) {
+        int eventCount = events.size();
+        int maxClaimSize = ringBuffer.getBufferSize();
+        int index = 0;
+        while (index < eventCount) {
+            int claimSize = Math.min(eventCount - index, maxClaimSize);
+            long hiSequenceNo = ringBuffer.next(claimSize);
+            long loSequenceNo = hiSequenceNo - (claimSize - 1);
+            try {
+                for (long sequenceNo = loSequenceNo; sequenceNo <= hiSequenceNo; sequenceNo++) {
+                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
+                    eventExchangeHolder.getEvent().copyFrom(events.get(index++));
+                    eventExchangeHolder.getAndSetIsProcessed(false);
+                }
+            } finally {
+                ringBuffer.publish(loSequenceNo, hiSequenceNo);
+            }
+        }
+    }
+
+    private void publish(long timeStamp, Object[] data) {
+        if (keyedProcessing) {
+            getKeyedWorker(data).publish(timeStamp, data);
+        } else {
             long sequenceNo = ringBuffer.next();
             try {
                 EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
@@ -263,31 +388,100 @@ public class StreamJunction implements EventBufferHolder {
             } finally {
                 ringBuffer.publish(sequenceNo);
             }
-        } else {
-            for (Receiver receiver : receivers) {
-                receiver.receive(timeStamp, data);
-            }
         }
     }
 
+    private ProducerType getProducerType() {
+        return singleProducer ? ProducerType.SINGLE : ProducerType.MULTI;
+    }
+
+    private WaitStrategy createWaitStrategy() {
+        switch (waitStrategyType) {
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case PHASED_BACKOFF:
+                return PhasedBackoffWaitStrategy.withLock(PHASED_BACKOFF_SPIN_TIMEOUT_MICROS,
+                        PHASED_BACKOFF_YIELD_TIMEOUT_MICROS, TimeUnit.MICROSECONDS);
+            case BLOCKING:
+            default:
+                return new BlockingWaitStrategy();
+        }
+    }
+
+    /**
+     * Select the worker that processes all events having the same key attribute value as the given data.
+     *
+     * @param data event data
+     * @return worker assigned to the key
+     */
+    private KeyedWorker getKeyedWorker(Object[] data) {
+        return keyedWorkers[getKeyedWorkerIndex(data)];
+    }
+
+    private int getKeyedWorkerIndex(Object[] data) {
+        Object key = data[keyAttributePosition];
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % keyedWorkers.length;
+    }
+
     /**
      * Create and start disruptor based on annotations given in the streamDefinition.
      */
     public void startProcessing() {
         this.exceptionListener = siddhiAppContext.getRuntimeExceptionListener();
-        if (!receivers.isEmpty() && async) {
+        if (singleProducer && publishers.size() > 1) {
+            // The single producer sequencer is only safe when events are published by a single thread
+            log.warn("Stream '" + streamDefinition.getId() + "' of Siddhi App '" + siddhiAppContext.getName() +
+                    "' declares a single producer but has " + publishers.size() + " publishers, hence its " +
+                    "events are published as from multiple producers.");
+            singleProducer = false;
+        }
+        this.eventReceivers = receivers;
+        if (siddhiAppContext.isColumnarBatches()) {
+            for (Receiver receiver : receivers) {
+                if (receiver.getClass() == ProcessStreamReceiver.class) {
+                    ((ProcessStreamReceiver) receiver).prepareColumnarBatches();
+                }
+            }
+        }
+        if (siddhiAppContext.isIndexPredicates() || siddhiAppContext.isShareEventConversion()) {
+            PredicateIndex predicateIndex = null;
+            if (siddhiAppContext.isIndexPredicates()) {
+                predicateIndex = PredicateIndexParser.parse(streamDefinition, receivers);
+            }
+            ReceiverDispatcher receiverDispatcher = new ReceiverDispatcher(receivers, predicateIndex,
+                    siddhiAppContext.isShareEventConversion());
+            if (receiverDispatcher.isRequired()) {
+                // Receivers subscribing later are added after the dispatcher, to retain the subscription order.
+                eventReceivers = new LinkedList<>();
+                eventReceivers.add(receiverDispatcher);
+            }
+        }
+        if (!receivers.isEmpty() && keyedWorkers != null) {
+            for (KeyedWorker keyedWorker : keyedWorkers) {
+                keyedWorker.start();
+            }
+            keyedProcessing = true;
+        } else if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
                     disruptor = new Disruptor<EventExchangeHolder>(
                             new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
-                            bufferSize, executorService, producerType,
-                            new BlockingWaitStrategy());
+                            bufferSize, executorService, getProducerType(), createWaitStrategy());
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
             }
             if (disruptor == null) {
+                singleProducer = false;
                 disruptor = new Disruptor<EventExchangeHolder>(
                         new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
                         bufferSize, executorService);
@@ -295,11 +489,11 @@ public class StreamJunction implements EventBufferHolder {
             }
             if (workers > 0) {
                 for (int i = 0; i < workers; i++) {
-                    disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
+                    disruptor.handleEventsWith(new StreamHandler(eventReceivers, batchSize, streamDefinition.getId(),
                             siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener));
                 }
             } else {
-                disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
+                disruptor.handleEventsWith(new StreamHandler(eventReceivers, batchSize, streamDefinition.getId(),
                         siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener));
             }
             ringBuffer = disruptor.start();
@@ -315,6 +509,10 @@ public class StreamJunction implements EventBufferHolder {
     public void stopProcessing() {
         if (disruptor != null) {
             disruptor.shutdown();
+        } else if (keyedProcessing) {
+            for (KeyedWorker keyedWorker : keyedWorkers) {
+                keyedWorker.shutdown();
+            }
         } else {
             for (Receiver receiver : receivers) {
                 if (receiver instanceof StreamCallback) {
@@ -335,6 +533,9 @@ public class StreamJunction implements EventBufferHolder {
         // To have reverse order at the sequence/pattern processors.
         if (!receivers.contains(receiver)) {
             receivers.add(receiver);
+            if (eventReceivers != receivers) {
+                eventReceivers.add(receiver);
+            }
         }
     }
 
@@ -350,10 +551,28 @@ public class StreamJunction implements EventBufferHolder {
     public long getBufferedEvents() {
         if (disruptor != null) {
             return disruptor.getBufferSize() - disruptor.getRingBuffer().remainingCapacity();
+        } else if (keyedProcessing) {
+            long bufferedEvents = 0L;
+            for (KeyedWorker keyedWorker : keyedWorkers) {
+                bufferedEvents += keyedWorker.getBufferedEvents();
+            }
+            return bufferedEvents;
         }
         return 0L;
     }
 
+    /**
+     * Returns the per worker event buffers used when the stream is processed by key affine workers.
+     *
+     * @return worker event buffers, or an empty list when @async does not define a key
+     */
+    public List<EventBufferHolder> getKeyedWorkerBuffers() {
+        if (keyedWorkers == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(keyedWorkers);
+    }
+
     @Override
     public boolean containsBufferedEvents() {
         return (!receivers.isEmpty() && async);
@@ -367,6 +586,134 @@ public class StreamJunction implements EventBufferHolder {
         STREAM
     }
 
+    /**
+     * Wait strategies used by the @async workers while waiting for events
+     */
+    public enum WaitStrategyType {
+        BLOCKING,
+        SLEEPING,
+        YIELDING,
+        BUSY_SPIN,
+        PHASED_BACKOFF
+    }
+
+    /**
+     * Worker owning a dedicated ring buffer, that processes all events of the keys routed to it in arrival order.
+     */
+    private class KeyedWorker implements EventBufferHolder {
+
+        private final int workerIndex;
+        private final ThroughputTracker workerThroughputTracker;
+        private Disruptor<EventExchangeHolder> workerDisruptor;
+        private RingBuffer<EventExchangeHolder> workerRingBuffer;
+
+        KeyedWorker(int workerIndex) {
+            this.workerIndex = workerIndex;
+            this.workerThroughputTracker = QueryParserHelper.createThroughputTracker(siddhiAppContext,
+                    streamDefinition.getId(), SiddhiConstants.METRIC_INFIX_STREAMS,
+                    SiddhiConstants.METRIC_INFIX_WORKER + workerIndex);
+        }
+
+        void start() {
+            workerDisruptor = new Disruptor<EventExchangeHolder>(
+                    new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
+                    bufferSize, executorService, getProducerType(), createWaitStrategy());
+            workerDisruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
+            workerDisruptor.handleEventsWith(new StreamHandler(eventReceivers, batchSize, streamDefinition.getId(),
+                    siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener,
+                    workerThroughputTracker, siddhiAppContext));
+            workerRingBuffer = workerDisruptor.start();
+        }
+
+        void shutdown() {
+            workerDisruptor.shutdown();
+        }
+
+        void publish(ComplexEvent complexEvent) {
+            long sequenceNo = workerRingBuffer.next();
+            try {
+                EventExchangeHolder eventExchangeHolder = workerRingBuffer.get(sequenceNo);
+                eventExchangeHolder.getEvent().copyFrom(complexEvent);
+                eventExchangeHolder.getAndSetIsProcessed(false);
+            } finally {
+                workerRingBuffer.publish(sequenceNo);
+            }
+        }
+
+        void publish(Event event) {
+            long sequenceNo = workerRingBuffer.next();
+            try {
+                EventExchangeHolder eventExchangeHolder = workerRingBuffer.get(sequenceNo);
+                eventExchangeHolder.getEvent().copyFrom(event);
+                eventExchangeHolder.getAndSetIsProcessed(false);
+            } finally {
+                workerRingBuffer.publish(sequenceNo);
+            }
+        }
+
+        /**
+         * Publish the events routed to this worker by claiming contiguous sequence ranges of its ring buffer.
+         *
+         * @param events           events of all the workers
+         * @param workerIndexes    index of the worker each event is routed to
+         * @param workerEventCount number of events routed to this worker
+         */
+        void publish(List<Event> events, int[] workerIndexes, int workerEventCount) {
+            int maxClaimSize = workerRingBuffer.getBufferSize();
+            int index = 0;
+            while (workerEventCount > 0) {
+                int claimSize = Math.min(workerEventCount, maxClaimSize);
+                long hiSequenceNo = workerRingBuffer.next(claimSize);
+                long loSequenceNo = hiSequenceNo - (claimSize - 1);
+                try {
+                    for (long sequenceNo = loSequenceNo; sequenceNo <= hiSequenceNo; sequenceNo++) {
+                        while (workerIndexes[index] != workerIndex) {
+                            index++;
+                        }
+                        EventExchangeHolder eventExchangeHolder = workerRingBuffer.get(sequenceNo);
+                        eventExchangeHolder.getEvent().copyFrom(events.get(index++));
+                        eventExchangeHolder.getAndSetIsProcessed(false);
+                    }
+                } finally {
+                    workerRingBuffer.publish(loSequenceNo, hiSequenceNo);
+                }
+                workerEventCount -= claimSize;
+            }
+        }
+
+        void publish(long timeStamp, Object[] data) {
+            long sequenceNo = workerRingBuffer.next();
+            try {
+                EventExchangeHolder eventExchangeHolder = workerRingBuffer.get(sequenceNo);
+                eventExchangeHolder.getAndSetIsProcessed(false);
+                eventExchangeHolder.getEvent().setTimestamp(timeStamp);
+                eventExchangeHolder.getEvent().setIsExpired(false);
+                System.arraycopy(data, 0, eventExchangeHolder.getEvent().getData(), 0, data.length);
+            } finally {
+                workerRingBuffer.publish(sequenceNo);
+            }
+        }
+
+        @Override
+        public long getBufferedEvents() {
+            if (workerDisruptor != null) {
+                return workerDisruptor.getBufferSize() - workerDisruptor.getRingBuffer().remainingCapacity();
+            }
+            return 0L;
+        }
+
+        @Override
+        public boolean containsBufferedEvents() {
+            return !receivers.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return streamDefinition.getId() + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_WORKER + workerIndex;
+        }
+    }
+
     /**
      * Interface to be implemented by all receivers who need to subscribe to Stream Junction and receive events.
      */
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.stream.predicate;
+
+import io.siddhi.query.api.definition.Attribute;
+
+/**
+ * Simple predicate on a single stream attribute, that can be indexed by {@link PredicateIndex}. A predicate either
+ * checks the attribute for equality with a constant, or checks whether the attribute falls within an interval
+ * where an absent bound denotes an unbounded interval.
+ * <p>
+ * Attribute values and constants are converted to the type in which they are compared, where int values are
+ * compared as long and float values as float valued doubles.
+ */
+public class IndexedPredicate {
+
+    private final int attributePosition;
+    private final Attribute.Type compareType;
+    private final Object equalTo;
+    private final Comparable lowerBound;
+    private final boolean lowerInclusive;
+    private final Comparable upperBound;
+    private final boolean upperInclusive;
+
+    private IndexedPredicate(int attributePosition, Attribute.Type compareType, Object equalTo,
+                             Comparable lowerBound, boolean lowerInclusive,
+                             Comparable upperBound, boolean upperInclusive) {
+        this.attributePosition = attributePosition;
+        this.compareType = compareType;
+        this.equalTo = equalTo;
+        this.lowerBound = lowerBound;
+        this.lowerInclusive = lowerInclusive;
+        this.upperBound = upperBound;
+        this.upperInclusive = upperInclusive;
+    }
+
+    public static IndexedPredicate equal(int attributePosition, Attribute.Type compareType, Object constant) {
+        return new IndexedPredicate(attributePosition, compareType, toKey(constant, compareType),
+                null, false, null, false);
+    }
+
+    public static IndexedPredicate greaterThan(int attributePosition, Attribute.Type compareType, Object constant,
+                                               boolean inclusive) {
+        return new IndexedPredicate(attributePosition, compareType, null,
+                (Comparable) toKey(constant, compareType), inclusive, null, false);
+    }
+
+    public static IndexedPredicate lessThan(int attributePosition, Attribute.Type compareType, Object constant,
+                                            boolean inclusive) {
+        return new IndexedPredicate(attributePosition, compareType, null,
+                null, false, (Comparable) toKey(constant, compareType), inclusive);
+    }
+
+    /**
+     * Converts the given attribute value or constant to the type in which it is compared.
+     *
+     * @param value       attribute value or constant
+     * @param compareType type in which the value is compared
+     * @return key used for equality lookups and interval checks
+     */
+    static Object toKey(Object value, Attribute.Type compareType) {
+        switch (compareType) {
+            case LONG:
+                return ((Number) value).longValue();
+            case FLOAT:
+                return normalize(((Number) value).floatValue());
+            case DOUBLE:
+                return normalize(((Number) value).doubleValue());
+            default:
+                return value;
+        }
+    }
+
+    private static Double normalize(double value) {
+        // -0.0 and 0.0 are equal when compared, but not when hashed.
+        return value == 0.0 ? 0.0 : value;
+    }
+
+    /**
+     * Intersects two interval predicates on the same attribute.
+     *
+     * @param predicate predicate to be intersected with
+     * @return the intersection, or null if the predicates cannot be merged
+     */
+    public IndexedPredicate intersect(IndexedPredicate predicate) {
+        if (isEquality() || predicate.isEquality() || attributePosition != predicate.attributePosition ||
+                compareType != predicate.compareType) {
+            return null;
+        }
+        Comparable lower = lowerBound;
+        boolean lowerIncl = lowerInclusive;
+        if (lower == null) {
+            lower = predicate.lowerBound;
+            lowerIncl = predicate.lowerInclusive;
+        } else if (predicate.lowerBound != null) {
+            int compare = predicate.lowerBound.compareTo(lower);
+            if (compare > 0) {
+                lower = predicate.lowerBound;
+                lowerIncl = predicate.lowerInclusive;
+            } else if (compare == 0) {
+                lowerIncl = lowerIncl && predicate.lowerInclusive;
+            }
+        }
+        Comparable upper = upperBound;
+        boolean upperIncl = upperInclusive;
+        if (upper == null) {
+            upper = predicate.upperBound;
+            upperIncl = predicate.upperInclusive;
+        } else if (predicate.upperBound != null) {
+            int compare = predicate.upperBound.compareTo(upper);
+            if (compare < 0) {
+                upper = predicate.upperBound;
+                upperIncl = predicate.upperInclusive;
+            } else if (compare == 0) {
+                upperIncl = upperIncl && predicate.upperInclusive;
+            }
+        }
+        return new IndexedPredicate(attributePosition, compareType, null, lower, lowerIncl, upper, upperIncl);
+    }
+
+    public boolean isEquality() {
+        return equalTo != null;
+    }
+
+    /**
+     * @return true if the predicate is an interval which no value can fall within
+     */
+    public boolean isEmptyInterval() {
+        if (isEquality() || lowerBound == null || upperBound == null) {
+            return false;
+        }
+        int compare = lowerBound.compareTo(upperBound);
+        return compare > 0 || (compare == 0 && !(lowerInclusive && upperInclusive));
+    }
+
+    public int getAttributePosition() {
+        return attributePosition;
+    }
+
+    public Attribute.Type getCompareType() {
+        return compareType;
+    }
+
+    Object getEqualTo() {
+        return equalTo;
+    }
+
+    Comparable getLowerBound() {
+        return lowerBound;
+    }
+
+    Comparable getUpperBound() {
+        return upperBound;
+    }
+
+    boolean isAboveLowerBound(Comparable key) {
+        if (lowerBound == null) {
+            return true;
+        }
+        int compare = key.compareTo(lowerBound);
+        return compare > 0 || (compare == 0 && lowerInclusive);
+    }
+
+    boolean isBelowUpperBound(Comparable key) {
+        if (upperBound == null) {
+            return true;
+        }
+        int compare = key.compareTo(upperBound);
+        return compare < 0 || (compare == 0 && upperInclusive);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.stream.predicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Centered interval tree over the interval predicates of an attribute. The tree is built once and then only
+ * queried, where a lookup marks the receivers whose intervals contain the given value, visiting only the intervals
+ * that overlap the path from the root to the value.
+ */
+class IntervalTree {
+
+    // Absent bounds are unbounded, hence they are ordered first in both orders.
+    private static final Comparator<Entry> LOWER_BOUND_ASCENDING = (entry1, entry2) ->
+            compareBounds(entry1.predicate.getLowerBound(), entry2.predicate.getLowerBound(), false);
+    private static final Comparator<Entry> UPPER_BOUND_DESCENDING = (entry1, entry2) ->
+            compareBounds(entry1.predicate.getUpperBound(), entry2.predicate.getUpperBound(), true);
+
+    private final Node root;
+
+    IntervalTree(List<Entry> entries) {
+        this.root = build(entries);
+    }
+
+    private static int compareBounds(Comparable bound1, Comparable bound2, boolean descending) {
+        if (bound1 == null) {
+            return bound2 == null ? 0 : -1;
+        } else if (bound2 == null) {
+            return 1;
+        }
+        return descending ? bound2.compareTo(bound1) : bound1.compareTo(bound2);
+    }
+
+    private static Node build(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        List<Comparable> bounds = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.predicate.getLowerBound() != null) {
+                bounds.add(entry.predicate.getLowerBound());
+            }
+            if (entry.predicate.getUpperBound() != null) {
+                bounds.add(entry.predicate.getUpperBound());
+            }
+        }
+        if (bounds.isEmpty()) {
+            return new Node(null, entries, null, null);
+        }
+        Collections.sort(bounds);
+        Comparable center = bounds.get(bounds.size() / 2);
+        List<Entry> leftEntries = new ArrayList<>();
+        List<Entry> rightEntries = new ArrayList<>();
+        List<Entry> centerEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            Comparable lowerBound = entry.predicate.getLowerBound();
+            Comparable upperBound = entry.predicate.getUpperBound();
+            if (upperBound != null && upperBound.compareTo(center) < 0) {
+                leftEntries.add(entry);
+            } else if (lowerBound != null && lowerBound.compareTo(center) > 0) {
+                rightEntries.add(entry);
+            } else {
+                centerEntries.add(entry);
+            }
+        }
+        return new Node(center, centerEntries, build(leftEntries), build(rightEntries));
+    }
+
+    /**
+     * Marks the receivers whose intervals contain the given key.
+     *
+     * @param key     attribute value converted to the compare type
+     * @param matched receiver flags to be marked
+     */
+    void mark(Comparable key, boolean[] matched) {
+        Node node = root;
+        while (node != null) {
+            if (node.center == null) {
+                for (Entry entry : node.byLowerBound) {
+                    if (entry.predicate.isAboveLowerBound(key) && entry.predicate.isBelowUpperBound(key)) {
+                        matched[entry.receiverIndex] = true;
+                    }
+                }
+                return;
+            }
+            int compare = key.compareTo(node.center);
+            if (compare < 0) {
+                // All intervals of the node end at or after the center, hence only the lower bound is checked.
+                for (Entry entry : node.byLowerBound) {
+                    Comparable lowerBound = entry.predicate.getLowerBound();
+                    if (lowerBound != null && lowerBound.compareTo(key) > 0) {
+                        break;
+                    }
+                    if (entry.predicate.isAboveLowerBound(key)) {
+                        matched[entry.receiverIndex] = true;
+                    }
+                }
+                node = node.left;
+            } else if (compare > 0) {
+                // All intervals of the node start at or before the center, hence only the upper bound is checked.
+                for (Entry entry : node.byUpperBound) {
+                    Comparable upperBound = entry.predicate.getUpperBound();
+                    if (upperBound != null && upperBound.compareTo(key) < 0) {
+                        break;
+                    }
+                    if (entry.predicate.isBelowUpperBound(key)) {
+                        matched[entry.receiverIndex] = true;
+                    }
+                }
+                node = node.right;
+            } else {
+                for (Entry entry : node.byLowerBound) {
+                    if (entry.predicate.isAboveLowerBound(key) && entry.predicate.isBelowUpperBound(key)) {
+                        matched[entry.receiverIndex] = true;
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Interval predicate of a receiver.
+     */
+    static class Entry {
+        private final int receiverIndex;
+        private final IndexedPredicate predicate;
+
+        Entry(int receiverIndex, IndexedPredicate predicate) {
+            this.receiverIndex = receiverIndex;
+            this.predicate = predicate;
+        }
+    }
+
+    private static class Node {
+        private final Comparable center;
+        private final Entry[] byLowerBound;
+        private final Entry[] byUpperBound;
+        private final Node left;
+        private final Node right;
+
+        Node(Comparable center, List<Entry> entries, Node left, Node right) {
+            this.center = center;
+            this.byLowerBound = entries.toArray(new Entry[0]);
+            this.byUpperBound = entries.toArray(new Entry[0]);
+            Arrays.sort(byLowerBound, LOWER_BOUND_ASCENDING);
+            Arrays.sort(byUpperBound, UPPER_BOUND_DESCENDING);
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.stream.predicate;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.Event;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index over the predicates of the receivers of a {@link io.siddhi.core.stream.StreamJunction}, which evaluates the
+ * predicates of all receivers at once. Equality predicates are looked up from a hash index and interval predicates
+ * from an {@link IntervalTree}, such that each event only needs to be delivered to the receivers whose predicates it
+ * may satisfy, and to all receivers that do not have indexed predicates.
+ * <p>
+ * Indexed predicates are necessary conditions of the receivers' filters, hence the receivers still evaluate their
+ * filters on the delivered events. Batches are matched as a whole, such that a receiver is matched when any of the
+ * events in the batch satisfy its predicates.
+ */
+public class PredicateIndex {
+
+    private final boolean[] unindexedReceivers;
+    private final AttributeIndex[] attributeIndexes;
+
+    /**
+     * @param predicates indexed predicates of each receiver in their subscription order, where the receiver is
+     *                   matched when any of its predicates is satisfied, or null if the receiver has no indexed
+     *                   predicates
+     */
+    public PredicateIndex(List<List<IndexedPredicate>> predicates) {
+        this.unindexedReceivers = new boolean[predicates.size()];
+        Map<String, AttributeIndexBuilder> builders = new LinkedHashMap<>();
+        for (int i = 0; i < predicates.size(); i++) {
+            List<IndexedPredicate> receiverPredicates = predicates.get(i);
+            if (receiverPredicates == null) {
+                unindexedReceivers[i] = true;
+                continue;
+            }
+            for (IndexedPredicate predicate : receiverPredicates) {
+                if (predicate.isEmptyInterval()) {
+                    continue;
+                }
+                String key = predicate.getAttributePosition() + ":" + predicate.getCompareType();
+                AttributeIndexBuilder builder = builders.computeIfAbsent(key, k ->
+                        new AttributeIndexBuilder(predicate.getAttributePosition(), predicate.getCompareType()));
+                builder.add(i, predicate);
+            }
+        }
+        this.attributeIndexes = new AttributeIndex[builders.size()];
+        int i = 0;
+        for (AttributeIndexBuilder builder : builders.values()) {
+            attributeIndexes[i++] = builder.build();
+        }
+    }
+
+    private boolean[] newMatches() {
+        return Arrays.copyOf(unindexedReceivers, unindexedReceivers.length);
+    }
+
+    private void mark(Object[] data, boolean[] matched) {
+        if (data == null) {
+            Arrays.fill(matched, true);
+            return;
+        }
+        for (AttributeIndex attributeIndex : attributeIndexes) {
+            attributeIndex.mark(data, matched);
+        }
+    }
+
+    /**
+     * @param data event data
+     * @return flags denoting the receivers that should receive the event
+     */
+    public boolean[] match(Object[] data) {
+        boolean[] matched = newMatches();
+        mark(data, matched);
+        return matched;
+    }
+
+    public boolean[] match(Event[] events) {
+        boolean[] matched = newMatches();
+        for (Event event : events) {
+            mark(event.getData(), matched);
+        }
+        return matched;
+    }
+
+    public boolean[] match(List<Event> events) {
+        boolean[] matched = newMatches();
+        for (Event event : events) {
+            mark(event.getData(), matched);
+        }
+        return matched;
+    }
+
+    public boolean[] match(ComplexEvent complexEvent) {
+        boolean[] matched = newMatches();
+        for (ComplexEvent event = complexEvent; event != null; event = event.getNext()) {
+            mark(event.getOutputData(), matched);
+        }
+        return matched;
+    }
+
+    /**
+     * Index of the predicates on a single attribute, compared in a single type.
+     */
+    private static class AttributeIndex {
+        private final int attributePosition;
+        private final Attribute.Type compareType;
+        private final Map<Object, int[]> equalityIndex;
+        private final IntervalTree intervalTree;
+
+        AttributeIndex(int attributePosition, Attribute.Type compareType, Map<Object, int[]> equalityIndex,
+                       IntervalTree intervalTree) {
+            this.attributePosition = attributePosition;
+            this.compareType = compareType;
+            this.equalityIndex = equalityIndex;
+            this.intervalTree = intervalTree;
+        }
+
+        void mark(Object[] data, boolean[] matched) {
+            Object value = data[attributePosition];
+            if (value == null) {
+                return;
+            }
+            Object key = IndexedPredicate.toKey(value, compareType);
+            if (equalityIndex != null) {
+                int[] receiverIndexes = equalityIndex.get(key);
+                if (receiverIndexes != null) {
+                    for (int receiverIndex : receiverIndexes) {
+                        matched[receiverIndex] = true;
+                    }
+                }
+            }
+            if (intervalTree != null) {
+                intervalTree.mark((Comparable) key, matched);
+            }
+        }
+    }
+
+    private static class AttributeIndexBuilder {
+        private final int attributePosition;
+        private final Attribute.Type compareType;
+        private final Map<Object, List<Integer>> equalityEntries = new HashMap<>();
+        private final List<IntervalTree.Entry> intervalEntries = new ArrayList<>();
+
+        AttributeIndexBuilder(int attributePosition, Attribute.Type compareType) {
+            this.attributePosition = attributePosition;
+            this.compareType = compareType;
+        }
+
+        void add(int receiverIndex, IndexedPredicate predicate) {
+            if (predicate.isEquality()) {
+                equalityEntries.computeIfAbsent(predicate.getEqualTo(), k -> new ArrayList<>()).add(receiverIndex);
+            } else {
+                intervalEntries.add(new IntervalTree.Entry(receiverIndex, predicate));
+            }
+        }
+
+        AttributeIndex build() {
+            Map<Object, int[]> equalityIndex = null;
+            if (!equalityEntries.isEmpty()) {
+                equalityIndex = new HashMap<>();
+                for (Map.Entry<Object, List<Integer>> entry : equalityEntries.entrySet()) {
+                    equalityIndex.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue)
+                            .toArray());
+                }
+            }
+            IntervalTree intervalTree = intervalEntries.isEmpty() ? null : new IntervalTree(intervalEntries);
+            return new AttributeIndex(attributePosition, compareType, equalityIndex, intervalTree);
+        }
+    }
+}
@@ -38,9 +38,6 @@ import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Scheduler implementation to take periodic snapshots
@@ -50,7 +47,7 @@ public class Scheduler implements ExternalReferencedHolder {
     private static final Logger log = Logger.getLogger(Scheduler.class);
     private final ThreadBarrier threadBarrier;
     private final Schedulable singleThreadEntryValve;
-    private final Semaphore mutex;
+    private final TimerWheel timerWheel;
     protected String queryName;
     private SiddhiQueryContext siddhiQueryContext;
     private LockWrapper lockWrapper;
@@ -66,18 +63,18 @@ public class Scheduler implements ExternalReferencedHolder {
         this.siddhiQueryContext = siddhiQueryContext;
         this.singleThreadEntryValve = singleThreadEntryValve;
         this.scheduledExecutorService = siddhiQueryContext.getSiddhiAppContext().getScheduledExecutorService();
-        this.mutex = new Semaphore(1);
+        this.timerWheel = siddhiQueryContext.getSiddhiAppContext().getTimerWheel();
 
         siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator()
                 .addTimeChangeListener(new TimestampGeneratorImpl.TimeChangeListener() {
                     @Override
                     public synchronized void onTimeChange(long currentTimestamp) {
-                        Map<String, Map<String, SchedulerState>> allStates = stateHolder.getAllStates();
+                        Map<String, Map<Object, SchedulerState>> allStates = stateHolder.getAllStates();
                         try {
                             TreeMultimap<Long, SchedulerState> sortedExpires = TreeMultimap.create();
-                            for (Map.Entry<String, Map<String, SchedulerState>> allStatesEntry :
+                            for (Map.Entry<String, Map<Object, SchedulerState>> allStatesEntry :
                                     allStates.entrySet()) {
-                                for (Map.Entry<String, SchedulerState> stateEntry :
+                                for (Map.Entry<Object, SchedulerState> stateEntry :
                                         allStatesEntry.getValue().entrySet()) {
                                     Long lastTime = stateEntry.getValue().toNotifyQueue.peek();
                                     if (lastTime != null && lastTime <= currentTimestamp) {
@@ -129,26 +126,11 @@ public class Scheduler implements ExternalReferencedHolder {
     private void schedule(long time, SchedulerState state, boolean force) {
         if (!siddhiQueryContext.getSiddhiAppContext().isPlayback()) {
             if (!state.running && (state.toNotifyQueue.size() == 1 || force)) {
-                try {
-                    mutex.acquire();
+                synchronized (state) {
                     if (!state.running) {
                         state.running = true;
-                        long timeDiff = time - siddhiQueryContext.getSiddhiAppContext().
-                                getTimestampGenerator().currentTime();
-                        if (timeDiff > 0) {
-                            state.scheduledFuture = scheduledExecutorService.schedule(state.eventCaller,
-                                    timeDiff, TimeUnit.MILLISECONDS);
-                        } else {
-                            state.scheduledFuture = scheduledExecutorService.schedule(state.eventCaller,
-                                    0, TimeUnit.MILLISECONDS);
-                        }
+                        timerWheel.schedule(state.timer, time);
                     }
-
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.error("Error when scheduling System Time Based Scheduler", e);
-                } finally {
-                    mutex.release();
                 }
             }
         }
@@ -173,6 +155,8 @@ public class Scheduler implements ExternalReferencedHolder {
         long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
         while (toNotifyTime != null && toNotifyTime - currentTime <= 0) {
             state.toNotifyQueue.poll();
+            // The state is changed outside its state holder, hence marked for the next incremental snapshot
+            state.setModified(true);
             StreamEvent timerEvent = streamEventFactory.newInstance();
             timerEvent.setType(StreamEvent.Type.TIMER);
             timerEvent.setTimestamp(toNotifyTime);
@@ -212,10 +196,10 @@ public class Scheduler implements ExternalReferencedHolder {
      * Schedule events which are not scheduled in the queue when switching back from event time to system current time
      */
     public void switchToLiveMode() {
-        Map<String, Map<String, SchedulerState>> allStates = stateHolder.getAllStates();
+        Map<String, Map<Object, SchedulerState>> allStates = stateHolder.getAllStates();
         try {
-            for (Map.Entry<String, Map<String, SchedulerState>> allStatesEntry : allStates.entrySet()) {
-                for (Map.Entry<String, SchedulerState> stateEntry : allStatesEntry.getValue().entrySet()) {
+            for (Map.Entry<String, Map<Object, SchedulerState>> allStatesEntry : allStates.entrySet()) {
+                for (Map.Entry<Object, SchedulerState> stateEntry : allStatesEntry.getValue().entrySet()) {
                     Long toNotifyTime = stateEntry.getValue().toNotifyQueue.peek();
                     if (toNotifyTime != null) {
                         SiddhiAppContext.startPartitionFlow(allStatesEntry.getKey());
@@ -239,13 +223,11 @@ public class Scheduler implements ExternalReferencedHolder {
      * the acquired resources for processing.
      */
     public void switchToPlayBackMode() {
-        Map<String, Map<String, SchedulerState>> allStates = stateHolder.getAllStates();
+        Map<String, Map<Object, SchedulerState>> allStates = stateHolder.getAllStates();
         try {
-            for (Map.Entry<String, Map<String, SchedulerState>> allStatesEntry : allStates.entrySet()) {
-                for (Map.Entry<String, SchedulerState> stateEntry : allStatesEntry.getValue().entrySet()) {
-                    if (stateEntry.getValue().scheduledFuture != null) {
-                        stateEntry.getValue().scheduledFuture.cancel(true);
-                    }
+            for (Map.Entry<String, Map<Object, SchedulerState>> allStatesEntry : allStates.entrySet()) {
+                for (Map.Entry<Object, SchedulerState> stateEntry : allStatesEntry.getValue().entrySet()) {
+                    timerWheel.cancel(stateEntry.getValue().timer);
                     //Make the scheduler running flag to false to make sure scheduler will schedule next time starts
                     stateEntry.getValue().running = false;
                 }
@@ -294,25 +276,16 @@ public class Scheduler implements ExternalReferencedHolder {
                     sendTimerEvents(state);
 
                     Long toNotifyTime = state.toNotifyQueue.peek();
-                    long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
-
                     if (toNotifyTime != null) {
-                        state.scheduledFuture = scheduledExecutorService.
-                                schedule(this, toNotifyTime - currentTime, TimeUnit.MILLISECONDS);
+                        timerWheel.schedule(state.timer, toNotifyTime);
                     } else {
-                        try {
-                            mutex.acquire();
+                        synchronized (state) {
                             state.running = false;
-                            if (state.toNotifyQueue.peek() != null) {
+                            toNotifyTime = state.toNotifyQueue.peek();
+                            if (toNotifyTime != null) {
                                 state.running = true;
-                                state.scheduledFuture = scheduledExecutorService.schedule(this,
-                                        0, TimeUnit.MILLISECONDS);
+                                timerWheel.schedule(state.timer, toNotifyTime);
                             }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            log.error("Error when scheduling System Time Based Scheduler", e);
-                        } finally {
-                            mutex.release();
                         }
                     }
                 } else {
@@ -332,17 +305,16 @@ public class Scheduler implements ExternalReferencedHolder {
         private final BlockingQueue<Long> toNotifyQueue = new LinkedBlockingQueue<Long>();
         private final String key;
         private volatile boolean running = false;
-        private EventCaller eventCaller;
-        private ScheduledFuture scheduledFuture;
+        private final TimerWheel.Timer timer;
 
         public SchedulerState() {
             this.key = SiddhiAppContext.getPartitionFlowId();
-            this.eventCaller = new EventCaller(this, key);
+            this.timer = timerWheel.createTimer(new EventCaller(this, key));
         }
 
         @Override
         public boolean canDestroy() {
-            return toNotifyQueue.isEmpty() && (scheduledFuture == null || scheduledFuture.isDone());
+            return toNotifyQueue.isEmpty() && !timer.isPending();
         }
 
         @Override
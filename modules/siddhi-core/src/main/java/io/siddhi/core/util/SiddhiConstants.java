@@ -47,7 +47,15 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_NAME = "Name";
     public static final String ANNOTATION_PLAYBACK = "Playback";
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
+    public static final String ANNOTATION_COMPILE_EXPRESSIONS = "CompileExpressions";
+    public static final String ANNOTATION_INDEX_PREDICATES = "IndexPredicates";
+    public static final String ANNOTATION_SHARE_EVENT_CONVERSION = "ShareEventConversion";
+    public static final String ANNOTATION_PRIMITIVE_ATTRIBUTES = "PrimitiveAttributes";
+    public static final String ANNOTATION_COLUMNAR_BATCHES = "ColumnarBatches";
+    public static final String ANNOTATION_ASYNC_SNAPSHOT = "AsyncSnapshot";
+    public static final String ANNOTATION_WINDOW_INDEXES = "WindowIndexes";
     public static final String ANNOTATION_ASYNC = "Async";
+    public static final String ANNOTATION_PARALLEL = "Parallel";
 
     public static final String ANNOTATION_ON_ERROR = "OnError";
     public static final String FAULT_STREAM_PREFIX = "!";
@@ -70,6 +78,9 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
     public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
     public static final String ANNOTATION_ELEMENT_MAX_BATCH_SIZE = "batch.size.max";
+    public static final String ANNOTATION_ELEMENT_KEY = "key";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_PRODUCER = "producer";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
@@ -81,10 +92,20 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ELEMENT_INTERVAL = "interval";
     public static final String ANNOTATION_ELEMENT_INCLUDE = "include";
     public static final String ANNOTATION_PARTITION_BY_ID = "PartitionById";
+    public static final String ANNOTATION_EVENT_POOL = "EventPool";
+    public static final String ANNOTATION_ELEMENT_SIZE = "size";
+    public static final String ANNOTATION_LOCK_STRIPES = "LockStripes";
+    public static final String ANNOTATION_TIME_PANES = "TimePanes";
+    public static final String ANNOTATION_STATE_SPILL = "StateSpill";
+    public static final String ANNOTATION_SHARE_WINDOWS = "ShareWindows";
+    public static final String ANNOTATION_SHARE_WINDOW = "ShareWindow";
+    public static final String ANNOTATION_ELEMENT_DIR = "dir";
 
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_LOCK_STRIPES = 16;
+    public static final int DEFAULT_TIME_PANES = 60;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -96,6 +117,8 @@ public final class SiddhiConstants {
 
     public static final String METRIC_INFIX_SIDDHI_APPS = "SiddhiApps";
     public static final String METRIC_INFIX_STREAMS = "Streams";
+    public static final String METRIC_INFIX_WORKER = "worker";
+    public static final String METRIC_INFIX_STATES = "states";
     public static final String METRIC_INFIX_STORE_QUERIES = "StoreQueries";
     public static final String METRIC_INFIX_TABLES = "Tables";
     public static final String METRIC_INFIX_TRIGGERS = "Trigger";
@@ -107,6 +130,18 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_SOURCE_MAPPERS = "SourceMappers";
     public static final String METRIC_INFIX_SINKS = "Sinks";
     public static final String METRIC_INFIX_SINK_MAPPERS = "SinkMappers";
+    public static final String METRIC_INFIX_EVENT_POOLS = "EventPools";
+    public static final String METRIC_INFIX_TIMERS = "Timers";
+    public static final String METRIC_INFIX_STATE_SPILL = "StateSpill";
+    public static final String METRIC_INFIX_SNAPSHOTS = "Snapshots";
+    public static final String METRIC_TYPE_POOL_HIT = "hit";
+    public static final String METRIC_TYPE_POOL_MISS = "miss";
+    public static final String METRIC_TYPE_SPILL_FAULT = "fault";
+    public static final String METRIC_TYPE_SPILL_FAULT_LATENCY = "faultLatency";
+    public static final String METRIC_TYPE_SPILLED = "spilled";
+    public static final String METRIC_TYPE_SNAPSHOT_PAUSE_TIME = "pauseTime";
+    public static final String METRIC_TYPE_SNAPSHOT_DURATION = "duration";
+    public static final String METRIC_TYPE_LAG = "lag";
     public static final String METRIC_TYPE_FIND = "find";
     public static final String METRIC_TYPE_INSERT = "insert";
     public static final String METRIC_TYPE_UPDATE = "update";
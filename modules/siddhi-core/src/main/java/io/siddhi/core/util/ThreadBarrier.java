@@ -28,9 +28,22 @@ public class ThreadBarrier {
 
     private ReentrantLock lock = new ReentrantLock();
     private AtomicInteger counter = new AtomicInteger();
+    // Whether threads may enter the barrier again before exiting, as done by partition workers reaching an entry
+    // valve. Set while the Siddhi app is created, hence the enter counts are only tracked for such apps.
+    private boolean reentrant = false;
+    // Number of times the current thread has entered the barrier without exiting, as threads already within the
+    // barrier are counted as active and should not block
+    private ThreadLocal<int[]> enterCount = ThreadLocal.withInitial(() -> new int[1]);
 
     public void enter() {
-        if (lock.isLocked()) {
+        if (reentrant) {
+            int[] count = enterCount.get();
+            if (count[0] == 0 && lock.isLocked()) {
+                lock.lock();
+                lock.unlock();
+            }
+            count[0]++;
+        } else if (lock.isLocked()) {
             lock.lock();
             lock.unlock();
         }
@@ -39,9 +52,20 @@ public class ThreadBarrier {
 
 
     public void exit() {
+        if (reentrant) {
+            enterCount.get()[0]--;
+        }
         counter.decrementAndGet();
     }
 
+    /**
+     * Lets threads enter the barrier again before exiting, without blocking on a lock taken in between. Should be
+     * called before the Siddhi app starts processing events.
+     */
+    public void enableReentry() {
+        reentrant = true;
+    }
+
     public int getActiveThreads() {
         return counter.get();
     }
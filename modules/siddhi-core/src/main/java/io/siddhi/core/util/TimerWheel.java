@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel used by the {@link Scheduler}s of a Siddhi App to fire their timers in system time.
+ * <p>
+ * Timers are kept in doubly linked lists at the slots of the wheel, such that they can be scheduled and cancelled
+ * in constant time. Each level has 64 slots, where a slot of the first level spans one millisecond and a slot of
+ * each following level spans a full rotation of the previous level. Timers of the higher levels are moved to the
+ * lower levels as the wheel advances. A single task on the scheduled executor service drives the wheel, waking up
+ * only when timers are due, and runs all the timers due at the same tick as a batch.
+ */
+public class TimerWheel {
+
+    private static final Logger log = Logger.getLogger(TimerWheel.class);
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    private static final int LEVEL_COUNT = 6;
+    private static final long WHEEL_SPAN = 1L << (SLOT_BITS * LEVEL_COUNT);
+
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Timer[][] slots = new Timer[LEVEL_COUNT][SLOT_COUNT];
+    private final int[] levelSizes = new int[LEVEL_COUNT];
+    private final Runnable driver = this::fireDueTimers;
+    private Timer dueTimers;
+    private int size;
+    private long currentTime = -1;
+    private ScheduledFuture driverFuture;
+    private long driverWakeUpTime = Long.MAX_VALUE;
+    // Earliest due time of the batch of timers being fired, as they are no longer pending in the wheel
+    private long firingDueTime = Long.MAX_VALUE;
+
+    public TimerWheel(ScheduledExecutorService scheduledExecutorService) {
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    /**
+     * Creates a timer, which can be scheduled many times but has at most one pending firing at a time.
+     *
+     * @param task task to run when the timer fires
+     * @return timer
+     */
+    public Timer createTimer(Runnable task) {
+        return new Timer(task);
+    }
+
+    /**
+     * Schedules the timer to fire at the given system time, replacing its pending firing if any.
+     *
+     * @param timer timer
+     * @param time  system time in milliseconds
+     */
+    public void schedule(Timer timer, long time) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (currentTime == -1 || size == 0) {
+                currentTime = Math.max(currentTime, now);
+            }
+            if (timer.pending) {
+                unlink(timer);
+            }
+            timer.time = time;
+            insert(timer);
+            if (time < driverWakeUpTime) {
+                scheduleDriver(time, now);
+            }
+        }
+    }
+
+    /**
+     * Cancels the pending firing of the timer, if any.
+     *
+     * @param timer timer
+     */
+    public synchronized void cancel(Timer timer) {
+        if (timer.pending) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * @return number of pending timers
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return current delay of the oldest timer which is due but not fired yet, in milliseconds, or 0 if no timer is
+     * overdue
+     */
+    public long getLag() {
+        long now = System.currentTimeMillis();
+        long dueTime;
+        synchronized (this) {
+            dueTime = Math.min(firingDueTime, getNextWakeUpTime());
+        }
+        return dueTime < now ? now - dueTime : 0;
+    }
+
+    private void fireDueTimers() {
+        long now = System.currentTimeMillis();
+        List<Timer> timers = new ArrayList<>();
+        synchronized (this) {
+            driverFuture = null;
+            driverWakeUpTime = Long.MAX_VALUE;
+            advance(now, timers);
+            for (Timer timer : timers) {
+                firingDueTime = Math.min(firingDueTime, timer.time);
+            }
+        }
+        for (Timer timer : timers) {
+            try {
+                timer.task.run();
+            } catch (Throwable t) {
+                log.error("Error while firing timer, " + t.getMessage(), t);
+            }
+        }
+        synchronized (this) {
+            firingDueTime = Long.MAX_VALUE;
+            long wakeUpTime = getNextWakeUpTime();
+            if (wakeUpTime < driverWakeUpTime) {
+                scheduleDriver(wakeUpTime, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel up to the given time, collecting the due timers.
+     */
+    private void advance(long now, List<Timer> timers) {
+        collectDueTimers(timers);
+        while (currentTime < now && size > 0) {
+            long tick = currentTime + 1;
+            if (levelSizes[0] == 0) {
+                // Nothing can be due until the first level is refilled at the end of its rotation
+                tick = (currentTime | SLOT_MASK) + 1;
+                if (tick > now) {
+                    break;
+                }
+            }
+            currentTime = tick;
+            for (int level = LEVEL_COUNT - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                }
+            }
+            int slot = (int) (tick & SLOT_MASK);
+            Timer timer = slots[0][slot];
+            while (timer != null) {
+                Timer next = timer.next;
+                unlink(timer);
+                timers.add(timer);
+                timer = next;
+            }
+            collectDueTimers(timers);
+        }
+        currentTime = Math.max(currentTime, now);
+    }
+
+    private void collectDueTimers(List<Timer> timers) {
+        Timer timer = dueTimers;
+        while (timer != null) {
+            Timer next = timer.next;
+            unlink(timer);
+            timers.add(timer);
+            timer = next;
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timer timer = slots[level][slot];
+        while (timer != null) {
+            Timer next = timer.next;
+            unlink(timer);
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer timer) {
+        long delay = timer.time - currentTime;
+        if (delay <= 0) {
+            link(timer, -1, 0);
+            return;
+        }
+        long time = delay < WHEEL_SPAN ? timer.time : currentTime + WHEEL_SPAN - 1;
+        int level = 0;
+        while (level < LEVEL_COUNT - 1 && (delay >>> (SLOT_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        link(timer, level, (int) ((time >>> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    private void link(Timer timer, int level, int slot) {
+        Timer head = level == -1 ? dueTimers : slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        if (level == -1) {
+            dueTimers = timer;
+        } else {
+            slots[level][slot] = timer;
+            levelSizes[level]++;
+        }
+        timer.pending = true;
+        size++;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else if (timer.level == -1) {
+            dueTimers = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        if (timer.level != -1) {
+            levelSizes[timer.level]--;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.pending = false;
+        size--;
+    }
+
+    /**
+     * @return the earliest time at which timers can be due or have to be moved to a lower level
+     */
+    private long getNextWakeUpTime() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        if (dueTimers != null) {
+            return currentTime;
+        }
+        long wakeUpTime = Long.MAX_VALUE;
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            if (levelSizes[level] == 0) {
+                continue;
+            }
+            int shift = SLOT_BITS * level;
+            for (long i = 1; i <= SLOT_COUNT; i++) {
+                long slotTime = ((currentTime >>> shift) + i) << shift;
+                if (slots[level][(int) ((slotTime >>> shift) & SLOT_MASK)] != null) {
+                    wakeUpTime = Math.min(wakeUpTime, slotTime);
+                    break;
+                }
+            }
+        }
+        return wakeUpTime;
+    }
+
+    private void scheduleDriver(long wakeUpTime, long now) {
+        if (scheduledExecutorService.isShutdown()) {
+            return;
+        }
+        if (driverFuture != null) {
+            driverFuture.cancel(false);
+        }
+        driverWakeUpTime = wakeUpTime;
+        try {
+            driverFuture = scheduledExecutorService.schedule(driver, Math.max(0, wakeUpTime - now),
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Ignored as the scheduled executor service is shutting down
+            driverFuture = null;
+            driverWakeUpTime = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Timer of the {@link TimerWheel}, which is linked to the slot it is waiting at.
+     */
+    public static class Timer {
+        private final Runnable task;
+        private long time;
+        private volatile boolean pending;
+        private int level;
+        private int slot;
+        private Timer previous;
+        private Timer next;
+
+        private Timer(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * @return whether the timer is waiting to be fired
+         */
+        public boolean isPending() {
+            return pending;
+        }
+    }
+}
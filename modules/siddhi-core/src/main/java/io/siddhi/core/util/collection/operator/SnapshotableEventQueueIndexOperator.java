@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection.operator;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.holder.IndexedStreamEventQueueHolder;
+import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Operator finding the events of a window kept in a {@link SnapshotableStreamEventQueue} through an index of the
+ * queue. The events satisfying the equality or range comparison on the indexed attribute are looked up from the
+ * index, and only they are matched against the whole condition, keeping the order of the window.
+ */
+public class SnapshotableEventQueueIndexOperator extends SnapshotableEventQueueOperator {
+
+    private final String attribute;
+    private final Compare.Operator operator;
+    private final ExpressionExecutor valueExpressionExecutor;
+    private final Map<String, VariableExpressionExecutor> indexedAttributes;
+
+    public SnapshotableEventQueueIndexOperator(ExpressionExecutor expressionExecutor, int storeEventPosition,
+                                               String attribute, VariableExpressionExecutor attributeExecutor,
+                                               Compare.Operator operator,
+                                               ExpressionExecutor valueExpressionExecutor) {
+        super(expressionExecutor, storeEventPosition);
+        this.attribute = attribute;
+        this.operator = operator;
+        this.valueExpressionExecutor = valueExpressionExecutor;
+        this.indexedAttributes = Collections.singletonMap(attribute, attributeExecutor);
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Compare.Operator getOperator() {
+        return operator;
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        for (StreamEvent storeEvent : findCandidates(matchingEvent, storeEvents)) {
+            matchingEvent.setEvent(storeEventPosition, storeEvent);
+            if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            }
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object storeEvents) {
+        try {
+            for (StreamEvent storeEvent : findCandidates(matchingEvent, storeEvents)) {
+                matchingEvent.setEvent(storeEventPosition, storeEvent);
+                if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+    }
+
+    private Collection<StreamEvent> findCandidates(StateEvent matchingEvent, Object storeEvents) {
+        return new IndexedStreamEventQueueHolder((SnapshotableStreamEventQueue) storeEvents, indexedAttributes)
+                .findEvents(attribute, operator, valueExpressionExecutor.execute(matchingEvent));
+    }
+}
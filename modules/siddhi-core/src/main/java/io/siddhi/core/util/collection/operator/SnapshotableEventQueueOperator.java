@@ -119,6 +119,7 @@ public class SnapshotableEventQueueOperator implements Operator {
                     StreamEvent storeEvent = storeEventQueue.next();
                     updatingEvent.setEvent(storeEventPosition, storeEvent);
                     if ((Boolean) expressionExecutor.execute(updatingEvent)) {
+                        storeEventQueue.detachSnapshot();
                         for (Map.Entry<Integer, ExpressionExecutor> entry :
                                 compiledUpdateSet.getExpressionExecutorMap().entrySet()) {
                             Object value = entry.getValue().execute(updatingEvent);
@@ -151,6 +152,7 @@ public class SnapshotableEventQueueOperator implements Operator {
                     StreamEvent storeEvent = storeEventQueue.next();
                     overwritingOrAddingEvent.setEvent(storeEventPosition, storeEvent);
                     if ((Boolean) expressionExecutor.execute(overwritingOrAddingEvent)) {
+                        storeEventQueue.detachSnapshot();
                         for (Map.Entry<Integer, ExpressionExecutor> entry :
                                 compiledUpdateSet.getExpressionExecutorMap().entrySet()) {
                             storeEvent.setOutputData(entry.getValue().
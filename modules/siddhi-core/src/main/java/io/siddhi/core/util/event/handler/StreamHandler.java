@@ -19,8 +19,11 @@
 package io.siddhi.core.util.event.handler;
 
 import com.lmax.disruptor.EventHandler;
+import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.statistics.ThroughputTracker;
+import io.siddhi.core.util.statistics.metrics.Level;
 import org.apache.log4j.Logger;
 
 import java.beans.ExceptionListener;
@@ -41,6 +44,8 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
     private List<StreamJunction.Receiver> receivers;
     private int batchSize;
     private List<Event> eventBuffer = new LinkedList<>();
+    private ThroughputTracker throughputTracker;
+    private SiddhiAppContext siddhiAppContext;
 
     public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
                          String streamName, String siddhiAppName, StreamJunction faultStreamJunction,
@@ -54,11 +59,25 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
         this.exceptionListener = exceptionListener;
     }
 
+    public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
+                         String streamName, String siddhiAppName, StreamJunction faultStreamJunction,
+                         StreamJunction.OnErrorAction onErrorAction, ExceptionListener exceptionListener,
+                         ThroughputTracker throughputTracker, SiddhiAppContext siddhiAppContext) {
+        this(receivers, batchSize, streamName, siddhiAppName, faultStreamJunction, onErrorAction,
+                exceptionListener);
+        this.throughputTracker = throughputTracker;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
     public void onEvent(EventExchangeHolder eventExchangeHolder, long sequence, boolean endOfBatch) {
         boolean isProcessed = eventExchangeHolder.getAndSetIsProcessed(true);
         if (!isProcessed) {
             eventBuffer.add(eventExchangeHolder.getEvent());
             if (eventBuffer.size() == batchSize || endOfBatch) {
+                if (throughputTracker != null &&
+                        Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                    throughputTracker.eventsIn(eventBuffer.size());
+                }
                 for (StreamJunction.Receiver receiver : receivers) {
                     try {
                         receiver.receive(eventBuffer);
@@ -70,6 +89,10 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
             }
         } else if (endOfBatch) {
             if (eventBuffer.size() != 0) {
+                if (throughputTracker != null &&
+                        Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                    throughputTracker.eventsIn(eventBuffer.size());
+                }
                 for (StreamJunction.Receiver receiver : receivers) {
                     try {
                         receiver.receive(eventBuffer);
@@ -25,6 +25,8 @@ import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.query.input.stream.StreamRuntime;
+import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
+import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.window.Window;
 import io.siddhi.query.api.definition.AbstractDefinition;
@@ -74,16 +76,23 @@ public class InputStreamParser {
         if (inputStream instanceof BasicSingleInputStream || inputStream instanceof SingleInputStream) {
             SingleInputStream singleInputStream = (SingleInputStream) inputStream;
             Window window = windowMap.get(singleInputStream.getStreamId());
-            boolean batchProcessingAllowed = window != null;      // If stream is from window, allow batch
-            // processing
+            // If stream is from window, allow batch processing, unless the window is shared by queries defining
+            // it, which have to process its events as done by their own windows
+            boolean sharedWindow = window != null && window.isShared();
+            boolean batchProcessingAllowed = window != null && !sharedWindow;
             ProcessStreamReceiver processStreamReceiver = new ProcessStreamReceiver(singleInputStream.getStreamId(),
                     siddhiQueryContext);
             processStreamReceiver.setBatchProcessingAllowed(batchProcessingAllowed);
-            return SingleInputStreamParser.parseInputStream((SingleInputStream) inputStream,
-                    executors, streamDefinitionMap,
+            SingleStreamRuntime singleStreamRuntime = SingleInputStreamParser.parseInputStream(
+                    (SingleInputStream) inputStream, executors, streamDefinitionMap,
                     tableDefinitionMap, windowDefinitionMap, aggregationDefinitionMap, tableMap,
                     new MetaStreamEvent(), processStreamReceiver, true,
                     outputExpectsExpiredEvents, false, false, siddhiQueryContext);
+            if (sharedWindow) {
+                singleStreamRuntime.setProcessingMode(ProcessingMode.findUpdatedProcessingMode(
+                        window.getProcessingMode(), singleStreamRuntime.getProcessingMode()));
+            }
+            return singleStreamRuntime;
         } else if (inputStream instanceof JoinInputStream) {
             return JoinInputStreamParser.parseInputStream(((JoinInputStream) inputStream),
                     query, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap,
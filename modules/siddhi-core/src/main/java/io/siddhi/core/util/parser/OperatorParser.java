@@ -21,29 +21,43 @@ package io.siddhi.core.util.parser;
 import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.holder.IndexedStreamEventQueueHolder;
 import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
 import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.CacheTable;
 import io.siddhi.core.table.Table;
+import io.siddhi.core.table.holder.EventHolder;
 import io.siddhi.core.table.holder.IndexedEventHolder;
+import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.collection.executor.CollectionExecutor;
+import io.siddhi.core.util.collection.expression.AndCollectionExpression;
 import io.siddhi.core.util.collection.expression.AndMultiPrimaryKeyCollectionExpression;
 import io.siddhi.core.util.collection.expression.AttributeCollectionExpression;
 import io.siddhi.core.util.collection.expression.CollectionExpression;
 import io.siddhi.core.util.collection.expression.CompareCollectionExpression;
 import io.siddhi.core.util.collection.operator.*;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.annotation.Element;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.definition.WindowDefinition;
 import io.siddhi.query.api.expression.Expression;
 import io.siddhi.query.api.expression.Variable;
 import io.siddhi.query.api.expression.condition.Compare;
+import io.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static io.siddhi.core.util.collection.expression.CollectionExpression.CollectionScope.INDEXED_ATTRIBUTE;
 import static io.siddhi.core.util.collection.expression.CollectionExpression.CollectionScope.INDEXED_RESULT_SET;
 import static io.siddhi.core.util.collection.expression.CollectionExpression.CollectionScope.PRIMARY_KEY_RESULT_SET;
 
@@ -86,6 +100,14 @@ public class OperatorParser {
                     ProcessingMode.BATCH, false, siddhiQueryContext);
             return new EventChunkOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
         } else if (storeEvents instanceof SnapshotableStreamEventQueue) {
+            Operator indexOperator = null;
+            if (!(storeEvents instanceof EventHolder)) {
+                indexOperator = constructWindowIndexOperator(expression, matchingMetaInfoHolder,
+                        variableExpressionExecutors, tableMap, siddhiQueryContext);
+            }
+            if (indexOperator != null) {
+                return indexOperator;
+            }
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                     matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
                     variableExpressionExecutors, false, 0,
@@ -144,6 +166,120 @@ public class OperatorParser {
                 tableMap, siddhiQueryContext);
     }
 
+    /**
+     * Constructs an operator finding the events of a window through indexes on its attributes, when the window
+     * declares them with an {@link SiddhiConstants#ANNOTATION_INDEX} annotation, or when the Siddhi App infers them
+     * from the conditions with {@link SiddhiConstants#ANNOTATION_WINDOW_INDEXES}.
+     *
+     * @return the operator, or null if the condition has no comparisons that can use the indexes
+     */
+    private static Operator constructWindowIndexOperator(Expression expression,
+                                                         MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                         List<VariableExpressionExecutor> variableExpressionExecutors,
+                                                         Map<String, Table> tableMap,
+                                                         SiddhiQueryContext siddhiQueryContext) {
+        AbstractDefinition storeDefinition = matchingMetaInfoHolder.getStoreDefinition();
+        Map<String, VariableExpressionExecutor> candidateAttributes = new HashMap<>();
+        Annotation indexAnnotation = null;
+        if (storeDefinition instanceof WindowDefinition) {
+            indexAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX,
+                    storeDefinition.getAnnotations());
+        }
+        if (indexAnnotation != null) {
+            for (Element element : indexAnnotation.getElements()) {
+                String attributeName = element.getValue().trim();
+                if (!isIndexableType(storeDefinition.getAttributeType(attributeName))) {
+                    throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_INDEX + " annotation of window '" +
+                            storeDefinition.getId() + "' contains attribute '" + attributeName + "' of type " +
+                            storeDefinition.getAttributeType(attributeName) + ", which cannot be indexed",
+                            indexAnnotation.getQueryContextStartIndex(), indexAnnotation.getQueryContextEndIndex());
+                }
+                candidateAttributes.put(attributeName, null);
+            }
+        } else if (siddhiQueryContext.getSiddhiAppContext().isWindowIndexes()) {
+            for (Attribute attribute : storeDefinition.getAttributeList()) {
+                if (isIndexableType(attribute.getType())) {
+                    candidateAttributes.put(attribute.getName(), null);
+                }
+            }
+        }
+        if (candidateAttributes.isEmpty()) {
+            return null;
+        }
+        CollectionExpression collectionExpression = CollectionExpressionParser.parseCollectionExpression(
+                expression, matchingMetaInfoHolder, new IndexedStreamEventQueueHolder(null, candidateAttributes));
+        CollectionExpression probeExpression = selectIndexProbe(collectionExpression);
+        if (probeExpression == null) {
+            return null;
+        }
+        AttributeCollectionExpression attributeExpression;
+        Compare.Operator operator;
+        ExpressionExecutor valueExpressionExecutor;
+        if (probeExpression instanceof CompareCollectionExpression) {
+            attributeExpression = (AttributeCollectionExpression)
+                    ((CompareCollectionExpression) probeExpression).getAttributeCollectionExpression();
+            operator = ((CompareCollectionExpression) probeExpression).getOperator();
+            valueExpressionExecutor = ExpressionParser.parseExpression(
+                    ((CompareCollectionExpression) probeExpression).getValueCollectionExpression().getExpression(),
+                    matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                    variableExpressionExecutors, false, 0,
+                    ProcessingMode.BATCH, false, siddhiQueryContext);
+        } else {
+            attributeExpression = (AttributeCollectionExpression) probeExpression;
+            operator = Compare.Operator.EQUAL;
+            valueExpressionExecutor = new ConstantExpressionExecutor(true, Attribute.Type.BOOL);
+        }
+        VariableExpressionExecutor attributeExecutor = (VariableExpressionExecutor) ExpressionParser.parseExpression(
+                attributeExpression.getExpression(), matchingMetaInfoHolder.getMetaStateEvent(),
+                matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, false, 0,
+                ProcessingMode.BATCH, false, siddhiQueryContext);
+        ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
+                matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                variableExpressionExecutors, false, 0,
+                ProcessingMode.BATCH, false, siddhiQueryContext);
+        return new SnapshotableEventQueueIndexOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex(),
+                attributeExpression.getAttribute(), attributeExecutor, operator, valueExpressionExecutor);
+    }
+
+    /**
+     * Selects the comparison on an indexed attribute which has to hold for the whole condition to hold, preferring
+     * equality over range comparisons.
+     *
+     * @return the comparison, or null if there is none
+     */
+    private static CollectionExpression selectIndexProbe(CollectionExpression collectionExpression) {
+        if (collectionExpression instanceof CompareCollectionExpression) {
+            if (collectionExpression.getCollectionScope() == INDEXED_RESULT_SET &&
+                    ((CompareCollectionExpression) collectionExpression).getOperator() != Compare.Operator.NOT_EQUAL) {
+                return collectionExpression;
+            }
+        } else if (collectionExpression instanceof AttributeCollectionExpression) {
+            if (collectionExpression.getCollectionScope() == INDEXED_ATTRIBUTE) {
+                return collectionExpression;
+            }
+        } else if (collectionExpression instanceof AndCollectionExpression) {
+            CollectionExpression leftProbe = selectIndexProbe(
+                    ((AndCollectionExpression) collectionExpression).getLeftCollectionExpression());
+            CollectionExpression rightProbe = selectIndexProbe(
+                    ((AndCollectionExpression) collectionExpression).getRightCollectionExpression());
+            if (leftProbe == null || (rightProbe != null && !isEqualityProbe(leftProbe) &&
+                    isEqualityProbe(rightProbe))) {
+                return rightProbe;
+            }
+            return leftProbe;
+        }
+        return null;
+    }
+
+    private static boolean isEqualityProbe(CollectionExpression probeExpression) {
+        return probeExpression instanceof AttributeCollectionExpression ||
+                ((CompareCollectionExpression) probeExpression).getOperator() == Compare.Operator.EQUAL;
+    }
+
+    private static boolean isIndexableType(Attribute.Type type) {
+        return type != Attribute.Type.OBJECT;
+    }
+
     private static boolean isTableIndexVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression,
                                                 String indexAttribute) {
         if (expression instanceof Variable) {
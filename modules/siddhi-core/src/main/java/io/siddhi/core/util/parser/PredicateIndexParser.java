@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.parser;
+
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.compiled.CompiledConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.greaterthanequal.GreaterThanEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.query.input.ProcessStreamReceiver;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
+import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.stream.predicate.IndexedPredicate;
+import io.siddhi.core.stream.predicate.PredicateIndex;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This parser generates the {@link PredicateIndex} of a stream, by extracting the simple predicates of the filters
+ * of the queries consuming the stream.
+ */
+public class PredicateIndexParser {
+
+    private PredicateIndexParser() {
+
+    }
+
+    /**
+     * Create the predicate index for the receivers of a stream.
+     *
+     * @param streamDefinition definition of the stream
+     * @param receivers        receivers of the stream in their subscription order
+     * @return predicate index, or null if less than two receivers have indexable predicates
+     */
+    public static PredicateIndex parse(StreamDefinition streamDefinition, List<StreamJunction.Receiver> receivers) {
+        List<List<IndexedPredicate>> predicates = new ArrayList<>(receivers.size());
+        int indexedReceivers = 0;
+        for (StreamJunction.Receiver receiver : receivers) {
+            List<IndexedPredicate> receiverPredicates = null;
+            // Only receivers of single stream and join queries directly feed the events to the filter.
+            if (receiver.getClass() == ProcessStreamReceiver.class) {
+                ProcessStreamReceiver processStreamReceiver = (ProcessStreamReceiver) receiver;
+                if (processStreamReceiver.getSiddhiDebugger() == null &&
+                        processStreamReceiver.getNext() instanceof FilterProcessor) {
+                    receiverPredicates = parseCondition(((FilterProcessor) processStreamReceiver.getNext())
+                            .getConditionExecutor(), streamDefinition);
+                }
+            }
+            if (receiverPredicates != null) {
+                indexedReceivers++;
+            }
+            predicates.add(receiverPredicates);
+        }
+        if (indexedReceivers < 2) {
+            return null;
+        }
+        return new PredicateIndex(predicates);
+    }
+
+    /**
+     * Extract predicates such that any event satisfying the condition satisfies at least one of the predicates.
+     *
+     * @param executor         condition executor
+     * @param streamDefinition definition of the stream
+     * @return extracted predicates, or null if the condition cannot be indexed
+     */
+    private static List<IndexedPredicate> parseCondition(ExpressionExecutor executor,
+                                                         StreamDefinition streamDefinition) {
+        if (executor instanceof CompiledConditionExpressionExecutor) {
+            executor = ((CompiledConditionExpressionExecutor) executor).getInterpretedExecutor();
+        }
+        if (executor instanceof AndConditionExpressionExecutor) {
+            AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) executor;
+            List<IndexedPredicate> left = parseCondition(andExecutor.getLeftConditionExecutor(), streamDefinition);
+            List<IndexedPredicate> right = parseCondition(andExecutor.getRightConditionExecutor(),
+                    streamDefinition);
+            if (left == null || right == null) {
+                return left == null ? right : left;
+            }
+            if (left.size() == 1 && right.size() == 1) {
+                IndexedPredicate intersection = left.get(0).intersect(right.get(0));
+                if (intersection != null) {
+                    return Collections.singletonList(intersection);
+                }
+                if (right.get(0).isEquality()) {
+                    return right;
+                }
+            }
+            return left.size() <= right.size() ? left : right;
+        } else if (executor instanceof OrConditionExpressionExecutor) {
+            OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) executor;
+            List<IndexedPredicate> left = parseCondition(orExecutor.getLeftConditionExecutor(), streamDefinition);
+            List<IndexedPredicate> right = parseCondition(orExecutor.getRightConditionExecutor(), streamDefinition);
+            if (left == null || right == null) {
+                return null;
+            }
+            List<IndexedPredicate> predicates = new ArrayList<>(left);
+            predicates.addAll(right);
+            return predicates;
+        } else if (executor instanceof CompareConditionExpressionExecutor) {
+            IndexedPredicate predicate = parseCompare((CompareConditionExpressionExecutor) executor,
+                    streamDefinition);
+            return predicate == null ? null : Collections.singletonList(predicate);
+        }
+        return null;
+    }
+
+    private static IndexedPredicate parseCompare(CompareConditionExpressionExecutor compareExecutor,
+                                                 StreamDefinition streamDefinition) {
+        ExpressionExecutor leftExecutor = compareExecutor.getLeftExpressionExecutor();
+        ExpressionExecutor rightExecutor = compareExecutor.getRightExpressionExecutor();
+        boolean flipped = false;
+        if (leftExecutor instanceof ConstantExpressionExecutor &&
+                rightExecutor instanceof VariableExpressionExecutor) {
+            ExpressionExecutor temp = leftExecutor;
+            leftExecutor = rightExecutor;
+            rightExecutor = temp;
+            flipped = true;
+        }
+        if (!(leftExecutor instanceof VariableExpressionExecutor) ||
+                !(rightExecutor instanceof ConstantExpressionExecutor)) {
+            return null;
+        }
+        Attribute attribute = ((VariableExpressionExecutor) leftExecutor).getAttribute();
+        Object constant = ((ConstantExpressionExecutor) rightExecutor).getValue();
+        if (constant == null) {
+            return null;
+        }
+        int attributePosition = -1;
+        List<Attribute> attributeList = streamDefinition.getAttributeList();
+        for (int i = 0; i < attributeList.size(); i++) {
+            if (attributeList.get(i).getName().equals(attribute.getName()) &&
+                    attributeList.get(i).getType() == attribute.getType()) {
+                attributePosition = i;
+                break;
+            }
+        }
+        if (attributePosition == -1) {
+            return null;
+        }
+        Attribute.Type compareType = getCompareType(attribute.getType(), rightExecutor.getReturnType());
+        if (compareType == null) {
+            return null;
+        }
+
+        if (compareExecutor instanceof EqualCompareConditionExpressionExecutor) {
+            return IndexedPredicate.equal(attributePosition, compareType, constant);
+        } else if (compareType == Attribute.Type.STRING || compareType == Attribute.Type.BOOL) {
+            return null;
+        } else if (compareExecutor instanceof GreaterThanCompareConditionExpressionExecutor) {
+            return flipped ? IndexedPredicate.lessThan(attributePosition, compareType, constant, false) :
+                    IndexedPredicate.greaterThan(attributePosition, compareType, constant, false);
+        } else if (compareExecutor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+            return flipped ? IndexedPredicate.lessThan(attributePosition, compareType, constant, true) :
+                    IndexedPredicate.greaterThan(attributePosition, compareType, constant, true);
+        } else if (compareExecutor instanceof LessThanCompareConditionExpressionExecutor) {
+            return flipped ? IndexedPredicate.greaterThan(attributePosition, compareType, constant, false) :
+                    IndexedPredicate.lessThan(attributePosition, compareType, constant, false);
+        } else if (compareExecutor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+            return flipped ? IndexedPredicate.greaterThan(attributePosition, compareType, constant, true) :
+                    IndexedPredicate.lessThan(attributePosition, compareType, constant, true);
+        }
+        return null;
+    }
+
+    /**
+     * @return the type in which the compare executors compare the given types, where int is compared as long
+     */
+    private static Attribute.Type getCompareType(Attribute.Type attributeType, Attribute.Type constantType) {
+        if (attributeType == Attribute.Type.STRING || attributeType == Attribute.Type.BOOL ||
+                constantType == Attribute.Type.STRING || constantType == Attribute.Type.BOOL) {
+            return attributeType == constantType ? attributeType : null;
+        } else if (attributeType == Attribute.Type.OBJECT || constantType == Attribute.Type.OBJECT) {
+            return null;
+        } else if (attributeType == Attribute.Type.DOUBLE || constantType == Attribute.Type.DOUBLE) {
+            return Attribute.Type.DOUBLE;
+        } else if (attributeType == Attribute.Type.FLOAT || constantType == Attribute.Type.FLOAT) {
+            return Attribute.Type.FLOAT;
+        }
+        return Attribute.Type.LONG;
+    }
+}
@@ -48,16 +48,19 @@ import io.siddhi.core.util.lock.LockWrapper;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.window.Window;
+import io.siddhi.query.api.annotation.Annotation;
 import io.siddhi.query.api.annotation.Element;
 import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.exception.DuplicateDefinitionException;
 import io.siddhi.query.api.execution.query.Query;
 import io.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import io.siddhi.query.api.execution.query.input.stream.InputStream;
 import io.siddhi.query.api.execution.query.input.stream.JoinInputStream;
 import io.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import io.siddhi.query.api.execution.query.output.ratelimit.SnapshotOutputRate;
 import io.siddhi.query.api.execution.query.output.stream.OutputStream;
 import io.siddhi.query.api.util.AnnotationHelper;
+import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,6 +71,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * Class to parse {@link QueryRuntime}.
  */
 public class QueryParser {
+    private static final Logger log = Logger.getLogger(QueryParser.class);
 
     /**
      * Parse a query and return corresponding QueryRuntime.
@@ -115,7 +119,6 @@ public class QueryParser {
             latencyTracker = QueryParserHelper.createLatencyTracker(siddhiAppContext, siddhiQueryContext.getName(),
                     SiddhiConstants.METRIC_INFIX_QUERIES, null);
             siddhiQueryContext.setLatencyTracker(latencyTracker);
-
             OutputStream.OutputEventType outputEventType = query.getOutputStream().getOutputEventType();
             if (query.getOutputRate() != null && query.getOutputRate() instanceof SnapshotOutputRate) {
                 if (outputEventType != OutputStream.OutputEventType.ALL_EVENTS) {
@@ -133,7 +136,49 @@ public class QueryParser {
             if (outputEventType != OutputStream.OutputEventType.CURRENT_EVENTS) {
                 outputExpectsExpiredEvents = true;
             }
-            StreamRuntime streamRuntime = InputStreamParser.parse(query.getInputStream(),
+            InputStream inputStream = query.getInputStream();
+            Annotation timePanesAnnotation = AnnotationHelper.getAnnotation(
+                    SiddhiConstants.ANNOTATION_TIME_PANES, query.getAnnotations());
+            if (timePanesAnnotation != null) {
+                // Aggregators keep the time window over panes, hence the window is not parsed
+                inputStream = QueryParserHelper.parseTimePanes(query, timePanesAnnotation, siddhiQueryContext);
+            }
+            boolean isWindow = inputStream instanceof JoinInputStream;
+            if (!isWindow && inputStream instanceof SingleInputStream) {
+                for (StreamHandler streamHandler : ((SingleInputStream) inputStream).getStreamHandlers()) {
+                    if (streamHandler instanceof io.siddhi.query.api.execution.query.input.handler.Window) {
+                        isWindow = true;
+                        break;
+                    }
+                }
+            }
+            Element synchronizedElement = AnnotationHelper.getAnnotationElement("synchronized",
+                    null, query.getAnnotations());
+
+            boolean groupBy = !query.getSelector().getGroupByList().isEmpty();
+            int lockStripes = 0;
+            Annotation lockStripesAnnotation = AnnotationHelper.getAnnotation(
+                    SiddhiConstants.ANNOTATION_LOCK_STRIPES, query.getAnnotations());
+            if (lockStripesAnnotation != null) {
+                int stripes = QueryParserHelper.parseLockStripes(lockStripesAnnotation, siddhiAppContext);
+                boolean queryLocked = synchronizedElement != null ?
+                        !"false".equalsIgnoreCase(synchronizedElement.getValue()) :
+                        isWindow || !(inputStream instanceof SingleInputStream);
+                if (!groupBy) {
+                    log.warn("@" + SiddhiConstants.ANNOTATION_LOCK_STRIPES + " is only applicable to group by " +
+                            "queries, hence it is ignored by query '" + siddhiQueryContext.getName() +
+                            "' of Siddhi app '" + siddhiAppContext.getName() + "'.");
+                } else if (queryLocked) {
+                    log.warn("Query '" + siddhiQueryContext.getName() + "' of Siddhi app '" +
+                            siddhiAppContext.getName() + "' is synchronized by a query lock, hence @" +
+                            SiddhiConstants.ANNOTATION_LOCK_STRIPES + " is ignored.");
+                } else {
+                    lockStripes = stripes;
+                    // Group by states are striped like the locks, as they are selected concurrently
+                    siddhiQueryContext.setGroupByLockStripes(lockStripes);
+                }
+            }
+            StreamRuntime streamRuntime = InputStreamParser.parse(inputStream,
                     query, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap,
                     aggregationDefinitionMap, tableMap, windowMap, aggregationMap, executors,
                     outputExpectsExpiredEvents, siddhiQueryContext);
@@ -146,18 +191,14 @@ public class QueryParser {
                         SiddhiConstants.UNKNOWN_STATE, streamRuntime.getProcessingMode(), outputExpectsExpiredEvents,
                         siddhiQueryContext);
             }
-            boolean isWindow = query.getInputStream() instanceof JoinInputStream;
-            if (!isWindow && query.getInputStream() instanceof SingleInputStream) {
-                for (StreamHandler streamHandler : ((SingleInputStream) query.getInputStream()).getStreamHandlers()) {
-                    if (streamHandler instanceof io.siddhi.query.api.execution.query.input.handler.Window) {
-                        isWindow = true;
-                        break;
-                    }
-                }
+            if (timePanesAnnotation != null && siddhiQueryContext.getTimePaneStateHolders().isEmpty()) {
+                throw new SiddhiAppCreationException("@" + SiddhiConstants.ANNOTATION_TIME_PANES + " is only " +
+                        "applicable to queries aggregating the events of their time window, but query '" +
+                        siddhiQueryContext.getName() + "' has no aggregators.",
+                        timePanesAnnotation.getQueryContextStartIndex(),
+                        timePanesAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                        siddhiAppContext.getSiddhiAppString());
             }
-
-            Element synchronizedElement = AnnotationHelper.getAnnotationElement("synchronized",
-                    null, query.getAnnotations());
             if (synchronizedElement != null) {
                 if (!("false".equalsIgnoreCase(synchronizedElement.getValue()))) {
                     lockWrapper = new LockWrapper(""); // Query LockWrapper does not need a unique
@@ -222,7 +263,9 @@ public class QueryParser {
                 selector.setBatchingEnabled(false);
             }
 
-            boolean groupBy = !query.getSelector().getGroupByList().isEmpty();
+            if (lockStripes > 0) {
+                selector.setGroupByLockStripes(lockStripes);
+            }
 
             OutputCallback outputCallback = OutputParser.constructOutputCallback(query.getOutputStream(),
                     streamRuntime.getMetaComplexEvent().getOutputStreamDefinition(), tableMap, windowMap,
@@ -231,8 +274,23 @@ public class QueryParser {
 
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
+            int eventPoolSize = siddhiAppContext.getEventPoolSize();
+            Annotation eventPoolAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_POOL,
+                    query.getAnnotations());
+            if (eventPoolAnnotation != null) {
+                eventPoolSize = QueryParserHelper.parseEventPoolSize(eventPoolAnnotation, siddhiAppContext);
+            }
+            if (eventPoolSize > 0 &&
+                    !QueryParserHelper.isEventRecyclingSupported(streamRuntime, outputRateLimiter, outputCallback)) {
+                if (eventPoolAnnotation != null) {
+                    log.warn("Event pooling is not supported by query '" + siddhiQueryContext.getName() +
+                            "' of Siddhi app '" + siddhiAppContext.getName() + "' as it retains the events it " +
+                            "processes, hence events will not be pooled.");
+                }
+                eventPoolSize = 0;
+            }
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper,
-                    siddhiQueryContext.getName());
+                    siddhiQueryContext.getName(), eventPoolSize, siddhiAppContext);
 
             // Update cache compile selection variable expression executors
             if (streamRuntime instanceof JoinStreamRuntime) {
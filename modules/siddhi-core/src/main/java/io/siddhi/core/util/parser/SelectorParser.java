@@ -25,6 +25,7 @@ import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.compiled.ExpressionExecutorCompiler;
 import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.query.selector.GroupByKeyGenerator;
@@ -234,6 +235,9 @@ public class SelectorParser {
                 } else {
                     ((MetaStreamEvent) metaComplexEvent).addOutputDataAllowingDuplicate(null);
                 }
+                if (siddhiQueryContext.getSiddhiAppContext().isCompileExpressions()) {
+                    expressionExecutor = ExpressionExecutorCompiler.compile(expressionExecutor);
+                }
                 AttributeProcessor attributeProcessor = new AttributeProcessor(expressionExecutor);
                 attributeProcessor.setOutputPosition(i);
                 attributeProcessorList.add(attributeProcessor);
@@ -256,6 +260,9 @@ public class SelectorParser {
                     metaComplexEvent, SiddhiConstants.HAVING_STATE, tableMap, variableExpressionExecutors,
                     false, 0, ProcessingMode.BATCH,
                     false, siddhiQueryContext);
+            if (siddhiQueryContext.getSiddhiAppContext().isCompileExpressions()) {
+                havingConditionExecutor = ExpressionExecutorCompiler.compile(havingConditionExecutor);
+            }
         }
         return havingConditionExecutor;
     }
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.parser;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.query.processor.stream.window.SlidingWindowProcessor;
+import io.siddhi.core.util.SiddhiAppRuntimeBuilder;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.extension.holder.WindowProcessorExtensionHolder;
+import io.siddhi.core.window.Window;
+import io.siddhi.query.api.SiddhiApp;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.annotation.Element;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.definition.StreamDefinition;
+import io.siddhi.query.api.definition.WindowDefinition;
+import io.siddhi.query.api.execution.ExecutionElement;
+import io.siddhi.query.api.execution.partition.Partition;
+import io.siddhi.query.api.execution.query.Query;
+import io.siddhi.query.api.execution.query.input.handler.Filter;
+import io.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import io.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import io.siddhi.query.api.execution.query.output.ratelimit.SnapshotOutputRate;
+import io.siddhi.query.api.execution.query.selection.Selector;
+import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.Variable;
+import io.siddhi.query.api.expression.constant.Constant;
+import io.siddhi.query.api.util.AnnotationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class to find the queries of a Siddhi app defining identical windows on the same stream, and to back each such
+ * group of queries by a single {@link Window}, as if the window was defined in the Siddhi app.
+ * <p>
+ * Windows are shared when they are sliding windows with the same parameters, consuming a defined stream through the
+ * same filters. The shared window is fed by a query inserting the filtered events of the stream into it, placed where
+ * the first query of the group was, and each query of the group is replaced by a query consuming the shared window
+ * while keeping the rest of the query. Such queries process the events of the shared window as done by their own
+ * windows, hence the windows are only kept once, along with their schedulers.
+ * <p>
+ * As the states of the shared windows are persisted under the shared windows instead of the queries, the states of
+ * snapshots taken before the windows were shared cannot be restored into them. Hence windows are only shared when the
+ * Siddhi app has {@code @app:shareWindows}, and the window of a query is not shared when the query has
+ * {@code @shareWindow('false')}.
+ */
+public class SharedWindowParser {
+
+    private static final String SHARED_WINDOW_ID_PREFIX = "SharedWindow_";
+
+    private SharedWindowParser() {
+
+    }
+
+    /**
+     * Defines the shared windows of the Siddhi app, and rewrites the queries defining them.
+     *
+     * @param siddhiApp               Siddhi app
+     * @param siddhiAppRuntimeBuilder Siddhi app runtime builder holding the definitions of the Siddhi app
+     * @param siddhiAppContext        Siddhi app context
+     * @param sharedWindowQueries     set to add the queries feeding the shared windows to
+     * @return execution elements of the Siddhi app, with the rewritten queries and the queries feeding the shared
+     * windows
+     */
+    public static List<ExecutionElement> parse(SiddhiApp siddhiApp, SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder,
+                                               SiddhiAppContext siddhiAppContext, Set<Query> sharedWindowQueries) {
+        List<ExecutionElement> executionElements = siddhiApp.getExecutionElementList();
+        if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SHARE_WINDOWS,
+                siddhiApp.getAnnotations()) == null ||
+                isSharingDisabled(SiddhiConstants.ANNOTATION_SHARE_WINDOWS, siddhiApp.getAnnotations())) {
+            return executionElements;
+        }
+        Map<List<Object>, List<Query>> windowQueries = new LinkedHashMap<>();
+        for (ExecutionElement executionElement : executionElements) {
+            if (executionElement instanceof Query) {
+                List<Object> windowKey = getWindowKey((Query) executionElement, siddhiAppRuntimeBuilder,
+                        siddhiAppContext);
+                if (windowKey != null) {
+                    windowQueries.computeIfAbsent(windowKey, k -> new ArrayList<>()).add((Query) executionElement);
+                }
+            }
+        }
+
+        Set<String> usedIds = getUsedIds(executionElements);
+        Map<Query, Query> feedingQueries = new IdentityHashMap<>();
+        Map<Query, Query> consumingQueries = new IdentityHashMap<>();
+        int windowIndex = 1;
+        for (List<Query> queries : windowQueries.values()) {
+            if (queries.size() < 2) {
+                continue;
+            }
+            String windowId;
+            do {
+                windowId = SHARED_WINDOW_ID_PREFIX + windowIndex++;
+            } while (usedIds.contains(windowId) || isDefined(windowId, siddhiAppRuntimeBuilder));
+
+            SingleInputStream inputStream = (SingleInputStream) queries.get(0).getInputStream();
+            List<StreamHandler> streamHandlers = inputStream.getStreamHandlers();
+            int windowPosition = getWindowPosition(streamHandlers);
+            WindowDefinition windowDefinition = WindowDefinition.id(windowId);
+            for (Attribute attribute : ((StreamDefinition) siddhiAppRuntimeBuilder.getStreamDefinitionMap()
+                    .get(inputStream.getStreamId())).getAttributeList()) {
+                windowDefinition.attribute(attribute.getName(), attribute.getType());
+            }
+            windowDefinition.window((io.siddhi.query.api.execution.query.input.handler.Window)
+                    streamHandlers.get(windowPosition));
+            siddhiAppRuntimeBuilder.defineWindow(windowDefinition);
+            siddhiAppRuntimeBuilder.getWindowMap().get(windowId).setShared(true);
+
+            SingleInputStream feedingInputStream = new SingleInputStream(inputStream.getStreamReferenceId(),
+                    inputStream.getStreamId());
+            feedingInputStream.addStreamHandlers(streamHandlers.subList(0, windowPosition));
+            Query feedingQuery = Query.query()
+                    .annotation(Annotation.annotation("info").element("name", windowId))
+                    .from(feedingInputStream)
+                    .select(Selector.selector())
+                    .insertInto(windowId);
+            feedingQueries.put(queries.get(0), feedingQuery);
+            sharedWindowQueries.add(feedingQuery);
+            for (Query query : queries) {
+                consumingQueries.put(query, createConsumingQuery(query, windowId));
+            }
+        }
+        if (consumingQueries.isEmpty()) {
+            return executionElements;
+        }
+
+        List<ExecutionElement> sharedExecutionElements = new ArrayList<>(executionElements.size() +
+                feedingQueries.size());
+        for (ExecutionElement executionElement : executionElements) {
+            Query feedingQuery = feedingQueries.get(executionElement);
+            if (feedingQuery != null) {
+                sharedExecutionElements.add(feedingQuery);
+            }
+            Query consumingQuery = consumingQueries.get(executionElement);
+            sharedExecutionElements.add(consumingQuery != null ? consumingQuery : executionElement);
+        }
+        return sharedExecutionElements;
+    }
+
+    /**
+     * @return key identifying the window of the query, or null if its window cannot be shared
+     */
+    private static List<Object> getWindowKey(Query query, SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder,
+                                             SiddhiAppContext siddhiAppContext) {
+        if (!(query.getInputStream() instanceof SingleInputStream) ||
+                query.getOutputRate() instanceof SnapshotOutputRate ||
+                // Queries having time panes do not keep their window, as their aggregators keep panes instead
+                AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_TIME_PANES,
+                        query.getAnnotations()) != null ||
+                isSharingDisabled(SiddhiConstants.ANNOTATION_SHARE_WINDOW, query.getAnnotations())) {
+            return null;
+        }
+        SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+        if (inputStream.isInnerStream() || inputStream.isFaultStream() ||
+                !(siddhiAppRuntimeBuilder.getStreamDefinitionMap().get(inputStream.getStreamId())
+                        instanceof StreamDefinition)) {
+            return null;
+        }
+        List<StreamHandler> streamHandlers = inputStream.getStreamHandlers();
+        int windowPosition = getWindowPosition(streamHandlers);
+        if (windowPosition < 0) {
+            return null;
+        }
+        for (int i = 0; i < streamHandlers.size(); i++) {
+            StreamHandler streamHandler = streamHandlers.get(i);
+            if ((i < windowPosition && !(streamHandler instanceof Filter)) ||
+                    (i > windowPosition && streamHandler instanceof io.siddhi.query.api.execution.query.input
+                            .handler.Window)) {
+                return null;
+            }
+        }
+        io.siddhi.query.api.execution.query.input.handler.Window window =
+                (io.siddhi.query.api.execution.query.input.handler.Window) streamHandlers.get(windowPosition);
+        Expression[] parameters = window.getParameters();
+        if (parameters != null) {
+            for (Expression parameter : parameters) {
+                // Parameters are resolved against the shared window, which does not know the query's stream
+                if (!(parameter instanceof Constant ||
+                        (parameter instanceof Variable && ((Variable) parameter).getStreamId() == null))) {
+                    return null;
+                }
+            }
+        }
+        // Only sliding windows emit their events as the windows of the queries would
+        Class windowClass = WindowProcessorExtensionHolder.getInstance(siddhiAppContext).getExtension(
+                window.getNamespace() == null ? "" : window.getNamespace(), window.getName());
+        if (windowClass == null || !SlidingWindowProcessor.class.isAssignableFrom(windowClass)) {
+            return null;
+        }
+        return Arrays.asList(inputStream.getStreamId(), inputStream.getStreamReferenceId(),
+                streamHandlers.subList(0, windowPosition + 1));
+    }
+
+    private static Query createConsumingQuery(Query query, String windowId) {
+        SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+        List<StreamHandler> streamHandlers = inputStream.getStreamHandlers();
+        // The events are still referred by the stream or its reference
+        SingleInputStream consumingInputStream = new SingleInputStream(
+                inputStream.getStreamReferenceId() != null ? inputStream.getStreamReferenceId() :
+                        inputStream.getStreamId(), windowId);
+        consumingInputStream.addStreamHandlers(streamHandlers.subList(getWindowPosition(streamHandlers) + 1,
+                streamHandlers.size()));
+        consumingInputStream.setQueryContextStartIndex(inputStream.getQueryContextStartIndex());
+        consumingInputStream.setQueryContextEndIndex(inputStream.getQueryContextEndIndex());
+
+        Query consumingQuery = Query.query()
+                .from(consumingInputStream)
+                .select(query.getSelector())
+                .outStream(query.getOutputStream());
+        if (query.getOutputRate() != null) {
+            consumingQuery.output(query.getOutputRate());
+        }
+        for (Annotation annotation : query.getAnnotations()) {
+            consumingQuery.annotation(annotation);
+        }
+        consumingQuery.setQueryContextStartIndex(query.getQueryContextStartIndex());
+        consumingQuery.setQueryContextEndIndex(query.getQueryContextEndIndex());
+        return consumingQuery;
+    }
+
+    private static boolean isSharingDisabled(String annotationName, List<Annotation> annotations) {
+        Element element = AnnotationHelper.getAnnotationElement(annotationName, null, annotations);
+        return element != null && "false".equalsIgnoreCase(element.getValue());
+    }
+
+    private static int getWindowPosition(List<StreamHandler> streamHandlers) {
+        for (int i = 0; i < streamHandlers.size(); i++) {
+            if (streamHandlers.get(i) instanceof io.siddhi.query.api.execution.query.input.handler.Window) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return names of the queries and ids of their output streams, which are not defined yet
+     */
+    private static Set<String> getUsedIds(List<ExecutionElement> executionElements) {
+        Set<String> usedIds = new HashSet<>();
+        for (ExecutionElement executionElement : executionElements) {
+            List<Query> queries = executionElement instanceof Query ?
+                    Collections.singletonList((Query) executionElement) :
+                    ((Partition) executionElement).getQueryList();
+            for (Query query : queries) {
+                Element nameElement = AnnotationHelper.getAnnotationElement("info", "name",
+                        query.getAnnotations());
+                if (nameElement != null) {
+                    usedIds.add(nameElement.getValue());
+                }
+                if (query.getOutputStream() != null) {
+                    usedIds.add(query.getOutputStream().getId());
+                }
+            }
+        }
+        return usedIds;
+    }
+
+    private static boolean isDefined(String id, SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder) {
+        for (Map<String, AbstractDefinition> definitionMap : Arrays.asList(
+                siddhiAppRuntimeBuilder.getStreamDefinitionMap(), siddhiAppRuntimeBuilder.getTableDefinitionMap(),
+                siddhiAppRuntimeBuilder.getWindowDefinitionMap(),
+                siddhiAppRuntimeBuilder.getAggregationDefinitionMap())) {
+            if (definitionMap.containsKey(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -29,6 +29,7 @@ import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.statistics.metrics.Level;
 import io.siddhi.core.util.timestamp.TimestampGenerator;
@@ -60,8 +61,11 @@ import io.siddhi.query.compiler.exception.SiddhiParserException;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 
@@ -102,6 +106,62 @@ public class SiddhiAppParser {
                 siddhiAppContext.setEnforceOrder(true);
             }
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COMPILE_EXPRESSIONS,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setCompileExpressions(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX_PREDICATES,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setIndexPredicates(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SHARE_EVENT_CONVERSION,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setShareEventConversion(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMITIVE_ATTRIBUTES,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setPrimitiveAttributes(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COLUMNAR_BATCHES,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setColumnarBatches(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC_SNAPSHOT,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setAsyncSnapshot(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_WINDOW_INDEXES,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setWindowIndexes(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_POOL,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setEventPoolSize(QueryParserHelper.parseEventPoolSize(annotation,
+                        siddhiAppContext));
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STATE_SPILL,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setStateSpillStore(QueryParserHelper.parseStateSpillStore(annotation,
+                        siddhiAppContext));
+            }
+
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
                     siddhiApp.getAnnotations());
             if (annotation != null) {
@@ -233,6 +293,9 @@ public class SiddhiAppParser {
         defineFunctionDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getFunctionDefinitionMap(), siddhiAppContext);
         defineAggregationDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getAggregationDefinitionMap(),
                 siddhiAppContext);
+        Set<Query> sharedWindowQueries = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ExecutionElement> executionElements = SharedWindowParser.parse(siddhiApp, siddhiAppRuntimeBuilder,
+                siddhiAppContext, sharedWindowQueries);
         //todo fix for query API usecase
         List<String> findExecutedElements = getFindExecutedElements(siddhiApp);
         for (Window window : siddhiAppRuntimeBuilder.getWindowMap().values()) {
@@ -248,7 +311,7 @@ public class SiddhiAppParser {
         }
         int queryIndex = 1;
         int partitionIndex = 1;
-        for (ExecutionElement executionElement : siddhiApp.getExecutionElementList()) {
+        for (ExecutionElement executionElement : executionElements) {
             if (executionElement instanceof Query) {
                 try {
                     QueryRuntimeImpl queryRuntime = QueryParser.parse((Query) executionElement, siddhiAppContext,
@@ -263,7 +326,10 @@ public class SiddhiAppParser {
                             String.valueOf(queryIndex), false, SiddhiConstants.PARTITION_ID_DEFAULT);
                     siddhiAppRuntimeBuilder.addQuery(queryRuntime);
                     siddhiAppContext.addEternalReferencedHolder(queryRuntime);
-                    queryIndex++;
+                    if (!sharedWindowQueries.contains(executionElement)) {
+                        // Queries feeding shared windows are named, and do not shift the indexes of the others
+                        queryIndex++;
+                    }
                 } catch (Throwable t) {
                     ExceptionUtil.populateQueryContext(t, (Query) executionElement, siddhiAppContext);
                     throw t;
@@ -25,12 +25,14 @@ import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.compiled.ExpressionExecutorCompiler;
 import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
+import io.siddhi.core.query.processor.TimePanesProcessor;
 import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.query.processor.stream.AbstractStreamProcessor;
 import io.siddhi.core.query.processor.stream.StreamProcessor;
@@ -152,6 +154,26 @@ public class SingleInputStreamParser {
             }
         }
 
+        if (siddhiQueryContext.getTimePaneLength() > 0) {
+            // Schedules the expiry of the panes the aggregators keep in place of the removed time window
+            if (entryValveProcessor == null) {
+                entryValveProcessor = new EntryValveProcessor(siddhiQueryContext.getSiddhiAppContext());
+                if (first) {
+                    processor = entryValveProcessor;
+                    first = false;
+                } else {
+                    processor.setToLast(entryValveProcessor);
+                }
+            }
+            TimePanesProcessor timePanesProcessor = new TimePanesProcessor(siddhiQueryContext);
+            timePanesProcessor.setScheduler(SchedulerParser.parse(entryValveProcessor, siddhiQueryContext));
+            if (first) {
+                processor = timePanesProcessor;
+            } else {
+                processor.setToLast(timePanesProcessor);
+            }
+        }
+
         metaStreamEvent.initializeAfterWindowData();
         return new SingleStreamRuntime(processStreamReceiver, processor, processingMode, metaComplexEvent);
 
@@ -200,6 +222,9 @@ public class SingleInputStreamParser {
 
         ConfigReader configReader;
         if (streamHandler instanceof Filter) {
+            if (siddhiQueryContext.getSiddhiAppContext().isCompileExpressions()) {
+                return new FilterProcessor(ExpressionExecutorCompiler.compile(attributeExpressionExecutors[0]));
+            }
             return new FilterProcessor(attributeExpressionExecutors[0]);
 
         } else if (streamHandler instanceof Window) {
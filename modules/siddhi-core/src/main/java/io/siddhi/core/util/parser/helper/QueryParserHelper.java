@@ -19,6 +19,7 @@
 package io.siddhi.core.util.parser.helper;
 
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.event.MetaComplexEvent;
 import io.siddhi.core.event.state.MetaStateEvent;
 import io.siddhi.core.event.state.MetaStateEventAttribute;
@@ -29,24 +30,55 @@ import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.populater.ComplexEventPopulater;
 import io.siddhi.core.event.stream.populater.StreamEventPopulaterFactory;
+import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.query.QueryRuntime;
+import io.siddhi.core.query.QueryRuntimeImpl;
 import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.query.input.stream.join.JoinProcessor;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
+import io.siddhi.core.query.output.callback.InsertIntoStreamCallback;
+import io.siddhi.core.query.output.callback.InsertIntoWindowCallback;
+import io.siddhi.core.query.output.callback.OutputCallback;
+import io.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import io.siddhi.core.query.output.ratelimit.PassThroughOutputRateLimiter;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
+import io.siddhi.core.query.processor.filter.FilterProcessor;
 import io.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import io.siddhi.core.query.processor.stream.function.StreamFunctionProcessor;
+import io.siddhi.core.query.processor.stream.window.LengthBatchWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.LengthWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.TimeBatchWindowProcessor;
+import io.siddhi.core.query.processor.stream.window.TimeWindowProcessor;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.collection.operator.IncrementalAggregateCompileCondition;
 import io.siddhi.core.util.lock.LockWrapper;
+import io.siddhi.core.util.snapshot.state.StateHolder;
+import io.siddhi.core.util.snapshot.state.StateSpillStore;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.core.util.statistics.ThroughputTracker;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.annotation.Element;
 import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.execution.query.Query;
+import io.siddhi.query.api.execution.query.input.handler.Filter;
+import io.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import io.siddhi.query.api.execution.query.input.handler.Window;
+import io.siddhi.query.api.execution.query.input.stream.AnonymousInputStream;
+import io.siddhi.query.api.execution.query.input.stream.InputStream;
+import io.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import io.siddhi.query.api.execution.query.output.stream.OutputStream;
+import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.constant.IntConstant;
+import io.siddhi.query.api.expression.constant.LongConstant;
 
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
 import static io.siddhi.core.util.SiddhiConstants.HAVING_STATE;
@@ -153,24 +185,39 @@ public class QueryParserHelper {
 
     public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
                                          LockWrapper lockWrapper, String queryName) {
+        initStreamRuntime(runtime, metaComplexEvent, lockWrapper, queryName, 0, null);
+    }
+
+    public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
+                                         LockWrapper lockWrapper, String queryName, int eventPoolSize,
+                                         SiddhiAppContext siddhiAppContext) {
 
         if (runtime instanceof SingleStreamRuntime) {
             initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent,
-                    null, lockWrapper, queryName);
+                    null, lockWrapper, queryName, eventPoolSize, siddhiAppContext);
         } else {
             MetaStateEvent metaStateEvent = (MetaStateEvent) metaComplexEvent;
             StateEventFactory stateEventFactory = new StateEventFactory(metaStateEvent);
+            if (eventPoolSize > 0) {
+                stateEventFactory.enablePooling(eventPoolSize,
+                        createThroughputTracker(siddhiAppContext, queryName,
+                                SiddhiConstants.METRIC_INFIX_EVENT_POOLS, SiddhiConstants.METRIC_TYPE_POOL_HIT),
+                        createThroughputTracker(siddhiAppContext, queryName,
+                                SiddhiConstants.METRIC_INFIX_EVENT_POOLS, SiddhiConstants.METRIC_TYPE_POOL_MISS),
+                        siddhiAppContext);
+            }
             MetaStreamEvent[] metaStreamEvents = metaStateEvent.getMetaStreamEvents();
             for (int i = 0, metaStreamEventsLength = metaStreamEvents.length; i < metaStreamEventsLength; i++) {
                 initSingleStreamRuntime(runtime.getSingleStreamRuntimes().get(i), i, metaStateEvent, stateEventFactory,
-                        lockWrapper, queryName);
+                        lockWrapper, queryName, eventPoolSize, siddhiAppContext);
             }
         }
     }
 
     private static void initSingleStreamRuntime(SingleStreamRuntime singleStreamRuntime, int streamEventChainIndex,
                                                 MetaComplexEvent metaComplexEvent, StateEventFactory stateEventFactory,
-                                                LockWrapper lockWrapper, String queryName) {
+                                                LockWrapper lockWrapper, String queryName, int eventPoolSize,
+                                                SiddhiAppContext siddhiAppContext) {
         MetaStreamEvent metaStreamEvent;
 
         if (metaComplexEvent instanceof MetaStateEvent) {
@@ -179,10 +226,22 @@ public class QueryParserHelper {
             metaStreamEvent = (MetaStreamEvent) metaComplexEvent;
         }
         StreamEventFactory streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        if (siddhiAppContext != null && siddhiAppContext.isPrimitiveAttributes()) {
+            streamEventFactory.enablePrimitiveAttributes(metaStreamEvent);
+        }
+        if (eventPoolSize > 0) {
+            streamEventFactory.enablePooling(eventPoolSize,
+                    createThroughputTracker(siddhiAppContext, queryName,
+                            SiddhiConstants.METRIC_INFIX_EVENT_POOLS, SiddhiConstants.METRIC_TYPE_POOL_HIT),
+                    createThroughputTracker(siddhiAppContext, queryName,
+                            SiddhiConstants.METRIC_INFIX_EVENT_POOLS, SiddhiConstants.METRIC_TYPE_POOL_MISS),
+                    siddhiAppContext);
+        }
         ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
         processStreamReceiver.setMetaStreamEvent(metaStreamEvent);
         processStreamReceiver.setStreamEventFactory(streamEventFactory);
         processStreamReceiver.setLockWrapper(lockWrapper);
+        processStreamReceiver.setRecycleEvents(eventPoolSize > 0);
         processStreamReceiver.init();
         Processor processor = singleStreamRuntime.getProcessorChain();
         while (processor != null) {
@@ -208,6 +267,7 @@ public class QueryParserHelper {
 
                 }
                 ((JoinProcessor) processor).setStateEventFactory(stateEventFactory);
+                ((JoinProcessor) processor).setRecycleEvents(eventPoolSize > 0);
             }
             if (stateEventFactory != null && processor instanceof StreamPreStateProcessor) {
                 ((StreamPreStateProcessor) processor).setStateEventFactory(stateEventFactory);
@@ -224,6 +284,283 @@ public class QueryParserHelper {
         }
     }
 
+    /**
+     * Reads the pool size from an {@code @EventPool} annotation. When no size is given the default event buffer
+     * size is used, and a size of zero disables pooling.
+     *
+     * @param annotation       EventPool annotation
+     * @param siddhiAppContext Siddhi app context
+     * @return number of events to be pooled
+     */
+    public static int parseEventPoolSize(Annotation annotation, SiddhiAppContext siddhiAppContext) {
+        String poolSizeString = null;
+        for (Element element : annotation.getElements()) {
+            if (element.getKey() == null ||
+                    SiddhiConstants.ANNOTATION_ELEMENT_SIZE.equalsIgnoreCase(element.getKey())) {
+                poolSizeString = element.getValue();
+            }
+        }
+        if (poolSizeString == null) {
+            return SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE;
+        }
+        int poolSize;
+        try {
+            poolSize = Integer.parseInt(poolSizeString.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE +
+                    "' of @" + SiddhiConstants.ANNOTATION_EVENT_POOL + " should be an integer, but found '" +
+                    poolSizeString + "'.", e, annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        if (poolSize < 0) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE +
+                    "' of @" + SiddhiConstants.ANNOTATION_EVENT_POOL + " cannot be negative, but found '" +
+                    poolSize + "'.", annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                    siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+        }
+        return poolSize;
+    }
+
+    /**
+     * Reads the number of lock stripes from a {@code @LockStripes} annotation. When no size is given the default
+     * number of stripes is used.
+     *
+     * @param annotation       LockStripes annotation
+     * @param siddhiAppContext Siddhi app context
+     * @return number of lock stripes
+     */
+    public static int parseLockStripes(Annotation annotation, SiddhiAppContext siddhiAppContext) {
+        String stripesString = null;
+        for (Element element : annotation.getElements()) {
+            if (element.getKey() == null ||
+                    SiddhiConstants.ANNOTATION_ELEMENT_SIZE.equalsIgnoreCase(element.getKey())) {
+                stripesString = element.getValue();
+            }
+        }
+        if (stripesString == null) {
+            return SiddhiConstants.DEFAULT_LOCK_STRIPES;
+        }
+        int stripes;
+        try {
+            stripes = Integer.parseInt(stripesString.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE +
+                    "' of @" + SiddhiConstants.ANNOTATION_LOCK_STRIPES + " should be an integer, but found '" +
+                    stripesString + "'.", e, annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        if (stripes <= 0) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE +
+                    "' of @" + SiddhiConstants.ANNOTATION_LOCK_STRIPES + " should be greater than zero, but " +
+                    "found '" + stripesString + "'.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        return stripes;
+    }
+
+    /**
+     * Reads a {@code @TimePanes} annotation of a query aggregating the events of a time window, and sets the query to
+     * evaluate its aggregators over panes of the window instead. Each pane keeps the partial aggregates of the events
+     * arriving within it, such that events are not kept by the window, and expire along with their pane once all the
+     * events of the pane have expired. When no size is given the window is split into the default number of panes.
+     *
+     * @param query              query having the annotation
+     * @param annotation         TimePanes annotation
+     * @param siddhiQueryContext Siddhi query context
+     * @return input stream of the query without its time window
+     */
+    public static SingleInputStream parseTimePanes(Query query, Annotation annotation,
+                                                   SiddhiQueryContext siddhiQueryContext) {
+        SiddhiAppContext siddhiAppContext = siddhiQueryContext.getSiddhiAppContext();
+        String panesString = null;
+        for (Element element : annotation.getElements()) {
+            if (element.getKey() == null ||
+                    SiddhiConstants.ANNOTATION_ELEMENT_SIZE.equalsIgnoreCase(element.getKey())) {
+                panesString = element.getValue();
+            }
+        }
+        int panes = SiddhiConstants.DEFAULT_TIME_PANES;
+        if (panesString != null) {
+            try {
+                panes = Integer.parseInt(panesString.trim());
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "' of @" + SiddhiConstants.ANNOTATION_TIME_PANES +
+                        " should be an integer, but found '" + panesString + "'.", e,
+                        annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                        siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+            }
+            if (panes <= 0) {
+                throw new SiddhiAppCreationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "' of @" + SiddhiConstants.ANNOTATION_TIME_PANES +
+                        " should be greater than zero, but found '" + panesString + "'.",
+                        annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex(),
+                        siddhiAppContext.getName(), siddhiAppContext.getSiddhiAppString());
+            }
+        }
+
+        InputStream inputStream = query.getInputStream();
+        if (!(inputStream instanceof SingleInputStream) || inputStream instanceof AnonymousInputStream ||
+                ((SingleInputStream) inputStream).getStreamHandlers().isEmpty()) {
+            throw new SiddhiAppCreationException("@" + SiddhiConstants.ANNOTATION_TIME_PANES + " is only " +
+                    "applicable to queries consuming a stream through a time window, but query '" +
+                    siddhiQueryContext.getName() + "' does not.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        SingleInputStream singleInputStream = (SingleInputStream) inputStream;
+        List<StreamHandler> streamHandlers = singleInputStream.getStreamHandlers();
+        StreamHandler lastStreamHandler = streamHandlers.get(streamHandlers.size() - 1);
+        if (!isConstantTimeWindow(lastStreamHandler)) {
+            throw new SiddhiAppCreationException("@" + SiddhiConstants.ANNOTATION_TIME_PANES + " is only " +
+                    "applicable to queries ending their input with a time window of constant length, but query '" +
+                    siddhiQueryContext.getName() + "' does not.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        for (int i = 0; i < streamHandlers.size() - 1; i++) {
+            if (!(streamHandlers.get(i) instanceof Filter)) {
+                throw new SiddhiAppCreationException("@" + SiddhiConstants.ANNOTATION_TIME_PANES + " only allows " +
+                        "filters before the time window, but query '" + siddhiQueryContext.getName() + "' has '" +
+                        streamHandlers.get(i) + "'.", annotation.getQueryContextStartIndex(),
+                        annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                        siddhiAppContext.getSiddhiAppString());
+            }
+        }
+        if (query.getOutputStream().getOutputEventType() != OutputStream.OutputEventType.CURRENT_EVENTS) {
+            throw new SiddhiAppCreationException("As events do not expire one by one over time panes, query '" +
+                    siddhiQueryContext.getName() + "' having @" + SiddhiConstants.ANNOTATION_TIME_PANES +
+                    " can only insert '" + OutputStream.OutputEventType.CURRENT_EVENTS + "' but it is inserting '" +
+                    query.getOutputStream().getOutputEventType() + "'!", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+
+        Expression windowLengthExpression = ((Window) lastStreamHandler).getParameters()[0];
+        long windowLength;
+        if (windowLengthExpression instanceof IntConstant) {
+            windowLength = ((IntConstant) windowLengthExpression).getValue();
+        } else {
+            windowLength = ((LongConstant) windowLengthExpression).getValue();
+        }
+        siddhiQueryContext.setTimePanes(windowLength, Math.max(1, windowLength / panes));
+
+        SingleInputStream panedInputStream = new SingleInputStream(singleInputStream.getStreamReferenceId(),
+                singleInputStream.getStreamId(), singleInputStream.isInnerStream(),
+                singleInputStream.isFaultStream());
+        panedInputStream.addStreamHandlers(streamHandlers.subList(0, streamHandlers.size() - 1));
+        return panedInputStream;
+    }
+
+    private static boolean isConstantTimeWindow(StreamHandler streamHandler) {
+        if (!(streamHandler instanceof Window)) {
+            return false;
+        }
+        Window window = (Window) streamHandler;
+        if ((window.getNamespace() != null && !window.getNamespace().isEmpty()) ||
+                !"time".equalsIgnoreCase(window.getName())) {
+            return false;
+        }
+        Expression[] parameters = window.getParameters();
+        return parameters != null && parameters.length == 1 &&
+                (parameters[0] instanceof IntConstant || parameters[0] instanceof LongConstant);
+    }
+
+    /**
+     * Creates the state spill store of a {@code @app:StateSpill} annotation, which gives the number of states each
+     * state holder keeps on heap and the directory to spill the rest to, defaulting to the temporary directory.
+     *
+     * @param annotation       StateSpill annotation
+     * @param siddhiAppContext Siddhi app context
+     * @return state spill store
+     */
+    public static StateSpillStore parseStateSpillStore(Annotation annotation, SiddhiAppContext siddhiAppContext) {
+        String sizeString = null;
+        String directory = System.getProperty("java.io.tmpdir");
+        for (Element element : annotation.getElements()) {
+            if (element.getKey() == null ||
+                    SiddhiConstants.ANNOTATION_ELEMENT_SIZE.equalsIgnoreCase(element.getKey())) {
+                sizeString = element.getValue();
+            } else if (SiddhiConstants.ANNOTATION_ELEMENT_DIR.equalsIgnoreCase(element.getKey())) {
+                directory = element.getValue();
+            }
+        }
+        if (sizeString == null) {
+            throw new SiddhiAppCreationException("Annotation @" + SiddhiConstants.ANNOTATION_STATE_SPILL +
+                    " requires the element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "', giving the number " +
+                    "of states to keep in memory.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        int size;
+        try {
+            size = Integer.parseInt(sizeString.trim());
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE +
+                    "' of @" + SiddhiConstants.ANNOTATION_STATE_SPILL + " should be an integer, but found '" +
+                    sizeString + "'.", e, annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        if (size <= 0) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_SIZE +
+                    "' of @" + SiddhiConstants.ANNOTATION_STATE_SPILL + " should be greater than zero, but " +
+                    "found '" + sizeString + "'.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        File directoryFile = new File(directory);
+        if (!directoryFile.isDirectory()) {
+            throw new SiddhiAppCreationException("Annotation element '" + SiddhiConstants.ANNOTATION_ELEMENT_DIR +
+                    "' of @" + SiddhiConstants.ANNOTATION_STATE_SPILL + " should be an existing directory, but " +
+                    "found '" + directory + "'.", annotation.getQueryContextStartIndex(),
+                    annotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+        return new StateSpillStore(siddhiAppContext, directoryFile, size);
+    }
+
+    /**
+     * Checks whether the events created for a query can be returned to the event pool once the query has
+     * processed them. This is only the case when no element of the query retains references to the events it
+     * receives, hence only stateless processors, the built-in length and time windows (which keep their own
+     * copies), joins over them and outputs that copy the events are supported.
+     *
+     * @param streamRuntime     stream runtime of the query
+     * @param outputRateLimiter output rate limiter of the query
+     * @param outputCallback    output callback of the query, can be null
+     * @return true if pooled events can be recycled
+     */
+    public static boolean isEventRecyclingSupported(StreamRuntime streamRuntime, OutputRateLimiter outputRateLimiter,
+                                                    OutputCallback outputCallback) {
+        if (outputRateLimiter.getClass() != PassThroughOutputRateLimiter.class) {
+            return false;
+        }
+        if (outputCallback != null && !(outputCallback instanceof InsertIntoStreamCallback) &&
+                !(outputCallback instanceof InsertIntoWindowCallback)) {
+            return false;
+        }
+        for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
+            if (singleStreamRuntime.getProcessStreamReceiver().getClass() != ProcessStreamReceiver.class) {
+                return false;
+            }
+            Processor processor = singleStreamRuntime.getProcessorChain();
+            while (processor != null) {
+                if (!(processor instanceof FilterProcessor || processor instanceof StreamFunctionProcessor ||
+                        processor instanceof JoinProcessor || processor instanceof LengthWindowProcessor ||
+                        processor instanceof TimeWindowProcessor || processor instanceof LengthBatchWindowProcessor ||
+                        processor instanceof TimeBatchWindowProcessor)) {
+                    return false;
+                }
+                processor = processor.getNextProcessor();
+            }
+        }
+        return true;
+    }
+
     public static LatencyTracker createLatencyTracker(SiddhiAppContext siddhiAppContext, String name, String type,
                                                       String function) {
         LatencyTracker latencyTracker = null;
@@ -290,6 +627,22 @@ public class QueryParserHelper {
     }
 
 
+    /**
+     * Registers the state holders of the query, which hold the states of all its partition and group by keys, to be
+     * reported as the memory of the query states.
+     */
+    public static void registerStateMemoryUsageTracking(QueryRuntime queryRuntime, SiddhiAppContext siddhiAppContext,
+                                                        MemoryUsageTracker memoryUsageTracker) {
+        SiddhiQueryContext siddhiQueryContext = ((QueryRuntimeImpl) queryRuntime).getSiddhiQueryContext();
+        Map<String, StateHolder> stateHolderMap = siddhiAppContext.getSnapshotService().getStateHolderMap(
+                siddhiQueryContext.getPartitionId(), siddhiQueryContext.getName());
+        if (stateHolderMap != null) {
+            registerMemoryUsageTracking(queryRuntime.getQueryId() + SiddhiConstants.METRIC_DELIMITER +
+                            SiddhiConstants.METRIC_INFIX_STATES, stateHolderMap, SiddhiConstants.METRIC_INFIX_QUERIES,
+                    siddhiAppContext, memoryUsageTracker);
+        }
+    }
+
     public static void registerMemoryUsageTracking(String name, Object value, String metricInfixQueries,
                                                    SiddhiAppContext siddhiAppContext,
                                                    MemoryUsageTracker memoryUsageTracker) {
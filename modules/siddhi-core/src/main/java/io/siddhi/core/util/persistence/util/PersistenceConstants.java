@@ -27,5 +27,7 @@ public class PersistenceConstants {
     public static final String STATE_PERSISTENCE_CONFIGS = "config";
     public static final String DEFAULT_FILE_PERSISTENCE_FOLDER = "siddhi-app-persistence";
     public static final String REVISION_SEPARATOR = "__";
+    public static final String REMOVED_STATE = "__RemovedState";
+    public static final String SERIALIZED_STATE = "__SerializedState";
 
 }
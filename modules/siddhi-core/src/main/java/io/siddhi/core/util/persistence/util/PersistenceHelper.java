@@ -19,6 +19,7 @@
 package io.siddhi.core.util.persistence.util;
 
 import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.exception.NoPersistenceStoreException;
 import io.siddhi.core.exception.PersistenceStoreException;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.snapshot.AsyncIncrementalSnapshotPersistor;
@@ -27,9 +28,11 @@ import io.siddhi.core.util.snapshot.IncrementalSnapshot;
 import io.siddhi.core.util.snapshot.PersistenceReference;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * Helper Class to persist snapshots
@@ -61,62 +64,85 @@ public final class PersistenceHelper {
         return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
     }
 
+    /**
+     * Persists the full snapshot supplied by the given supplier, which is called by the persisting thread, such that
+     * asynchronous snapshots are not serialized by the caller.
+     */
+    public static PersistenceReference persistFullSnapshot(Supplier<byte[]> snapshotSupplier,
+                                                           SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshotSupplier,
+                siddhiAppContext.getSiddhiContext().getPersistenceStore(), siddhiAppContext.getName(),
+                revisionTime);
+        Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+        return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
+    }
+
     public static PersistenceReference persist(IncrementalSnapshot serializeObj, SiddhiAppContext siddhiAppContext) {
         long revisionTime = System.currentTimeMillis();
         List<Future> incrementalFutures = new ArrayList<>();
-        //Periodic state
-        Map<String, Map<String, byte[]>> periodicStateBase = serializeObj.getPeriodicState();
-        if (periodicStateBase != null) {
-            periodicStateBase.forEach((partitionId, value) -> {
-                value.forEach((id, value1) -> {
-                    String[] items = id.split(PersistenceConstants.REVISION_SEPARATOR);
-                    AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor = new
-                            AsyncIncrementalSnapshotPersistor(value1,
-                            siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(),
-                            new IncrementalSnapshotInfo(siddhiAppContext.getName(), partitionId, items[1], items[2],
-                                    revisionTime, IncrementalSnapshotInfo.SnapshotType.PERIODIC, items[0]));
-                    Future future = siddhiAppContext.getExecutorService().
-                            submit(asyncIncrementSnapshotPersistor);
-                    incrementalFutures.add(future);
-                });
-            });
+        for (AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor :
+                createPersistors(serializeObj, siddhiAppContext, revisionTime)) {
+            Future future = siddhiAppContext.getExecutorService().submit(asyncIncrementSnapshotPersistor);
+            incrementalFutures.add(future);
         }
-        //Incremental base state
-        Map<String, Map<String, byte[]>> incrementalStateBase = serializeObj.getIncrementalStateBase();
-        if (incrementalStateBase != null) {
-            incrementalStateBase.forEach((partitionId, value) -> {
-                value.forEach((id, value1) -> {
-                    String[] items = id.split(PersistenceConstants.REVISION_SEPARATOR);
-                    AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor = new
-                            AsyncIncrementalSnapshotPersistor(value1,
-                            siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(),
-                            new IncrementalSnapshotInfo(siddhiAppContext.getName(), partitionId, items[1], items[2],
-                                    revisionTime, IncrementalSnapshotInfo.SnapshotType.BASE, items[0]));
-                    Future future = siddhiAppContext.getExecutorService().
-                            submit(asyncIncrementSnapshotPersistor);
-                    incrementalFutures.add(future);
-                });
-            });
+        return new PersistenceReference(incrementalFutures,
+                revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
+    }
+
+    /**
+     * Persists the incremental snapshot supplied by the given supplier, which is called by the persisting thread,
+     * such that asynchronous snapshots are not serialized by the caller. The snapshot items are persisted one after
+     * the other by that thread.
+     */
+    public static PersistenceReference persistIncrementalSnapshot(Supplier<IncrementalSnapshot> snapshotSupplier,
+                                                                  SiddhiAppContext siddhiAppContext) {
+        if (siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore() == null) {
+            throw new NoPersistenceStoreException("No incremental persistence store assigned for siddhi app '" +
+                    siddhiAppContext.getName() + "'");
         }
+        long revisionTime = System.currentTimeMillis();
+        Future future = siddhiAppContext.getExecutorService().submit(() -> {
+            for (AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor :
+                    createPersistors(snapshotSupplier.get(), siddhiAppContext, revisionTime)) {
+                asyncIncrementSnapshotPersistor.run();
+            }
+        });
+        return new PersistenceReference(Collections.singletonList(future),
+                revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
+    }
+
+    private static List<AsyncIncrementalSnapshotPersistor> createPersistors(IncrementalSnapshot serializeObj,
+                                                                            SiddhiAppContext siddhiAppContext,
+                                                                            long revisionTime) {
+        List<AsyncIncrementalSnapshotPersistor> persistors = new ArrayList<>();
+        //Periodic state
+        addPersistors(persistors, serializeObj.getPeriodicState(), IncrementalSnapshotInfo.SnapshotType.PERIODIC,
+                siddhiAppContext, revisionTime);
+        //Incremental base state
+        addPersistors(persistors, serializeObj.getIncrementalStateBase(), IncrementalSnapshotInfo.SnapshotType.BASE,
+                siddhiAppContext, revisionTime);
         //Next, handle the increment persistence scenarios
         //Incremental state
-        Map<String, Map<String, byte[]>> incrementalState = serializeObj.getIncrementalState();
-        if (incrementalState != null) {
-            incrementalState.forEach((partitionId, value) -> {
+        addPersistors(persistors, serializeObj.getIncrementalState(), IncrementalSnapshotInfo.SnapshotType.INCREMENT,
+                siddhiAppContext, revisionTime);
+        return persistors;
+    }
+
+    private static void addPersistors(List<AsyncIncrementalSnapshotPersistor> persistors,
+                                      Map<String, Map<String, byte[]>> state,
+                                      IncrementalSnapshotInfo.SnapshotType snapshotType,
+                                      SiddhiAppContext siddhiAppContext, long revisionTime) {
+        if (state != null) {
+            state.forEach((partitionId, value) -> {
                 value.forEach((id, value1) -> {
                     String[] items = id.split(PersistenceConstants.REVISION_SEPARATOR);
-                    AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor = new
-                            AsyncIncrementalSnapshotPersistor(value1,
+                    persistors.add(new AsyncIncrementalSnapshotPersistor(value1,
                             siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(),
                             new IncrementalSnapshotInfo(siddhiAppContext.getName(), partitionId, items[1], items[2],
-                                    revisionTime, IncrementalSnapshotInfo.SnapshotType.INCREMENT, items[0]));
-                    Future future = siddhiAppContext.getExecutorService().
-                            submit(asyncIncrementSnapshotPersistor);
-                    incrementalFutures.add(future);
+                                    revisionTime, snapshotType, items[0])));
                 });
             });
         }
-        return new PersistenceReference(incrementalFutures,
-                revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
     }
 }
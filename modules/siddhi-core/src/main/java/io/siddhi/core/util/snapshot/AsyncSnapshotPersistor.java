@@ -23,12 +23,14 @@ import io.siddhi.core.util.persistence.PersistenceStore;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import org.apache.log4j.Logger;
 
+import java.util.function.Supplier;
+
 /**
  * {@link Runnable} which is responsible for persisting the snapshots that are taken
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
-    private byte[] snapshots;
+    private Supplier<byte[]> snapshots;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
@@ -36,6 +38,18 @@ public class AsyncSnapshotPersistor implements Runnable {
 
     public AsyncSnapshotPersistor(byte[] snapshots, PersistenceStore persistenceStore,
                                   String siddhiAppName, long time) {
+        this(() -> snapshots, persistenceStore, siddhiAppName, time);
+    }
+
+    /**
+     * @param snapshots        supplier of the serialized snapshot, which is called when persisting, such that
+     *                         asynchronous snapshots are serialized by the persisting thread
+     * @param persistenceStore persistence store
+     * @param siddhiAppName    Siddhi app name
+     * @param time             revision time
+     */
+    public AsyncSnapshotPersistor(Supplier<byte[]> snapshots, PersistenceStore persistenceStore,
+                                  String siddhiAppName, long time) {
         if (persistenceStore == null) {
             throw new NoPersistenceStoreException("No persistence store assigned for siddhi app '" +
                     siddhiAppName + "'");
@@ -57,7 +71,7 @@ public class AsyncSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            persistenceStore.save(siddhiAppName, revision, snapshots);
+            persistenceStore.save(siddhiAppName, revision, snapshots.get());
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
@@ -35,13 +35,19 @@ import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateHolder;
 import org.apache.log4j.Logger;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
@@ -54,6 +60,11 @@ public class SnapshotService {
     private final ThreadBarrier threadBarrier;
     private ConcurrentHashMap<String, PartitionIdStateHolder> partitionIdStates;
     private SiddhiAppContext siddhiAppContext;
+    // Ids of the states held by the revisions of the incremental snapshots, keyed by the partition id
+    private Map<String, Set<String>> persistedStateIds = new HashMap<>();
+    private boolean snapshotAllStates = false;
+    private volatile long lastSnapshotPauseTime;
+    private volatile long lastSnapshotDuration;
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
         this.siddhiAppContext = siddhiAppContext;
@@ -88,6 +99,20 @@ public class SnapshotService {
     }
 
     public byte[] fullSnapshot() {
+        return captureFullSnapshot().get();
+    }
+
+    /**
+     * Takes the full snapshot of the states while holding the thread barrier. With asynchronous snapshots, only the
+     * states holding mutable objects are serialized while holding the barrier, and the rest of the snapshot, including
+     * the detached {@link Snapshot}s of the event queues, is serialized by the returned supplier, while the events are
+     * being processed.
+     *
+     * @return supplier of the serialized snapshot
+     */
+    public Supplier<byte[]> captureFullSnapshot() {
+        long startTime = System.currentTimeMillis();
+        boolean asyncSnapshot = siddhiAppContext.isAsyncSnapshot();
         try {
             SnapshotRequest.requestForFullSnapshot(true);
             Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = new HashMap<>();
@@ -103,11 +128,11 @@ public class SnapshotService {
                             partitionIdState.getValue().queryStateHolderMap.entrySet()) {
                         for (Map.Entry<String, StateHolder> elementState :
                                 queryState.getValue().elementHolderMap.entrySet()) {
-                            Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                            Map<String, Map<Object, State>> partitionKeyStates = elementState.getValue().getAllStates();
                             try {
-                                for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                                for (Map.Entry<String, Map<Object, State>> partitionKeyState :
                                         partitionKeyStates.entrySet()) {
-                                    for (Map.Entry<String, State> groupByKeyState :
+                                    for (Map.Entry<Object, State> groupByKeyState :
                                             partitionKeyState.getValue().entrySet()) {
                                         String partitionAndGroupByKey = partitionKeyState.getKey() + "--" +
                                                 groupByKeyState.getKey();
@@ -149,6 +174,11 @@ public class SnapshotService {
                                             Map<String, Object> elementSnapshot =
                                                     querySnapshot.get(elementState.getKey());
                                             if (elementSnapshot == null) {
+                                                if (asyncSnapshot && !isDetached(itemSnapshots) &&
+                                                        !itemSnapshots.containsKey(
+                                                                PersistenceConstants.SERIALIZED_STATE)) {
+                                                    itemSnapshots = serializeItemSnapshots(itemSnapshots);
+                                                }
                                                 querySnapshot.put(elementState.getKey(), itemSnapshots);
                                             } else {
                                                 throw new SiddhiAppRuntimeException("Duplicate state exist for " +
@@ -167,31 +197,68 @@ public class SnapshotService {
                         }
                     }
                 }
-                if (log.isDebugEnabled()) {
-                    log.debug("Snapshot serialization started ...");
-                }
-                serializedFullState = ByteSerializer.objectToByte(fullSnapshot, siddhiAppContext);
-                if (log.isDebugEnabled()) {
-                    log.debug("Snapshot serialization finished.");
+                if (!asyncSnapshot) {
+                    serializedFullState = serializeFullSnapshot(fullSnapshot);
                 }
             } finally {
                 threadBarrier.unlock();
+                lastSnapshotPauseTime = System.currentTimeMillis() - startTime;
             }
             if (log.isDebugEnabled()) {
                 log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
-            return serializedFullState;
+            if (asyncSnapshot) {
+                return () -> {
+                    byte[] serializedState = serializeFullSnapshot(fullSnapshot);
+                    lastSnapshotDuration = System.currentTimeMillis() - startTime;
+                    return serializedState;
+                };
+            }
+            lastSnapshotDuration = lastSnapshotPauseTime;
+            byte[] serializedState = serializedFullState;
+            return () -> serializedState;
         } finally {
             SnapshotRequest.requestForFullSnapshot(false);
         }
     }
 
+    private byte[] serializeFullSnapshot(Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>
+                                                 fullSnapshot) {
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization started ...");
+        }
+        byte[] serializedFullState = ByteSerializer.objectToByte(fullSnapshot, siddhiAppContext);
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization finished.");
+        }
+        return serializedFullState;
+    }
+
     public IncrementalSnapshot incrementalSnapshot() {
+        return captureIncrementalSnapshot().get();
+    }
+
+    /**
+     * Takes the incremental snapshot of the states while holding the thread barrier. With asynchronous snapshots,
+     * the snapshots of the states which only hold immutable objects or detached {@link Snapshot}s, such as the
+     * operation logs of the event queues, are serialized by the returned supplier, while the events are being
+     * processed.
+     *
+     * @return supplier of the serialized snapshot
+     */
+    public Supplier<IncrementalSnapshot> captureIncrementalSnapshot() {
+        long startTime = System.currentTimeMillis();
+        boolean asyncSnapshot = siddhiAppContext.isAsyncSnapshot();
         try {
             SnapshotRequest.requestForFullSnapshot(false);
             Map<String, Map<String, byte[]>> incrementalSnapshotMap = new HashMap<>();
             Map<String, Map<String, byte[]>> incrementalBaseSnapshotMap = new HashMap<>();
             Map<String, Map<String, byte[]>> periodicSnapshotMap = new HashMap<>();
+            // Snapshots to be serialized after releasing the thread barrier
+            Map<String, Map<String, Map<String, Object>>> capturedIncrementalSnapshotMap = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> capturedIncrementalBaseSnapshotMap = new HashMap<>();
+            Map<String, Map<String, Map<String, Object>>> capturedPeriodicSnapshotMap = new HashMap<>();
+            Map<String, Set<String>> stateIds = new HashMap<>();
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
@@ -199,17 +266,32 @@ public class SnapshotService {
                 threadBarrier.lock();
                 waitForSystemStabilization();
                 for (Map.Entry<String, PartitionIdStateHolder> partitionIdState : partitionIdStates.entrySet()) {
+                    Set<String> persistedIds = persistedStateIds.get(partitionIdState.getKey());
+                    Set<String> partitionIdStateIds = new HashSet<>();
+                    stateIds.put(partitionIdState.getKey(), partitionIdStateIds);
                     for (Map.Entry<String, ElementStateHolder> queryState :
                             partitionIdState.getValue().queryStateHolderMap.entrySet()) {
                         for (Map.Entry<String, StateHolder> elementState :
                                 queryState.getValue().elementHolderMap.entrySet()) {
-                            Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                            Map<String, Map<Object, State>> partitionKeyStates = elementState.getValue().getAllStates();
                             try {
-                                for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                                for (Map.Entry<String, Map<Object, State>> partitionKeyState :
                                         partitionKeyStates.entrySet()) {
-                                    for (Map.Entry<String, State> groupByKeyState :
+                                    for (Map.Entry<Object, State> groupByKeyState :
                                             partitionKeyState.getValue().entrySet()) {
                                         State state = groupByKeyState.getValue();
+                                        String id = partitionKeyState.getKey() + "--" + groupByKeyState.getKey() +
+                                                PersistenceConstants.REVISION_SEPARATOR + queryState.getKey() +
+                                                PersistenceConstants.REVISION_SEPARATOR + elementState.getKey();
+                                        if (!state.isModified() && !snapshotAllStates && persistedIds != null &&
+                                                persistedIds.contains(id)) {
+                                            // Revisions persisted earlier still hold the state
+                                            partitionIdStateIds.add(id);
+                                            continue;
+                                        }
+                                        // Cleared before the snapshot, such that changes made while taking it
+                                        // are captured by the next snapshot
+                                        state.setModified(false);
                                         Map<String, Object> itemStates = state.snapshot();
                                         if (itemStates != null) {
                                             Map<String, Object> itemSnapshotsIncremental = new HashMap<>();
@@ -229,20 +311,21 @@ public class SnapshotService {
                                                 }
                                             }
                                             if (!itemSnapshotsIncremental.isEmpty()) {
-                                                addToSnapshotIncrements(incrementalSnapshotMap, partitionIdState,
-                                                        queryState, elementState, partitionKeyState, groupByKeyState,
-                                                        itemSnapshotsIncremental);
+                                                captureSnapshotIncrements(incrementalSnapshotMap,
+                                                        capturedIncrementalSnapshotMap, partitionIdState.getKey(),
+                                                        id, itemSnapshotsIncremental, asyncSnapshot);
                                             }
                                             if (!itemSnapshotsIncrementalBase.isEmpty()) {
-                                                addToSnapshotIncrements(incrementalBaseSnapshotMap, partitionIdState,
-                                                        queryState, elementState, partitionKeyState, groupByKeyState,
-                                                        itemSnapshotsIncrementalBase);
+                                                captureSnapshotIncrements(incrementalBaseSnapshotMap,
+                                                        capturedIncrementalBaseSnapshotMap, partitionIdState.getKey(),
+                                                        id, itemSnapshotsIncrementalBase, asyncSnapshot);
                                             }
                                             if (!itemSnapshotsPeriodic.isEmpty()) {
-                                                addToSnapshotIncrements(periodicSnapshotMap, partitionIdState,
-                                                        queryState, elementState, partitionKeyState, groupByKeyState,
-                                                        itemSnapshotsPeriodic);
+                                                captureSnapshotIncrements(periodicSnapshotMap,
+                                                        capturedPeriodicSnapshotMap, partitionIdState.getKey(),
+                                                        id, itemSnapshotsPeriodic, asyncSnapshot);
                                             }
+                                            partitionIdStateIds.add(id);
                                         }
                                     }
                                 }
@@ -251,48 +334,145 @@ public class SnapshotService {
                             }
                         }
                     }
+                    if (persistedIds != null) {
+                        // States removed since the last snapshot are marked as removed, such that their
+                        // earlier revisions are not restored
+                        for (String id : persistedIds) {
+                            if (!partitionIdStateIds.contains(id)) {
+                                Map<String, Object> removedState = new HashMap<>();
+                                removedState.put(PersistenceConstants.REMOVED_STATE, true);
+                                capturedPeriodicSnapshotMap.computeIfAbsent(partitionIdState.getKey(),
+                                        k -> new HashMap<>()).put(id, removedState);
+                            }
+                        }
+                    }
                 }
-
+                persistedStateIds = stateIds;
+                snapshotAllStates = false;
+            } catch (Throwable t) {
+                // States already marked as unmodified may not be persisted, hence all the states are taken next time
+                snapshotAllStates = true;
+                throw t;
             } finally {
                 threadBarrier.unlock();
+                lastSnapshotPauseTime = System.currentTimeMillis() - startTime;
             }
             if (log.isDebugEnabled()) {
                 log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
-            IncrementalSnapshot snapshot = new IncrementalSnapshot();
-            if (!incrementalSnapshotMap.isEmpty()) {
-                snapshot.setIncrementalState(incrementalSnapshotMap);
-            }
-            if (!incrementalBaseSnapshotMap.isEmpty()) {
-                snapshot.setIncrementalStateBase(incrementalBaseSnapshotMap);
-            }
-            if (!periodicSnapshotMap.isEmpty()) {
-                snapshot.setPeriodicState(periodicSnapshotMap);
+            Supplier<IncrementalSnapshot> snapshotSupplier = () -> {
+                serializeCapturedIncrements(incrementalSnapshotMap, capturedIncrementalSnapshotMap);
+                serializeCapturedIncrements(incrementalBaseSnapshotMap, capturedIncrementalBaseSnapshotMap);
+                serializeCapturedIncrements(periodicSnapshotMap, capturedPeriodicSnapshotMap);
+                IncrementalSnapshot snapshot = new IncrementalSnapshot();
+                if (!incrementalSnapshotMap.isEmpty()) {
+                    snapshot.setIncrementalState(incrementalSnapshotMap);
+                }
+                if (!incrementalBaseSnapshotMap.isEmpty()) {
+                    snapshot.setIncrementalStateBase(incrementalBaseSnapshotMap);
+                }
+                if (!periodicSnapshotMap.isEmpty()) {
+                    snapshot.setPeriodicState(periodicSnapshotMap);
+                }
+                lastSnapshotDuration = System.currentTimeMillis() - startTime;
+                return snapshot;
+            };
+            if (asyncSnapshot) {
+                return snapshotSupplier;
             }
-            return snapshot;
+            IncrementalSnapshot snapshot = snapshotSupplier.get();
+            return () -> snapshot;
         } finally {
             SnapshotRequest.requestForFullSnapshot(false);
         }
     }
 
     private void addToSnapshotIncrements(Map<String, Map<String, byte[]>> incrementalSnapshotMap,
-                                         Map.Entry<String, PartitionIdStateHolder> partitionIdState,
-                                         Map.Entry<String, ElementStateHolder> queryState,
-                                         Map.Entry<String, StateHolder> elementState,
-                                         Map.Entry<String, Map<String, State>> partitionKeyState,
-                                         Map.Entry<String, State> groupByKeyState,
+                                         String partitionId, String id,
                                          Map<String, Object> itemSnapshotsIncremental) {
-        String id = partitionKeyState.getKey() + "--" + groupByKeyState.getKey() +
-                PersistenceConstants.REVISION_SEPARATOR + queryState.getKey() +
-                PersistenceConstants.REVISION_SEPARATOR + elementState.getKey();
         Map<String, byte[]> partitionIdSnapshot =
                 incrementalSnapshotMap.computeIfAbsent(
-                        partitionIdState.getKey(),
+                        partitionId,
                         k -> new HashMap<>());
         partitionIdSnapshot.put(id, ByteSerializer.objectToByte(
                 itemSnapshotsIncremental, siddhiAppContext));
     }
 
+    /**
+     * Serializes the item snapshots into the snapshot map, or keeps them to be serialized after releasing the thread
+     * barrier when the snapshot is asynchronous and the items are detached from the states.
+     */
+    private void captureSnapshotIncrements(Map<String, Map<String, byte[]>> snapshotMap,
+                                           Map<String, Map<String, Map<String, Object>>> capturedSnapshotMap,
+                                           String partitionId, String id, Map<String, Object> itemSnapshots,
+                                           boolean asyncSnapshot) {
+        if (asyncSnapshot && isDetached(itemSnapshots)) {
+            capturedSnapshotMap.computeIfAbsent(partitionId, k -> new HashMap<>()).put(id, itemSnapshots);
+        } else {
+            addToSnapshotIncrements(snapshotMap, partitionId, id, itemSnapshots);
+        }
+    }
+
+    private void serializeCapturedIncrements(Map<String, Map<String, byte[]>> snapshotMap,
+                                             Map<String, Map<String, Map<String, Object>>> capturedSnapshotMap) {
+        for (Map.Entry<String, Map<String, Map<String, Object>>> partitionIdSnapshot :
+                capturedSnapshotMap.entrySet()) {
+            for (Map.Entry<String, Map<String, Object>> idSnapshot : partitionIdSnapshot.getValue().entrySet()) {
+                addToSnapshotIncrements(snapshotMap, partitionIdSnapshot.getKey(), idSnapshot.getKey(),
+                        idSnapshot.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return whether all the items of the snapshot are either immutable or detached {@link Snapshot}s, such that
+     * they can be serialized while the states are being changed
+     */
+    private static boolean isDetached(Map<String, Object> itemSnapshots) {
+        for (Object item : itemSnapshots.values()) {
+            if (item instanceof Snapshot) {
+                if (!((Snapshot) item).isDetached()) {
+                    return false;
+                }
+            } else if (!(item == null || item instanceof String || item instanceof Long || item instanceof Integer ||
+                    item instanceof Double || item instanceof Float || item instanceof Boolean ||
+                    item instanceof Short || item instanceof Byte || item instanceof Character ||
+                    item instanceof BigDecimal || item instanceof BigInteger || item instanceof Enum)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Object> serializeItemSnapshots(Map<String, Object> itemSnapshots) {
+        Map<String, Object> serializedItemSnapshots = new HashMap<>();
+        serializedItemSnapshots.put(PersistenceConstants.SERIALIZED_STATE,
+                ByteSerializer.objectToByte(itemSnapshots, siddhiAppContext));
+        return serializedItemSnapshots;
+    }
+
+    private Map<String, Object> deserializeItemSnapshots(Map<String, Object> itemSnapshots) {
+        if (itemSnapshots != null && itemSnapshots.containsKey(PersistenceConstants.SERIALIZED_STATE)) {
+            return (Map<String, Object>) ByteSerializer.byteToObject(
+                    (byte[]) itemSnapshots.get(PersistenceConstants.SERIALIZED_STATE), siddhiAppContext);
+        }
+        return itemSnapshots;
+    }
+
+    /**
+     * @return time the thread barrier was held by the last snapshot, in milliseconds
+     */
+    public long getLastSnapshotPauseTime() {
+        return lastSnapshotPauseTime;
+    }
+
+    /**
+     * @return time taken by the last snapshot including its serialization, in milliseconds
+     */
+    public long getLastSnapshotDuration() {
+        return lastSnapshotDuration;
+    }
+
     public Map<String, Object> queryState(String queryName) {
         Map<String, Object> queryState = new HashMap<>();
         try {
@@ -304,15 +484,16 @@ public class SnapshotService {
                 ElementStateHolder elementStateHolder = partitionIdStateHolder.queryStateHolderMap.get(queryName);
                 if (elementStateHolder != null) {
                     for (Map.Entry<String, StateHolder> elementState : elementStateHolder.elementHolderMap.entrySet()) {
-                        Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                        Map<String, Map<Object, State>> partitionKeyStates = elementState.getValue().getAllStates();
                         try {
-                            for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                            for (Map.Entry<String, Map<Object, State>> partitionKeyState :
                                     partitionKeyStates.entrySet()) {
-                                for (Map.Entry<String, State> groupByKeyState :
+                                for (Map.Entry<Object, State> groupByKeyState :
                                         partitionKeyState.getValue().entrySet()) {
                                     String id = partitionKeyState.getKey() + "--" + groupByKeyState.getKey() + "_"
                                             + queryName + "_" + elementState.getKey();
-                                    queryState.put(id, groupByKeyState.getValue().snapshot());
+                                    queryState.put(id, deserializeItemSnapshots(
+                                            groupByKeyState.getValue().snapshot()));
                                 }
                             }
                         } finally {
@@ -348,6 +529,7 @@ public class SnapshotService {
             try {
                 //cleaning old group by states
                 cleanGroupByStates();
+                Set<String> unrestoredElements = new TreeSet<>();
                 //restore data
                 for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> partitionIdSnapshot :
                         fullSnapshot.entrySet()) {
@@ -369,6 +551,7 @@ public class SnapshotService {
                                 StateHolder stateHolder =
                                         elementStateHolder.elementHolderMap.get(elementSnapshot.getKey());
                                 if (stateHolder == null) {
+                                    unrestoredElements.add(querySnapshot.getKey() + "/" + elementSnapshot.getKey());
                                     continue;
                                 }
                                 try {
@@ -394,7 +577,7 @@ public class SnapshotService {
                                         }
                                         Map<String, Object> snapshotRestores = new HashMap<>();
                                         for (Map.Entry<String, Object> itemSnapshot :
-                                                elementSnapshot.getValue().entrySet()) {
+                                                deserializeItemSnapshots(elementSnapshot.getValue()).entrySet()) {
                                             if (itemSnapshot.getValue() instanceof Snapshot) {
                                                 SnapshotStateList snapshotStateList = new SnapshotStateList();
                                                 snapshotStateList.putSnapshotState(0L,
@@ -418,6 +601,7 @@ public class SnapshotService {
                     }
 
                 }
+                warnUnrestoredElements(unrestoredElements);
             } catch (Throwable t) {
                 throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
                         siddhiAppContext.getName() + " not completed properly because content of Siddhi " +
@@ -438,6 +622,7 @@ public class SnapshotService {
             try {
                 //cleaning old group by states
                 cleanGroupByStates();
+                Set<String> unrestoredElements = new TreeSet<>();
                 //restore data
                 for (Map.Entry<String, Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>>
                         partitionIdSnapshot : snapshot.entrySet()) {
@@ -449,11 +634,13 @@ public class SnapshotService {
                          iterator = partitionIdSnapshot.getValue().entrySet().iterator(); iterator.hasNext(); ) {
                         Map.Entry<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>
                                 partitionGroupByKeySnapshot = iterator.next();
-                        restoreIncrementalSnapshot(partitionStateHolder, partitionGroupByKeySnapshot.getValue());
+                        restoreIncrementalSnapshot(partitionStateHolder, partitionGroupByKeySnapshot.getValue(),
+                                unrestoredElements);
                         iterator.remove();
                     }
 
                 }
+                warnUnrestoredElements(unrestoredElements);
             } catch (Throwable t) {
                 throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " +
                         siddhiAppContext.getName() + " not completed properly because content of Siddhi " +
@@ -467,7 +654,8 @@ public class SnapshotService {
 
     private void restoreIncrementalSnapshot(PartitionIdStateHolder partitionIdStateHolder,
                                             Map<String, Map<Long, Map<IncrementalSnapshotInfo,
-                                                    byte[]>>> incrementalStateByTime) {
+                                                    byte[]>>> incrementalStateByTime,
+                                            Set<String> unrestoredElements) {
         if (incrementalStateByTime != null) {
             String id = null;
             State state = null;
@@ -496,9 +684,13 @@ public class SnapshotService {
                                             incrementalStateByInfoEntry.getValue(),
                                             siddhiAppContext);
                             if (singleIncrementSnapshot != null) {
+                                // Snapshots of spilled states are kept serialized
+                                singleIncrementSnapshot = deserializeItemSnapshots(singleIncrementSnapshot);
                                 if (!incrementalSnapshotInfo.getId().equals(id)) {
                                     if (id != null) {
-                                        state.restore(deserializedStateMap);
+                                        if (!deserializedStateMap.isEmpty()) {
+                                            state.restore(deserializedStateMap);
+                                        }
                                         SiddhiAppContext.startPartitionFlow(id);
                                         try {
                                             stateHolder.returnState(state);
@@ -518,6 +710,8 @@ public class SnapshotService {
                                     stateHolder = elementStateHolder.elementHolderMap.get(
                                             incrementalSnapshotInfo.getElementId());
                                     if (stateHolder == null) {
+                                        unrestoredElements.add(incrementalSnapshotInfo.getQueryName() + "/" +
+                                                incrementalSnapshotInfo.getElementId());
                                         continue;
                                     }
                                     String partitionKey = null;
@@ -544,7 +738,11 @@ public class SnapshotService {
                                         deserializedStateMap = new HashMap<>();
                                     }
                                 }
-                                if (state != null) {
+                                if (state != null &&
+                                        singleIncrementSnapshot.containsKey(PersistenceConstants.REMOVED_STATE)) {
+                                    // The state was removed after its earlier revisions were taken
+                                    deserializedStateMap.clear();
+                                } else if (state != null) {
                                     for (Map.Entry<String, Object> singleIncrementSnapshotEntry :
                                             singleIncrementSnapshot.entrySet()) {
                                         if (singleIncrementSnapshotEntry.getValue() instanceof Snapshot) {
@@ -574,7 +772,9 @@ public class SnapshotService {
                         }
                     }
                     if (id != null) {
-                        state.restore(deserializedStateMap);
+                        if (!deserializedStateMap.isEmpty()) {
+                            state.restore(deserializedStateMap);
+                        }
                         SiddhiAppContext.startPartitionFlow(id);
                         try {
                             stateHolder.returnState(state);
@@ -604,6 +804,21 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Warns about the states of the snapshot kept for elements which are no longer present in their queries, such as
+     * windows which are shared since the snapshot was taken, as such states are not restored.
+     *
+     * @param unrestoredElements names of the queries and the ids of their elements whose states were not restored
+     */
+    private void warnUnrestoredElements(Set<String> unrestoredElements) {
+        if (!unrestoredElements.isEmpty()) {
+            log.warn("States of " + unrestoredElements + " of Siddhi app '" + siddhiAppContext.getName() +
+                    "' are not restored, as they are no longer present in their queries. Windows shared via " +
+                    "@app:shareWindows keep their states under the shared windows instead of the queries, hence " +
+                    "disable sharing to restore the snapshots taken before the windows were shared.");
+        }
+    }
+
     public void restoreRevision(String revision) throws CannotRestoreSiddhiAppStateException {
         PersistenceStore persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
         IncrementalPersistenceStore incrementalPersistenceStore =
@@ -18,14 +18,14 @@
 
 package io.siddhi.core.util.snapshot.state;
 
+import io.siddhi.core.config.FlowContext;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.apache.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 
 /**
  * State holder for  partitioned use case
@@ -33,133 +33,310 @@ import java.util.Set;
 public class PartitionStateHolder implements StateHolder {
     private static final Logger log = Logger.getLogger(PartitionStateHolder.class);
     private StateFactory stateFactory;
-    private Map<String, Map<String, State>> states = new HashMap<>();
+    private StateIndex states = new StateIndex();
+    // Whether states are kept against String group by keys, as done when restoring them from snapshots.
+    private boolean stringGroupByKeys = false;
+    // State resolved for the keys of the last flow, reused for the following events of the same keys until a state is
+    // removed. Keys are compared by value, as the flow keys are reset after each event. Kept in a single immutable
+    // entry, such that a thread never observes the keys of one flow along with the state of another.
+    private CachedState cachedState;
+    // Disk tier for the cold states, null when all the states are kept on heap
+    private StateSpillStore spillStore;
+    private int maxResidentStates;
+    private int spilledStateCount;
+    private boolean spillingDisabled = false;
+    private long accessCount;
 
     public PartitionStateHolder(StateFactory stateFactory) {
+        this(stateFactory, null, 0);
+    }
+
+    /**
+     * @param stateFactory      state factory
+     * @param spillStore        store to spill the cold states to, or null to keep all the states on heap
+     * @param maxResidentStates number of states to keep on heap, beyond which the least recently accessed states are
+     *                          spilled
+     */
+    public PartitionStateHolder(StateFactory stateFactory, StateSpillStore spillStore, int maxResidentStates) {
         this.stateFactory = stateFactory;
+        this.spillStore = spillStore;
+        this.maxResidentStates = maxResidentStates;
     }
 
     @Override
     public State getState() {
-        String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        String groupByFlowId = SiddhiAppContext.getGroupByFlowId();
-        Map<String, State> partitionStates = states.computeIfAbsent(partitionFlowId, k -> new HashMap<>());
-        return partitionStates.computeIfAbsent(groupByFlowId, s -> stateFactory.createNewState());
+        FlowContext flowContext = SiddhiAppContext.getFlowContext();
+        String partitionFlowId = flowContext.getPartitionKey();
+        Object groupByFlowKey = flowContext.getGroupByKey();
+        CachedState cached = cachedState;
+        if (cached != null && Objects.equals(cached.partitionKey, partitionFlowId) &&
+                Objects.equals(cached.groupByKey, groupByFlowKey)) {
+            if (spillStore != null) {
+                cached.state.lastAccess = ++accessCount;
+                spillStore.recordHit();
+            }
+            cached.state.modified = true;
+            return cached.state;
+        }
+        State state = states.get(partitionFlowId, groupByFlowKey);
+        if (state == null || state instanceof StateSpillStore.SpilledState) {
+            if (state != null) {
+                state = load(state);
+            } else if (groupByFlowKey instanceof String) {
+                stringGroupByKeys = true;
+            } else if (stringGroupByKeys && groupByFlowKey != null) {
+                // Move the state restored against the String form of the key to the typed key
+                state = load(states.remove(partitionFlowId, groupByFlowKey.toString()));
+            }
+            if (state == null) {
+                state = stateFactory.createNewState();
+            }
+            states.put(partitionFlowId, groupByFlowKey, state);
+            if (spillStore != null) {
+                spillStore.recordMiss();
+            }
+        } else if (spillStore != null) {
+            spillStore.recordHit();
+        }
+        if (spillStore != null) {
+            state.lastAccess = ++accessCount;
+            spillColdStates(state);
+        }
+        state.modified = true;
+        cachedState = new CachedState(partitionFlowId, groupByFlowKey, state);
+        return state;
     }
 
     @Override
     public void returnState(State state) {
-        String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        String groupByFlowId = SiddhiAppContext.getGroupByFlowId();
-        if (state.activeUseCount == 0) {
-            try {
-                if (state.canDestroy()) {
-                    removeState(partitionFlowId, groupByFlowId);
-                }
-            } catch (Throwable t) {
-                log.error("Dropping partition state for partition key '" + partitionFlowId +
-                        "' and the group by key '" + groupByFlowId + "', due to error! " + t.getMessage(), t);
-                removeState(partitionFlowId, groupByFlowId);
-            }
-        } else if (state.activeUseCount < 0) {
-            throw new SiddhiAppRuntimeException("State active count has reached less then zero for partition key '" +
-                    partitionFlowId + "' and the group by key '" + groupByFlowId + "', current value is " +
-                    state.activeUseCount);
-        }
+        FlowContext flowContext = SiddhiAppContext.getFlowContext();
+        returnState(flowContext.getPartitionKey(), flowContext.getGroupByKey(), state);
     }
 
-    private void removeState(String partitionFlowId, String groupByFlowId) {
-        Map<String, State> groupByStates = states.get(partitionFlowId);
-        if (groupByStates != null) {
-            groupByStates.remove(groupByFlowId);
-            if (groupByStates.isEmpty()) {
-                states.remove(partitionFlowId);
-            }
-        }
+    private void removeState(String partitionFlowId, Object groupByFlowId) {
+        cachedState = null;
+        discard(states.remove(partitionFlowId, groupByFlowId));
     }
 
-    public Map<String, Map<String, State>> getAllStates() {
-        return states;
+    /**
+     * @return a copy of the states, keyed by the partition key and the group by key, where the spilled states are
+     * kept spilled, as their snapshots are taken from their serialized records
+     */
+    public Map<String, Map<Object, State>> getAllStates() {
+        return states.getAllStates();
     }
 
+    /**
+     * @return a copy of the states of the current partition flow, keyed by the group by key, loading the spilled ones
+     */
     @Override
-    public Map<String, State> getAllGroupByStates() {
+    public Map<Object, State> getAllGroupByStates() {
         String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        return states.computeIfAbsent(partitionFlowId, k -> new HashMap<>());
+        Map<Object, State> groupByStates = states.getPartitionStates(partitionFlowId);
+        for (Map.Entry<Object, State> entry : groupByStates.entrySet()) {
+            if (entry.getValue() instanceof StateSpillStore.SpilledState) {
+                State state = load(entry.getValue());
+                states.put(partitionFlowId, entry.getKey(), state);
+                entry.setValue(state);
+            }
+            entry.getValue().modified = true;
+        }
+        return groupByStates;
     }
 
     @Override
     public State cleanGroupByStates() {
         String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        Map<String, State> groupByStates = states.remove(partitionFlowId);
-        if (groupByStates != null) {
-            return groupByStates.values().stream().findFirst().orElse(null);
+        cachedState = null;
+        State state;
+        if (spilledStateCount == 0) {
+            state = states.removePartition(partitionFlowId);
+        } else {
+            Map<Object, State> groupByStates = states.getPartitionStates(partitionFlowId);
+            state = states.removePartition(partitionFlowId);
+            for (State groupByState : groupByStates.values()) {
+                if (groupByState == state) {
+                    state = load(state);
+                } else {
+                    discard(groupByState);
+                }
+            }
+        }
+        if (state != null) {
+            state.modified = true;
+        }
+        return state;
+    }
+
+    /**
+     * @param partitionKey partition key
+     * @param groupByKey   group by key
+     * @return whether a state is held for the keys, including a spilled one
+     */
+    boolean containsState(String partitionKey, Object groupByKey) {
+        return states.get(partitionKey, groupByKey) != null;
+    }
+
+    /**
+     * Removes the state of the keys, such that it can be moved to another state holder.
+     *
+     * @param partitionKey partition key
+     * @param groupByKey   group by key
+     * @return the removed state, loaded if it was spilled, or null if there was none
+     */
+    State takeState(String partitionKey, Object groupByKey) {
+        cachedState = null;
+        return load(states.remove(partitionKey, groupByKey));
+    }
+
+    /**
+     * Adds a state moved from another state holder.
+     *
+     * @param partitionKey partition key
+     * @param groupByKey   group by key, for which no state is held
+     * @param state        state
+     */
+    void putState(String partitionKey, Object groupByKey, State state) {
+        states.put(partitionKey, groupByKey, state);
+        if (spillStore != null) {
+            state.lastAccess = ++accessCount;
+            spillColdStates(state);
         }
-        return null;
+    }
+
+    /**
+     * @return number of states held
+     */
+    public int getStateCount() {
+        return states.size();
     }
 
     @Override
     public void returnGroupByStates(Map states) {
         String partitionFlowId = SiddhiAppContext.getPartitionFlowId();
-        for (Iterator<Map.Entry<String, State>> iterator =
-             ((Set<Map.Entry<String, State>>) states.entrySet()).iterator();
-             iterator.hasNext(); ) {
-            Map.Entry<String, State> stateEntry = iterator.next();
-            State state = stateEntry.getValue();
-            if (state.activeUseCount == 0) {
-                try {
-                    if (state.canDestroy()) {
-                        iterator.remove();
-                    }
-                } catch (Throwable t) {
-                    log.error("Dropping partition state for partition key '" + partitionFlowId +
-                            "' and the group by key '" + stateEntry.getKey() + "', due to error! " + t.getMessage(), t);
-                    iterator.remove();
+        cachedState = null;
+        for (Map.Entry<Object, State> stateEntry : ((Map<Object, State>) states).entrySet()) {
+            returnState(partitionFlowId, stateEntry.getKey(), stateEntry.getValue());
+        }
+        spillColdStates(null);
+    }
+
+    @Override
+    public void returnAllStates(Map states) {
+        cachedState = null;
+        for (Map.Entry<String, Map<Object, State>> statesEntry :
+                ((Map<String, Map<Object, State>>) states).entrySet()) {
+            for (Map.Entry<Object, State> stateEntry : statesEntry.getValue().entrySet()) {
+                returnState(statesEntry.getKey(), stateEntry.getKey(), stateEntry.getValue());
+            }
+        }
+        spillColdStates(null);
+    }
+
+    private void returnState(String partitionKey, Object groupByKey, State state) {
+        if (state.activeUseCount == 0) {
+            try {
+                if (state.canDestroy()) {
+                    removeState(partitionKey, groupByKey);
                 }
-            } else if (state.activeUseCount < 0) {
-                throw new SiddhiAppRuntimeException("State active count has reached less then zero for partition key '"
-                        + partitionFlowId + "' and the group by key '" + stateEntry.getKey() + "', current value is " +
-                        state.activeUseCount);
+            } catch (Throwable t) {
+                log.error("Dropping partition state for partition key '" + partitionKey +
+                        "' and the group by key '" + groupByKey + "', due to error! " + t.getMessage(), t);
+                removeState(partitionKey, groupByKey);
             }
+        } else if (state.activeUseCount < 0) {
+            throw new SiddhiAppRuntimeException("State active count has reached less then zero for partition key '"
+                    + partitionKey + "' and the group by key '" + groupByKey + "', current value is " +
+                    state.activeUseCount);
+        }
+    }
 
+    /**
+     * Loads the state back from the spill store, if it has been spilled.
+     *
+     * @param state state or the reference to a spilled state, can be null
+     * @return the loaded state, or the given state if it was not spilled
+     */
+    private State load(State state) {
+        if (!(state instanceof StateSpillStore.SpilledState)) {
+            return state;
         }
-        if (states.isEmpty()) {
-            states.remove(partitionFlowId);
+        spilledStateCount--;
+        Map<String, Object> snapshot = spillStore.load((StateSpillStore.SpilledState) state);
+        State loadedState = stateFactory.createNewState();
+        loadedState.restore(snapshot);
+        loadedState.lastAccess = ++accessCount;
+        loadedState.modified = state.modified;
+        return loadedState;
+    }
+
+    private void discard(State state) {
+        if (state instanceof StateSpillStore.SpilledState) {
+            spilledStateCount--;
+            spillStore.discard((StateSpillStore.SpilledState) state);
         }
     }
 
-    @Override
-    public void returnAllStates(Map states) {
-        for (Iterator<Map.Entry<String, Map<String, State>>> statesIterator =
-             ((Set<Map.Entry<String, Map<String, State>>>) states.entrySet()).iterator(); statesIterator.hasNext(); ) {
-            Map.Entry<String, Map<String, State>> statesEntry = statesIterator.next();
-            for (Iterator<Map.Entry<String, State>> stateIterator = statesEntry.getValue().entrySet().iterator();
-                 stateIterator.hasNext(); ) {
-                Map.Entry<String, State> stateEntry = stateIterator.next();
-                State state = stateEntry.getValue();
-                if (state.activeUseCount == 0) {
-                    try {
-                        if (state.canDestroy()) {
-                            stateIterator.remove();
-                        }
-                    } catch (Throwable t) {
-                        log.error("Dropping partition state for partition key '" + statesEntry.getKey() +
-                                "' and the group by key '" + stateEntry.getKey() + "', due to error! " +
-                                t.getMessage(), t);
-                        stateIterator.remove();
-                    }
-                } else if (state.activeUseCount < 0) {
-                    throw new SiddhiAppRuntimeException("State active count has reached less then zero for " +
-                            "partition key '" + statesEntry.getKey() + "' and the group by key '" +
-                            stateEntry.getKey() + "', current value is " +
-                            state.activeUseCount);
-                }
+    /**
+     * Spills the least recently accessed states once the states on heap exceed their budget. States are spilled down
+     * to 90% of the budget, such that the states are not scanned each time a new state is created.
+     *
+     * @param currentState state being accessed, which is not spilled, can be null
+     */
+    private void spillColdStates(State currentState) {
+        int residentStateCount = states.size() - spilledStateCount;
+        if (spillStore == null || spillingDisabled || residentStateCount <= maxResidentStates) {
+            return;
+        }
+        int spillCount = residentStateCount - (maxResidentStates - maxResidentStates / 10);
+        long[] accesses = new long[residentStateCount];
+        int candidateCount = 0;
+        for (int slot = 0; slot < states.capacity(); slot++) {
+            State state = states.getState(slot);
+            if (isSpillCandidate(state, currentState)) {
+                accesses[candidateCount++] = state.lastAccess;
             }
-            if (statesEntry.getValue().isEmpty()) {
-                statesIterator.remove();
+        }
+        if (candidateCount == 0) {
+            return;
+        }
+        Arrays.sort(accesses, 0, candidateCount);
+        long lastAccessToSpill = accesses[Math.min(spillCount, candidateCount) - 1];
+        cachedState = null;
+        for (int slot = 0; slot < states.capacity() && spillCount > 0; slot++) {
+            State state = states.getState(slot);
+            if (isSpillCandidate(state, currentState) && state.lastAccess <= lastAccessToSpill) {
+                StateSpillStore.SpilledState spilledState = spillStore.spill(state);
+                if (spilledState == null) {
+                    log.warn("Unable to spill state of type '" + state.getClass().getName() + "' to disk, hence " +
+                            "keeping all the states of its state holder in memory.");
+                    spillingDisabled = true;
+                    return;
+                }
+                states.setState(slot, spilledState);
+                spilledStateCount++;
+                spillCount--;
             }
         }
     }
 
+    private static boolean isSpillCandidate(State state, State currentState) {
+        return state != null && state != currentState && state.activeUseCount == 0 &&
+                !(state instanceof StateSpillStore.SpilledState);
+    }
+
+    /**
+     * State resolved for the keys of a flow.
+     */
+    private static final class CachedState {
+        private final String partitionKey;
+        private final Object groupByKey;
+        private final State state;
 
+        private CachedState(String partitionKey, Object groupByKey, State state) {
+            this.partitionKey = partitionKey;
+            this.groupByKey = groupByKey;
+            this.state = state;
+        }
+    }
 }
@@ -31,8 +31,8 @@ public class SingleStateHolder implements StateHolder {
 
     private final StateFactory stateFactory;
     private State state = null;
-    final Map<String, State> groupByStates = new HashMap<>(1);
-    final Map<String, Map<String, State>> allStates = new HashMap<>(1);
+    final Map<Object, State> groupByStates = new HashMap<>(1);
+    final Map<String, Map<Object, State>> allStates = new HashMap<>(1);
 
     public SingleStateHolder(StateFactory stateFactory) {
         this.stateFactory = stateFactory;
@@ -45,6 +45,7 @@ public class SingleStateHolder implements StateHolder {
             state = stateFactory.createNewState();
             groupByStates.put(null, state);
         }
+        state.modified = true;
         return state;
     }
 
@@ -53,7 +54,7 @@ public class SingleStateHolder implements StateHolder {
         //ignore
     }
 
-    public Map<String, Map<String, State>> getAllStates() {
+    public Map<String, Map<Object, State>> getAllStates() {
         if (state == null) {
             state = stateFactory.createNewState();
             groupByStates.put(null, state);
@@ -68,17 +69,21 @@ public class SingleStateHolder implements StateHolder {
     }
 
     @Override
-    public Map<String, State> getAllGroupByStates() {
+    public Map<Object, State> getAllGroupByStates() {
         if (state == null) {
             state = stateFactory.createNewState();
             groupByStates.put(null, state);
         }
+        state.modified = true;
         return groupByStates;
     }
 
     @Override
     public State cleanGroupByStates() {
         State returnValue = state;
+        if (returnValue != null) {
+            returnValue.modified = true;
+        }
         state = null;
         groupByStates.clear();
         return returnValue;
@@ -31,8 +31,8 @@ public class SingleSyncStateHolder implements StateHolder {
 
     private final StateFactory stateFactory;
     private State state = null;
-    final Map<String, State> groupByStates = new HashMap<>(1);
-    final Map<String, Map<String, State>> allStates = new HashMap<>(1);
+    final Map<Object, State> groupByStates = new HashMap<>(1);
+    final Map<String, Map<Object, State>> allStates = new HashMap<>(1);
 
     public SingleSyncStateHolder(StateFactory stateFactory) {
         this.stateFactory = stateFactory;
@@ -49,6 +49,7 @@ public class SingleSyncStateHolder implements StateHolder {
                 }
             }
         }
+        state.modified = true;
         return state;
     }
 
@@ -57,7 +58,7 @@ public class SingleSyncStateHolder implements StateHolder {
         //ignore
     }
 
-    public Map<String, Map<String, State>> getAllStates() {
+    public Map<String, Map<Object, State>> getAllStates() {
         if (state == null) {
             synchronized (this) {
                 if (state == null) {
@@ -76,7 +77,7 @@ public class SingleSyncStateHolder implements StateHolder {
     }
 
     @Override
-    public Map<String, State> getAllGroupByStates() {
+    public Map<Object, State> getAllGroupByStates() {
         if (state == null) {
             synchronized (this) {
                 if (state == null) {
@@ -85,12 +86,16 @@ public class SingleSyncStateHolder implements StateHolder {
                 }
             }
         }
+        state.modified = true;
         return groupByStates;
     }
 
     @Override
     public synchronized State cleanGroupByStates() {
         State returnValue = state;
+        if (returnValue != null) {
+            returnValue.modified = true;
+        }
         state = null;
         groupByStates.clear();
         return returnValue;
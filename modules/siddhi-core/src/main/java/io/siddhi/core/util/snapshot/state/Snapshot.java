@@ -18,14 +18,24 @@
 
 package io.siddhi.core.util.snapshot.state;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.function.UnaryOperator;
 
 /**
  * The class which encloses the state to be serialized.
+ * <p>
+ * Snapshots created as detached keep a state which is not changed once the snapshot is taken, such that they can be
+ * serialized after the events are processed further, as done by asynchronous snapshots. The state can still be shared
+ * with its holder, in which case the holder calls {@link #copyOnWrite(UnaryOperator)} before changing it.
  */
 public class Snapshot implements Serializable {
+    private static final long serialVersionUID = 5491377303038640197L;
     private Object state;
     private boolean isIncrementalSnapshot;
+    private transient boolean detached;
+    private transient boolean serialized;
 
     public Snapshot(Object state) {
         this.state = state;
@@ -37,6 +47,18 @@ public class Snapshot implements Serializable {
         this.isIncrementalSnapshot = isIncrementalSnapshot;
     }
 
+    /**
+     * @param state                 state
+     * @param isIncrementalSnapshot whether the state is an increment of the earlier snapshots
+     * @param detached              whether the state is not changed by its holder, other than after calling
+     *                              {@link #copyOnWrite(UnaryOperator)}
+     */
+    public Snapshot(Object state, boolean isIncrementalSnapshot, boolean detached) {
+        this.state = state;
+        this.isIncrementalSnapshot = isIncrementalSnapshot;
+        this.detached = detached;
+    }
+
     public boolean isIncrementalSnapshot() {
         return isIncrementalSnapshot;
     }
@@ -44,4 +66,28 @@ public class Snapshot implements Serializable {
     public Object getState() {
         return state;
     }
+
+    /**
+     * @return whether the state is not changed by its holder, such that the snapshot can be serialized later
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * Called by the holder of a shared state before changing it, which replaces the state of the snapshot by a copy
+     * unless the snapshot is already serialized. Waits while the snapshot is being serialized.
+     *
+     * @param copier function copying the state
+     */
+    public synchronized void copyOnWrite(UnaryOperator<Object> copier) {
+        if (!serialized) {
+            state = copier.apply(state);
+        }
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        serialized = true;
+    }
 }
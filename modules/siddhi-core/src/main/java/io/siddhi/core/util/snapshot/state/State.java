@@ -26,6 +26,10 @@ import java.util.Map;
 public abstract class State {
 
     int activeUseCount = 0;
+    // Order of the last access, used to find the cold states to be spilled
+    long lastAccess = 0;
+    // Whether the state may have changed since it was last included in an incremental snapshot
+    boolean modified = true;
 
     public abstract boolean canDestroy();
 
@@ -33,4 +37,22 @@ public abstract class State {
 
     public abstract void restore(Map<String, Object> state);
 
+    /**
+     * @return whether the state may have changed since it was last included in an incremental snapshot
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Marks whether the state has changed since it was last included in an incremental snapshot. The state holders
+     * mark the states they hand out through getState() and getAllGroupByStates(), hence states only have to be marked
+     * explicitly when they are changed through other references.
+     *
+     * @param modified whether the state has changed
+     */
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
 }
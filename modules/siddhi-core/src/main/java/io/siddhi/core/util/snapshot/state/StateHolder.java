@@ -22,6 +22,16 @@ import java.util.Map;
 
 /**
  * Holder to have all the states
+ * <p>
+ * States are keyed by partition key and by group by key. Group by keys are the
+ * {@link io.siddhi.core.query.selector.GroupByKey}s of the group by queries, or the String keys of output rate
+ * limiters and of states restored from snapshots taken before group by keys were typed. {@link Object#toString()}
+ * of a group by key gives the String form used before, which is also the group by part of the snapshot ids.
+ * <p>
+ * The group by keys used to be Strings, hence code declaring the maps of {@link #getAllStates()} and
+ * {@link #getAllGroupByStates()} with String group by keys has to declare them with Object keys, and should use
+ * {@code String.valueOf(key)} where a String key is needed. The erased signatures are unchanged, such that compiled
+ * extensions keep linking.
  *
  * @param <S> state
  */
@@ -31,13 +41,19 @@ public interface StateHolder<S extends State> {
 
     void returnState(S state);
 
-    Map<String, Map<String, S>> getAllStates();
+    /**
+     * @return states of all partition keys, by partition key and group by key
+     */
+    Map<String, Map<Object, S>> getAllStates();
 
-    void returnAllStates(Map<String, Map<String, S>> states);
+    void returnAllStates(Map<String, Map<Object, S>> states);
 
-    Map<String, S> getAllGroupByStates();
+    /**
+     * @return states of the current partition key, by group by key
+     */
+    Map<Object, S> getAllGroupByStates();
 
     S cleanGroupByStates();
 
-    void returnGroupByStates(Map<String, S> states);
+    void returnGroupByStates(Map<Object, S> states);
 }
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.snapshot.state;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact index of the states of {@link PartitionStateHolder}, keyed by the partition key and the group by key.
+ * <p>
+ * States are kept in a flat open addressing table with linear probing, using parallel arrays instead of an entry
+ * object per state and a nested map per partition key. The states of a partition key are linked through the table
+ * slots, and the first slot of each partition key is kept in a second open addressing table, such that the states of
+ * a partition key can be visited without scanning the whole table. Removals shift the following entries back instead
+ * of leaving tombstones.
+ * <p>
+ * This class is not thread safe.
+ */
+final class StateIndex {
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // State table, where an empty slot has a null state
+    private String[] partitionKeys;
+    private Object[] groupByKeys;
+    private State[] states;
+    private int[] hashes;
+    private int[] nextInPartition;
+    private int[] previousInPartition;
+    private int size;
+
+    // Partition key table, holding the first slot + 1 of the states of each partition key, where 0 marks empty slots
+    private String[] indexedPartitionKeys;
+    private int[] partitionHeads;
+    private int partitionCount;
+
+    StateIndex() {
+        initStates(INITIAL_CAPACITY);
+        initPartitions(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    State get(String partitionKey, Object groupByKey) {
+        int slot = findSlot(partitionKey, groupByKey, hash(partitionKey, groupByKey));
+        return slot == NONE ? null : states[slot];
+    }
+
+    void put(String partitionKey, Object groupByKey, State state) {
+        int hash = hash(partitionKey, groupByKey);
+        int slot = findSlot(partitionKey, groupByKey, hash);
+        if (slot != NONE) {
+            states[slot] = state;
+            return;
+        }
+        if ((size + 1) * 4L > states.length * 3L) {
+            resizeStates(states.length * 2);
+        }
+        insert(partitionKey, groupByKey, state, hash);
+    }
+
+    State remove(String partitionKey, Object groupByKey) {
+        int slot = findSlot(partitionKey, groupByKey, hash(partitionKey, groupByKey));
+        if (slot == NONE) {
+            return null;
+        }
+        State state = states[slot];
+        unlink(slot);
+        deleteSlot(slot);
+        return state;
+    }
+
+    /**
+     * Removes all the states of the partition key.
+     *
+     * @param partitionKey partition key
+     * @return one of the removed states, or null if there were none
+     */
+    State removePartition(String partitionKey) {
+        int slot = getPartitionHead(partitionKey);
+        if (slot == NONE) {
+            return null;
+        }
+        State state = states[slot];
+        // Removals move the entries of the table, hence the states are removed starting from the head each time
+        for (; slot != NONE; slot = getPartitionHead(partitionKey)) {
+            unlink(slot);
+            deleteSlot(slot);
+        }
+        return state;
+    }
+
+    /**
+     * @param partitionKey partition key
+     * @return a copy of the states of the partition key, keyed by the group by key
+     */
+    Map<Object, State> getPartitionStates(String partitionKey) {
+        Map<Object, State> partitionStates = new HashMap<>();
+        for (int slot = getPartitionHead(partitionKey); slot != NONE; slot = nextInPartition[slot]) {
+            partitionStates.put(groupByKeys[slot], states[slot]);
+        }
+        return partitionStates;
+    }
+
+    /**
+     * @return a copy of all the states, keyed by the partition key and the group by key
+     */
+    Map<String, Map<Object, State>> getAllStates() {
+        Map<String, Map<Object, State>> allStates = new HashMap<>();
+        for (int slot = 0; slot < states.length; slot++) {
+            if (states[slot] != null) {
+                allStates.computeIfAbsent(partitionKeys[slot], k -> new HashMap<>())
+                        .put(groupByKeys[slot], states[slot]);
+            }
+        }
+        return allStates;
+    }
+
+    /**
+     * @return number of slots of the state table, to be visited through {@link #getState(int)}
+     */
+    int capacity() {
+        return states.length;
+    }
+
+    /**
+     * @param slot slot of the state table
+     * @return the state at the slot, or null if the slot is empty
+     */
+    State getState(int slot) {
+        return states[slot];
+    }
+
+    /**
+     * Replaces the state at an occupied slot of the state table.
+     *
+     * @param slot  slot of the state table
+     * @param state new state
+     */
+    void setState(int slot, State state) {
+        states[slot] = state;
+    }
+
+    private static int hash(String partitionKey, Object groupByKey) {
+        return mix(31 * Objects.hashCode(partitionKey) + Objects.hashCode(groupByKey));
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void initStates(int capacity) {
+        partitionKeys = new String[capacity];
+        groupByKeys = new Object[capacity];
+        states = new State[capacity];
+        hashes = new int[capacity];
+        nextInPartition = new int[capacity];
+        previousInPartition = new int[capacity];
+        size = 0;
+    }
+
+    private void initPartitions(int capacity) {
+        indexedPartitionKeys = new String[capacity];
+        partitionHeads = new int[capacity];
+        partitionCount = 0;
+    }
+
+    private int findSlot(String partitionKey, Object groupByKey, int hash) {
+        int mask = states.length - 1;
+        for (int slot = hash & mask; states[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && Objects.equals(groupByKeys[slot], groupByKey) &&
+                    Objects.equals(partitionKeys[slot], partitionKey)) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+
+    private void insert(String partitionKey, Object groupByKey, State state, int hash) {
+        int mask = states.length - 1;
+        int slot = hash & mask;
+        while (states[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        partitionKeys[slot] = partitionKey;
+        groupByKeys[slot] = groupByKey;
+        states[slot] = state;
+        hashes[slot] = hash;
+        int head = getPartitionHead(partitionKey);
+        nextInPartition[slot] = head;
+        previousInPartition[slot] = NONE;
+        if (head != NONE) {
+            previousInPartition[head] = slot;
+        }
+        setPartitionHead(partitionKey, slot);
+        size++;
+    }
+
+    private void resizeStates(int capacity) {
+        String[] oldPartitionKeys = partitionKeys;
+        Object[] oldGroupByKeys = groupByKeys;
+        State[] oldStates = states;
+        int[] oldHashes = hashes;
+        initStates(capacity);
+        initPartitions(indexedPartitionKeys.length);
+        for (int slot = 0; slot < oldStates.length; slot++) {
+            if (oldStates[slot] != null) {
+                insert(oldPartitionKeys[slot], oldGroupByKeys[slot], oldStates[slot], oldHashes[slot]);
+            }
+        }
+    }
+
+    private void unlink(int slot) {
+        int previous = previousInPartition[slot];
+        int next = nextInPartition[slot];
+        if (previous != NONE) {
+            nextInPartition[previous] = next;
+        } else if (next != NONE) {
+            setPartitionHead(partitionKeys[slot], next);
+        } else {
+            removePartitionHead(partitionKeys[slot]);
+        }
+        if (next != NONE) {
+            previousInPartition[next] = previous;
+        }
+    }
+
+    /**
+     * Empties the slot and moves back the following entries of the probe sequence which cannot be found otherwise.
+     */
+    private void deleteSlot(int slot) {
+        int mask = states.length - 1;
+        int hole = slot;
+        clearSlot(hole);
+        for (int current = (hole + 1) & mask; states[current] != null; current = (current + 1) & mask) {
+            int ideal = hashes[current] & mask;
+            if (!isCyclicallyBetween(hole, ideal, current)) {
+                moveSlot(current, hole);
+                hole = current;
+            }
+        }
+        size--;
+    }
+
+    /**
+     * @return whether the position is within (from, to] when moving forward over the table
+     */
+    private static boolean isCyclicallyBetween(int from, int position, int to) {
+        if (from <= to) {
+            return from < position && position <= to;
+        }
+        return from < position || position <= to;
+    }
+
+    private void moveSlot(int from, int to) {
+        partitionKeys[to] = partitionKeys[from];
+        groupByKeys[to] = groupByKeys[from];
+        states[to] = states[from];
+        hashes[to] = hashes[from];
+        int previous = previousInPartition[from];
+        int next = nextInPartition[from];
+        previousInPartition[to] = previous;
+        nextInPartition[to] = next;
+        if (previous != NONE) {
+            nextInPartition[previous] = to;
+        } else {
+            setPartitionHead(partitionKeys[to], to);
+        }
+        if (next != NONE) {
+            previousInPartition[next] = to;
+        }
+        clearSlot(from);
+    }
+
+    private void clearSlot(int slot) {
+        partitionKeys[slot] = null;
+        groupByKeys[slot] = null;
+        states[slot] = null;
+    }
+
+    private int getPartitionHead(String partitionKey) {
+        int mask = partitionHeads.length - 1;
+        for (int slot = mix(Objects.hashCode(partitionKey)) & mask; partitionHeads[slot] != 0;
+             slot = (slot + 1) & mask) {
+            if (Objects.equals(indexedPartitionKeys[slot], partitionKey)) {
+                return partitionHeads[slot] - 1;
+            }
+        }
+        return NONE;
+    }
+
+    private void setPartitionHead(String partitionKey, int head) {
+        int mask = partitionHeads.length - 1;
+        int slot = mix(Objects.hashCode(partitionKey)) & mask;
+        for (; partitionHeads[slot] != 0; slot = (slot + 1) & mask) {
+            if (Objects.equals(indexedPartitionKeys[slot], partitionKey)) {
+                partitionHeads[slot] = head + 1;
+                return;
+            }
+        }
+        if ((partitionCount + 1) * 4L > partitionHeads.length * 3L) {
+            resizePartitions(partitionHeads.length * 2);
+            setPartitionHead(partitionKey, head);
+            return;
+        }
+        indexedPartitionKeys[slot] = partitionKey;
+        partitionHeads[slot] = head + 1;
+        partitionCount++;
+    }
+
+    private void resizePartitions(int capacity) {
+        String[] oldIndexedPartitionKeys = indexedPartitionKeys;
+        int[] oldPartitionHeads = partitionHeads;
+        initPartitions(capacity);
+        for (int slot = 0; slot < oldPartitionHeads.length; slot++) {
+            if (oldPartitionHeads[slot] != 0) {
+                setPartitionHead(oldIndexedPartitionKeys[slot], oldPartitionHeads[slot] - 1);
+            }
+        }
+    }
+
+    private void removePartitionHead(String partitionKey) {
+        int mask = partitionHeads.length - 1;
+        int hole = mix(Objects.hashCode(partitionKey)) & mask;
+        while (!Objects.equals(indexedPartitionKeys[hole], partitionKey)) {
+            hole = (hole + 1) & mask;
+        }
+        indexedPartitionKeys[hole] = null;
+        partitionHeads[hole] = 0;
+        partitionCount--;
+        for (int current = (hole + 1) & mask; partitionHeads[current] != 0; current = (current + 1) & mask) {
+            int ideal = mix(Objects.hashCode(indexedPartitionKeys[current])) & mask;
+            if (!isCyclicallyBetween(hole, ideal, current)) {
+                indexedPartitionKeys[hole] = indexedPartitionKeys[current];
+                partitionHeads[hole] = partitionHeads[current];
+                indexedPartitionKeys[current] = null;
+                partitionHeads[current] = 0;
+                hole = current;
+            }
+        }
+    }
+}
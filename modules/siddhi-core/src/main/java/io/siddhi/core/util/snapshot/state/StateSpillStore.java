@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.state;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.persistence.util.PersistenceConstants;
+import io.siddhi.core.util.snapshot.ByteSerializer;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Disk tier of the states of a Siddhi App, holding the cold states spilled by the {@link PartitionStateHolder}s.
+ * <p>
+ * Spilled states are serialized from their snapshots and appended to a local log file, while the state holders keep a
+ * {@link SpilledState} in place of each of them, pointing to its record in the file. Records of states which are
+ * loaded back or discarded become garbage, and the file is compacted in the background once the garbage outgrows the
+ * live records. Snapshots of the spilled states are taken from their records, without loading them back. The file is
+ * created on the first spill and deleted when the store is closed.
+ */
+public class StateSpillStore {
+
+    private static final Logger log = Logger.getLogger(StateSpillStore.class);
+    private static final long MIN_COMPACTION_SIZE = 16 * 1024 * 1024;
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final File directory;
+    private final int maxResidentStates;
+    private final Set<SpilledState> spilledStates = Collections.newSetFromMap(new IdentityHashMap<>());
+    private File file;
+    private FileChannel channel;
+    private long fileSize;
+    private long liveSize;
+    private boolean compacting;
+    private boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder faultTime = new LongAdder();
+
+    /**
+     * @param siddhiAppContext  Siddhi app context
+     * @param directory         directory to keep the spill file at
+     * @param maxResidentStates number of states each state holder keeps on heap before spilling the cold ones
+     */
+    public StateSpillStore(SiddhiAppContext siddhiAppContext, File directory, int maxResidentStates) {
+        this.siddhiAppContext = siddhiAppContext;
+        this.directory = directory;
+        this.maxResidentStates = maxResidentStates;
+    }
+
+    public int getMaxResidentStates() {
+        return maxResidentStates;
+    }
+
+    /**
+     * Writes the snapshot of the state to the spill file.
+     *
+     * @param state state to be spilled
+     * @return the reference to the spilled state, or null if the state cannot be serialized
+     */
+    SpilledState spill(State state) {
+        byte[] bytes = ByteSerializer.objectToByte(state.snapshot(), siddhiAppContext);
+        if (bytes == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            try {
+                if (channel == null) {
+                    file = createFile();
+                    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                SpilledState spilledState = new SpilledState(this, fileSize, bytes.length);
+                spilledState.modified = state.modified;
+                write(channel, ByteBuffer.wrap(bytes), fileSize);
+                fileSize += bytes.length;
+                liveSize += bytes.length;
+                spilledStates.add(spilledState);
+                return spilledState;
+            } catch (IOException e) {
+                log.error("Error while spilling state of Siddhi App '" + siddhiAppContext.getName() + "' to '" +
+                        directory + "', hence keeping it in memory. " + e.getMessage(), e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Reads the snapshot of the spilled state and discards it from the spill file.
+     *
+     * @param spilledState reference to the spilled state
+     * @return snapshot of the state
+     */
+    Map<String, Object> load(SpilledState spilledState) {
+        long start = System.nanoTime();
+        byte[] bytes;
+        synchronized (this) {
+            bytes = read(spilledState);
+            discard(spilledState);
+        }
+        Map<String, Object> snapshot = (Map<String, Object>) ByteSerializer.byteToObject(bytes, siddhiAppContext);
+        if (snapshot == null) {
+            throw new SiddhiAppRuntimeException("Error while loading spilled state of Siddhi App '" +
+                    siddhiAppContext.getName() + "', as its snapshot cannot be read");
+        }
+        faults.increment();
+        faultTime.add(System.nanoTime() - start);
+        return snapshot;
+    }
+
+    /**
+     * Reads the serialized snapshot of the spilled state, keeping it spilled.
+     *
+     * @param spilledState reference to the spilled state
+     * @return serialized snapshot of the state
+     */
+    synchronized byte[] read(SpilledState spilledState) {
+        if (closed) {
+            throw new SiddhiAppRuntimeException("State spill store of Siddhi App '" +
+                    siddhiAppContext.getName() + "' is closed");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(spilledState.length);
+        try {
+            read(channel, buffer, spilledState.position);
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error while loading spilled state of Siddhi App '" +
+                    siddhiAppContext.getName() + "', " + e.getMessage(), e);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Discards the spilled state, which is no longer needed.
+     *
+     * @param spilledState reference to the spilled state
+     */
+    synchronized void discard(SpilledState spilledState) {
+        if (spilledStates.remove(spilledState)) {
+            liveSize -= spilledState.length;
+            if (compacting) {
+                return;
+            }
+            if (spilledStates.isEmpty()) {
+                // The whole file is garbage, hence it is overwritten from the start
+                fileSize = 0;
+            } else if (fileSize > MIN_COMPACTION_SIZE && fileSize - liveSize > liveSize) {
+                compacting = true;
+                ExecutorService executorService = siddhiAppContext.getExecutorService();
+                if (executorService == null) {
+                    compact();
+                    return;
+                }
+                try {
+                    executorService.execute(this::compact);
+                } catch (RejectedExecutionException e) {
+                    // The Siddhi App is shutting down
+                    compacting = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites the live records to a new spill file, updating the positions of their references. The records are
+     * copied without holding the store, such that states can be spilled and loaded meanwhile, and only the records
+     * spilled during the copy are copied while holding it.
+     */
+    private void compact() {
+        List<SpilledState> states;
+        FileChannel sourceChannel;
+        synchronized (this) {
+            if (closed) {
+                compacting = false;
+                return;
+            }
+            states = new ArrayList<>(spilledStates);
+            sourceChannel = channel;
+        }
+        File compactedFile = null;
+        FileChannel compactedChannel = null;
+        try {
+            compactedFile = createFile();
+            compactedChannel = FileChannel.open(compactedFile.toPath(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            // Records are not moved while compacting, as the file is only rewritten from the start when all
+            // of them are discarded, which is not done while compacting
+            Map<SpilledState, Long> positions = new IdentityHashMap<>();
+            long position = 0;
+            for (SpilledState spilledState : states) {
+                copy(sourceChannel, spilledState, compactedChannel, position);
+                positions.put(spilledState, position);
+                position += spilledState.length;
+            }
+            synchronized (this) {
+                if (closed) {
+                    closeAndDelete(compactedFile, compactedChannel);
+                    return;
+                }
+                for (SpilledState spilledState : spilledStates) {
+                    if (!positions.containsKey(spilledState)) {
+                        copy(channel, spilledState, compactedChannel, position);
+                        positions.put(spilledState, position);
+                        position += spilledState.length;
+                    }
+                }
+                // Positions are only updated once all the records are copied, such that failures leave them intact
+                for (SpilledState spilledState : spilledStates) {
+                    spilledState.position = positions.get(spilledState);
+                }
+                File oldFile = file;
+                FileChannel oldChannel = channel;
+                file = compactedFile;
+                channel = compactedChannel;
+                fileSize = position;
+                closeAndDelete(oldFile, oldChannel);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (!closed) {
+                    log.error("Error while compacting the spill file '" + file + "' of Siddhi App '" +
+                            siddhiAppContext.getName() + "'. " + e.getMessage(), e);
+                }
+            }
+            if (compactedChannel != null) {
+                closeAndDelete(compactedFile, compactedChannel);
+            } else if (compactedFile != null) {
+                compactedFile.delete();
+            }
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    private void copy(FileChannel sourceChannel, SpilledState spilledState, FileChannel targetChannel,
+                      long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(spilledState.length);
+        read(sourceChannel, buffer, spilledState.position);
+        buffer.flip();
+        write(targetChannel, buffer, position);
+    }
+
+    private void closeAndDelete(File file, FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Error while closing the spill file '" + file + "' of Siddhi App '" +
+                    siddhiAppContext.getName() + "'. " + e.getMessage());
+        }
+        if (!file.delete()) {
+            log.warn("Unable to delete the spill file '" + file + "' of Siddhi App '" +
+                    siddhiAppContext.getName() + "'.");
+        }
+    }
+
+    private File createFile() throws IOException {
+        File file = File.createTempFile("siddhi-" + siddhiAppContext.getName().replaceAll("\\W", "_") + "-",
+                ".spill", directory);
+        file.deleteOnExit();
+        return file;
+    }
+
+    private void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of spill file '" + file + "'");
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * @return number of state accesses which found the state on heap
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of state accesses which did not find the state on heap, including the ones creating new states
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of states loaded back from the spill file
+     */
+    public long getFaultCount() {
+        return faults.sum();
+    }
+
+    /**
+     * @return average time taken to load a spilled state back, in microseconds
+     */
+    public long getAverageFaultLatency() {
+        long faultCount = faults.sum();
+        return faultCount == 0 ? 0 : faultTime.sum() / faultCount / 1000;
+    }
+
+    /**
+     * @return number of states currently spilled
+     */
+    public synchronized int getSpilledStateCount() {
+        return spilledStates.size();
+    }
+
+    /**
+     * Closes the store and deletes its spill file.
+     */
+    public synchronized void close() {
+        closed = true;
+        spilledStates.clear();
+        if (channel != null) {
+            closeAndDelete(file, channel);
+            channel = null;
+        }
+    }
+
+    /**
+     * Placeholder kept by the state holders in place of a state spilled to disk.
+     */
+    static final class SpilledState extends State {
+        private final StateSpillStore spillStore;
+        private long position;
+        private final int length;
+
+        private SpilledState(StateSpillStore spillStore, long position, int length) {
+            this.spillStore = spillStore;
+            this.position = position;
+            this.length = length;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return false;
+        }
+
+        /**
+         * @return the serialized snapshot of the state, which is restored the same way as the snapshots serialized
+         * while taking asynchronous snapshots
+         */
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put(PersistenceConstants.SERIALIZED_STATE, spillStore.read(this));
+            return snapshot;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            throw new IllegalStateException("Spilled states have to be loaded before restoring them");
+        }
+    }
+}
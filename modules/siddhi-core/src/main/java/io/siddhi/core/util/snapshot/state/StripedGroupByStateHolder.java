@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.state;
+
+import io.siddhi.core.config.FlowContext;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.query.selector.GroupByKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State holder for group by queries whose group by keys are selected concurrently under lock stripes. The states of
+ * each group by key are kept in the stripe of the lock guarding the key, selected via
+ * {@link #getStripeIndex(Object, int)}, hence the stripes are not synchronized, as they are only accessed while
+ * holding their lock, all the locks, or the thread barrier.
+ * <p>
+ * States resolved for the String form of the group by keys, as done when restoring snapshots, are kept apart and
+ * moved to the stripe of the typed key when the key is first accessed.
+ */
+public class StripedGroupByStateHolder implements StateHolder {
+    private final PartitionStateHolder[] stripes;
+    private final PartitionStateHolder restoredStates;
+    private volatile boolean hasRestoredStates = false;
+
+    /**
+     * @param stateFactory state factory
+     * @param stripeCount  number of stripes, which should be the number of lock stripes guarding the group by keys
+     * @param spillStore   store to spill the cold states to, or null to keep all the states on heap, where the
+     *                     budget of the states kept on heap is shared by the stripes
+     */
+    public StripedGroupByStateHolder(StateFactory stateFactory, int stripeCount, StateSpillStore spillStore) {
+        stripes = new PartitionStateHolder[stripeCount];
+        int maxResidentStates = spillStore == null ? 0 :
+                Math.max(1, spillStore.getMaxResidentStates() / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new PartitionStateHolder(stateFactory, spillStore, maxResidentStates);
+        }
+        restoredStates = new PartitionStateHolder(stateFactory);
+    }
+
+    /**
+     * @param groupByKey  group by key, can be null
+     * @param stripeCount number of stripes
+     * @return index of the stripe or the lock the group by key belongs to
+     */
+    public static int getStripeIndex(Object groupByKey, int stripeCount) {
+        if (groupByKey == null) {
+            return 0;
+        }
+        int hash = groupByKey.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % stripeCount;
+    }
+
+    @Override
+    public State getState() {
+        FlowContext flowContext = SiddhiAppContext.getFlowContext();
+        Object groupByKey = flowContext.getGroupByKey();
+        if (!(groupByKey instanceof GroupByKey)) {
+            synchronized (restoredStates) {
+                hasRestoredStates = true;
+                return restoredStates.getState();
+            }
+        }
+        PartitionStateHolder stripe = stripes[getStripeIndex(groupByKey, stripes.length)];
+        if (hasRestoredStates && !stripe.containsState(flowContext.getPartitionKey(), groupByKey)) {
+            State state;
+            synchronized (restoredStates) {
+                state = restoredStates.takeState(flowContext.getPartitionKey(), groupByKey.toString());
+                hasRestoredStates = restoredStates.getStateCount() > 0;
+            }
+            if (state != null) {
+                stripe.putState(flowContext.getPartitionKey(), groupByKey, state);
+            }
+        }
+        return stripe.getState();
+    }
+
+    @Override
+    public void returnState(State state) {
+        Object groupByKey = SiddhiAppContext.getGroupByFlowKey();
+        if (!(groupByKey instanceof GroupByKey)) {
+            synchronized (restoredStates) {
+                restoredStates.returnState(state);
+            }
+            return;
+        }
+        stripes[getStripeIndex(groupByKey, stripes.length)].returnState(state);
+    }
+
+    @Override
+    public Map<String, Map<Object, State>> getAllStates() {
+        Map<String, Map<Object, State>> states = new HashMap<>();
+        for (PartitionStateHolder stripe : stripes) {
+            mergeAllStates(states, stripe.getAllStates());
+        }
+        synchronized (restoredStates) {
+            mergeAllStates(states, restoredStates.getAllStates());
+        }
+        return states;
+    }
+
+    private static void mergeAllStates(Map<String, Map<Object, State>> states,
+                                       Map<String, Map<Object, State>> stripeStates) {
+        for (Map.Entry<String, Map<Object, State>> entry : stripeStates.entrySet()) {
+            states.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).putAll(entry.getValue());
+        }
+    }
+
+    @Override
+    public void returnAllStates(Map states) {
+        Map<String, Map<Object, State>>[] stripeStates = new Map[stripes.length + 1];
+        for (int i = 0; i < stripeStates.length; i++) {
+            stripeStates[i] = new HashMap<>();
+        }
+        for (Map.Entry<String, Map<Object, State>> entry :
+                ((Map<String, Map<Object, State>>) states).entrySet()) {
+            for (Map.Entry<Object, State> stateEntry : entry.getValue().entrySet()) {
+                stripeStates[getStripeIndex(stateEntry.getKey())]
+                        .computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                        .put(stateEntry.getKey(), stateEntry.getValue());
+            }
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i].returnAllStates(stripeStates[i]);
+        }
+        synchronized (restoredStates) {
+            restoredStates.returnAllStates(stripeStates[stripes.length]);
+        }
+    }
+
+    @Override
+    public Map<Object, State> getAllGroupByStates() {
+        Map<Object, State> groupByStates = new HashMap<>();
+        for (PartitionStateHolder stripe : stripes) {
+            groupByStates.putAll(stripe.getAllGroupByStates());
+        }
+        synchronized (restoredStates) {
+            groupByStates.putAll(restoredStates.getAllGroupByStates());
+        }
+        return groupByStates;
+    }
+
+    @Override
+    public State cleanGroupByStates() {
+        State state = null;
+        for (PartitionStateHolder stripe : stripes) {
+            State stripeState = stripe.cleanGroupByStates();
+            if (state == null) {
+                state = stripeState;
+            }
+        }
+        synchronized (restoredStates) {
+            State restoredState = restoredStates.cleanGroupByStates();
+            if (state == null) {
+                state = restoredState;
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public void returnGroupByStates(Map states) {
+        Map<Object, State>[] stripeStates = new Map[stripes.length + 1];
+        for (int i = 0; i < stripeStates.length; i++) {
+            stripeStates[i] = new HashMap<>();
+        }
+        for (Map.Entry<Object, State> entry : ((Map<Object, State>) states).entrySet()) {
+            stripeStates[getStripeIndex(entry.getKey())].put(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i].returnGroupByStates(stripeStates[i]);
+        }
+        synchronized (restoredStates) {
+            restoredStates.returnGroupByStates(stripeStates[stripes.length]);
+        }
+    }
+
+    /**
+     * @return index of the stripe of the group by key, or the number of stripes for the keys of the restored states
+     */
+    private int getStripeIndex(Object groupByKey) {
+        if (groupByKey instanceof GroupByKey) {
+            return getStripeIndex(groupByKey, stripes.length);
+        }
+        return stripes.length;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.snapshot.state;
+
+import io.siddhi.core.config.SiddhiAppContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State holder for partitions processed in parallel, which keeps the states of each partition key in one of its
+ * stripes. Stripes are selected via {@link #getStripeIndex(String, int)}, the same way the partition keys are
+ * assigned to the partition workers, hence each stripe is only contended by the worker owning it.
+ */
+public class StripedPartitionStateHolder implements StateHolder {
+    private final StateHolder[] stripes;
+
+    public StripedPartitionStateHolder(StateFactory stateFactory, int stripeCount, boolean unSafe) {
+        this(stateFactory, stripeCount, unSafe, null);
+    }
+
+    /**
+     * @param stateFactory state factory
+     * @param stripeCount  number of stripes
+     * @param unSafe       whether the stripes can be used without synchronization
+     * @param spillStore   store to spill the cold states to, or null to keep all the states on heap, where the
+     *                     budget of the states kept on heap is shared by the stripes
+     */
+    public StripedPartitionStateHolder(StateFactory stateFactory, int stripeCount, boolean unSafe,
+                                       StateSpillStore spillStore) {
+        stripes = new StateHolder[stripeCount];
+        int maxResidentStates = spillStore == null ? 0 :
+                Math.max(1, spillStore.getMaxResidentStates() / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            if (unSafe) {
+                stripes[i] = new PartitionStateHolder(stateFactory, spillStore, maxResidentStates);
+            } else {
+                stripes[i] = new PartitionSyncStateHolder(stateFactory, spillStore, maxResidentStates);
+            }
+        }
+    }
+
+    /**
+     * @param partitionKey partition key, can be null
+     * @param stripeCount  number of stripes
+     * @return index of the stripe or the worker the partition key belongs to
+     */
+    public static int getStripeIndex(String partitionKey, int stripeCount) {
+        if (partitionKey == null) {
+            return 0;
+        }
+        int hash = partitionKey.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % stripeCount;
+    }
+
+    private StateHolder getStripe() {
+        return stripes[getStripeIndex(SiddhiAppContext.getPartitionFlowId(), stripes.length)];
+    }
+
+    @Override
+    public State getState() {
+        return getStripe().getState();
+    }
+
+    @Override
+    public void returnState(State state) {
+        getStripe().returnState(state);
+    }
+
+    @Override
+    public Map<String, Map<Object, State>> getAllStates() {
+        Map<String, Map<Object, State>> states = new HashMap<>();
+        for (StateHolder stripe : stripes) {
+            states.putAll(stripe.getAllStates());
+        }
+        return states;
+    }
+
+    @Override
+    public void returnAllStates(Map states) {
+        Map<String, Map<Object, State>>[] stripeStates = new Map[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stripeStates[i] = new HashMap<>();
+        }
+        for (Map.Entry<String, Map<Object, State>> entry :
+                ((Map<String, Map<Object, State>>) states).entrySet()) {
+            stripeStates[getStripeIndex(entry.getKey(), stripes.length)].put(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i].returnAllStates(stripeStates[i]);
+        }
+    }
+
+    @Override
+    public Map<Object, State> getAllGroupByStates() {
+        return getStripe().getAllGroupByStates();
+    }
+
+    @Override
+    public State cleanGroupByStates() {
+        return getStripe().cleanGroupByStates();
+    }
+
+    @Override
+    public void returnGroupByStates(Map states) {
+        getStripe().returnGroupByStates(states);
+    }
+}
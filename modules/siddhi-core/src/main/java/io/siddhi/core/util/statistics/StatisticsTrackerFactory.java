@@ -21,6 +21,7 @@ package io.siddhi.core.util.statistics;
 import io.siddhi.query.api.annotation.Element;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
 /**
  * Factory interface to create Trackers and Managers
@@ -37,4 +38,15 @@ public interface StatisticsTrackerFactory {
 
     StatisticsManager createStatisticsManager(String prefix, String siddhiAppName, List<Element> elements);
 
+    /**
+     * Registers a gauge reporting the current value of a statistic, such as the lag of the timers of a Siddhi app.
+     * Factories which do not support gauges ignore them.
+     *
+     * @param name              name of the gauge
+     * @param value             supplier of the current value
+     * @param statisticsManager statistics manager of the Siddhi app
+     */
+    default void registerGauge(String name, LongSupplier value, StatisticsManager statisticsManager) {
+    }
+
 }
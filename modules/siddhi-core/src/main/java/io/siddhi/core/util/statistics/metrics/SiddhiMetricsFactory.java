@@ -18,6 +18,8 @@
 
 package io.siddhi.core.util.statistics.metrics;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import io.siddhi.core.util.statistics.BufferedEventsTracker;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
@@ -27,6 +29,7 @@ import io.siddhi.core.util.statistics.ThroughputTracker;
 import io.siddhi.query.api.annotation.Element;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
 /**
  * Factory class to create Trackers and Managers.
@@ -54,4 +57,12 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiStatisticsManager(elements);
     }
 
+    @Override
+    public void registerGauge(String name, LongSupplier value, StatisticsManager statisticsManager) {
+        MetricRegistry metricRegistry = ((SiddhiStatisticsManager) statisticsManager).getRegistry();
+        if (!metricRegistry.getNames().contains(name)) {
+            metricRegistry.register(name, (Gauge<Long>) value::getAsLong);
+        }
+    }
+
 }
@@ -108,6 +108,10 @@ public class Window implements FindableProcessor, MemoryCalculable {
     private LatencyTracker latencyTrackerFind;
     private ThroughputTracker throughputTrackerFind;
     private ThroughputTracker throughputTrackerInsert;
+    /**
+     * Whether the window backs identical windows of several queries, instead of being defined in the Siddhi app.
+     */
+    private boolean shared;
 
 
     /**
@@ -294,6 +298,14 @@ public class Window implements FindableProcessor, MemoryCalculable {
         return lockWrapper;
     }
 
+    public boolean isShared() {
+        return shared;
+    }
+
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
     public ProcessingMode getProcessingMode() {
         return internalWindowProcessor.getProcessingMode();
     }
@@ -32,7 +32,13 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AsyncTestCase {
@@ -401,4 +407,300 @@ public class AsyncTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
 
     }
+
+    @Test(dependsOnMethods = {"asyncTest8"})
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='1', batch.size.max='10')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Integer> volumes = Collections.synchronizedList(new ArrayList<>());
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    volumes.add((Integer) event.getData(2));
+                    count.incrementAndGet();
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Event[] events = new Event[50];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, i});
+        }
+        inputHandler.send(events);
+        inputHandler.send(new Event[]{new Event(System.currentTimeMillis(), new Object[]{"IBM", 75.6f, 50})});
+
+        SiddhiTestHelper.waitForEvents(100, 51, count, 10000);
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(51, count.get());
+        for (int i = 0; i < 51; i++) {
+            AssertJUnit.assertEquals(Integer.valueOf(i), volumes.get(i));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"asyncTest9"})
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='4', key='symbol')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        Map<Object, List<Integer>> volumesPerSymbol = new ConcurrentHashMap<>();
+        Map<Object, Set<String>> threadsPerSymbol = new ConcurrentHashMap<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    volumesPerSymbol.computeIfAbsent(event.getData(0),
+                            k -> Collections.synchronizedList(new ArrayList<>())).add((Integer) event.getData(2));
+                    threadsPerSymbol.computeIfAbsent(event.getData(0),
+                            k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+                    count.incrementAndGet();
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        String[] symbols = new String[]{"WSO2", "IBM", "ORACLE", "GOOGLE", "MSFT"};
+        for (int i = 0; i < 100; i++) {
+            for (String symbol : symbols) {
+                inputHandler.send(new Object[]{symbol, 55.6f, i});
+            }
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 500, count, 10000);
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(500, count.get());
+        for (String symbol : symbols) {
+            List<Integer> volumes = volumesPerSymbol.get(symbol);
+            AssertJUnit.assertEquals(100, volumes.size());
+            for (int i = 0; i < 100; i++) {
+                AssertJUnit.assertEquals(Integer.valueOf(i), volumes.get(i));
+            }
+            AssertJUnit.assertEquals(1, threadsPerSymbol.get(symbol).size());
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest10"})
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='2', key='company')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(dependsOnMethods = {"asyncTest11"})
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        for (String waitStrategy : new String[]{"blocking", "sleeping", "yielding", "busy.spin", "phased.backoff"}) {
+            count.set(0);
+            String siddhiApp = "" +
+                    " " +
+                    "@async(buffer.size='16', wait.strategy='" + waitStrategy + "')" +
+                    "define stream cseEventStream (symbol string, price float, volume int);" +
+                    "" +
+                    "@info(name = 'query1') " +
+                    "from cseEventStream[70 > price] " +
+                    "select * " +
+                    "insert into outputStream ;";
+
+            SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+            siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    count.addAndGet(events.length);
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+            siddhiAppRuntime.start();
+            for (int i = 0; i < 20; i++) {
+                inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+                inputHandler.send(new Object[]{"IBM", 75.6f, i});
+            }
+            SiddhiTestHelper.waitForEvents(100, 20, count, 10000);
+            AssertJUnit.assertEquals("Wait strategy " + waitStrategy, 20, count.get());
+            siddhiAppRuntime.shutdown();
+        }
+        AssertJUnit.assertTrue(eventArrived);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest12"})
+    public void asyncTest13() throws InterruptedException {
+        log.info("async test 13");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='spinning')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(dependsOnMethods = {"asyncTest13"})
+    public void asyncTest14() throws InterruptedException {
+        log.info("async test 14");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='3', key='symbol')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        Map<Object, List<Integer>> volumesPerSymbol = new ConcurrentHashMap<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    volumesPerSymbol.computeIfAbsent(event.getData(0),
+                            k -> Collections.synchronizedList(new ArrayList<>())).add((Integer) event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        String[] symbols = new String[]{"WSO2", "IBM", "ORACLE", "GOOGLE", "MSFT"};
+        // Batches larger than the buffers are published in several ranges per worker
+        for (int batch = 0; batch < 10; batch++) {
+            Event[] events = new Event[50];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = new Event(System.currentTimeMillis(),
+                        new Object[]{symbols[i % symbols.length], 55.6f, batch * 10 + i / symbols.length});
+            }
+            inputHandler.send(events);
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 500, count, 10000);
+        AssertJUnit.assertEquals(500, count.get());
+        for (String symbol : symbols) {
+            List<Integer> volumes = volumesPerSymbol.get(symbol);
+            AssertJUnit.assertEquals(100, volumes.size());
+            for (int i = 0; i < 100; i++) {
+                AssertJUnit.assertEquals(Integer.valueOf(i), volumes.get(i));
+            }
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"asyncTest14"})
+    public void asyncTest15() throws InterruptedException {
+        log.info("async test 15");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', producer='single')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Integer> volumes = Collections.synchronizedList(new ArrayList<>());
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    volumes.add((Integer) event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 100, count, 10000);
+        AssertJUnit.assertEquals(100, count.get());
+        for (int i = 0; i < 100; i++) {
+            AssertJUnit.assertEquals(Integer.valueOf(i), volumes.get(i));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest15"})
+    public void asyncTest16() throws InterruptedException {
+        log.info("async test 16");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', producer='one')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.managment;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.EventPrinter;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventPoolTestCase {
+    private static final Logger log = Logger.getLogger(EventPoolTestCase.class);
+    private List<Object[]> inEvents;
+    private List<Object[]> removeEvents;
+
+    @BeforeMethod
+    public void init() {
+        inEvents = new ArrayList<>();
+        removeEvents = new ArrayList<>();
+    }
+
+    @Test
+    public void eventPoolTest1() {
+        log.info("event pool test 1 - recycling StreamEvents through the factory");
+
+        StreamEventFactory streamEventFactory = new StreamEventFactory(0, 1, 2);
+        streamEventFactory.enablePooling(2, null, null, null);
+
+        StreamEvent event1 = streamEventFactory.newInstance();
+        StreamEvent event2 = streamEventFactory.newInstance();
+        StreamEvent event3 = streamEventFactory.newInstance();
+        event1.setTimestamp(100L);
+        event1.getOutputData()[0] = "IBM";
+        event1.setNext(event2);
+        event1.setType(StreamEvent.Type.EXPIRED);
+
+        streamEventFactory.returnEvent(event1);
+        streamEventFactory.returnEvent(event2);
+        streamEventFactory.returnEvent(event3);
+        AssertJUnit.assertEquals(2, streamEventFactory.getPooledEventCount());
+
+        StreamEvent recycledEvent = streamEventFactory.newInstance();
+        AssertJUnit.assertSame(event2, recycledEvent);
+        recycledEvent = streamEventFactory.newInstance();
+        AssertJUnit.assertSame(event1, recycledEvent);
+        AssertJUnit.assertEquals(-1L, recycledEvent.getTimestamp());
+        AssertJUnit.assertNull(recycledEvent.getOutputData()[0]);
+        AssertJUnit.assertNull(recycledEvent.getNext());
+        AssertJUnit.assertEquals(StreamEvent.Type.CURRENT, recycledEvent.getType());
+        AssertJUnit.assertEquals(0, streamEventFactory.getPooledEventCount());
+    }
+
+    @Test(dependsOnMethods = {"eventPoolTest1"})
+    public void eventPoolTest2() throws InterruptedException {
+        log.info("event pool test 2 - filter query with app level event pool");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:eventPool(size='4') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream[price > 50] " +
+                "select symbol, price " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    inEvents.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"IBM" + i, 45f + i, 100L});
+        }
+        inputHandler.send(new Event[]{
+                new Event(System.currentTimeMillis(), new Object[]{"WSO2", 60f, 10L}),
+                new Event(System.currentTimeMillis(), new Object[]{"ORACLE", 20f, 10L}),
+                new Event(System.currentTimeMillis(), new Object[]{"GOOG", 70f, 10L})});
+
+        AssertJUnit.assertEquals(6, inEvents.size());
+        AssertJUnit.assertEquals("IBM6", inEvents.get(0)[0]);
+        AssertJUnit.assertEquals("IBM9", inEvents.get(3)[0]);
+        AssertJUnit.assertEquals("WSO2", inEvents.get(4)[0]);
+        AssertJUnit.assertEquals("GOOG", inEvents.get(5)[0]);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"eventPoolTest2"})
+    public void eventPoolTest3() throws InterruptedException {
+        log.info("event pool test 3 - length window query with query level event pool");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "@eventPool(size='8') " +
+                "@info(name = 'query1') " +
+                "from StockStream#window.length(2) " +
+                "select symbol, price " +
+                "insert all events into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] currentEvents, Event[] expiredEvents) {
+                EventPrinter.print(timestamp, currentEvents, expiredEvents);
+                if (currentEvents != null) {
+                    for (Event event : currentEvents) {
+                        inEvents.add(event.getData());
+                    }
+                }
+                if (expiredEvents != null) {
+                    for (Event event : expiredEvents) {
+                        removeEvents.add(event.getData());
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 6; i++) {
+            inputHandler.send(new Object[]{"IBM" + i, 50f + i, 100L});
+        }
+
+        AssertJUnit.assertEquals(6, inEvents.size());
+        AssertJUnit.assertEquals(4, removeEvents.size());
+        for (int i = 0; i < 4; i++) {
+            AssertJUnit.assertEquals("IBM" + i, removeEvents.get(i)[0]);
+            AssertJUnit.assertEquals(50f + i, removeEvents.get(i)[1]);
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(dependsOnMethods = {"eventPoolTest3"})
+    public void eventPoolTest4() throws InterruptedException {
+        log.info("event pool test 4 - join and partition with app level event pool");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:eventPool " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream TwitterStream (user string, tweet string, company string); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.time(1 sec) join TwitterStream#window.length(5) " +
+                "on StockStream.symbol == TwitterStream.company " +
+                "select StockStream.symbol as symbol, TwitterStream.tweet, StockStream.price " +
+                "insert into JoinedStream ;" +
+                "" +
+                "partition with (symbol of JoinedStream) " +
+                "begin " +
+                "   @info(name = 'query2') " +
+                "   from JoinedStream " +
+                "   select symbol, sum(price) as totalPrice " +
+                "   insert into OutputStream ; " +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    inEvents.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler twitterStream = siddhiAppRuntime.getInputHandler("TwitterStream");
+        siddhiAppRuntime.start();
+        stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+        stockStream.send(new Object[]{"IBM", 75.6f, 100L});
+        twitterStream.send(new Object[]{"User1", "Hello World", "WSO2"});
+        twitterStream.send(new Object[]{"User2", "Hello IBM", "IBM"});
+        stockStream.send(new Object[]{"WSO2", 44.4f, 100L});
+
+        AssertJUnit.assertEquals(3, inEvents.size());
+        AssertJUnit.assertEquals("WSO2", inEvents.get(0)[0]);
+        AssertJUnit.assertEquals(55.6, (Double) inEvents.get(0)[1], 0.001);
+        AssertJUnit.assertEquals("IBM", inEvents.get(1)[0]);
+        AssertJUnit.assertEquals(75.6, (Double) inEvents.get(1)[1], 0.001);
+        AssertJUnit.assertEquals("WSO2", inEvents.get(2)[0]);
+        AssertJUnit.assertEquals(100.0, (Double) inEvents.get(2)[1], 0.001);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"eventPoolTest4"})
+    public void eventPoolTest5() {
+        log.info("event pool test 5 - invalid event pool size");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:eventPool(size='-1') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream[price > 50] " +
+                "select symbol, price " +
+                "insert into OutputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.managment;
+
+import io.siddhi.core.config.FlowContext;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.query.selector.GroupByKey;
+import io.siddhi.core.util.snapshot.state.PartitionStateHolder;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateHolder;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class FlowContextTestCase {
+    private static final Logger log = Logger.getLogger(FlowContextTestCase.class);
+
+    @Test
+    public void flowContextTest1() {
+        log.info("flow context test1 - flow keys");
+
+        FlowContext flowContext = SiddhiAppContext.getFlowContext();
+        AssertJUnit.assertSame(flowContext, SiddhiAppContext.getFlowContext());
+        try {
+            SiddhiAppContext.startPartitionFlow("IBM");
+            SiddhiAppContext.startGroupByFlow(null);
+            AssertJUnit.assertEquals("IBM", flowContext.getPartitionKey());
+            AssertJUnit.assertNull(flowContext.getGroupByKey());
+            AssertJUnit.assertEquals("IBM", SiddhiAppContext.getPartitionFlowId());
+
+            SiddhiAppContext.startGroupByFlow(GroupByKey.of("WSO2"));
+            AssertJUnit.assertEquals(GroupByKey.of("WSO2"), flowContext.getGroupByKey());
+            AssertJUnit.assertEquals("WSO2:-:", SiddhiAppContext.getGroupByFlowId());
+            AssertJUnit.assertEquals("IBM--WSO2:-:", SiddhiAppContext.getCurrentFlowId());
+        } finally {
+            SiddhiAppContext.stopGroupByFlow();
+            SiddhiAppContext.stopPartitionFlow();
+        }
+        AssertJUnit.assertNull(flowContext.getPartitionKey());
+        AssertJUnit.assertNull(flowContext.getGroupByKey());
+    }
+
+    @Test
+    public void flowContextTest2() throws InterruptedException {
+        log.info("flow context test2 - resolving states of flows");
+
+        StateHolder<TestState> stateHolder = new PartitionStateHolder(TestState::new);
+        try {
+            SiddhiAppContext.startPartitionFlow("IBM");
+            TestState ibmState = stateHolder.getState();
+            ibmState.count++;
+            stateHolder.returnState(ibmState);
+            AssertJUnit.assertSame(ibmState, stateHolder.getState());
+            stateHolder.returnState(ibmState);
+
+            SiddhiAppContext.startGroupByFlow(GroupByKey.of(10L));
+            TestState groupState = stateHolder.getState();
+            AssertJUnit.assertNotSame(ibmState, groupState);
+            groupState.count++;
+            stateHolder.returnState(groupState);
+            SiddhiAppContext.stopGroupByFlow();
+            AssertJUnit.assertSame(ibmState, stateHolder.getState());
+            stateHolder.returnState(ibmState);
+
+            // Next event of the same group, with an equal key
+            SiddhiAppContext.startGroupByFlow(GroupByKey.of(10L));
+            AssertJUnit.assertSame(groupState, stateHolder.getState());
+            stateHolder.returnState(groupState);
+            SiddhiAppContext.stopGroupByFlow();
+
+            SiddhiAppContext.startPartitionFlow("WSO2");
+            TestState wso2State = stateHolder.getState();
+            AssertJUnit.assertNotSame(ibmState, wso2State);
+            wso2State.count++;
+            stateHolder.returnState(wso2State);
+
+            // State of the same flow resolved by another thread
+            AtomicReference<TestState> otherThreadState = new AtomicReference<>();
+            Thread thread = new Thread(() -> {
+                SiddhiAppContext.startPartitionFlow("IBM");
+                try {
+                    otherThreadState.set(stateHolder.getState());
+                    stateHolder.returnState(otherThreadState.get());
+                } finally {
+                    SiddhiAppContext.stopPartitionFlow();
+                }
+            });
+            thread.start();
+            thread.join();
+            AssertJUnit.assertSame(ibmState, otherThreadState.get());
+            AssertJUnit.assertSame(wso2State, stateHolder.getState());
+            stateHolder.returnState(wso2State);
+
+            // Destroyable states are removed when returned and not reused afterwards
+            SiddhiAppContext.startPartitionFlow("IBM");
+            ibmState.count = 0;
+            TestState state = stateHolder.getState();
+            AssertJUnit.assertSame(ibmState, state);
+            stateHolder.returnState(state);
+            TestState newIbmState = stateHolder.getState();
+            AssertJUnit.assertNotSame(ibmState, newIbmState);
+            stateHolder.returnState(newIbmState);
+        } finally {
+            SiddhiAppContext.stopGroupByFlow();
+            SiddhiAppContext.stopPartitionFlow();
+        }
+    }
+
+    static class TestState extends State {
+        private int count = 0;
+
+        @Override
+        public boolean canDestroy() {
+            return count == 0;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            return null;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+        }
+    }
+}
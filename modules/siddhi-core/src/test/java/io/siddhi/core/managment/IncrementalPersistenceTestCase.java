@@ -28,15 +28,19 @@ import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
 import io.siddhi.core.util.persistence.IncrementalFileSystemPersistenceStore;
+import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import org.apache.log4j.Logger;
 import org.testng.Assert;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -1280,4 +1284,99 @@ public class IncrementalPersistenceTestCase {
 
         AssertJUnit.assertEquals(true, eventArrived);
     }
+
+    @Test
+    public void incrementalPersistenceTest13() throws InterruptedException {
+        log.info("Incremental file persistence test 13 - persisting only the changed and removed states");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalFileSystemPersistenceStore(storageFilePath));
+
+        String siddhiApp = "" +
+                "@app:name('incrementalPersistenceTest13') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(2) " +
+                "select symbol, count() as eventCount " +
+                "group by symbol " +
+                "insert into OutStream ";
+
+        Map<String, Long> eventCounts = new HashMap<>();
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                for (Event inEvent : inEvents) {
+                    eventCounts.put((String) inEvent.getData(0), (Long) inEvent.getData(1));
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.clearAllRevisions();
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(Long.valueOf(1), eventCounts.get("IBM"));
+        AssertJUnit.assertEquals(Long.valueOf(1), eventCounts.get("WSO2"));
+
+        //persisting
+        String revision = siddhiAppRuntime.persist().getRevision();
+        Thread.sleep(1000);
+        AssertJUnit.assertTrue(countRevisionFiles("incrementalPersistenceTest13", revision) > 0);
+
+        //persisting without any changes, which does not persist any state
+        revision = siddhiAppRuntime.persist().getRevision();
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals(0, countRevisionFiles("incrementalPersistenceTest13", revision));
+
+        //expiring IBM and WSO2 from the window, which removes their states
+        inputHandler.send(new Object[]{"ORCL", 75.6f, 100});
+        inputHandler.send(new Object[]{"ORCL", 75.6f, 100});
+        AssertJUnit.assertEquals(Long.valueOf(2), eventCounts.get("ORCL"));
+        revision = siddhiAppRuntime.persist().getRevision();
+        Thread.sleep(1000);
+        AssertJUnit.assertTrue(countRevisionFiles("incrementalPersistenceTest13", revision) > 0);
+
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.error(e.getMessage(), e);
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        //removed states are not restored from their earlier revisions
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        AssertJUnit.assertEquals(Long.valueOf(1), eventCounts.get("IBM"));
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertEquals(Long.valueOf(1), eventCounts.get("WSO2"));
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    private int countRevisionFiles(String siddhiAppName, String revision) {
+        String revisionTime = revision.split(PersistenceConstants.REVISION_SEPARATOR)[0];
+        File[] files = new File(storageFilePath + File.separator + siddhiAppName).listFiles();
+        int count = 0;
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(revisionTime + PersistenceConstants.REVISION_SEPARATOR)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
 }
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.managment;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.query.selector.GroupByKey;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import io.siddhi.core.util.persistence.util.PersistenceConstants;
+import io.siddhi.core.util.snapshot.ByteSerializer;
+import io.siddhi.core.util.snapshot.state.PartitionStateHolder;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateSpillStore;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PartitionStateHolderTestCase {
+    private static final Logger log = Logger.getLogger(PartitionStateHolderTestCase.class);
+
+    @Test
+    public void partitionStateHolderTest1() {
+        log.info("partition state holder test1 - states of partition and group by keys");
+
+        PartitionStateHolder stateHolder = new PartitionStateHolder(CountState::new);
+        Map<String, Map<Object, Integer>> expected = new HashMap<>();
+        Random random = new Random(42);
+        try {
+            for (int i = 0; i < 50000; i++) {
+                String partitionKey = random.nextInt(50) == 0 ? null : "partition" + random.nextInt(300);
+                Object groupByKey = random.nextInt(10) == 0 ? null : GroupByKey.of((long) random.nextInt(20));
+                SiddhiAppContext.startPartitionFlow(partitionKey);
+                SiddhiAppContext.startGroupByFlow(groupByKey);
+                int operation = random.nextInt(20);
+                Map<Object, Integer> expectedGroupByStates = expected.computeIfAbsent(partitionKey,
+                        k -> new HashMap<>());
+                if (operation == 0) {
+                    SiddhiAppContext.stopGroupByFlow();
+                    stateHolder.cleanGroupByStates();
+                    expected.remove(partitionKey);
+                } else if (operation < 8 && expectedGroupByStates.containsKey(groupByKey)) {
+                    CountState state = (CountState) stateHolder.getState();
+                    state.count--;
+                    stateHolder.returnState(state);
+                    if (state.count == 0) {
+                        expectedGroupByStates.remove(groupByKey);
+                    } else {
+                        expectedGroupByStates.put(groupByKey, state.count);
+                    }
+                } else {
+                    CountState state = (CountState) stateHolder.getState();
+                    state.count++;
+                    stateHolder.returnState(state);
+                    expectedGroupByStates.put(groupByKey, state.count);
+                }
+                if (expectedGroupByStates.isEmpty()) {
+                    expected.remove(partitionKey);
+                }
+                if (i % 5000 == 0) {
+                    assertStates(expected, stateHolder);
+                }
+            }
+            assertStates(expected, stateHolder);
+
+            SiddhiAppContext.stopGroupByFlow();
+            for (String partitionKey : expected.keySet().toArray(new String[0])) {
+                SiddhiAppContext.startPartitionFlow(partitionKey);
+                Map<Object, State> groupByStates = stateHolder.getAllGroupByStates();
+                AssertJUnit.assertEquals(expected.get(partitionKey).size(), groupByStates.size());
+                for (State state : groupByStates.values()) {
+                    ((CountState) state).count = 0;
+                }
+                stateHolder.returnGroupByStates(groupByStates);
+                expected.remove(partitionKey);
+            }
+            assertStates(expected, stateHolder);
+            AssertJUnit.assertEquals(0, stateHolder.getStateCount());
+        } finally {
+            SiddhiAppContext.stopGroupByFlow();
+            SiddhiAppContext.stopPartitionFlow();
+        }
+    }
+
+    @Test
+    public void partitionStateHolderTest2() {
+        log.info("partition state holder test2 - returning all states");
+
+        PartitionStateHolder stateHolder = new PartitionStateHolder(CountState::new);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                SiddhiAppContext.startPartitionFlow("partition" + (i % 100));
+                SiddhiAppContext.startGroupByFlow(GroupByKey.of((long) i));
+                CountState state = (CountState) stateHolder.getState();
+                state.count = i % 2;
+                stateHolder.returnState(state);
+            }
+            SiddhiAppContext.stopGroupByFlow();
+            SiddhiAppContext.stopPartitionFlow();
+            AssertJUnit.assertEquals(500, stateHolder.getStateCount());
+
+            Map<String, Map<Object, State>> allStates = stateHolder.getAllStates();
+            AssertJUnit.assertEquals(50, allStates.size());
+            for (Map<Object, State> groupByStates : allStates.values()) {
+                for (Map.Entry<Object, State> entry : groupByStates.entrySet()) {
+                    if (entry.getKey().hashCode() % 3 == 0) {
+                        ((CountState) entry.getValue()).count = 0;
+                    }
+                }
+            }
+            stateHolder.returnAllStates(allStates);
+            int remaining = 0;
+            for (Map<Object, State> groupByStates : stateHolder.getAllStates().values()) {
+                for (State state : groupByStates.values()) {
+                    AssertJUnit.assertEquals(1, ((CountState) state).count);
+                    remaining++;
+                }
+            }
+            AssertJUnit.assertEquals(remaining, stateHolder.getStateCount());
+            AssertJUnit.assertTrue(remaining > 0 && remaining < 500);
+        } finally {
+            SiddhiAppContext.stopGroupByFlow();
+            SiddhiAppContext.stopPartitionFlow();
+        }
+    }
+
+    @Test
+    public void partitionStateHolderTest3() {
+        log.info("partition state holder test3 - spilling cold states to disk");
+
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setName("PartitionStateHolderTest3");
+        StateSpillStore spillStore = new StateSpillStore(siddhiAppContext,
+                new File(System.getProperty("java.io.tmpdir")), 20);
+        PartitionStateHolder stateHolder = new PartitionStateHolder(CountState::new, spillStore, 20);
+        Map<String, Map<Object, Integer>> expected = new HashMap<>();
+        Random random = new Random(7);
+        try {
+            for (int i = 0; i < 20000; i++) {
+                String partitionKey = "partition" + random.nextInt(20);
+                Object groupByKey = GroupByKey.of((long) random.nextInt(30));
+                SiddhiAppContext.startPartitionFlow(partitionKey);
+                SiddhiAppContext.startGroupByFlow(groupByKey);
+                Map<Object, Integer> expectedGroupByStates = expected.computeIfAbsent(partitionKey,
+                        k -> new HashMap<>());
+                CountState state = (CountState) stateHolder.getState();
+                AssertJUnit.assertEquals((int) expectedGroupByStates.getOrDefault(groupByKey, 0), state.count);
+                if (state.count > 0 && random.nextInt(3) == 0) {
+                    state.count--;
+                } else {
+                    state.count++;
+                }
+                stateHolder.returnState(state);
+                if (state.count == 0) {
+                    expectedGroupByStates.remove(groupByKey);
+                } else {
+                    expectedGroupByStates.put(groupByKey, state.count);
+                }
+                if (expectedGroupByStates.isEmpty()) {
+                    expected.remove(partitionKey);
+                }
+                AssertJUnit.assertTrue(stateHolder.getStateCount() - spillStore.getSpilledStateCount() <= 20);
+            }
+            AssertJUnit.assertTrue(spillStore.getSpilledStateCount() > 0);
+            AssertJUnit.assertTrue(spillStore.getFaultCount() > 0);
+            AssertJUnit.assertEquals(20000, spillStore.getHitCount() + spillStore.getMissCount());
+
+            SiddhiAppContext.stopGroupByFlow();
+            int spilledStateCount = spillStore.getSpilledStateCount();
+            long faultCount = spillStore.getFaultCount();
+            assertStates(expected, stateHolder);
+            // Taking the snapshots of the states does not load the spilled ones
+            AssertJUnit.assertEquals(spilledStateCount, spillStore.getSpilledStateCount());
+            AssertJUnit.assertEquals(faultCount, spillStore.getFaultCount());
+
+            // Cleaning a partition discards its spilled states
+            SiddhiAppContext.startPartitionFlow("partition0");
+            stateHolder.cleanGroupByStates();
+            expected.remove("partition0");
+            assertStates(expected, stateHolder);
+        } finally {
+            SiddhiAppContext.stopGroupByFlow();
+            SiddhiAppContext.stopPartitionFlow();
+            spillStore.close();
+        }
+    }
+
+    @Test
+    public void partitionStateHolderTest4() throws InterruptedException {
+        log.info("partition state holder test4 - spilling group by states of a query");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:name('PartitionStateHolderTest4') " +
+                "@app:stateSpill(size = '10') " +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, count() as eventCount, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        Map<String, Long> eventCounts = new HashMap<>();
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    String symbol = (String) event.getData(0);
+                    long eventCount = eventCounts.merge(symbol, 1L, Long::sum);
+                    if ((Long) event.getData(1) != eventCount || (Long) event.getData(2) != eventCount * 10) {
+                        consistent.set(false);
+                    }
+                }
+            }
+        });
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + random.nextInt(100), 10L});
+        }
+        AssertJUnit.assertEquals(100, eventCounts.size());
+        AssertJUnit.assertTrue(consistent.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void partitionStateHolderTest5() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("partition state holder test5 - restoring spilled group by states");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String siddhiApp = "" +
+                "@app:name('PartitionStateHolderTest5') " +
+                "@app:stateSpill(size = '10') " +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream;";
+
+        Map<String, Long> totalVolumes = new HashMap<>();
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    totalVolumes.put((String) event.getData(0), (Long) event.getData(1));
+                }
+            }
+        };
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + i, (long) i});
+        }
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + i, 1000L});
+        }
+        for (int i = 0; i < 100; i++) {
+            AssertJUnit.assertEquals(Long.valueOf(i + 1000L), totalVolumes.get("SYMBOL" + i));
+        }
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    private void assertStates(Map<String, Map<Object, Integer>> expected, PartitionStateHolder stateHolder) {
+        Map<String, Map<Object, Integer>> actual = new HashMap<>();
+        int stateCount = 0;
+        for (Map.Entry<String, Map<Object, State>> entry : stateHolder.getAllStates().entrySet()) {
+            Map<Object, Integer> groupByStates = new HashMap<>();
+            for (Map.Entry<Object, State> stateEntry : entry.getValue().entrySet()) {
+                groupByStates.put(stateEntry.getKey(), getCount(stateEntry.getValue()));
+                stateCount++;
+            }
+            actual.put(entry.getKey(), groupByStates);
+        }
+        AssertJUnit.assertEquals(expected, actual);
+        AssertJUnit.assertEquals(stateCount, stateHolder.getStateCount());
+    }
+
+    private int getCount(State state) {
+        if (state instanceof CountState) {
+            return ((CountState) state).count;
+        }
+        // Spilled states are snapshotted from their serialized records
+        Map<String, Object> snapshot = state.snapshot();
+        AssertJUnit.assertTrue(snapshot.containsKey(PersistenceConstants.SERIALIZED_STATE));
+        CountState countState = new CountState();
+        countState.restore((Map<String, Object>) ByteSerializer.byteToObject(
+                (byte[]) snapshot.get(PersistenceConstants.SERIALIZED_STATE), null));
+        return countState.count;
+    }
+
+    static class CountState extends State {
+        private int count = 0;
+
+        @Override
+        public boolean canDestroy() {
+            return count == 0;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Count", count);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            count = (int) state.get("Count");
+        }
+    }
+}
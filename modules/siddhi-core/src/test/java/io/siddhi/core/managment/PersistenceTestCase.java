@@ -1119,4 +1119,137 @@ public class PersistenceTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void persistenceTest14() throws InterruptedException, ExecutionException {
+        log.info("Persistence test 14 - asynchronous snapshots of length window and group by sum.");
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "@app:name('persistenceTest14') " +
+                "@app:asyncSnapshot " +
+                "define stream StockStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.length(3) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into OutStream;";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    if ("IBM".equals(inEvent.getData(0))) {
+                        lastValue = (Long) inEvent.getData(1);
+                    }
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 200});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        AssertJUnit.assertEquals(new Long(400), lastValue);
+
+        //persisting
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        //events after the snapshot are not part of it
+        inputHandler.send(new Object[]{"IBM", 75.6f, 1000});
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        //the first IBM event is expired from the restored window
+        inputHandler.send(new Object[]{"IBM", 75.6f, 500});
+        AssertJUnit.assertEquals(new Long(800), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+    }
+
+    @Test
+    public void persistenceTest15() throws InterruptedException, ExecutionException {
+        log.info("Persistence test 15 - changing the window while its asynchronous snapshot is being persisted.");
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "@app:name('persistenceTest15') " +
+                "@app:asyncSnapshot " +
+                "define stream StockStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.length(3) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into OutStream;";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    if ("IBM".equals(inEvent.getData(0))) {
+                        lastValue = (Long) inEvent.getData(1);
+                    }
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 200});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        AssertJUnit.assertEquals(new Long(400), lastValue);
+
+        //persisting, while the window is changed before the snapshot is serialized
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 1000});
+        }
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        //the window is restored as it was when persist was called
+        inputHandler.send(new Object[]{"IBM", 75.6f, 500});
+        AssertJUnit.assertEquals(new Long(800), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+    }
 }
@@ -400,4 +400,48 @@ public class SnapshotableEventQueueTestCase {
         Assert.assertEquals(snapshotableStreamEventQueue, snapshotableStreamEventQueue2);
     }
 
+    @Test
+    public void incrementalPersistenceTest6() {
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventFactory(metaStreamEvent));
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        StreamEvent streamEvent = new StreamEvent(metaStreamEvent.getBeforeWindowData().size(),
+                metaStreamEvent.getOnAfterWindowData().size(), metaStreamEvent.getOutputData().size());
+        streamEvent.setOutputData(new Object[]{"IBM", 500.6f, 1});
+
+        for (int i = 0; i < 10; i++) {
+            streamEvent.getOutputData()[2] = i;
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+
+        Snapshot snapshot = snapshotableStreamEventQueue.getSnapshot();
+
+        // Reads share the events with the snapshot
+        snapshotableStreamEventQueue.getLast();
+        while (snapshotableStreamEventQueue.hasNext()) {
+            snapshotableStreamEventQueue.next();
+        }
+        Assert.assertSame(snapshot.getState(), snapshotableStreamEventQueue.getFirst());
+
+        // Changes copy them before the first write
+        snapshotableStreamEventQueue.reset();
+        snapshotableStreamEventQueue.next();
+        snapshotableStreamEventQueue.remove();
+        StreamEvent snapshotEvents = (StreamEvent) snapshot.getState();
+        Assert.assertNotSame(snapshotEvents, snapshotableStreamEventQueue.getFirst());
+        int count = 0;
+        for (StreamEvent event = snapshotEvents; event != null; event = event.getNext()) {
+            Assert.assertEquals(event.getOutputData()[2], count);
+            count++;
+        }
+        Assert.assertEquals(count, 10);
+    }
+
 }
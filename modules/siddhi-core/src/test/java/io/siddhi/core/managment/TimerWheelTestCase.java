@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.managment;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.TimerWheel;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class TimerWheelTestCase {
+    private static final Logger log = Logger.getLogger(TimerWheelTestCase.class);
+
+    @Test
+    public void timerWheelTest1() throws InterruptedException {
+        log.info("timer wheel test1 - scheduling, rescheduling and cancelling timers");
+
+        ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1);
+        try {
+            TimerWheel timerWheel = new TimerWheel(scheduledExecutorService);
+            int timerCount = 2000;
+            long[] dueTimes = new long[timerCount];
+            AtomicIntegerArray fired = new AtomicIntegerArray(timerCount);
+            AtomicInteger early = new AtomicInteger();
+            TimerWheel.Timer[] timers = new TimerWheel.Timer[timerCount];
+            for (int i = 0; i < timerCount; i++) {
+                int timerId = i;
+                timers[i] = timerWheel.createTimer(() -> {
+                    if (System.currentTimeMillis() < dueTimes[timerId]) {
+                        early.incrementAndGet();
+                    }
+                    fired.incrementAndGet(timerId);
+                });
+            }
+            Random random = new Random(7);
+            long start = System.currentTimeMillis() + 500;
+            for (int i = 0; i < timerCount; i++) {
+                // Some timers are scheduled beyond the first levels of the wheel
+                dueTimes[i] = start + (i % 10 == 0 ? 600000 + random.nextInt(600000) : random.nextInt(1500));
+                timerWheel.schedule(timers[i], dueTimes[i]);
+            }
+            for (int i = 0; i < timerCount; i += 7) {
+                dueTimes[i] = start + random.nextInt(1500);
+                timerWheel.schedule(timers[i], dueTimes[i]);
+            }
+            for (int i = 3; i < timerCount; i += 10) {
+                timerWheel.cancel(timers[i]);
+                AssertJUnit.assertFalse(timers[i].isPending());
+            }
+
+            long waitUntil = System.currentTimeMillis() + 10000;
+            while (System.currentTimeMillis() < waitUntil && timerWheel.size() > countLongTimers(timerCount)) {
+                Thread.sleep(50);
+            }
+            Thread.sleep(100);
+            for (int i = 0; i < timerCount; i++) {
+                boolean longTimer = i % 10 == 0 && i % 7 != 0;
+                if (i % 10 == 3 || longTimer) {
+                    AssertJUnit.assertEquals(0, fired.get(i));
+                    AssertJUnit.assertEquals(longTimer, timers[i].isPending());
+                } else {
+                    AssertJUnit.assertEquals(1, fired.get(i));
+                    AssertJUnit.assertFalse(timers[i].isPending());
+                }
+            }
+            AssertJUnit.assertEquals(0, early.get());
+            AssertJUnit.assertEquals(countLongTimers(timerCount), timerWheel.size());
+        } finally {
+            scheduledExecutorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timerWheelTest2() throws InterruptedException {
+        log.info("timer wheel test2 - timers rescheduled when fired");
+
+        ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1);
+        try {
+            TimerWheel timerWheel = new TimerWheel(scheduledExecutorService);
+            AtomicInteger count = new AtomicInteger();
+            TimerWheel.Timer[] timer = new TimerWheel.Timer[1];
+            timer[0] = timerWheel.createTimer(() -> {
+                if (count.incrementAndGet() < 5) {
+                    timerWheel.schedule(timer[0], System.currentTimeMillis() + 20);
+                }
+            });
+            timerWheel.schedule(timer[0], System.currentTimeMillis() - 10);
+            SiddhiTestHelper.waitForEvents(10, 5, count, 5000);
+            Thread.sleep(100);
+            AssertJUnit.assertEquals(5, count.get());
+            AssertJUnit.assertEquals(0, timerWheel.size());
+        } finally {
+            scheduledExecutorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void timerWheelTest3() throws InterruptedException {
+        log.info("timer wheel test3 - time windows of many partitions");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.time(500 milliseconds) " +
+                "   select symbol, count() as eventCount " +
+                "   insert all events into outputStream; " +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger inEventCount = new AtomicInteger();
+        AtomicInteger removeEventCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    inEventCount.addAndGet(inEvents.length);
+                }
+                if (removeEvents != null) {
+                    removeEventCount.addAndGet(removeEvents.length);
+                }
+            }
+        });
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + (i % 200), (long) i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 1000, removeEventCount, 10000);
+        AssertJUnit.assertEquals(1000, inEventCount.get());
+        AssertJUnit.assertEquals(1000, removeEventCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void timerWheelTest4() throws InterruptedException {
+        log.info("timer wheel test4 - current lag of the overdue timers");
+
+        ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1);
+        try {
+            TimerWheel timerWheel = new TimerWheel(scheduledExecutorService);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            TimerWheel.Timer blockingTimer = timerWheel.createTimer(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            AssertJUnit.assertEquals(0, timerWheel.getLag());
+            timerWheel.schedule(blockingTimer, System.currentTimeMillis());
+            AssertJUnit.assertTrue(started.await(5, TimeUnit.SECONDS));
+            // The lag keeps growing while the timer is being fired, and covers the timers waiting behind it
+            Thread.sleep(200);
+            AssertJUnit.assertTrue(timerWheel.getLag() >= 200);
+            TimerWheel.Timer waitingTimer = timerWheel.createTimer(() -> {
+            });
+            timerWheel.schedule(waitingTimer, System.currentTimeMillis() + 50);
+            release.countDown();
+            Thread.sleep(200);
+            AssertJUnit.assertFalse(waitingTimer.isPending());
+            AssertJUnit.assertEquals(0, timerWheel.getLag());
+        } finally {
+            scheduledExecutorService.shutdownNow();
+        }
+    }
+
+    private int countLongTimers(int timerCount) {
+        int count = 0;
+        for (int i = 0; i < timerCount; i++) {
+            if (i % 10 == 0 && i % 7 != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
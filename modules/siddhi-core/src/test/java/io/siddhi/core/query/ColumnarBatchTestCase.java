@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ColumnarBatchTestCase {
+    private static final Logger log = Logger.getLogger(ColumnarBatchTestCase.class);
+
+    private static final String STREAMS = "" +
+            "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+            "weight double);" +
+            "define stream stockStream (symbol string, price float);";
+
+    private static final Object[][] EVENTS = {
+            {"IBM", 700f, 100L, 10, 55.5},
+            {"WSO2", 60.5f, 200L, 20, 75.6},
+            {"WSO2", null, 300L, 30, 32.1},
+            {"ORACLE", 50f, null, 40, null},
+            {"ABC", 70f, 150L, null, 150.0},
+            {"XYZ", 70.000001f, 2147483648L, 2147483647, -1.5},
+            {null, -45.25f, 0L, -7, 0.0},
+            {"IBM", 45.25f, 170L, 7, 10.0}
+    };
+
+    @Test
+    public void columnarBatchTest1() throws InterruptedException {
+        log.info("columnar batch test1 - filter conditions");
+
+        String queries = "" +
+                "@info(name = 'query0') " +
+                "from cseEventStream[(70 > price and volume >= 150) or not (quantity != 40) or " +
+                "(weight <= 75.6 and symbol == 'IBM') or price == 70 or 2147483647 < volume or " +
+                "quantity * 2 > 50 or price + weight < 100] " +
+                "select symbol, price, volume, quantity, weight " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[symbol != 'WSO2'][volume % 3 == 0 or quantity / 2 > 4] " +
+                "select symbol, price * 2 as price, volume " +
+                "insert into outputStream1;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream[quantity - 10 >= 0 and weight > 20.0] " +
+                "select * " +
+                "insert into outputStream2;";
+
+        List<List<String>> expected = runQueries("", queries, 3);
+        List<List<String>> columnar = runQueries("@app:columnarBatches ", queries, 3);
+        AssertJUnit.assertEquals(expected, columnar);
+        AssertJUnit.assertTrue(expected.get(0).size() > 0);
+        AssertJUnit.assertTrue(expected.get(1).size() > 0);
+        AssertJUnit.assertTrue(expected.get(2).size() > 0);
+    }
+
+    @Test
+    public void columnarBatchTest2() throws InterruptedException {
+        log.info("columnar batch test2 - filters not evaluated in columnar form, windows and joins");
+
+        String queries = "" +
+                "@info(name = 'query0') " +
+                "from cseEventStream[price > 50][not (symbol is null)][volume < 250] " +
+                "select symbol, price " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume > 100]#window.length(2) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert all events into outputStream1;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream[weight > 10.0]#window.length(3) as a join stockStream#window.length(1) as b " +
+                "on a.symbol == b.symbol " +
+                "select a.symbol, a.weight, b.price " +
+                "insert into outputStream2;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from cseEventStream[cast(volume, 'double') > 150.0] " +
+                "select symbol, volume " +
+                "insert into outputStream3;";
+
+        List<List<String>> expected = runQueries("", queries, 4);
+        List<List<String>> columnar = runQueries("@app:columnarBatches @app:compileExpressions ", queries, 4);
+        AssertJUnit.assertEquals(expected, columnar);
+        for (List<String> output : expected) {
+            AssertJUnit.assertTrue(output.size() > 0);
+        }
+    }
+
+    @Test
+    public void columnarBatchTest3() throws InterruptedException {
+        log.info("columnar batch test3 - columnar filters with event pool and shared conversion");
+
+        String queries = "" +
+                "@info(name = 'query0') " +
+                "from cseEventStream[price > 50 and volume < 250] " +
+                "select symbol, price " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[price > 50 and volume < 250] " +
+                "select symbol, volume " +
+                "insert into outputStream1;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream[quantity > 100] " +
+                "select symbol " +
+                "insert into outputStream2;";
+
+        List<List<String>> expected = runQueries("", queries, 3);
+        List<List<String>> columnar = runQueries("@app:columnarBatches @app:eventPool(size='4') " +
+                "@app:shareEventConversion ", queries, 3);
+        AssertJUnit.assertEquals(expected, columnar);
+        AssertJUnit.assertTrue(expected.get(2).size() > 0);
+    }
+
+    private List<List<String>> runQueries(String appAnnotations, String queries, int queryCount)
+            throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(appAnnotations + STREAMS +
+                queries);
+        List<List<String>> outputs = new ArrayList<>();
+        for (int i = 0; i < queryCount; i++) {
+            List<String> output = new ArrayList<>();
+            outputs.add(output);
+            siddhiAppRuntime.addCallback("query" + i, new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            output.add("in " + Arrays.toString(event.getData()));
+                        }
+                    }
+                    if (removeEvents != null) {
+                        for (Event event : removeEvents) {
+                            output.add("remove " + Arrays.toString(event.getData()));
+                        }
+                    }
+                }
+            });
+        }
+
+        InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        InputHandler stockStreamHandler = siddhiAppRuntime.getInputHandler("stockStream");
+        siddhiAppRuntime.start();
+        stockStreamHandler.send(new Object[]{"WSO2", 52f});
+        Event[] events = new Event[EVENTS.length];
+        for (int i = 0; i < EVENTS.length; i++) {
+            events[i] = new Event(100L + i, EVENTS[i].clone());
+        }
+        cseEventStreamHandler.send(events);
+        stockStreamHandler.send(new Object[]{"IBM", 85f});
+        Event[] reversedEvents = new Event[EVENTS.length];
+        for (int i = 0; i < EVENTS.length; i++) {
+            reversedEvents[i] = new Event(200L + i, EVENTS[EVENTS.length - 1 - i].clone());
+        }
+        cseEventStreamHandler.send(reversedEvents);
+        cseEventStreamHandler.send(new Object[]{"IBM", 75f, 180L, 12, 25.0});
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+        return outputs;
+    }
+}
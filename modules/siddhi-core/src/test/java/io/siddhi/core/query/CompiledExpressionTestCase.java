@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.EventPrinter;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompiledExpressionTestCase {
+    private static final Logger log = Logger.getLogger(CompiledExpressionTestCase.class);
+
+    private static final Object[][] EVENTS = {
+            {"IBM", 700f, 100L, 10, 55.5},
+            {"WSO2", 60.5f, 200L, 20, 75.6},
+            {"WSO2", null, 300L, 30, 32.1},
+            {"ORACLE", 50f, null, 40, null},
+            {"ABC", 70f, 150L, null, 150.0},
+            {"XYZ", 70.000001f, 2147483648L, 2147483647, -1.5},
+            {"IBM", -45.25f, 0L, -7, 0.0}
+    };
+
+    @Test
+    public void compiledExpressionTest1() throws InterruptedException {
+        log.info("compiled expression test1 - filter conditions");
+
+        String query = "" +
+                "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+                "weight double);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[(70 > price and volume >= 150) or not (quantity != 40) or " +
+                "(weight <= 75.6 and symbol == 'IBM') or price == 70 or 2147483647 < volume or " +
+                "quantity * 2 > 50 or price + weight < 100] " +
+                "select symbol, price, volume, quantity, weight " +
+                "insert into outputStream;";
+
+        assertSameOutput(query);
+    }
+
+    @Test
+    public void compiledExpressionTest2() throws InterruptedException {
+        log.info("compiled expression test2 - arithmetic select expressions");
+
+        String query = "" +
+                "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+                "weight double);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, price * 2 + 1 as a, volume - quantity * 3 as b, quantity * quantity as c, " +
+                "weight / 4 - price as d, quantity / 3 as e, volume % 7 as f, price % 3 as g, " +
+                "quantity + 1 as h, weight / 0 as i, quantity / 0 as j " +
+                "insert into outputStream;";
+
+        List<Object[]> output = assertSameOutput(query);
+        AssertJUnit.assertEquals(1401f, output.get(0)[1]);
+        AssertJUnit.assertEquals(70L, output.get(0)[2]);
+        AssertJUnit.assertEquals(100, output.get(0)[3]);
+        AssertJUnit.assertEquals(3, output.get(0)[5]);
+        AssertJUnit.assertEquals(2L, output.get(0)[6]);
+        AssertJUnit.assertEquals(null, output.get(0)[9]);
+        AssertJUnit.assertEquals(null, output.get(3)[2]);
+        AssertJUnit.assertEquals(-2147483648, output.get(5)[8]);
+    }
+
+    @Test
+    public void compiledExpressionTest3() throws InterruptedException {
+        log.info("compiled expression test3 - having condition");
+
+        String query = "" +
+                "define stream cseEventStream (symbol string, price float, volume long, quantity int, " +
+                "weight double);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume, price " +
+                "group by symbol " +
+                "having totalVolume > 150 and price * 2 < 200 " +
+                "insert into outputStream;";
+
+        List<Object[]> output = assertSameOutput(query);
+        AssertJUnit.assertEquals(2, output.size());
+    }
+
+    private List<Object[]> assertSameOutput(String query) throws InterruptedException {
+        List<Object[]> interpreted = runQuery("@app:name('interpretedApp') " + query);
+        List<Object[]> compiled = runQuery("@app:name('compiledApp') @app:compileExpressions " + query);
+        AssertJUnit.assertEquals(interpreted.size(), compiled.size());
+        for (int i = 0; i < interpreted.size(); i++) {
+            AssertJUnit.assertTrue(Arrays.toString(interpreted.get(i)) + " != " + Arrays.toString(compiled.get(i)),
+                    Arrays.equals(interpreted.get(i), compiled.get(i)));
+        }
+        return compiled;
+    }
+
+    private List<Object[]> runQuery(String siddhiApp) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object[]> output = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    output.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (Object[] event : EVENTS) {
+            inputHandler.send(event.clone());
+        }
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+        return output;
+    }
+}
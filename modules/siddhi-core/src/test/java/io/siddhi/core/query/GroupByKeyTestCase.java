@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.query.selector.GroupByKey;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GroupByKeyTestCase {
+    private static final Logger log = Logger.getLogger(GroupByKeyTestCase.class);
+
+    @Test
+    public void groupByKeyTest1() {
+        log.info("group by key test1 - key equality");
+
+        AssertJUnit.assertEquals(GroupByKey.of("IBM"), GroupByKey.of("IBM"));
+        AssertJUnit.assertEquals(GroupByKey.of(10L), GroupByKey.of(10L));
+        AssertJUnit.assertEquals(GroupByKey.of(new Object[]{"IBM", 10}), GroupByKey.of(new Object[]{"IBM", 10}));
+        AssertJUnit.assertEquals(GroupByKey.of(new Object[]{"IBM", 10}).hashCode(),
+                GroupByKey.of(new Object[]{"IBM", 10}).hashCode());
+        AssertJUnit.assertEquals(GroupByKey.withTimestamp(GroupByKey.of("IBM"), 1000L),
+                GroupByKey.withTimestamp(GroupByKey.of("IBM"), 1000L));
+
+        AssertJUnit.assertFalse(GroupByKey.of(new Object[]{"a:-:", "b"}).equals(
+                GroupByKey.of(new Object[]{"a", ":-:b"})));
+        AssertJUnit.assertFalse(GroupByKey.of((Object) null).equals(GroupByKey.of("null")));
+        AssertJUnit.assertFalse(GroupByKey.withTimestamp(GroupByKey.of("IBM"), 1000L).equals(
+                GroupByKey.withTimestamp(GroupByKey.of("IBM"), 2000L)));
+
+        AssertJUnit.assertEquals("IBM:-:10:-:", GroupByKey.of(new Object[]{"IBM", 10}).toString());
+        AssertJUnit.assertEquals("10:-:", GroupByKey.of(10L).toString());
+        AssertJUnit.assertEquals("IBM:-:-1000", GroupByKey.withTimestamp(GroupByKey.of("IBM"), 1000L).toString());
+        AssertJUnit.assertEquals("IBM:-:-1000", GroupByKey.withTimestamp("IBM:-:", 1000L));
+    }
+
+    @Test
+    public void groupByKeyTest2() throws InterruptedException {
+        log.info("group by key test2 - values producing the same concatenated key");
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, exchange string, volume long);" +
+                "" +
+                "@info(name = 'query0') " +
+                "from cseEventStream " +
+                "select symbol, exchange, sum(volume) as totalVolume " +
+                "group by symbol, exchange " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream1;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> output0 = addCallback(siddhiAppRuntime, "query0");
+        List<String> output1 = addCallback(siddhiAppRuntime, "query1");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM:-:", "NYSE", 100L});
+        inputHandler.send(new Object[]{"IBM", ":-:NYSE", 200L});
+        inputHandler.send(new Object[]{"IBM:-:", "NYSE", 10L});
+        inputHandler.send(new Object[]{null, "NYSE", 1L});
+        inputHandler.send(new Object[]{"null", "NYSE", 2L});
+        inputHandler.send(new Object[]{null, "NYSE", 3L});
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[IBM:-:, NYSE, 100]",
+                "[IBM, :-:NYSE, 200]",
+                "[IBM:-:, NYSE, 110]",
+                "[null, NYSE, 1]",
+                "[null, NYSE, 2]",
+                "[null, NYSE, 4]"), output0);
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[IBM:-:, 100]",
+                "[IBM, 200]",
+                "[IBM:-:, 110]",
+                "[null, 1]",
+                "[null, 2]",
+                "[null, 4]"), output1);
+    }
+
+    @Test
+    public void groupByKeyTest3() throws InterruptedException {
+        log.info("group by key test3 - int and long keys in batches");
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, quantity int, volume long);" +
+                "" +
+                "@info(name = 'query0') " +
+                "from cseEventStream#window.lengthBatch(4) " +
+                "select quantity, sum(volume) as totalVolume " +
+                "group by quantity " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select volume, count() as eventCount " +
+                "group by volume " +
+                "insert into outputStream1;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> output0 = addCallback(siddhiAppRuntime, "query0");
+        List<String> output1 = addCallback(siddhiAppRuntime, "query1");
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 10, 100L});
+        inputHandler.send(new Object[]{"WSO2", 20, 2147483648L});
+        inputHandler.send(new Object[]{"IBM", 10, 100L});
+        inputHandler.send(new Object[]{"ORACLE", null, 2147483648L});
+        inputHandler.send(new Object[]{"IBM", 20, null});
+        siddhiAppRuntime.shutdown();
+
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[10, 200]",
+                "[20, 2147483648]",
+                "[null, 2147483648]"), output0);
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[100, 1]",
+                "[2147483648, 1]",
+                "[100, 2]",
+                "[2147483648, 2]",
+                "[null, 1]"), output1);
+    }
+
+    @Test
+    public void groupByKeyTest4() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("group by key test4 - restoring group by states");
+
+        String siddhiApp = "" +
+                "@app:name('GroupByKeyTest') " +
+                "define stream cseEventStream (symbol string, quantity int, volume long);" +
+                "" +
+                "@info(name = 'query0') " +
+                "from cseEventStream " +
+                "select symbol, quantity, sum(volume) as totalVolume " +
+                "group by symbol, quantity " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select quantity, sum(volume) as totalVolume " +
+                "group by quantity " +
+                "insert into outputStream1;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 10, 100L});
+        inputHandler.send(new Object[]{"WSO2", 20, 200L});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> output0 = addCallback(siddhiAppRuntime, "query0");
+        List<String> output1 = addCallback(siddhiAppRuntime, "query1");
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        inputHandler.send(new Object[]{"IBM", 10, 5L});
+        inputHandler.send(new Object[]{"WSO2", 10, 7L});
+        inputHandler.send(new Object[]{"WSO2", 20, 1L});
+        inputHandler.send(new Object[]{"IBM", 10, 5L});
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[IBM, 10, 105]",
+                "[WSO2, 10, 7]",
+                "[WSO2, 20, 201]",
+                "[IBM, 10, 110]"), output0);
+        AssertJUnit.assertEquals(Arrays.asList(
+                "[10, 105]",
+                "[10, 112]",
+                "[20, 201]",
+                "[10, 117]"), output1);
+    }
+
+    private List<String> addCallback(SiddhiAppRuntime siddhiAppRuntime, String queryName) {
+        List<String> output = new ArrayList<>();
+        siddhiAppRuntime.addCallback(queryName, new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        output.add(Arrays.toString(event.getData()));
+                    }
+                }
+            }
+        });
+        return output;
+    }
+}
@@ -20,16 +20,27 @@ package io.siddhi.core.query;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GroupByTestCase {
     private static final Logger log = Logger.getLogger(GroupByTestCase.class);
@@ -146,4 +157,157 @@ public class GroupByTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void testGroupByQuery3() throws InterruptedException {
+        log.info("GroupBy test3 - lock striped group by selection");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('GroupByTest3') " +
+                "" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@LockStripes(size = '8') " +
+                "from cseEventStream " +
+                "select symbol, count() as eventCount, sum(volume) as totalVolume " +
+                "   group by symbol " +
+                "insert into outputStream;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        Map<String, Set<Long>> eventCounts = new ConcurrentHashMap<>();
+        Map<String, Long> totalVolumes = new ConcurrentHashMap<>();
+        AtomicInteger outputCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    String symbol = (String) event.getData(0);
+                    eventCounts.computeIfAbsent(symbol, k -> ConcurrentHashMap.newKeySet())
+                            .add((Long) event.getData(1));
+                    totalVolumes.merge(symbol, (Long) event.getData(2), Math::max);
+                    outputCount.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        int threadCount = 4;
+        int symbolCount = 20;
+        int eventsPerThread = 2000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                for (int j = 0; j < eventsPerThread; j++) {
+                    try {
+                        inputHandler.send(new Object[]{"SYMBOL" + (j % symbolCount), 50f, 1L});
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        executorService.shutdown();
+        AssertJUnit.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        long eventsPerSymbol = (long) threadCount * eventsPerThread / symbolCount;
+        AssertJUnit.assertEquals(threadCount * eventsPerThread, outputCount.get());
+        AssertJUnit.assertEquals(symbolCount, eventCounts.size());
+        for (Map.Entry<String, Set<Long>> entry : eventCounts.entrySet()) {
+            // Each event of a symbol is counted exactly once
+            AssertJUnit.assertEquals(eventsPerSymbol, entry.getValue().size());
+            AssertJUnit.assertEquals(Long.valueOf(eventsPerSymbol), Collections.max(entry.getValue()));
+            AssertJUnit.assertEquals(Long.valueOf(eventsPerSymbol), totalVolumes.get(entry.getKey()));
+        }
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testGroupByQuery4() {
+        log.info("GroupBy test4 - invalid number of lock stripes");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@LockStripes(size = '0') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "   group by symbol " +
+                "insert into outputStream;" +
+                "";
+
+        try {
+            siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        } finally {
+            siddhiManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testGroupByQuery5() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("GroupBy test5 - restoring states of lock striped group by selection");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "" +
+                "@app:name('GroupByTest5') " +
+                "" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "@LockStripes(size = '4') " +
+                "from cseEventStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "   group by symbol " +
+                "insert into outputStream;" +
+                "";
+
+        Map<String, Long> totalVolumes = new ConcurrentHashMap<>();
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    totalVolumes.put((String) event.getData(0), (Long) event.getData(1));
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + i, 50f, 10L * (i + 1)});
+        }
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + i, 50f, 1L});
+        }
+        for (int i = 0; i < 10; i++) {
+            AssertJUnit.assertEquals(Long.valueOf(10L * (i + 1) + 1), totalVolumes.get("SYMBOL" + i));
+        }
+
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
 }
@@ -31,6 +31,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JoinTestCase {
@@ -981,4 +985,171 @@ public class JoinTestCase {
             siddhiAppRuntime.shutdown();
         }
     }
+
+    @Test
+    public void joinTest21() throws InterruptedException {
+        log.info("Join test21 - window indexes inferred from the join condition");
+
+        String streams = "" +
+                "define stream cseEventStream (symbol string, price double, volume long); " +
+                "define stream checkStream (symbol string, minPrice int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from checkStream join cseEventStream#window.length(50) as w " +
+                "on w.symbol == checkStream.symbol and w.price > checkStream.minPrice " +
+                "select checkStream.symbol, w.price, w.volume " +
+                "insert into outputStream; " +
+                "" +
+                "@info(name = 'query2') " +
+                "from checkStream join cseEventStream#window.length(20) as w " +
+                "on w.volume >= checkStream.minPrice " +
+                "select checkStream.symbol, w.symbol as windowSymbol, w.volume " +
+                "insert into outputStream2; ";
+
+        List<String> expected = runWindowJoin(streams + query);
+        List<String> actual = runWindowJoin("@app:windowIndexes " + streams + query);
+        AssertJUnit.assertTrue(expected.size() > 100);
+        AssertJUnit.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void joinTest22() throws InterruptedException {
+        log.info("Join test22 - indexes declared on a window");
+
+        String definitions = "" +
+                "define stream cseEventStream (symbol string, price double, volume long); " +
+                "define stream checkStream (symbol string, minPrice int); " +
+                "%s define window cseEventWindow (symbol string, price double, volume long) length(30); ";
+        String query = "" +
+                "from cseEventStream " +
+                "insert into cseEventWindow; " +
+                "" +
+                "@info(name = 'query1') " +
+                "from checkStream join cseEventWindow as w " +
+                "on checkStream.symbol == w.symbol and checkStream.minPrice < w.price " +
+                "select checkStream.symbol, w.price, w.volume " +
+                "insert into outputStream; " +
+                "" +
+                "@info(name = 'query2') " +
+                "from checkStream join cseEventWindow as w " +
+                "on w.volume < checkStream.minPrice " +
+                "select checkStream.symbol, w.symbol as windowSymbol, w.volume " +
+                "insert into outputStream2; ";
+
+        List<String> expected = runWindowJoin(String.format(definitions, "") + query);
+        List<String> actual = runWindowJoin(String.format(definitions, "@index('symbol', 'volume')") + query);
+        AssertJUnit.assertTrue(expected.size() > 100);
+        AssertJUnit.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void joinTest23() throws InterruptedException {
+        log.info("Join test23 - window indexes on signed zeros and NaN");
+
+        String streams = "" +
+                "define stream cseEventStream (symbol string, price double); " +
+                "define stream checkStream (symbol string, price double); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from checkStream join cseEventStream#window.length(10) as w " +
+                "on w.price %s checkStream.price " +
+                "select checkStream.symbol, w.symbol as windowSymbol " +
+                "insert into outputStream; " +
+                "" +
+                "@info(name = 'query2') " +
+                "from checkStream join cseEventStream#window.length(10) as w " +
+                "on w.price %s checkStream.price " +
+                "select checkStream.symbol, w.symbol as windowSymbol " +
+                "insert into outputStream2; ";
+
+        String equalityQueries = String.format(query, "==", "<=");
+        List<String> expected = runSignedZeroJoin(streams + equalityQueries);
+        AssertJUnit.assertEquals(Arrays.asList(
+                "query1[NEGATIVE_ZERO, NEGATIVE_ZERO]", "query1[NEGATIVE_ZERO, ZERO]",
+                "query2[NEGATIVE_ZERO, NEGATIVE_ZERO]", "query2[NEGATIVE_ZERO, ZERO]",
+                "query1[ZERO, NEGATIVE_ZERO]", "query1[ZERO, ZERO]",
+                "query2[ZERO, NEGATIVE_ZERO]", "query2[ZERO, ZERO]"), expected);
+        AssertJUnit.assertEquals(expected, runSignedZeroJoin("@app:windowIndexes " + streams + equalityQueries));
+
+        String inequalityQueries = String.format(query, "!=", ">");
+        expected = runSignedZeroJoin(streams + inequalityQueries);
+        AssertJUnit.assertEquals(Arrays.asList(
+                "query1[NEGATIVE_ZERO, NAN]", "query1[NEGATIVE_ZERO, ONE]",
+                "query2[NEGATIVE_ZERO, ONE]",
+                "query1[ZERO, NAN]", "query1[ZERO, ONE]",
+                "query2[ZERO, ONE]",
+                "query1[NAN, NEGATIVE_ZERO]", "query1[NAN, ZERO]", "query1[NAN, NAN]", "query1[NAN, ONE]"),
+                expected);
+        AssertJUnit.assertEquals(expected, runSignedZeroJoin("@app:windowIndexes " + streams + inequalityQueries));
+    }
+
+    private List<String> runSignedZeroJoin(String siddhiApp) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> output = new ArrayList<>();
+        try {
+            for (String queryName : new String[]{"query1", "query2"}) {
+                siddhiAppRuntime.addCallback(queryName, new QueryCallback() {
+                    @Override
+                    public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                        if (inEvents != null) {
+                            for (Event event : inEvents) {
+                                output.add(queryName + Arrays.toString(event.getData()));
+                            }
+                        }
+                    }
+                });
+            }
+            InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+            InputHandler checkStreamHandler = siddhiAppRuntime.getInputHandler("checkStream");
+            siddhiAppRuntime.start();
+            cseEventStreamHandler.send(new Object[]{"NEGATIVE_ZERO", -0.0});
+            cseEventStreamHandler.send(new Object[]{"ZERO", 0.0});
+            cseEventStreamHandler.send(new Object[]{"NAN", Double.NaN});
+            cseEventStreamHandler.send(new Object[]{"ONE", 1.0});
+            checkStreamHandler.send(new Object[]{"NEGATIVE_ZERO", -0.0});
+            checkStreamHandler.send(new Object[]{"ZERO", 0.0});
+            checkStreamHandler.send(new Object[]{"NAN", Double.NaN});
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+        return output;
+    }
+
+    private List<String> runWindowJoin(String siddhiApp) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<String> output = new ArrayList<>();
+        try {
+            for (String queryName : new String[]{"query1", "query2"}) {
+                siddhiAppRuntime.addCallback(queryName, new QueryCallback() {
+                    @Override
+                    public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                        if (inEvents != null) {
+                            for (Event event : inEvents) {
+                                output.add(queryName + Arrays.toString(event.getData()));
+                            }
+                        }
+                    }
+                });
+            }
+            InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+            InputHandler checkStreamHandler = siddhiAppRuntime.getInputHandler("checkStream");
+            siddhiAppRuntime.start();
+            Random random = new Random(11);
+            for (int i = 0; i < 500; i++) {
+                String symbol = "SYMBOL" + random.nextInt(5);
+                if (random.nextInt(4) == 0) {
+                    checkStreamHandler.send(new Object[]{symbol, random.nextInt(100)});
+                } else {
+                    // Duplicate events are kept by the window and have to be matched as many times
+                    cseEventStreamHandler.send(new Object[]{symbol, (double) random.nextInt(100),
+                            (long) random.nextInt(10) * 10});
+                }
+            }
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+        return output;
+    }
 }
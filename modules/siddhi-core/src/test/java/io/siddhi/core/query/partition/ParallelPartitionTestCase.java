@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query.partition;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelPartitionTestCase {
+    private static final Logger log = Logger.getLogger(ParallelPartitionTestCase.class);
+
+    private static final String[] SYMBOLS = {"IBM", "WSO2", "ORACLE", "ABC", "XYZ", "MSFT", "GOOG"};
+
+    @Test
+    public void parallelPartitionTest1() throws InterruptedException {
+        log.info("parallel partition test1 - output of each partition key");
+
+        String partition = "" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query0') " +
+                "   from cseEventStream#window.length(3) " +
+                "   select symbol, sum(volume) as totalVolume, count() as eventCount " +
+                "   insert into #innerStream; " +
+                "" +
+                "   @info(name = 'query1') " +
+                "   from #innerStream[totalVolume > 100] " +
+                "   select symbol, totalVolume, eventCount " +
+                "   insert into outputStream; " +
+                "end;";
+
+        Map<String, List<String>> expected = runPartition("", partition, "", 0);
+        Map<String, List<String>> parallel = runPartition("@parallel(workers='4') ", partition, "",
+                countEvents(expected));
+        AssertJUnit.assertEquals(expected, parallel);
+        AssertJUnit.assertEquals(SYMBOLS.length, expected.size());
+    }
+
+    @Test
+    public void parallelPartitionTest2() throws InterruptedException {
+        log.info("parallel partition test2 - group by, range partitions and event pool");
+
+        String partition = "" +
+                "partition with (volume < 50 as 'small' or volume >= 20 as 'large' of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query0') " +
+                "   from cseEventStream#window.length(4) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   group by symbol " +
+                "   insert into #innerStream; " +
+                "" +
+                "   @info(name = 'query1') " +
+                "   from #innerStream " +
+                "   select symbol, totalVolume " +
+                "   insert into outputStream; " +
+                "end;";
+
+        // Outputs of a symbol are produced by both the partitions, hence only their order within a partition is kept
+        Map<String, List<String>> expected = sort(runPartition("", partition, "", 0));
+        Map<String, List<String>> parallel = sort(runPartition("@parallel(workers='3', buffer.size='64') ",
+                partition, "", countEvents(expected)));
+        AssertJUnit.assertEquals(expected, parallel);
+
+        Map<String, List<String>> pooled = sort(runPartition("@parallel(workers='2') ", partition,
+                "@app:eventPool(size='8') ", countEvents(expected)));
+        AssertJUnit.assertEquals(expected, pooled);
+    }
+
+    @Test
+    public void parallelPartitionTest3() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("parallel partition test3 - restoring states of partitions processed in parallel");
+
+        String siddhiApp = "" +
+                "@app:name('ParallelPartitionTest') " +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query0') " +
+                "   from cseEventStream " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert into outputStream; " +
+                "end;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger eventCount = new AtomicInteger();
+        Map<String, List<String>> output = addCallback(siddhiAppRuntime, "query0", eventCount);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            inputHandler.send(new Object[]{SYMBOLS[i], 100L * (i + 1)});
+        }
+        SiddhiTestHelper.waitForEvents(10, SYMBOLS.length, eventCount, 10000);
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(SYMBOLS.length, output.size());
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        eventCount = new AtomicInteger();
+        output = addCallback(siddhiAppRuntime, "query0", eventCount);
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            inputHandler.send(new Object[]{SYMBOLS[i], 5L});
+        }
+        SiddhiTestHelper.waitForEvents(10, SYMBOLS.length, eventCount, 10000);
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+
+        AssertJUnit.assertEquals(SYMBOLS.length, output.size());
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            AssertJUnit.assertEquals(Arrays.asList("[" + SYMBOLS[i] + ", " + (100L * (i + 1) + 5) + "]"),
+                    output.get(SYMBOLS[i]));
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void parallelPartitionTest4() {
+        log.info("parallel partition test4 - invalid worker count");
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "@parallel(workers='0') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   from cseEventStream " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert into outputStream; " +
+                "end;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        try {
+            siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        } finally {
+            siddhiManager.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelPartitionTest5() throws InterruptedException {
+        log.info("parallel partition test5 - taking snapshots while the workers process events");
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "@parallel(workers='4') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query0') " +
+                "   from cseEventStream#window.length(5) " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   insert into outputStream; " +
+                "end;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger eventCount = new AtomicInteger();
+        addCallback(siddhiAppRuntime, "query0", eventCount);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Thread sender = new Thread(() -> {
+            try {
+                for (int i = 0; i < 5000; i++) {
+                    inputHandler.send(new Object[]{SYMBOLS[i % SYMBOLS.length], (long) i});
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sender.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                long startTime = System.currentTimeMillis();
+                AssertJUnit.assertNotNull(siddhiAppRuntime.snapshot());
+                // Workers within the barrier should not block on the entry valve of the window
+                AssertJUnit.assertTrue(System.currentTimeMillis() - startTime < 5000);
+            }
+            sender.join();
+            SiddhiTestHelper.waitForEvents(10, 5000, eventCount, 10000);
+            AssertJUnit.assertEquals(5000, eventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+            siddhiManager.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelPartitionTest6() throws InterruptedException {
+        log.info("parallel partition test6 - purging idle partitions processed in parallel");
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, volume long); " +
+                "" +
+                "@parallel(workers='4') " +
+                "@purge(enable='true', interval='1 sec', idle.period='1 sec') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query0') " +
+                "   from cseEventStream " +
+                "   select symbol, sum(volume) as totalVolume " +
+                "   group by symbol " +
+                "   insert into outputStream; " +
+                "end;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger eventCount = new AtomicInteger();
+        Map<String, List<String>> output = addCallback(siddhiAppRuntime, "query0", eventCount);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        try {
+            for (int i = 0; i < SYMBOLS.length; i++) {
+                inputHandler.send(new Object[]{SYMBOLS[i], 100L});
+            }
+            SiddhiTestHelper.waitForEvents(10, SYMBOLS.length, eventCount, 10000);
+            // Partitions are purged by their workers once idle
+            Thread.sleep(3000);
+            for (int i = 0; i < SYMBOLS.length; i++) {
+                inputHandler.send(new Object[]{SYMBOLS[i], 5L});
+            }
+            SiddhiTestHelper.waitForEvents(10, 2 * SYMBOLS.length, eventCount, 10000);
+            for (String symbol : SYMBOLS) {
+                AssertJUnit.assertEquals(Arrays.asList("[" + symbol + ", 100]", "[" + symbol + ", 5]"),
+                        output.get(symbol));
+            }
+        } finally {
+            siddhiAppRuntime.shutdown();
+            siddhiManager.shutdown();
+        }
+    }
+
+    private Map<String, List<String>> runPartition(String partitionAnnotations, String partition,
+                                                   String appAnnotations, int expectedCount)
+            throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(appAnnotations +
+                "define stream cseEventStream (symbol string, volume long); " +
+                partitionAnnotations + partition);
+        AtomicInteger eventCount = new AtomicInteger();
+        Map<String, List<String>> output = addCallback(siddhiAppRuntime, "query1", eventCount);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 200; i++) {
+            inputHandler.send(new Object[]{SYMBOLS[i % SYMBOLS.length], (long) (i % 60)});
+        }
+        for (int i = 0; i < 20; i++) {
+            Event[] events = new Event[10];
+            for (int j = 0; j < events.length; j++) {
+                events[j] = new Event(System.currentTimeMillis(),
+                        new Object[]{SYMBOLS[(i + j / 3) % SYMBOLS.length], (long) (i * j % 70)});
+            }
+            inputHandler.send(events);
+        }
+        SiddhiTestHelper.waitForEvents(10, expectedCount, eventCount, 10000);
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+        return output;
+    }
+
+    private int countEvents(Map<String, List<String>> output) {
+        int count = 0;
+        for (List<String> events : output.values()) {
+            count += events.size();
+        }
+        AssertJUnit.assertTrue(count > 0);
+        return count;
+    }
+
+    private Map<String, List<String>> sort(Map<String, List<String>> output) {
+        for (List<String> events : output.values()) {
+            Collections.sort(events);
+        }
+        return output;
+    }
+
+    private Map<String, List<String>> addCallback(SiddhiAppRuntime siddhiAppRuntime, String queryName,
+                                                  AtomicInteger eventCount) {
+        Map<String, List<String>> output = new TreeMap<>();
+        siddhiAppRuntime.addCallback(queryName, new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    synchronized (output) {
+                        for (Event event : inEvents) {
+                            output.computeIfAbsent((String) event.getData()[0], k -> new ArrayList<>())
+                                    .add(Arrays.toString(event.getData()));
+                        }
+                    }
+                    eventCount.addAndGet(inEvents.length);
+                }
+            }
+        });
+        return output;
+    }
+}
@@ -20,6 +20,7 @@ package io.siddhi.core.query.partition;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.partition.PartitionRuntimeImpl;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
@@ -30,6 +31,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionDataPurgingTestCase {
@@ -126,4 +131,72 @@ public class PartitionDataPurgingTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+
+    @Test
+    public void testPartitionPurgQuery2() throws InterruptedException {
+        log.info("Partition test - purging idle partitions among many partition keys");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest') " +
+                "" +
+                "define stream streamA (symbol string, price int);" +
+                "" +
+                "@purge(enable='true', interval='1 sec', idle.period='2 sec') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from streamA#window.length(3) " +
+                "   select symbol, avg(price) as total " +
+                "   insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object> totals = new ArrayList<>();
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if ("OLD0".equals(event.getData(0))) {
+                        totals.add(event.getData(1));
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+        PartitionRuntimeImpl partitionRuntime = (PartitionRuntimeImpl) siddhiAppRuntime.getPartitions()
+                .iterator().next();
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Object[]{"OLD" + i, 100});
+        }
+        Thread.sleep(1500);
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Object[]{"NEW" + i, 100});
+        }
+        AssertJUnit.assertEquals(1000, partitionRuntime.getPartitionKeys().size());
+
+        long start = System.currentTimeMillis();
+        while (partitionRuntime.getPartitionKeys().size() > 500 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(50);
+        }
+        Set<String> partitionKeys = partitionRuntime.getPartitionKeys();
+        AssertJUnit.assertEquals(500, partitionKeys.size());
+        for (String partitionKey : partitionKeys) {
+            AssertJUnit.assertTrue(partitionKey.startsWith("NEW"));
+        }
+
+        inputHandler.send(new Object[]{"OLD0", 10});
+        SiddhiTestHelper.waitForEvents(100, 1001, count, 60000);
+        AssertJUnit.assertEquals(Arrays.asList(100.0, 10.0), totals);
+
+        start = System.currentTimeMillis();
+        while (!partitionRuntime.getPartitionKeys().isEmpty() && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(50);
+        }
+        AssertJUnit.assertEquals(0, partitionRuntime.getPartitionKeys().size());
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+public class MinMaxAttributeAggregatorExecutorTestCase {
+
+    private static final Logger log = Logger.getLogger(MinMaxAttributeAggregatorExecutorTestCase.class);
+
+    @Test
+    public void minMaxAggregatorTest1() {
+        log.info("minMaxAggregator Test #1: Restoring the window of min from its snapshot");
+
+        MinAttributeAggregatorExecutor executor = new MinAttributeAggregatorExecutor();
+        MinAttributeAggregatorExecutor.MinAggregatorState state =
+                executor.new MinAttributeAggregatorStateLong(true);
+        state.processAdd(5L);
+        state.processAdd(3L);
+        state.processAdd(4L);
+        Map<String, Object> snapshot = state.snapshot();
+
+        MinAttributeAggregatorExecutor.MinAggregatorState restoredState =
+                executor.new MinAttributeAggregatorStateLong(true);
+        restoredState.restore(snapshot);
+        AssertJUnit.assertEquals(3L, restoredState.currentValue());
+        AssertJUnit.assertEquals(3L, restoredState.processRemove(5L));
+        AssertJUnit.assertEquals(4L, restoredState.processRemove(3L));
+        AssertJUnit.assertNull(restoredState.processRemove(4L));
+    }
+
+    @Test
+    public void minMaxAggregatorTest2() {
+        log.info("minMaxAggregator Test #2: Restoring the deque of min persisted by the earlier versions");
+
+        // Window of 5, 3, 4 and 6, where 5 is not a candidate to become the minimum
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("MinValue", 3L);
+        snapshot.put("MinDeque", new LinkedList<>(Arrays.asList(3L, 4L, 6L)));
+
+        MinAttributeAggregatorExecutor.MinAggregatorState state =
+                new MinAttributeAggregatorExecutor().new MinAttributeAggregatorStateLong(true);
+        state.restore(snapshot);
+        AssertJUnit.assertEquals(3L, state.currentValue());
+        AssertJUnit.assertEquals(3L, state.processRemove(5L));
+        AssertJUnit.assertEquals(4L, state.processRemove(3L));
+        AssertJUnit.assertEquals(1L, state.processAdd(1L));
+        AssertJUnit.assertEquals(1L, state.processRemove(4L));
+        AssertJUnit.assertEquals(1L, state.processRemove(6L));
+        AssertJUnit.assertNull(state.processRemove(1L));
+    }
+
+    @Test
+    public void minMaxAggregatorTest3() {
+        log.info("minMaxAggregator Test #3: Restoring the deque of max persisted by the earlier versions");
+
+        // Window of 1.0, 7.0 and 2.0, where 1.0 is not a candidate to become the maximum
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("MaxValue", 7.0);
+        snapshot.put("MaxDeque", new LinkedList<>(Arrays.asList(7.0, 2.0)));
+
+        MaxAttributeAggregatorExecutor.MaxAggregatorState state =
+                new MaxAttributeAggregatorExecutor().new MaxAttributeAggregatorStateDouble(true);
+        state.restore(snapshot);
+        AssertJUnit.assertEquals(7.0, state.currentValue());
+        AssertJUnit.assertEquals(7.0, state.processRemove(1.0));
+        AssertJUnit.assertEquals(2.0, state.processRemove(7.0));
+        AssertJUnit.assertEquals(2.0, state.processAdd(0.5));
+        AssertJUnit.assertEquals(0.5, state.processRemove(2.0));
+    }
+}
@@ -30,6 +30,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 public class StdDevAttributeAggregatorExecutorTestCase {
 
     private static final Logger log = Logger.getLogger(StdDevAttributeAggregatorExecutorTestCase.class);
@@ -301,4 +305,59 @@ public class StdDevAttributeAggregatorExecutorTestCase {
         siddhiManager.createSiddhiAppRuntime(cseEventStream + execPlan);
     }
 
+    @Test
+    public void stdDevAggregatorTest9() throws InterruptedException {
+
+        log.info("stdDevAggregator Test #9: stdDev of large numbers over a sliding window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String windowExecPlan = "" +
+                "@app:name('stdDevAggregatorTests') " +
+                "" +
+                "define stream cseEventStream (symbol string, price double);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(10) " +
+                "select stdDev(price) as deviation " +
+                "insert into outputStream;";
+
+        SiddhiAppRuntime execPlanRunTime = siddhiManager.createSiddhiAppRuntime(windowExecPlan);
+        List<Double> deviations = new ArrayList<>();
+        execPlanRunTime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    deviations.add((Double) event.getData(0));
+                }
+            }
+        });
+
+        InputHandler inputHandler = execPlanRunTime.getInputHandler("cseEventStream");
+
+        execPlanRunTime.start();
+        Random random = new Random(23);
+        double[] prices = new double[5000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 1.0E9 + random.nextInt(1000) / 100.0;
+            inputHandler.send(new Object[]{"WSO2", prices[i]});
+        }
+        execPlanRunTime.shutdown();
+
+        AssertJUnit.assertEquals(prices.length, deviations.size());
+        for (int i = 0; i < prices.length; i++) {
+            int from = Math.max(0, i - 9);
+            double mean = 0;
+            for (int j = from; j <= i; j++) {
+                mean += (prices[j] - 1.0E9) / (i - from + 1);
+            }
+            double squaredDifferences = 0;
+            for (int j = from; j <= i; j++) {
+                squaredDifferences += Math.pow(prices[j] - 1.0E9 - mean, 2);
+            }
+            double expected = Math.sqrt(squaredDifferences / (i - from + 1));
+            AssertJUnit.assertTrue(Math.abs(expected - deviations.get(i)) < epsilon);
+        }
+    }
+
 }
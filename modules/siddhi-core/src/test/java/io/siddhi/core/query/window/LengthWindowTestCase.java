@@ -20,17 +20,26 @@ package io.siddhi.core.query.window;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.apache.log4j.Logger;
 import org.testng.Assert;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
 public class LengthWindowTestCase {
     private static final Logger log = Logger.getLogger(LengthWindowTestCase.class);
     private int inEventCount;
@@ -387,4 +396,229 @@ public class LengthWindowTestCase {
         execPlanRunTime.shutdown();
 
     }
+
+    @Test
+    public void lengthWindowTest6() throws InterruptedException {
+        log.info("Testing min and max over a length window");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(50) " +
+                "select min(price) as minPrice, max(price) as maxPrice, min(volume) as minVolume, " +
+                "max(volume) as maxVolume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        Deque<Object[]> window = new ArrayDeque<>();
+        List<Object[]> expected = new ArrayList<>();
+        List<Object[]> actual = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    actual.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Random random = new Random(17);
+        for (int i = 0; i < 2000; i++) {
+            Object[] data = new Object[]{"IBM", (double) random.nextInt(100) / 4,
+                    Long.MAX_VALUE - random.nextInt(100)};
+            window.addLast(data);
+            if (window.size() > 50) {
+                window.removeFirst();
+            }
+            double minPrice = Double.MAX_VALUE;
+            double maxPrice = -Double.MAX_VALUE;
+            long minVolume = Long.MAX_VALUE;
+            long maxVolume = Long.MIN_VALUE;
+            for (Object[] windowData : window) {
+                minPrice = Math.min(minPrice, (Double) windowData[1]);
+                maxPrice = Math.max(maxPrice, (Double) windowData[1]);
+                minVolume = Math.min(minVolume, (Long) windowData[2]);
+                maxVolume = Math.max(maxVolume, (Long) windowData[2]);
+            }
+            expected.add(new Object[]{minPrice, maxPrice, minVolume, maxVolume});
+            inputHandler.send(data);
+        }
+        AssertJUnit.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            AssertJUnit.assertArrayEquals(expected.get(i), actual.get(i));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest7() throws InterruptedException {
+        log.info("Testing identical length windows shared by queries");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume > 10]#window.length(4) " +
+                "select sum(volume) as totalVolume " +
+                "insert into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream[volume > 10]#window.length(4) " +
+                "select max(price) as maxPrice " +
+                "insert all events into outputStream2 ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from cseEventStream#window.length(4) " +
+                "select sum(volume) as totalVolume " +
+                "insert into outputStream3 ;";
+
+        // Windows are only shared when enabled
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        AssertJUnit.assertEquals(0, siddhiAppRuntime.getWindows().size());
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime("@app:shareWindows " + cseEventStream + query);
+        AssertJUnit.assertEquals(1, siddhiAppRuntime.getWindows().size());
+
+        Deque<Object[]> filteredWindow = new ArrayDeque<>();
+        Deque<Object[]> window = new ArrayDeque<>();
+        List<Object> expected1 = new ArrayList<>();
+        List<Object> expected2 = new ArrayList<>();
+        List<Object> expected3 = new ArrayList<>();
+        List<Object> actual1 = new ArrayList<>();
+        List<Object> actual2 = new ArrayList<>();
+        List<Object> actual3 = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    actual1.add(event.getData(0));
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        actual2.add(event.getData(0));
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("query3", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    actual3.add(event.getData(0));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            Object[] data = new Object[]{"IBM", (double) random.nextInt(100), (long) random.nextInt(20)};
+            window.addLast(data);
+            if (window.size() > 4) {
+                window.removeFirst();
+            }
+            long totalVolume = 0;
+            for (Object[] windowData : window) {
+                totalVolume += (Long) windowData[2];
+            }
+            expected3.add(totalVolume);
+            if ((Long) data[2] > 10) {
+                filteredWindow.addLast(data);
+                if (filteredWindow.size() > 4) {
+                    filteredWindow.removeFirst();
+                }
+                long filteredVolume = 0;
+                double maxPrice = -Double.MAX_VALUE;
+                for (Object[] windowData : filteredWindow) {
+                    filteredVolume += (Long) windowData[2];
+                    maxPrice = Math.max(maxPrice, (Double) windowData[1]);
+                }
+                expected1.add(filteredVolume);
+                expected2.add(maxPrice);
+            }
+            inputHandler.send(data);
+        }
+        AssertJUnit.assertEquals(expected1, actual1);
+        AssertJUnit.assertEquals(expected2, actual2);
+        AssertJUnit.assertEquals(expected3, actual3);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void lengthWindowTest8() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("Testing identical length windows kept by each query");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(2) " +
+                "select sum(volume) as totalVolume " +
+                "insert into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.length(2) " +
+                "select max(price) as maxPrice " +
+                "insert into outputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime("@app:shareWindows('true') " +
+                cseEventStream + "@shareWindow('false') " + query);
+        AssertJUnit.assertEquals(0, siddhiAppRuntime.getWindows().size());
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime("@app:shareWindows('false') " + cseEventStream +
+                query);
+        AssertJUnit.assertEquals(0, siddhiAppRuntime.getWindows().size());
+        siddhiAppRuntime.shutdown();
+
+        String siddhiApp = "@app:name('lengthWindowTest8') " + cseEventStream + query;
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AssertJUnit.assertEquals(0, siddhiAppRuntime.getWindows().size());
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 700.0, 10L});
+        inputHandler.send(new Object[]{"WSO2", 60.5, 20L});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        // The windows of the queries are restored from the states persisted under each query
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        List<Object> actual1 = new ArrayList<>();
+        List<Object> actual2 = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                actual1.add(inEvents[0].getData(0));
+            }
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                actual2.add(inEvents[0].getData(0));
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        inputHandler.send(new Object[]{"IBM", 50.0, 5L});
+        AssertJUnit.assertEquals(Collections.singletonList(25L), actual1);
+        AssertJUnit.assertEquals(Collections.singletonList(60.5), actual2);
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
 }
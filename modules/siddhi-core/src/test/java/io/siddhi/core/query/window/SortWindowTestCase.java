@@ -22,16 +22,23 @@ package io.siddhi.core.query.window;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.apache.log4j.Logger;
+import org.testng.Assert;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class SortWindowTestCase {
@@ -228,4 +235,73 @@ public class SortWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void sortWindowTest7() throws InterruptedException {
+        log.info("sortWindowTest7 - evicting events comparing equal, across persistence");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String siddhiApp = "" +
+                "@app:name('SortWindowTest7') " +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.sort(20, volume, 'asc', price, 'desc') " +
+                "select symbol " +
+                "insert all events into outputStream ;";
+
+        List<String> expiredSymbols = new ArrayList<>();
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (removeEvents != null) {
+                    for (Event event : removeEvents) {
+                        expiredSymbols.add((String) event.getData(0));
+                    }
+                }
+            }
+        };
+
+        // Expected evictions as per sorting the whole window with a stable sort on each arrival
+        Comparator<Object[]> comparator = Comparator.<Object[], Long>comparing(event -> (Long) event[2])
+                .thenComparing((Object[] event) -> (Float) event[1], Comparator.reverseOrder());
+        List<Object[]> window = new ArrayList<>();
+        List<String> expectedSymbols = new ArrayList<>();
+        List<Object[]> events = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            Object[] event = new Object[]{"SYMBOL" + i, (float) random.nextInt(3), (long) random.nextInt(5)};
+            events.add(event);
+            window.add(event);
+            if (window.size() > 20) {
+                window.sort(comparator);
+                expectedSymbols.add((String) window.remove(window.size() - 1)[0]);
+            }
+        }
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(events.get(i));
+        }
+        siddhiAppRuntime.persist();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed", e);
+        }
+        for (int i = 500; i < 1000; i++) {
+            inputHandler.send(events.get(i));
+        }
+        AssertJUnit.assertEquals(expectedSymbols, expiredSymbols);
+        siddhiAppRuntime.shutdown();
+    }
 }
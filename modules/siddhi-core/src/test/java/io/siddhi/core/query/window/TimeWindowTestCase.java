@@ -30,6 +30,11 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 public class TimeWindowTestCase {
     private static final Logger log = Logger.getLogger(TimeWindowTestCase.class);
     private int inEventCount;
@@ -222,4 +227,209 @@ public class TimeWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void timeWindowTest7() throws InterruptedException {
+        log.info("Testing aggregations of a time window over time panes of one millisecond");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[volume > 2]#window.time(1 sec) " +
+                "select symbol, sum(volume) as totalVolume, avg(price) as avgPrice, count() as events " +
+                "group by symbol " +
+                "insert into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "@TimePanes(size = '1000') " +
+                "from cseEventStream[volume > 2]#window.time(1 sec) " +
+                "select symbol, sum(volume) as totalVolume, avg(price) as avgPrice, count() as events " +
+                "group by symbol " +
+                "insert into outputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        List<Object[]> expected = new ArrayList<>();
+        List<Object[]> actual = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        expected.add(event.getData());
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                AssertJUnit.assertNull(removeEvents);
+                for (Event event : inEvents) {
+                    actual.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Random random = new Random(3);
+        long timestamp = 1000;
+        for (int i = 0; i < 500; i++) {
+            timestamp += random.nextInt(50);
+            inputHandler.send(timestamp, new Object[]{random.nextBoolean() ? "IBM" : "WSO2",
+                    (float) random.nextInt(100) / 4, random.nextInt(10)});
+        }
+        AssertJUnit.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            AssertJUnit.assertArrayEquals(expected.get(i), actual.get(i));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void timeWindowTest8() throws InterruptedException {
+        log.info("Testing aggregations of a time window expiring events along with their time panes");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback " +
+                "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "@TimePanes('4') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select sum(volume) as totalVolume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        List<Object> actual = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                for (Event event : inEvents) {
+                    actual.add(event.getData(0));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(0, new Object[]{"IBM", 700f, 1L});
+        inputHandler.send(300, new Object[]{"IBM", 700f, 2L});
+        // Panes last 250 milliseconds, hence the event of 0 is kept until 1249 as the window could hold an event
+        // of 249 until then
+        inputHandler.send(1100, new Object[]{"IBM", 700f, 4L});
+        inputHandler.send(1300, new Object[]{"IBM", 700f, 8L});
+        inputHandler.send(2600, new Object[]{"IBM", 700f, 16L});
+        AssertJUnit.assertEquals(Arrays.asList(1L, 3L, 7L, 14L, 16L), actual);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void timeWindowTest9() throws InterruptedException {
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "@TimePanes " +
+                "from cseEventStream#window.time(1 min) " +
+                "select symbol, min(price) as minPrice " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+    }
+
+    @Test
+    public void timeWindowTest10() throws InterruptedException {
+        log.info("Testing time panes of a query consuming the same time window as queries sharing it");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:playback @app:shareWindows " +
+                "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select symbol, count() as events " +
+                "group by symbol " +
+                "insert into outputStream2 ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "@TimePanes(size = '1000') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream3 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        AssertJUnit.assertEquals(1, siddhiAppRuntime.getWindows().size());
+        List<Object[]> expected = new ArrayList<>();
+        List<Object[]> actual = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        expected.add(event.getData());
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("query3", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                AssertJUnit.assertNull(removeEvents);
+                for (Event event : inEvents) {
+                    actual.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(0, new Object[]{"IBM", 700f, 1L});
+        inputHandler.send(300, new Object[]{"WSO2", 60f, 2L});
+        inputHandler.send(700, new Object[]{"IBM", 700f, 4L});
+        // Both the groups have been idle for more than the window, hence their states are released
+        inputHandler.send(2500, new Object[]{"WSO2", 60f, 8L});
+        inputHandler.send(2600, new Object[]{"IBM", 700f, 16L});
+        AssertJUnit.assertEquals(5, actual.size());
+        AssertJUnit.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            AssertJUnit.assertArrayEquals(expected.get(i), actual.get(i));
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void timeWindowTest11() throws InterruptedException {
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "@TimePanes " +
+                "from cseEventStream#window.time(1 min) " +
+                "select symbol, price " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+    }
+
 }
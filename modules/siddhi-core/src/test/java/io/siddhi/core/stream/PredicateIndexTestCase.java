@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.stream;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.SiddhiTestHelper;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PredicateIndexTestCase {
+    private static final Logger log = Logger.getLogger(PredicateIndexTestCase.class);
+
+    private static final String STREAM_DEFINITION = "" +
+            "define stream cseEventStream (symbol string, price float, volume long, quantity int, weight double, " +
+            "active bool);";
+
+    @Test
+    public void predicateIndexTest1() throws InterruptedException {
+        log.info("predicate index test1 - equality, range and non indexable filters");
+
+        String[] filters = {
+                "symbol == 'IBM'",
+                "'WSO2' == symbol",
+                "price > 50",
+                "70 >= price",
+                "volume < 150 and volume >= 100",
+                "quantity > 10 and quantity < 5",
+                "weight == 55.5 or weight > 100",
+                "quantity == 20 and price < 65",
+                "symbol != 'IBM'",
+                "price > volume",
+                "active == true",
+                "not (quantity > 10)",
+                "price >= 60.5f and 60.5 >= price"
+        };
+        Object[][] events = {
+                {"IBM", 700f, 100L, 10, 55.5, true},
+                {"WSO2", 60.5f, 200L, 20, 75.6, false},
+                {"WSO2", null, 149L, 30, 32.1, true},
+                {"ORACLE", 50f, null, 40, null, null},
+                {"ABC", 70f, 150L, null, 150.0, false},
+                {null, -0.0f, 0L, 5, -0.0, true}
+        };
+
+        List<List<String>> expected = runQueries("", filters, events);
+        List<List<String>> indexed = runQueries("@app:indexPredicates ", filters, events);
+        AssertJUnit.assertEquals(expected, indexed);
+        AssertJUnit.assertEquals(1, indexed.get(0).size());
+        AssertJUnit.assertEquals(2, indexed.get(1).size());
+        AssertJUnit.assertEquals(2, indexed.get(4).size());
+        AssertJUnit.assertEquals(0, indexed.get(5).size());
+        AssertJUnit.assertEquals(1, indexed.get(12).size());
+    }
+
+    @Test
+    public void predicateIndexTest2() throws InterruptedException {
+        log.info("predicate index test2 - randomly generated filters");
+
+        Random random = new Random(1234);
+        String[] filters = new String[60];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = randomCondition(random, 2);
+        }
+        Object[][] events = new Object[500][];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = randomEvent(random);
+        }
+
+        List<List<String>> expected = runQueries("", filters, events);
+        List<List<String>> indexed = runQueries("@app:indexPredicates ", filters, events);
+        AssertJUnit.assertEquals(expected, indexed);
+    }
+
+    @Test
+    public void predicateIndexTest3() throws InterruptedException {
+        log.info("predicate index test3 - events from async streams and other queries");
+
+        String siddhiApp = "" +
+                "@app:indexPredicates " +
+                "@async(buffer.size='64') " +
+                "define stream inputStream (symbol string, price float, volume long);" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "from inputStream[volume > 0] " +
+                "select * " +
+                "insert into cseEventStream;" +
+                "" +
+                "@info(name = 'query1') " +
+                "from inputStream[symbol == 'IBM'] " +
+                "select * " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from inputStream[price >= 50] " +
+                "select * " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from cseEventStream[symbol == 'WSO2'] " +
+                "select * " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from cseEventStream[price < 50] " +
+                "select * " +
+                "insert into outputStream;";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicInteger[] counts = new AtomicInteger[4];
+        for (int i = 0; i < counts.length; i++) {
+            AtomicInteger count = new AtomicInteger();
+            counts[i] = count;
+            siddhiAppRuntime.addCallback("query" + (i + 1), new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    count.addAndGet(inEvents.length);
+                }
+            });
+        }
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Event[]{
+                    new Event(System.currentTimeMillis(), new Object[]{"IBM", 75f, 100L}),
+                    new Event(System.currentTimeMillis(), new Object[]{"WSO2", 45f, 10L}),
+                    new Event(System.currentTimeMillis(), new Object[]{"ORACLE", 25f, 0L})
+            });
+        }
+        SiddhiTestHelper.waitForEvents(10, 100, counts[0], 1000);
+        SiddhiTestHelper.waitForEvents(10, 100, counts[1], 1000);
+        SiddhiTestHelper.waitForEvents(10, 100, counts[2], 1000);
+        SiddhiTestHelper.waitForEvents(10, 100, counts[3], 1000);
+        AssertJUnit.assertEquals(100, counts[0].get());
+        AssertJUnit.assertEquals(100, counts[1].get());
+        AssertJUnit.assertEquals(100, counts[2].get());
+        AssertJUnit.assertEquals(100, counts[3].get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    private List<List<String>> runQueries(String appAnnotations, String[] filters, Object[][] events)
+            throws InterruptedException {
+        StringBuilder siddhiApp = new StringBuilder(appAnnotations).append(STREAM_DEFINITION);
+        for (int i = 0; i < filters.length; i++) {
+            siddhiApp.append("@info(name = 'query").append(i).append("') ")
+                    .append("from cseEventStream[").append(filters[i]).append("] ")
+                    .append("select * ")
+                    .append("insert into outputStream;");
+        }
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp.toString());
+        List<List<String>> outputs = new ArrayList<>();
+        for (int i = 0; i < filters.length; i++) {
+            List<String> output = new ArrayList<>();
+            outputs.add(output);
+            siddhiAppRuntime.addCallback("query" + i, new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    for (Event event : inEvents) {
+                        output.add(Arrays.toString(event.getData()));
+                    }
+                }
+            });
+        }
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (Object[] event : events) {
+            inputHandler.send(event.clone());
+        }
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+        return outputs;
+    }
+
+    private String randomCondition(Random random, int depth) {
+        int choice = random.nextInt(depth > 0 ? 4 : 1);
+        switch (choice) {
+            case 1:
+                return "(" + randomCondition(random, depth - 1) + " and " + randomCondition(random, depth - 1) + ")";
+            case 2:
+                return "(" + randomCondition(random, depth - 1) + " or " + randomCondition(random, depth - 1) + ")";
+            case 3:
+                return "not (" + randomCondition(random, depth - 1) + ")";
+            default:
+                return randomCompare(random);
+        }
+    }
+
+    private String randomCompare(Random random) {
+        String[] operators = {"==", "!=", ">", ">=", "<", "<="};
+        String operator = operators[random.nextInt(operators.length)];
+        switch (random.nextInt(6)) {
+            case 0:
+                return "symbol " + (random.nextBoolean() ? "==" : "!=") + " '" +
+                        new String[]{"IBM", "WSO2", "ORACLE"}[random.nextInt(3)] + "'";
+            case 1:
+                return "active == " + random.nextBoolean();
+            default:
+                String[] attributes = {"price", "volume", "quantity", "weight"};
+                String attribute = attributes[random.nextInt(attributes.length)];
+                String constant = randomConstant(random);
+                if (random.nextBoolean()) {
+                    return attribute + " " + operator + " " + constant;
+                }
+                return constant + " " + operator + " " + attribute;
+        }
+    }
+
+    private String randomConstant(Random random) {
+        int value = random.nextInt(10) * 10;
+        switch (random.nextInt(4)) {
+            case 0:
+                return String.valueOf(value);
+            case 1:
+                return value + "L";
+            case 2:
+                return (value + 0.5) + "f";
+            default:
+                return String.valueOf(value + 0.5);
+        }
+    }
+
+    private Object[] randomEvent(Random random) {
+        return new Object[]{
+                random.nextInt(10) == 0 ? null : new String[]{"IBM", "WSO2", "ORACLE"}[random.nextInt(3)],
+                random.nextInt(10) == 0 ? null : random.nextInt(10) * 10 + (random.nextBoolean() ? 0.5f : 0f),
+                random.nextInt(10) == 0 ? null : (long) random.nextInt(100),
+                random.nextInt(10) == 0 ? null : random.nextInt(100),
+                random.nextInt(10) == 0 ? null : random.nextInt(10) * 10 + (random.nextBoolean() ? 0.5 : 0.0),
+                random.nextInt(10) == 0 ? null : random.nextBoolean()
+        };
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.stream;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SharedEventConversionTestCase {
+    private static final Logger log = Logger.getLogger(SharedEventConversionTestCase.class);
+
+    private static final String QUERIES = "" +
+            "define stream cseEventStream (symbol string, price float, volume long);" +
+            "define stream stockStream (symbol string, price float, volume long);" +
+            "" +
+            "@info(name = 'query0') " +
+            "from cseEventStream[price > 50] " +
+            "select * " +
+            "insert into outputStream;" +
+            "" +
+            "@info(name = 'query1') " +
+            "from cseEventStream[volume < 150][symbol != 'IBM'] " +
+            "select symbol, price * 2 as price, volume " +
+            "insert into outputStream;" +
+            "" +
+            "@info(name = 'query2') " +
+            "from cseEventStream " +
+            "select symbol, volume " +
+            "insert into outputStream2;" +
+            "" +
+            "@info(name = 'query3') " +
+            "from cseEventStream[price < 70]#window.length(2) " +
+            "select symbol, sum(volume) as totalVolume " +
+            "insert all events into outputStream3;" +
+            "" +
+            "@info(name = 'query4') " +
+            "from cseEventStream#window.lengthBatch(2) " +
+            "select symbol, price " +
+            "insert all events into outputStream4;" +
+            "" +
+            "@info(name = 'query5') " +
+            "from cseEventStream[volume > 50]#window.length(3) as a join stockStream#window.length(1) as b " +
+            "on a.symbol == b.symbol " +
+            "select a.symbol, a.price, b.volume " +
+            "insert into outputStream5;" +
+            "" +
+            "@info(name = 'query6') " +
+            "from stockStream[price > 51] " +
+            "select symbol, price, volume " +
+            "insert into cseEventStream;";
+
+    private static final int QUERY_COUNT = 7;
+
+    @Test
+    public void sharedEventConversionTest1() throws InterruptedException {
+        log.info("shared event conversion test1 - filters, projections, windows and joins");
+
+        List<List<String>> expected = runQueries("");
+        List<List<String>> shared = runQueries("@app:shareEventConversion ");
+        AssertJUnit.assertEquals(expected, shared);
+        AssertJUnit.assertTrue(expected.get(3).size() > 0);
+        AssertJUnit.assertTrue(expected.get(5).size() > 0);
+        AssertJUnit.assertTrue(expected.get(6).size() > 0);
+    }
+
+    @Test
+    public void sharedEventConversionTest2() throws InterruptedException {
+        log.info("shared event conversion test2 - shared conversion with indexed predicates and event pool");
+
+        List<List<String>> expected = runQueries("");
+        List<List<String>> shared = runQueries("@app:shareEventConversion @app:indexPredicates " +
+                "@app:eventPool(size='4') ");
+        AssertJUnit.assertEquals(expected, shared);
+    }
+
+    private List<List<String>> runQueries(String appAnnotations) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(appAnnotations + QUERIES);
+        List<List<String>> outputs = new ArrayList<>();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            List<String> output = new ArrayList<>();
+            outputs.add(output);
+            siddhiAppRuntime.addCallback("query" + i, new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            output.add("in " + Arrays.toString(event.getData()));
+                        }
+                    }
+                    if (removeEvents != null) {
+                        for (Event event : removeEvents) {
+                            output.add("remove " + Arrays.toString(event.getData()));
+                        }
+                    }
+                }
+            });
+        }
+
+        InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        InputHandler stockStreamHandler = siddhiAppRuntime.getInputHandler("stockStream");
+        siddhiAppRuntime.start();
+        stockStreamHandler.send(new Object[]{"WSO2", 50f, 10L});
+        cseEventStreamHandler.send(new Object[]{"IBM", 75f, 100L});
+        cseEventStreamHandler.send(new Object[]{"WSO2", 45f, 200L});
+        cseEventStreamHandler.send(new Event[]{
+                new Event(100L, new Object[]{"ORACLE", 65f, 120L}),
+                new Event(101L, new Object[]{"WSO2", 55f, 60L}),
+                new Event(102L, new Object[]{"IBM", 35f, 20L})
+        });
+        stockStreamHandler.send(new Object[]{"IBM", 52f, 15L});
+        cseEventStreamHandler.send(new Object[]{"IBM", 85f, 170L});
+        cseEventStreamHandler.send(new Object[]{null, 60f, 70L});
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+        return outputs;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.stream.event;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.PrimitiveAttributeFunction;
+import io.siddhi.core.event.stream.PrimitiveAttributeLayout;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.definition.StreamDefinition;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+
+public class PrimitiveAttributeTestCase {
+    private static final Logger log = Logger.getLogger(PrimitiveAttributeTestCase.class);
+
+    private static final String QUERIES = "" +
+            "define stream cseEventStream (symbol string, price float, volume long, count int, active bool);" +
+            "define stream stockStream (symbol string, price double, volume long);" +
+            "" +
+            "@info(name = 'query0') " +
+            "from cseEventStream[price > 50 and volume <= 150] " +
+            "select * " +
+            "insert into outputStream0;" +
+            "" +
+            "@info(name = 'query1') " +
+            "from cseEventStream[active == true and price * 2 > volume] " +
+            "select symbol, price * 2 as price, count + 1 as count " +
+            "insert into outputStream1;" +
+            "" +
+            "@info(name = 'query2') " +
+            "from cseEventStream#window.length(2) " +
+            "select symbol, avg(volume) as avgVolume, sum(count) as totalCount " +
+            "having avgVolume > 60.5 " +
+            "insert all events into outputStream2;" +
+            "" +
+            "@info(name = 'query3') " +
+            "from cseEventStream[count != 2]#window.length(3) as a join stockStream#window.length(1) as b " +
+            "on a.symbol == b.symbol and a.price < b.price " +
+            "select a.symbol, a.price, b.price as stockPrice, b.volume " +
+            "insert into outputStream3;" +
+            "" +
+            "@info(name = 'query4') " +
+            "from every e1=cseEventStream[volume > 100] -> e2=stockStream[price > e1.price] " +
+            "select e1.symbol, e1.volume, e2.price " +
+            "insert into outputStream4;" +
+            "" +
+            "@info(name = 'query5') " +
+            "from cseEventStream " +
+            "select symbol, volume * 1.5 as volume, price " +
+            "having volume > 100.0 " +
+            "insert into outputStream5;" +
+            "" +
+            "@info(name = 'query6') " +
+            "from cseEventStream#window.length(3) " +
+            "select min(price) as minPrice, max(volume) as maxVolume, sum(price) as totalPrice, " +
+            "avg(count) as avgCount " +
+            "insert all events into outputStream6;";
+
+    private static final int QUERY_COUNT = 7;
+
+    @Test
+    public void primitiveAttributeTest1() throws InterruptedException {
+        log.info("primitive attribute test1 - filters, windows, joins, patterns and having");
+
+        List<List<String>> expected = runQueries("");
+        List<List<String>> primitive = runQueries("@app:primitiveAttributes ");
+        AssertJUnit.assertEquals(expected, primitive);
+        for (List<String> output : expected) {
+            AssertJUnit.assertTrue(output.size() > 0);
+        }
+    }
+
+    @Test
+    public void primitiveAttributeTest2() throws InterruptedException {
+        log.info("primitive attribute test2 - compiled expressions, shared conversion and event pool");
+
+        List<List<String>> expected = runQueries("");
+        List<List<String>> primitive = runQueries("@app:primitiveAttributes @app:compileExpressions " +
+                "@app:shareEventConversion @app:eventPool(size='4') ");
+        AssertJUnit.assertEquals(expected, primitive);
+    }
+
+    @Test
+    public void primitiveAttributeTest3() {
+        log.info("primitive attribute test3 - typed reads of stream events");
+
+        StreamDefinition streamDefinition = StreamDefinition.id("cseEventStream")
+                .attribute("symbol", Attribute.Type.STRING).attribute("price", Attribute.Type.FLOAT)
+                .attribute("volume", Attribute.Type.LONG).attribute("active", Attribute.Type.BOOL);
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addInputDefinition(streamDefinition);
+        metaStreamEvent.addData(new Attribute("volume", Attribute.Type.LONG));
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("active", Attribute.Type.BOOL));
+
+        StreamEventFactory streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        streamEventFactory.enablePrimitiveAttributes(metaStreamEvent);
+        PrimitiveAttributeLayout layout = streamEventFactory.getPrimitiveAttributeLayout();
+        AssertJUnit.assertNotNull(layout);
+
+        StreamEvent streamEvent = streamEventFactory.newInstance();
+        streamEvent.setBeforeWindowData(new Object[]{100L});
+        streamEvent.setOutputData(new Object[]{"IBM", 55.5f, true});
+        int[] volumePosition = new int[]{0, 0, BEFORE_WINDOW_DATA_INDEX, 0};
+        int[] pricePosition = new int[]{0, 0, OUTPUT_DATA_INDEX, 1};
+        int[] activePosition = new int[]{0, 0, OUTPUT_DATA_INDEX, 2};
+        AssertJUnit.assertEquals(100L, streamEvent.getLongAttribute(volumePosition));
+        AssertJUnit.assertEquals(100.0, streamEvent.getDoubleAttribute(volumePosition));
+        AssertJUnit.assertEquals(55.5, streamEvent.getDoubleAttribute(pricePosition));
+        AssertJUnit.assertEquals(55L, streamEvent.getLongAttribute(pricePosition));
+        AssertJUnit.assertTrue(streamEvent.getBoolAttribute(activePosition));
+
+        streamEvent.setOutputData(20.25f, 1);
+        streamEvent.setAttribute(false, activePosition);
+        AssertJUnit.assertEquals(20.25, streamEvent.getDoubleAttribute(pricePosition));
+        AssertJUnit.assertFalse(streamEvent.getBoolAttribute(activePosition));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, streamEventFactory);
+        StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
+        AssertJUnit.assertSame(layout, clonedEvent.getPrimitiveAttributeLayout());
+        AssertJUnit.assertEquals(100L, clonedEvent.getLongAttribute(volumePosition));
+        AssertJUnit.assertEquals(20.25, clonedEvent.getDoubleAttribute(pricePosition));
+
+        // A value of another type detaches the event from the layout, e.g. when the selector reuses the data.
+        streamEvent.setBeforeWindowData(70.5, 0);
+        AssertJUnit.assertNull(streamEvent.getPrimitiveAttributeLayout());
+        AssertJUnit.assertEquals(70.5, streamEvent.getDoubleAttribute(volumePosition));
+        AssertJUnit.assertEquals(20.25, streamEvent.getDoubleAttribute(pricePosition));
+        AssertJUnit.assertEquals(100L, clonedEvent.getLongAttribute(volumePosition));
+    }
+
+    @Test
+    public void primitiveAttributeTest4() {
+        log.info("primitive attribute test4 - attributes kept only in primitive slots");
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+        metaStreamEvent.addOutputData(new Attribute("count", Attribute.Type.INT));
+
+        StreamEventFactory streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        streamEventFactory.enablePrimitiveAttributes(metaStreamEvent);
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, streamEventFactory);
+        int[] pricePosition = new int[]{0, 0, OUTPUT_DATA_INDEX, 1};
+        int[] volumePosition = new int[]{0, 0, OUTPUT_DATA_INDEX, 2};
+        int[] countPosition = new int[]{0, 0, OUTPUT_DATA_INDEX, 3};
+
+        StreamEvent streamEvent = streamEventFactory.newInstance();
+        streamEvent.copyOutputData(new Object[]{"IBM", 55.5f, 1000L, null});
+        StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
+        AssertJUnit.assertFalse(clonedEvent.isNullAttribute(pricePosition));
+        AssertJUnit.assertTrue(clonedEvent.isNullAttribute(countPosition));
+        AssertJUnit.assertEquals(55.5, clonedEvent.getDoubleAttribute(pricePosition));
+        AssertJUnit.assertEquals(1000L, clonedEvent.getLongAttribute(volumePosition));
+
+        PrimitiveAttributeFunction<StringBuilder, String> describe =
+                new PrimitiveAttributeFunction<StringBuilder, String>() {
+                    @Override
+                    public String applyLong(StringBuilder target, long value) {
+                        return target.append("long ").append(value).toString();
+                    }
+
+                    @Override
+                    public String applyDouble(StringBuilder target, double value) {
+                        return target.append("double ").append(value).toString();
+                    }
+
+                    @Override
+                    public String applyNull(StringBuilder target) {
+                        return target.append("null").toString();
+                    }
+                };
+        AssertJUnit.assertEquals("double 55.5",
+                clonedEvent.applyPrimitiveAttribute(pricePosition, new StringBuilder(), describe));
+        AssertJUnit.assertEquals("long 1000",
+                clonedEvent.applyPrimitiveAttribute(volumePosition, new StringBuilder(), describe));
+        AssertJUnit.assertEquals("null",
+                clonedEvent.applyPrimitiveAttribute(countPosition, new StringBuilder(), describe));
+
+        // Attributes are boxed to their own type when read through the Object[] data.
+        AssertJUnit.assertEquals(1000L, clonedEvent.getAttribute(volumePosition));
+        AssertJUnit.assertEquals(Arrays.asList("IBM", 55.5f, 1000L, null),
+                Arrays.asList(clonedEvent.getOutputData()));
+        AssertJUnit.assertEquals(streamEvent, clonedEvent);
+
+        // Once handed out, the Object[] data can be written to and is read from then on.
+        clonedEvent.getOutputData()[1] = 20.25f;
+        clonedEvent.getOutputData()[3] = 7;
+        AssertJUnit.assertEquals(20.25, clonedEvent.getDoubleAttribute(pricePosition));
+        AssertJUnit.assertEquals(7L, clonedEvent.getLongAttribute(countPosition));
+        AssertJUnit.assertEquals("long 7",
+                clonedEvent.applyPrimitiveAttribute(countPosition, new StringBuilder(), describe));
+    }
+
+    private List<List<String>> runQueries(String appAnnotations) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(appAnnotations + QUERIES);
+        List<List<String>> outputs = new ArrayList<>();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            List<String> output = new ArrayList<>();
+            outputs.add(output);
+            siddhiAppRuntime.addCallback("query" + i, new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            output.add("in " + Arrays.toString(event.getData()));
+                        }
+                    }
+                    if (removeEvents != null) {
+                        for (Event event : removeEvents) {
+                            output.add("remove " + Arrays.toString(event.getData()));
+                        }
+                    }
+                }
+            });
+        }
+
+        InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        InputHandler stockStreamHandler = siddhiAppRuntime.getInputHandler("stockStream");
+        siddhiAppRuntime.start();
+        cseEventStreamHandler.send(new Object[]{"IBM", 75f, 100L, 1, true});
+        cseEventStreamHandler.send(new Object[]{"WSO2", 45f, 200L, 2, false});
+        stockStreamHandler.send(new Object[]{"WSO2", 80.0, 10L});
+        cseEventStreamHandler.send(new Event[]{
+                new Event(100L, new Object[]{"ORACLE", 65f, 120L, 3, true}),
+                new Event(101L, new Object[]{"WSO2", 55f, null, 4, true}),
+                new Event(102L, new Object[]{"IBM", null, 20L, null, null})
+        });
+        stockStreamHandler.send(new Object[]{"IBM", 90.5, 15L});
+        cseEventStreamHandler.send(new Object[]{"IBM", 85f, 170L, 5, true});
+        stockStreamHandler.send(new Object[]{"ORACLE", 95.0, 25L});
+        cseEventStreamHandler.send(new Object[]{null, 60f, 70L, 6, false});
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+        return outputs;
+    }
+}
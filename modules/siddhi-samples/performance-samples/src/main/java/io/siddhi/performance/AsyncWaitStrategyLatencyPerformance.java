@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end to end latency of an @async stream for each of the supported wait strategies, with ring buffers of
+ * multiple and of single producers. Events are sent with a small gap between them, such that the latency is
+ * dominated by the time taken to wake up the worker.
+ */
+public class AsyncWaitStrategyLatencyPerformance {
+
+    private static final String[] WAIT_STRATEGIES = {"blocking", "sleeping", "yielding", "busy.spin",
+            "phased.backoff"};
+    private static final int WARMUP_EVENT_COUNT = 100000;
+    private static final int EVENT_COUNT = 1000000;
+    private static final long SEND_INTERVAL_NANOS = 10000;
+    private static final String[] PRODUCERS = {"multi", "single"};
+
+    public static void main(String[] args) throws InterruptedException {
+        for (String waitStrategy : WAIT_STRATEGIES) {
+            for (String producer : PRODUCERS) {
+                run(waitStrategy, producer);
+            }
+        }
+    }
+
+    private static void run(String waitStrategy, String producer) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='1024', wait.strategy='" + waitStrategy + "', producer='" + producer + "') " +
+                "define stream cseEventStream (symbol string, price float, volume long, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[700 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final long[] latencies = new long[EVENT_COUNT];
+        final CountDownLatch warmupLatch = new CountDownLatch(WARMUP_EVENT_COUNT);
+        final CountDownLatch latch = new CountDownLatch(EVENT_COUNT);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            private int eventCount = 0;
+
+            @Override
+            public void receive(Event[] events) {
+                long currentTime = System.nanoTime();
+                for (Event event : events) {
+                    if (warmupLatch.getCount() > 0) {
+                        warmupLatch.countDown();
+                    } else {
+                        latencies[eventCount++] = currentTime - (Long) event.getData(3);
+                        latch.countDown();
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        send(inputHandler, WARMUP_EVENT_COUNT);
+        warmupLatch.await(1, TimeUnit.MINUTES);
+        send(inputHandler, EVENT_COUNT);
+        latch.await(1, TimeUnit.MINUTES);
+        siddhiAppRuntime.shutdown();
+
+        Arrays.sort(latencies);
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        System.out.println("Wait strategy : " + waitStrategy + ", producer : " + producer);
+        System.out.println("Average latency (us) : " + (total / EVENT_COUNT) / 1000.0);
+        System.out.println("50th percentile (us) : " + latencies[EVENT_COUNT / 2] / 1000.0);
+        System.out.println("99th percentile (us) : " + latencies[(int) (EVENT_COUNT * 0.99)] / 1000.0);
+        System.out.println("99.9th percentile (us) : " + latencies[(int) (EVENT_COUNT * 0.999)] / 1000.0);
+    }
+
+    private static void send(InputHandler inputHandler, int eventCount) throws InterruptedException {
+        for (int i = 0; i < eventCount; i++) {
+            long sendTime = System.nanoTime();
+            inputHandler.send(new Object[]{"WSO2", 55.6f, 100L, sendTime});
+            while (System.nanoTime() - sendTime < SEND_INTERVAL_NANOS) {
+                // Wait till the next event is due, to let the worker reach its waiting state.
+            }
+        }
+    }
+}
@@ -27,12 +27,17 @@ import io.siddhi.core.stream.output.StreamCallback;
 public class PartitionPerformance {
     private static int count = 0;
 
+    /**
+     * @param args optionally the number of workers processing the partition in parallel via @parallel
+     */
     public static void main(String[] args) throws InterruptedException {
         SiddhiManager siddhiManager = new SiddhiManager();
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 0;
 
         String siddhiApp = "" +
                 "define stream cseEventStream (symbol string, price float, volume long);" +
                 "" +
+                (workers > 0 ? "@parallel(workers='" + workers + "') " : "") +
                 "partition with (symbol of cseEventStream) " +
                 "begin " +
                 "   @info(name = 'query1') " +
@@ -54,10 +59,16 @@ public class PartitionPerformance {
         InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
         siddhiAppRuntime.start();
 
+        long startTime = System.currentTimeMillis();
         while (true) {
             count++;
             inputHandler.send(new Object[]{"WSO2" + count, 55.6f, 100});
-            System.out.println("Partition created :" + count);
+            if (count % 100000 == 0) {
+                long currentTime = System.currentTimeMillis();
+                System.out.println("Partition created :" + count + ", throughput : " +
+                        (100000 * 1000L) / Math.max(1, currentTime - startTime));
+                startTime = currentTime;
+            }
         }
 
     }
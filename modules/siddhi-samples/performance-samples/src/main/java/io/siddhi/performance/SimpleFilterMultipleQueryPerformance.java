@@ -29,6 +29,7 @@ public class SimpleFilterMultipleQueryPerformance {
         SiddhiManager siddhiManager = new SiddhiManager();
 
         String siddhiApp = "" +
+                "@app:shareEventConversion " +
                 "define stream cseEventStream (symbol string, price float, volume int, timestamp long);" +
                 "" +
                 "@info(name = 'query1') " +